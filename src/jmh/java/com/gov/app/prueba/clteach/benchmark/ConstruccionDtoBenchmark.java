@@ -0,0 +1,46 @@
+package com.gov.app.prueba.clteach.benchmark;
+
+import com.gov.app.prueba.clteach.dto.LoteResultadosDTO;
+import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
+import com.gov.app.prueba.clteach.services.impl.ProcesarContenidoService;
+import java.util.Iterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mide la construcción de los {@link PacienteRequestDTO} y del {@link LoteResultadosDTO} a partir de segmentos en memoria.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConstruccionDtoBenchmark {
+
+    private final ProcesarContenidoService procesarContenidoService = new ProcesarContenidoService();
+
+    @Benchmark
+    public PacienteRequestDTO procesarContenido(EstadoCorpus estado) {
+        return procesarContenidoService.procesarContenido(estado.segmentos.iterator());
+    }
+
+    @Benchmark
+    public void procesarMensajes(EstadoCorpus estado, Blackhole blackhole) {
+        Iterator<PacienteRequestDTO> mensajes = procesarContenidoService.procesarMensajes(estado.segmentos.iterator());
+        while (mensajes.hasNext()) {
+            blackhole.consume(mensajes.next());
+        }
+    }
+
+    @Benchmark
+    public LoteResultadosDTO procesarLote(EstadoCorpus estado) {
+        return procesarContenidoService.procesarLote(estado.segmentos.iterator());
+    }
+}
@@ -0,0 +1,72 @@
+package com.gov.app.prueba.clteach.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corpus HL7 sintéticos utilizados por los benchmarks.
+ * <p>
+ * Los segmentos se separan con la secuencia literal {@code \n}, igual que los archivos que
+ * produce el analizador, de modo que el mismo corpus sirve para la lectura de un mensaje
+ * y para la lectura de lotes de varios mensajes.
+ * </p>
+ */
+public enum CorpusHl7 {
+    /**
+     * Un único mensaje con cinco resultados.
+     */
+    UN_MENSAJE(1, 5),
+    /**
+     * Un único mensaje con diez mil resultados.
+     */
+    OBX_10K(1, 10_000),
+    /**
+     * Un lote de mil mensajes con cinco resultados cada uno.
+     */
+    LOTE_MULTIMENSAJE(1_000, 5);
+
+    /** Separador literal de segmentos. */
+    private static final String SEPARADOR = "\\n";
+
+    private final int mensajes;
+    private final int resultadosPorMensaje;
+
+    CorpusHl7(int mensajes, int resultadosPorMensaje) {
+        this.mensajes = mensajes;
+        this.resultadosPorMensaje = resultadosPorMensaje;
+    }
+
+    /**
+     * Genera los segmentos del corpus, en orden.
+     *
+     * @return los segmentos del corpus.
+     */
+    public List<String> segmentos() {
+        List<String> segmentos = new ArrayList<>(mensajes * (resultadosPorMensaje + 3));
+        for (int m = 1; m <= mensajes; m++) {
+            segmentos.add("MSH|^~\\&|LAB|HOSPITAL|CLTEACH|CLTEACH|20240101120000||ORU^R01|" + m + "|P|2.5");
+            segmentos.add("PID|1||" + (100_000 + m) + "||PEREZ^JUAN " + m + "^P");
+            segmentos.add("OBR|1|ORD" + m + "||PERFIL^Perfil basico");
+            for (int i = 1; i <= resultadosPorMensaje; i++) {
+                segmentos.add("OBX|" + i + "|NM|EX" + (i % 50) + "^L||" + (90 + i % 10) + "." + (i % 7) + "|mg/dL|70-110|N|||F");
+            }
+        }
+        return segmentos;
+    }
+
+    /**
+     * Escribe el corpus en un archivo temporal.
+     *
+     * @return la ruta del archivo generado.
+     * @throws IOException si el archivo no puede escribirse.
+     */
+    public Path escribir() throws IOException {
+        Path archivo = Files.createTempFile("corpus-" + name().toLowerCase(), ".txt");
+        Files.write(archivo, String.join(SEPARADOR, segmentos()).concat(SEPARADOR).getBytes(StandardCharsets.UTF_8));
+        return archivo;
+    }
+}
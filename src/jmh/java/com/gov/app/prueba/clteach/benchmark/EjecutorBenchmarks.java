@@ -0,0 +1,32 @@
+package com.gov.app.prueba.clteach.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de {@code benchmarks.jar}.
+ * <p>
+ * Acepta los mismos argumentos que {@code org.openjdk.jmh.Main} y agrega siempre el perfilador
+ * de recolección de basura, de modo que cada resultado informa operaciones por segundo y
+ * bytes asignados por operación ({@code gc.alloc.rate.norm}).
+ * </p>
+ * Ejemplo: {@code java -jar target/benchmarks.jar Tokenizador -rf json -rff resultados.json}
+ */
+public final class EjecutorBenchmarks {
+
+    private EjecutorBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options opciones = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.gov.app.prueba.clteach.benchmark;
+
+import com.gov.app.prueba.clteach.dto.ApiClientDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionHttpDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionLimiteTasaDTO;
+import com.gov.app.prueba.clteach.dto.RespuestaGeneralDTO;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mide el envío HTTP POST del primer paciente del corpus a un servidor local en el mismo proceso,
+ * por la vía síncrona con el JSON ya construido, por la vía síncrona serializando en flujo sobre la
+ * conexión y por la asíncrona de {@link ApiClientDTO}.
+ * <p>
+ * El servidor se ejecuta con {@code sun.net.httpserver.nodelay}; sin esa opción la combinación de Nagle
+ * y el ACK retardado añade unos 40 ms por solicitud y la medición refleja al servidor, no al cliente.
+ * El cliente se crea sin límite de tasa para medir su rendimiento máximo.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class EnvioBenchmark {
+
+    /** Respuesta fija del servidor local. */
+    private static final byte[] RESPUESTA = "{\"status\":\"CREATED\",\"codigo\":201,\"message\":\"ok\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Servidor HTTP local que descarta el cuerpo recibido y responde siempre 201.
+     */
+    @State(Scope.Benchmark)
+    public static class Servidor {
+
+        public String url;
+        public String json;
+        public ApiClientDTO apiClient;
+        private HttpServer servidor;
+        private ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void iniciar(EstadoCorpus estado) throws IOException {
+            servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            servidor.createContext("/", intercambio -> {
+                intercambio.getRequestBody().readAllBytes();
+                intercambio.sendResponseHeaders(201, RESPUESTA.length);
+                try (OutputStream salida = intercambio.getResponseBody()) {
+                    salida.write(RESPUESTA);
+                }
+            });
+            executor = Executors.newFixedThreadPool(4);
+            servidor.setExecutor(executor);
+            servidor.start();
+
+            url = "http://localhost:" + servidor.getAddress().getPort() + "/pacientes";
+            json = new String(estado.json, StandardCharsets.UTF_8);
+            apiClient = new ApiClientDTO(ConfiguracionHttpDTO.builder()
+                    .limiteTasa(ConfiguracionLimiteTasaDTO.builder().solicitudesPorSegundo(0).bytesPorSegundo(0).build())
+                    .build());
+        }
+
+        @TearDown(Level.Trial)
+        public void detener() {
+            servidor.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public RespuestaGeneralDTO enviarSincrono(Servidor servidor) throws Exception {
+        return servidor.apiClient.sendPostRequest(servidor.url, servidor.json);
+    }
+
+    @Benchmark
+    public RespuestaGeneralDTO enviarEnFlujo(Servidor servidor, EstadoCorpus estado) throws Exception {
+        return servidor.apiClient.sendPostRequest(servidor.url, estado.pacientes.get(0));
+    }
+
+    @Benchmark
+    public RespuestaGeneralDTO enviarAsincrono(Servidor servidor, EstadoCorpus estado) throws Exception {
+        return servidor.apiClient.sendPostAsync(servidor.url, estado.json, RespuestaGeneralDTO.class).get();
+    }
+}
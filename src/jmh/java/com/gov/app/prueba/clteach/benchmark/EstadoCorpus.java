@@ -0,0 +1,64 @@
+package com.gov.app.prueba.clteach.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
+import com.gov.app.prueba.clteach.services.impl.ProcesarContenidoService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estado compartido por los benchmarks: el corpus en disco, sus segmentos en memoria,
+ * los pacientes ya construidos y sus cuerpos JSON.
+ * <p>
+ * El log se limita a advertencias para que la escritura en consola no domine las mediciones.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class EstadoCorpus {
+
+    @Param({"UN_MENSAJE", "OBX_10K", "LOTE_MULTIMENSAJE"})
+    public CorpusHl7 corpus;
+
+    /** Archivo con el corpus, en el formato que lee {@code LeerArchivoService}. */
+    public Path archivo;
+
+    /** Segmentos del corpus en memoria. */
+    public List<String> segmentos;
+
+    /** Pacientes construidos a partir del corpus, uno por mensaje. */
+    public List<PacienteRequestDTO> pacientes;
+
+    /** Cuerpo JSON del primer paciente del corpus. */
+    public byte[] json;
+
+    public final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        archivo = corpus.escribir();
+        segmentos = corpus.segmentos();
+        pacientes = new ArrayList<>();
+        Iterator<PacienteRequestDTO> mensajes = new ProcesarContenidoService().procesarMensajes(segmentos.iterator());
+        mensajes.forEachRemaining(pacientes::add);
+        json = objectMapper.writeValueAsBytes(pacientes.get(0));
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        Files.deleteIfExists(archivo);
+    }
+}
@@ -0,0 +1,32 @@
+package com.gov.app.prueba.clteach.benchmark;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CHARSET_HL7;
+import com.gov.app.prueba.clteach.services.impl.LectorSegmentosHl7;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mide la lectura de un archivo HL7 segmento a segmento, sin analizar los campos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LecturaArchivoBenchmark {
+
+    @Benchmark
+    public long leerSegmentos(EstadoCorpus estado) throws IOException {
+        long caracteres = 0;
+        try (LectorSegmentosHl7 lector = LectorSegmentosHl7.abrir(estado.archivo, CHARSET_HL7)) {
+            while (lector.hasNext()) {
+                caracteres += lector.next().length();
+            }
+        }
+        return caracteres;
+    }
+}
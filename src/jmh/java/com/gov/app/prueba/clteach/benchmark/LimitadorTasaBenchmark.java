@@ -0,0 +1,32 @@
+package com.gov.app.prueba.clteach.benchmark;
+
+import com.gov.app.prueba.clteach.utils.helper.CubetaTokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mide el costo de reservar en una {@link CubetaTokens} compartida por cuatro hilos, con una tasa tan alta
+ * que nunca hay espera: lo medido es la competencia por el compare-and-set, no el límite.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LimitadorTasaBenchmark {
+
+    private final CubetaTokens cubeta = new CubetaTokens(1e12, 1_000_000L);
+
+    @Benchmark
+    public long reservar() {
+        return cubeta.reservar(1L, Long.MAX_VALUE);
+    }
+}
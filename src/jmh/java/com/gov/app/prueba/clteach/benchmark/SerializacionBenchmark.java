@@ -0,0 +1,35 @@
+package com.gov.app.prueba.clteach.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mide la serialización con Jackson de los pacientes del corpus.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    @Benchmark
+    public void serializarBytes(EstadoCorpus estado, Blackhole blackhole) throws JsonProcessingException {
+        for (PacienteRequestDTO paciente : estado.pacientes) {
+            blackhole.consume(estado.objectMapper.writeValueAsBytes(paciente));
+        }
+    }
+
+    @Benchmark
+    public void serializarCadena(EstadoCorpus estado, Blackhole blackhole) throws JsonProcessingException {
+        for (PacienteRequestDTO paciente : estado.pacientes) {
+            blackhole.consume(estado.objectMapper.writeValueAsString(paciente));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.gov.app.prueba.clteach.benchmark;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.PATRON_CAMPOS;
+import com.gov.app.prueba.clteach.utils.helper.TokenizadorHl7;
+import com.gov.app.prueba.clteach.utils.helper.Utilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mide la separación en campos de los segmentos en memoria, con {@link TokenizadorHl7} y con la
+ * combinación anterior de {@link Utilities#limpiarLinea(String)} y {@code split}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizadorBenchmark {
+
+    @Benchmark
+    public void tokenizar(EstadoCorpus estado, Blackhole blackhole) {
+        TokenizadorHl7 tokenizador = new TokenizadorHl7();
+        for (String segmento : estado.segmentos) {
+            blackhole.consume(tokenizador.tokenizar(segmento));
+            blackhole.consume(tokenizador.campo(0));
+        }
+    }
+
+    @Benchmark
+    public void limpiarLineaSplit(EstadoCorpus estado, Blackhole blackhole) {
+        for (String segmento : estado.segmentos) {
+            blackhole.consume(Utilities.limpiarLinea(segmento).split(PATRON_CAMPOS));
+        }
+    }
+}
@@ -6,29 +6,63 @@
  * Utiliza {@link SwingUtilities} para garantizar que la interfaz gráfica se inicialice
  * en el hilo de eventos de Swing.
  * </p>
+ * <p>
+ * Con el argumento {@code --carpeta <directorio>} la aplicación se ejecuta sin interfaz gráfica
+ * y procesa los archivos que llegan a la carpeta indicada mediante {@link CarpetaEntradaService}.
+ * </p>
+ * <p>
+ * En ambos modos las métricas se publican en JMX mediante {@link MetricasHl7}; con la propiedad
+ * {@code -Dcltech.metricas.archivo=<archivo>} también se vuelcan periódicamente a ese archivo.
+ * </p>
+ * <p>
+ * Con la propiedad {@code -Dcltech.api.nodos=<url>,<url>,...} los envíos se reparten entre esos nodos
+ * de la API en lugar de dirigirse a la URL configurada.
+ * </p>
  */
 package com.gov.app.prueba.clteach;
 
+import com.gov.app.prueba.clteach.dto.ConfiguracionCarpetaDTO;
+import com.gov.app.prueba.clteach.services.impl.CarpetaEntradaService;
 import com.gov.app.prueba.clteach.services.impl.LeerArchivoService;
 import com.gov.app.prueba.clteach.utils.constants.Constants;
+import com.gov.app.prueba.clteach.utils.helper.MetricasHl7;
 import com.gov.app.prueba.clteach.vistas.SubidaArchivosWindow;
+import java.io.IOException;
+import java.nio.file.Path;
 import javax.swing.SwingUtilities;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 public class Escritorio {
 
     /**
      * Método principal que inicia la ejecución de la aplicación.
      * <p>
      * Este método inicializa el servicio {@link LeerArchivoService} y lanza
-     * la ventana gráfica para la subida de archivos.
+     * la ventana gráfica para la subida de archivos, o el modo carpeta si se indica.
      * </p>
      *
-     * @param args Argumentos de línea de comandos. Actualmente no se utilizan.
+     * @param args Argumentos de línea de comandos: {@code --carpeta <directorio>} inicia el modo carpeta.
+     * @throws IOException Si la carpeta de entrada no puede vigilarse.
+     * @throws InterruptedException Si el hilo principal es interrumpido en el modo carpeta.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        boolean modoCarpeta = args.length > 0 && Constants.ARGUMENTO_CARPETA.equals(args[0]);
+        if (modoCarpeta && args.length < 2) {
+            log.error(Constants.USO_MODO_CARPETA);
+            System.exit(2);
+        }
+        iniciarMetricas();
+
         // Crear la instancia del servicio para leer archivos HL7
         LeerArchivoService leerArchivosService = new LeerArchivoService();
 
+        if (modoCarpeta) {
+            iniciarModoCarpeta(leerArchivosService, Path.of(args[1]));
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(leerArchivosService::close));
+
         // Iniciar la interfaz gráfica en el hilo de eventos de Swing
         SwingUtilities.invokeLater(() -> {
             SubidaArchivosWindow subida = new SubidaArchivosWindow(leerArchivosService);
@@ -36,4 +70,40 @@ public class Escritorio {
             subida.setSize(Constants.WIDTH, Constants.HEIGHT);
         });
     }
+
+    /**
+     * Publica las métricas en JMX e inicia su volcado periódico si se configuró un archivo.
+     */
+    private static void iniciarMetricas() {
+        MetricasHl7 metricas = MetricasHl7.getInstance();
+        String archivo = System.getProperty(Constants.PROPIEDAD_ARCHIVO_METRICAS);
+        if (archivo == null || archivo.isBlank()) {
+            return;
+        }
+        Path destino = Path.of(archivo);
+        metricas.iniciarVolcado(destino,
+                Long.getLong(Constants.PROPIEDAD_INTERVALO_METRICAS, Constants.METRICAS_INTERVALO_MS));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> metricas.volcar(destino)));
+    }
+
+    /**
+     * Vigila la carpeta de entrada hasta que el proceso termine.
+     *
+     * @param leerArchivosService Servicio que procesa cada archivo.
+     * @param entrada             Carpeta de entrada.
+     * @throws IOException Si la carpeta no puede vigilarse.
+     * @throws InterruptedException Si el hilo principal es interrumpido.
+     */
+    private static void iniciarModoCarpeta(LeerArchivoService leerArchivosService, Path entrada)
+            throws IOException, InterruptedException {
+        CarpetaEntradaService carpeta = new CarpetaEntradaService(leerArchivosService,
+                ConfiguracionCarpetaDTO.builder().entrada(entrada).build());
+        // Los carriles se cierran después de la carpeta para no cancelar los archivos que aún se procesan
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            carpeta.close();
+            leerArchivosService.close();
+        }));
+        carpeta.iniciar();
+        carpeta.esperar();
+    }
 }
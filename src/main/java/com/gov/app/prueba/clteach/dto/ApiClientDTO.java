@@ -1,38 +1,139 @@
 package com.gov.app.prueba.clteach.dto;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import static com.gov.app.prueba.clteach.utils.constants.Constants.CONTENT_TYPE;
 import static com.gov.app.prueba.clteach.utils.constants.Constants.CONTENT_TYPE_TWO;
-import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_POST;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_DESCARTAR_RESPUESTA;
 import static com.gov.app.prueba.clteach.utils.constants.Constants.HTTP_POST;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.IDEMPOTENCY_KEY;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.REINTENTO_SOLICITUD;
 import static com.gov.app.prueba.clteach.utils.constants.Constants.REQUEST_NAME;
 import static com.gov.app.prueba.clteach.utils.constants.Constants.REQUEST_NAME_TWO;
-import static com.gov.app.prueba.clteach.utils.constants.Constants.TYPE_CONTENT;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.TAMANO_FRAGMENTO_HTTP;
+import com.gov.app.prueba.clteach.utils.exceptions.CircuitoAbiertoException;
+import com.gov.app.prueba.clteach.utils.exceptions.ErrorHttpException;
+import com.gov.app.prueba.clteach.utils.exceptions.TasaExcedidaException;
+import com.gov.app.prueba.clteach.utils.enums.EtapaEnum;
+import com.gov.app.prueba.clteach.utils.helper.BalanceadorNodos;
+import com.gov.app.prueba.clteach.utils.helper.InterruptorCircuito;
+import com.gov.app.prueba.clteach.utils.helper.LimiteConcurrenciaAdaptativo;
+import com.gov.app.prueba.clteach.utils.helper.LimitadorTasa;
+import com.gov.app.prueba.clteach.utils.helper.MetricasHl7;
+import com.gov.app.prueba.clteach.utils.helper.NodoApi;
+import com.gov.app.prueba.clteach.utils.helper.PoliticaReintentos;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
+import java.net.URI;
 import java.net.URL;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Singleton para realizar solicitudes HTTP (GET y POST) y mapear respuestas JSON a objetos Java.
  * <p>
- * Esta clase utiliza {@link HttpURLConnection} para realizar solicitudes HTTP y {@link ObjectMapper}
- * para convertir respuestas JSON en objetos de tipo {@link RespuestaGeneralDTO}.
+ * Las solicitudes síncronas usan {@link HttpURLConnection}; las asíncronas, un {@link HttpClient}
+ * compartido. En ambos casos las respuestas JSON se convierten con un {@link ObjectMapper} en objetos de
+ * tipo {@link RespuestaGeneralDTO} o del tipo indicado.
+ * </p>
+ * <p>
+ * Los pacientes se serializan con un {@link JsonGenerator} directamente sobre el flujo de la conexión,
+ * en modo fragmentado, y las respuestas se convierten leyendo el flujo de entrada, sin construir cadenas
+ * ni arreglos intermedios del tamaño del cuerpo. El {@link ObjectWriter} y el {@link ObjectReader} se
+ * construyen una sola vez y pueden compartirse con otros servicios.
+ * </p>
+ * <p>
+ * El modo asíncrono reutiliza las conexiones del {@link HttpClient} (keep-alive), puede negociar HTTP/2
+ * y mantiene muchas solicitudes en curso sin bloquear hilos: los reintentos, las esperas del límite de
+ * tasa y los turnos del límite de concurrencia se encadenan como futuros en lugar de dormir un hilo.
+ * </p>
+ * <p>
+ * Ambos modos reintentan los errores transitorios con espera exponencial y variación aleatoria, envían
+ * una clave de idempotencia para que los reintentos sean seguros y comparten un {@link InterruptorCircuito}
+ * que rechaza las solicitudes sin conectarse mientras la API no está disponible.
+ * </p>
+ * <p>
+ * Antes de cada intento, un {@link LimitadorTasa} compartido por ambos modos aplica el presupuesto de
+ * solicitudes y bytes por segundo acordado con la API: la solicitud espera su turno o se rechaza con
+ * {@link TasaExcedidaException}, según la configuración.
+ * </p>
+ * <p>
+ * El número de intentos simultáneos lo acota un {@link LimiteConcurrenciaAdaptativo}, que crece mientras la
+ * latencia se mantiene cerca de su base y se reduce ante tiempos de espera, respuestas 5xx o 429 y latencias
+ * infladas, de modo que un envío masivo se ajusta solo al rendimiento que la API puede sostener.
+ * </p>
+ * <p>
+ * Si se configuran varios nodos de la API, un {@link BalanceadorNodos} asigna cada intento a uno de ellos
+ * y cada nodo tiene su propio circuito en lugar del circuito general: un nodo que falla se expulsa, los
+ * reintentos pasan a otro nodo sin esperar si el error fue de conexión, y la API solo se rechaza como no
+ * disponible cuando todos los nodos están expulsados.
+ * </p>
+ * <p>
+ * Cada intento registra en {@link MetricasHl7} su latencia, el código HTTP obtenido y las solicitudes
+ * en curso; cada reintento también se contabiliza.
  * </p>
  */
-@Data
-@AllArgsConstructor
+@Slf4j
 public class ApiClientDTO {
 
     // Instancia única del Singleton
     private static volatile ApiClientDTO instance;
 
+    // Métricas compartidas del procesamiento
+    private static final MetricasHl7 METRICAS = MetricasHl7.getInstance();
+
     // ObjectMapper para convertir JSON a objetos Java
+    @Getter
     private final ObjectMapper objectMapper;
 
+    // Escritor JSON compartido para PacienteRequestDTO
+    @Getter
+    private final ObjectWriter escritorPaciente;
+
+    // Lector JSON compartido para RespuestaGeneralDTO
+    @Getter
+    private final ObjectReader lectorRespuesta;
+
+    // Configuración de tiempos de espera y protocolo
+    @Getter
+    private final ConfiguracionHttpDTO configuracion;
+
+    // Cliente HTTP compartido para el modo asíncrono
+    private final HttpClient httpClient;
+
+    // Política de reintentos con espera exponencial
+    private final PoliticaReintentos politicaReintentos;
+
+    // Circuito que rechaza solicitudes mientras la API no está disponible
+    private final InterruptorCircuito interruptor;
+
+    // Presupuesto de solicitudes y bytes por segundo hacia la API
+    private final LimitadorTasa limitador;
+
+    // Límite adaptativo de solicitudes simultáneas, o null si está deshabilitado
+    private final LimiteConcurrenciaAdaptativo limiteConcurrencia;
+
+    // Balanceador entre los nodos de la API, o null si se usa el endpoint indicado
+    private final BalanceadorNodos balanceador;
+
     /**
      * Constructor privado para evitar la creación directa de instancias.
      * <p>
@@ -40,7 +141,43 @@ public class ApiClientDTO {
      * </p>
      */
     private ApiClientDTO() {
+        this(ConfiguracionHttpDTO.builder().build());
+    }
+
+    /**
+     * Crea un cliente con una configuración HTTP específica.
+     * <p>
+     * Permite disponer de clientes independientes del Singleton, por ejemplo con otros tiempos de espera.
+     * </p>
+     *
+     * @param configuracion la configuración de tiempos de espera y protocolo.
+     */
+    public ApiClientDTO(ConfiguracionHttpDTO configuracion) {
         this.objectMapper = new ObjectMapper();
+        this.escritorPaciente = objectMapper.writerFor(PacienteRequestDTO.class);
+        this.lectorRespuesta = objectMapper.readerFor(RespuestaGeneralDTO.class);
+        this.configuracion = configuracion;
+        this.httpClient = HttpClient.newBuilder()
+                .version(configuracion.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(configuracion.getTimeoutConexionMs()))
+                .build();
+        this.politicaReintentos = new PoliticaReintentos(configuracion.getResiliencia());
+        this.interruptor = new InterruptorCircuito(configuracion.getResiliencia().getUmbralFallosCircuito(),
+                configuracion.getResiliencia().getAperturaCircuitoMs());
+        this.limitador = new LimitadorTasa(configuracion.getLimiteTasa());
+        this.limiteConcurrencia = configuracion.getConcurrencia().isHabilitada()
+                ? new LimiteConcurrenciaAdaptativo(configuracion.getConcurrencia())
+                : null;
+        this.balanceador = configuracion.getNodos().getUrls().isEmpty()
+                ? null
+                : new BalanceadorNodos(configuracion.getNodos());
+        if (balanceador != null) {
+            METRICAS.publicarBalanceador(balanceador);
+            if (configuracion.getNodos().getIntervaloSaludMs() > 0) {
+                balanceador.iniciarVerificaciones(httpClient, configuracion.getNodos().getIntervaloSaludMs(),
+                        configuracion.getTimeoutConexionMs());
+            }
+        }
     }
 
     /**
@@ -66,7 +203,8 @@ public class ApiClientDTO {
      * Realiza una solicitud HTTP POST al endpoint especificado con un cuerpo JSON y convierte la
      * respuesta en un objeto de tipo {@link RespuestaGeneralDTO}.
      * <p>
-     * La solicitud incluye los encabezados necesarios para indicar el formato de entrada y salida como JSON.
+     * La solicitud incluye los encabezados necesarios para indicar el formato de entrada y salida como JSON,
+     * y una clave de idempotencia nueva que se conserva en todos los reintentos.
      * </p>
      *
      * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
@@ -75,33 +213,585 @@ public class ApiClientDTO {
      * @throws Exception si ocurre un error de conexión o procesamiento de la respuesta.
      */
     public RespuestaGeneralDTO sendPostRequest(String endpoint, String jsonInput) throws Exception {
+        return sendPostRequest(endpoint, jsonInput, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Realiza una solicitud HTTP POST con reintentos, usando la clave de idempotencia indicada.
+     * <p>
+     * Los errores transitorios (5xx, 429 y de entrada/salida) se reintentan con espera exponencial y
+     * variación aleatoria. Si el circuito está abierto, la solicitud se rechaza sin conectarse.
+     * </p>
+     *
+     * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
+     * @param jsonInput el cuerpo de la solicitud en formato JSON.
+     * @param idempotencyKey la clave que permite a la API descartar reintentos duplicados.
+     * @return un objeto {@link RespuestaGeneralDTO} convertido de la respuesta JSON.
+     * @throws CircuitoAbiertoException si el circuito hacia la API está abierto.
+     * @throws TasaExcedidaException si la solicitud excede el límite de tasa hacia la API.
+     * @throws Exception si ocurre un error de conexión o procesamiento de la respuesta tras agotar los reintentos.
+     */
+    public RespuestaGeneralDTO sendPostRequest(String endpoint, String jsonInput, String idempotencyKey) throws Exception {
+        return sendPostRequest(endpoint, jsonInput.getBytes(StandardCharsets.UTF_8), idempotencyKey);
+    }
+
+    /**
+     * Realiza una solicitud HTTP POST con reintentos y un cuerpo JSON ya serializado.
+     * <p>
+     * El cuerpo se escribe con longitud fija directamente sobre la conexión, sin copiarlo a un buffer
+     * interno de {@link HttpURLConnection}.
+     * </p>
+     *
+     * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
+     * @param cuerpo el cuerpo de la solicitud en formato JSON codificado en UTF-8.
+     * @param idempotencyKey la clave que permite a la API descartar reintentos duplicados.
+     * @return un objeto {@link RespuestaGeneralDTO} convertido de la respuesta JSON.
+     * @throws CircuitoAbiertoException si el circuito hacia la API está abierto.
+     * @throws TasaExcedidaException si la solicitud excede el límite de tasa hacia la API.
+     * @throws Exception si ocurre un error de conexión o procesamiento de la respuesta tras agotar los reintentos.
+     */
+    public RespuestaGeneralDTO sendPostRequest(String endpoint, byte[] cuerpo, String idempotencyKey) throws Exception {
+        return enviarConReintentos(endpoint, idempotencyKey, cuerpo.length, salida -> salida.write(cuerpo));
+    }
+
+    /**
+     * Realiza una solicitud HTTP POST serializando el paciente directamente sobre la conexión.
+     *
+     * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
+     * @param request el paciente a enviar.
+     * @return un objeto {@link RespuestaGeneralDTO} convertido de la respuesta JSON.
+     * @throws Exception si ocurre un error de conexión o procesamiento de la respuesta.
+     */
+    public RespuestaGeneralDTO sendPostRequest(String endpoint, PacienteRequestDTO request) throws Exception {
+        return sendPostRequest(endpoint, request, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Realiza una solicitud HTTP POST con reintentos, serializando el paciente directamente sobre la conexión.
+     * <p>
+     * El JSON se escribe con un {@link JsonGenerator} sobre el flujo de salida en modo fragmentado, por lo que
+     * nunca existe una copia completa del cuerpo en memoria. Cada reintento vuelve a serializar el paciente.
+     * </p>
+     *
+     * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
+     * @param request el paciente a enviar.
+     * @param idempotencyKey la clave que permite a la API descartar reintentos duplicados.
+     * @return un objeto {@link RespuestaGeneralDTO} convertido de la respuesta JSON.
+     * @throws CircuitoAbiertoException si el circuito hacia la API está abierto.
+     * @throws TasaExcedidaException si la solicitud excede el límite de tasa hacia la API.
+     * @throws Exception si ocurre un error de conexión o procesamiento de la respuesta tras agotar los reintentos.
+     */
+    public RespuestaGeneralDTO sendPostRequest(String endpoint, PacienteRequestDTO request, String idempotencyKey)
+            throws Exception {
+        return enviarConReintentos(endpoint, idempotencyKey, -1L, salida -> escribirPaciente(salida, request));
+    }
+
+    /**
+     * Ejecuta los intentos de una solicitud HTTP POST hasta obtener respuesta o agotar los reintentos.
+     *
+     * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
+     * @param idempotencyKey la clave de idempotencia, idéntica en todos los intentos.
+     * @param longitud la longitud del cuerpo en bytes, o {@code -1} si se desconoce y se envía fragmentado.
+     * @param cuerpo el escritor del cuerpo, invocado una vez por intento.
+     * @return un objeto {@link RespuestaGeneralDTO} convertido de la respuesta JSON.
+     * @throws Exception si ocurre un error de conexión o procesamiento de la respuesta tras agotar los reintentos.
+     */
+    private RespuestaGeneralDTO enviarConReintentos(String endpoint, String idempotencyKey, long longitud,
+            EscritorCuerpo cuerpo) throws Exception {
+        NodoApi anterior = null;
+        for (int intento = 1; ; intento++) {
+            limitador.adquirir(longitud);
+            NodoApi nodo;
+            try {
+                nodo = tomarDestino(anterior);
+            } catch (CircuitoAbiertoException e) {
+                limitador.devolver(longitud);
+                throw e;
+            }
+            String destino = nodo != null ? nodo.resolver(endpoint) : endpoint;
+            try {
+                RespuestaGeneralDTO respuesta = enviarPostMedido(destino, idempotencyKey, longitud, cuerpo);
+                registrarResultado(nodo, false);
+                return respuesta;
+            } catch (Exception e) {
+                if (!PoliticaReintentos.esTransitorio(e)) {
+                    // La API respondió: el error no indica que esté caída
+                    registrarResultado(nodo, false);
+                    throw e;
+                }
+                registrarResultado(nodo, true);
+                if (!politicaReintentos.quedanReintentos(intento) || !hayDestino()) {
+                    throw e;
+                }
+                long espera = calcularEspera(intento, e, nodo);
+                METRICAS.registrarReintento();
+                log.warn(REINTENTO_SOLICITUD, intento, configuracion.getResiliencia().getMaxReintentos(),
+                        destino, espera, e.getMessage());
+                Thread.sleep(espera);
+                anterior = nodo;
+            }
+        }
+    }
+
+    /**
+     * Obtiene el destino de un intento: un nodo del balanceador o, sin nodos, el permiso del circuito general.
+     *
+     * @param anterior el nodo del intento anterior, o {@code null}.
+     * @return el nodo asignado, o {@code null} si se usa el endpoint indicado.
+     * @throws CircuitoAbiertoException si el circuito está abierto o todos los nodos están expulsados.
+     */
+    private NodoApi tomarDestino(NodoApi anterior) {
+        if (balanceador != null) {
+            return balanceador.seleccionar(anterior);
+        }
+        if (!interruptor.permitir()) {
+            throw new CircuitoAbiertoException();
+        }
+        return null;
+    }
+
+    /**
+     * Informa el resultado de un intento al circuito de su nodo o, sin nodos, al circuito general.
+     *
+     * @param nodo  el nodo del intento, o {@code null}.
+     * @param fallo {@code true} si el intento falló con un error transitorio.
+     */
+    private void registrarResultado(NodoApi nodo, boolean fallo) {
+        if (nodo != null) {
+            nodo.finalizar(fallo);
+        } else if (fallo) {
+            interruptor.registrarFallo();
+        } else {
+            interruptor.registrarExito();
+        }
+    }
+
+    /**
+     * Indica si tiene sentido reintentar: el circuito general no está abierto o queda algún nodo disponible.
+     *
+     * @return {@code true} si un reintento puede enviarse.
+     */
+    private boolean hayDestino() {
+        return balanceador != null ? balanceador.hayDisponible() : !interruptor.isAbierto();
+    }
+
+    /**
+     * Calcula la espera antes de un reintento.
+     * <p>
+     * Si el intento falló sin respuesta y otro nodo está disponible, el reintento pasa a ese nodo de
+     * inmediato; ante una respuesta 5xx o 429 se espera igualmente, porque todos los nodos podrían estar
+     * saturados.
+     * </p>
+     *
+     * @param intento el número del intento fallido.
+     * @param error   el error del intento.
+     * @param nodo    el nodo del intento, o {@code null}.
+     * @return la espera, en milisegundos.
+     */
+    private long calcularEspera(int intento, Throwable error, NodoApi nodo) {
+        if (nodo != null && error instanceof IOException && balanceador.hayAlternativa(nodo)) {
+            return 0L;
+        }
+        return politicaReintentos.calcularEspera(intento);
+    }
+
+    /**
+     * Realiza un único intento de solicitud HTTP POST registrando su latencia y las solicitudes en curso.
+     * <p>
+     * Espera antes un turno del límite adaptativo de concurrencia y le informa el resultado al terminar; el
+     * turno se devuelve siempre, incluso si el intento termina con un {@link Error}.
+     * </p>
+     *
+     * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
+     * @param idempotencyKey la clave de idempotencia de la solicitud.
+     * @param longitud la longitud del cuerpo en bytes, o {@code -1} para enviarlo fragmentado.
+     * @param cuerpo el escritor del cuerpo de la solicitud.
+     * @return un objeto {@link RespuestaGeneralDTO} convertido de la respuesta JSON.
+     * @throws IOException si ocurre un error de conexión o de lectura de la respuesta.
+     * @throws InterruptedException si el hilo es interrumpido mientras espera un turno.
+     */
+    private RespuestaGeneralDTO enviarPostMedido(String endpoint, String idempotencyKey, long longitud,
+            EscritorCuerpo cuerpo) throws IOException, InterruptedException {
+        if (limiteConcurrencia != null) {
+            limiteConcurrencia.adquirir();
+        }
+        long inicio = System.nanoTime();
+        boolean registrado = false;
+        METRICAS.iniciarSolicitud();
+        try {
+            RespuestaGeneralDTO respuesta = enviarPost(endpoint, idempotencyKey, longitud, cuerpo);
+            registrado = true;
+            liberarConcurrencia(inicio, null);
+            return respuesta;
+        } catch (IOException | RuntimeException e) {
+            registrado = true;
+            liberarConcurrencia(inicio, e);
+            throw e;
+        } finally {
+            if (!registrado && limiteConcurrencia != null) {
+                // Un error no previsto no informa nada al límite, pero su turno debe devolverse
+                limiteConcurrencia.liberar();
+            }
+            METRICAS.finalizarSolicitud();
+            METRICAS.registrarLatencia(EtapaEnum.ENVIO, System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Realiza un único intento de solicitud HTTP POST mediante {@link HttpURLConnection}.
+     * <p>
+     * El cuerpo se escribe en modo de longitud fija si se conoce y fragmentado en caso contrario; en ambos
+     * casos la conexión no acumula el cuerpo en memoria. La respuesta se convierte leyendo directamente
+     * el flujo de entrada.
+     * </p>
+     *
+     * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
+     * @param idempotencyKey la clave de idempotencia de la solicitud.
+     * @param longitud la longitud del cuerpo en bytes, o {@code -1} para enviarlo fragmentado.
+     * @param cuerpo el escritor del cuerpo de la solicitud.
+     * @return un objeto {@link RespuestaGeneralDTO} convertido de la respuesta JSON.
+     * @throws ErrorHttpException si el código HTTP no es 200 ni 201.
+     * @throws IOException si ocurre un error de conexión o de lectura de la respuesta.
+     */
+    private RespuestaGeneralDTO enviarPost(String endpoint, String idempotencyKey, long longitud,
+            EscritorCuerpo cuerpo) throws IOException {
         URL url = new URL(endpoint);
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
         connection.setRequestMethod(HTTP_POST);
         connection.setRequestProperty(REQUEST_NAME, CONTENT_TYPE);
         connection.setRequestProperty(REQUEST_NAME_TWO, CONTENT_TYPE_TWO);
+        connection.setRequestProperty(IDEMPOTENCY_KEY, idempotencyKey);
+        connection.setConnectTimeout((int) configuracion.getTimeoutConexionMs());
+        connection.setReadTimeout((int) configuracion.getTimeoutRespuestaMs());
         connection.setDoOutput(true);
-
-        // Enviar el JSON en el cuerpo de la solicitud
-        try (OutputStream os = connection.getOutputStream()) {
-            byte[] input = jsonInput.getBytes(TYPE_CONTENT);
-            os.write(input, 0, input.length);
+        if (longitud >= 0) {
+            connection.setFixedLengthStreamingMode(longitud);
+        } else {
+            connection.setChunkedStreamingMode(TAMANO_FRAGMENTO_HTTP);
         }
 
-        int responseCode = connection.getResponseCode();
+        int responseCode;
+        try {
+            // Enviar el JSON en el cuerpo de la solicitud
+            if (longitud < 0 && limitador.limitaBytes()) {
+                // La longitud solo se conoce al terminar de escribir: se descuenta después del envío
+                try (SalidaContada os = new SalidaContada(connection.getOutputStream())) {
+                    cuerpo.escribir(os);
+                    limitador.consumirBytes(os.bytes);
+                }
+            } else {
+                try (OutputStream os = connection.getOutputStream()) {
+                    cuerpo.escribir(os);
+                }
+            }
+            responseCode = connection.getResponseCode();
+        } catch (IOException e) {
+            // La conexión, la escritura del cuerpo o la espera de la respuesta fallaron
+            if (!(e instanceof JsonProcessingException)) {
+                METRICAS.registrarErrorConexion();
+            }
+            throw e;
+        }
+        METRICAS.registrarCodigoHttp(responseCode);
         if (responseCode == HttpURLConnection.HTTP_OK || responseCode == HttpURLConnection.HTTP_CREATED) {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
+            // Convertir JSON a RespuestaGeneralDTO usando Jackson, directamente desde el flujo
+            try (InputStream is = connection.getInputStream()) {
+                return lectorRespuesta.readValue(is);
+            }
+        } else {
+            descartarError(connection);
+            throw new ErrorHttpException(responseCode);
+        }
+    }
+
+    /**
+     * Lee y cierra el cuerpo de una respuesta de error para que la conexión pueda reutilizarse.
+     * <p>
+     * Un fallo al leerlo no se propaga: el error relevante es el código HTTP ya obtenido.
+     * </p>
+     *
+     * @param connection la conexión que respondió con un código de error.
+     */
+    private static void descartarError(HttpURLConnection connection) {
+        try (InputStream is = connection.getErrorStream()) {
+            if (is != null) {
+                is.transferTo(OutputStream.nullOutputStream());
             }
-            reader.close();
+        } catch (IOException e) {
+            log.debug(ERROR_DESCARTAR_RESPUESTA, e.getMessage());
+        }
+    }
 
-            // Convertir JSON a RespuestaGeneralDTO usando Jackson
-            return objectMapper.readValue(response.toString(), RespuestaGeneralDTO.class);
+    /**
+     * Serializa un paciente con un {@link JsonGenerator} sobre el flujo indicado.
+     * <p>
+     * El tiempo registrado como serialización incluye la escritura en la conexión, ya que ambas ocurren
+     * a la vez.
+     * </p>
+     *
+     * @param salida el flujo de salida de la conexión.
+     * @param request el paciente a serializar.
+     * @throws IOException si ocurre un error al escribir en la conexión.
+     */
+    private void escribirPaciente(OutputStream salida, PacienteRequestDTO request) throws IOException {
+        long inicio = System.nanoTime();
+        try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida, JsonEncoding.UTF8)) {
+            escritorPaciente.writeValue(generador, request);
+        }
+        METRICAS.registrarLatencia(EtapaEnum.SERIALIZACION, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Realiza una solicitud HTTP POST asíncrona sobre el {@link HttpClient} compartido.
+     * <p>
+     * La conexión se reutiliza entre solicitudes y el hilo invocante no se bloquea. Si la API responde
+     * con un código distinto de 200 o 201, o no responde dentro del tiempo configurado, el futuro se
+     * completa excepcionalmente.
+     * </p>
+     *
+     * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
+     * @param jsonInput el cuerpo de la solicitud en formato JSON.
+     * @return un futuro que se completa con el {@link RespuestaGeneralDTO} de la respuesta.
+     */
+    public CompletableFuture<RespuestaGeneralDTO> sendPostAsync(String endpoint, String jsonInput) {
+        return sendPostAsync(endpoint, jsonInput.getBytes(StandardCharsets.UTF_8), RespuestaGeneralDTO.class);
+    }
+
+    /**
+     * Realiza una solicitud HTTP POST asíncrona con un cuerpo JSON ya serializado y convierte la respuesta
+     * al tipo indicado.
+     * <p>
+     * Permite enviar cuerpos construidos directamente en bytes, como los arreglos JSON de un envío por lotes,
+     * y leer respuestas que no tienen la forma de {@link RespuestaGeneralDTO}.
+     * </p>
+     *
+     * @param <T> el tipo de la respuesta.
+     * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
+     * @param cuerpo el cuerpo de la solicitud en formato JSON codificado en UTF-8.
+     * @param tipoRespuesta la clase a la que se convierte la respuesta JSON.
+     * @return un futuro que se completa con la respuesta convertida.
+     */
+    public <T> CompletableFuture<T> sendPostAsync(String endpoint, byte[] cuerpo, Class<T> tipoRespuesta) {
+        return sendPostAsync(endpoint, cuerpo, tipoRespuesta, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Realiza una solicitud HTTP POST asíncrona con reintentos, usando la clave de idempotencia indicada.
+     * <p>
+     * Las esperas entre reintentos no bloquean ningún hilo. Si el circuito está abierto, el futuro se
+     * completa de inmediato con {@link CircuitoAbiertoException}.
+     * </p>
+     *
+     * @param <T> el tipo de la respuesta.
+     * @param endpoint la URL del endpoint al que se realizará la solicitud POST.
+     * @param cuerpo el cuerpo de la solicitud en formato JSON codificado en UTF-8.
+     * @param tipoRespuesta la clase a la que se convierte la respuesta JSON.
+     * @param idempotencyKey la clave que permite a la API descartar reintentos duplicados.
+     * @return un futuro que se completa con la respuesta convertida.
+     */
+    public <T> CompletableFuture<T> sendPostAsync(String endpoint, byte[] cuerpo, Class<T> tipoRespuesta,
+            String idempotencyKey) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint))
+                .timeout(Duration.ofMillis(configuracion.getTimeoutRespuestaMs()))
+                .header(REQUEST_NAME, CONTENT_TYPE)
+                .header(REQUEST_NAME_TWO, CONTENT_TYPE_TWO)
+                .header(IDEMPOTENCY_KEY, idempotencyKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(cuerpo))
+                .build();
+
+        return intentarAsync(request, tipoRespuesta, 1, null);
+    }
+
+    /**
+     * Ejecuta un intento asíncrono cuando el límite de tasa lo permite, sin bloquear el hilo invocante.
+     *
+     * @param <T> el tipo de la respuesta.
+     * @param request la solicitud a enviar, idéntica en todos los intentos.
+     * @param tipoRespuesta la clase a la que se convierte la respuesta JSON.
+     * @param intento el número del intento, comenzando en 1.
+     * @param anterior el nodo del intento anterior, o {@code null}.
+     * @return un futuro que se completa con la respuesta convertida.
+     */
+    private <T> CompletableFuture<T> intentarAsync(HttpRequest request, Class<T> tipoRespuesta, int intento,
+            NodoApi anterior) {
+        long longitud = request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(-1L);
+        long espera;
+        try {
+            espera = limitador.reservar(longitud);
+        } catch (TasaExcedidaException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (espera <= 0) {
+            return enviarIntentoAsync(request, tipoRespuesta, intento, longitud, anterior);
+        }
+        Executor diferido = CompletableFuture.delayedExecutor(espera, TimeUnit.NANOSECONDS);
+        return CompletableFuture.runAsync(() -> { }, diferido)
+                .thenCompose(ignorado -> enviarIntentoAsync(request, tipoRespuesta, intento, longitud, anterior));
+    }
+
+    /**
+     * Ejecuta un intento asíncrono y programa el siguiente si el error es transitorio.
+     *
+     * @param <T> el tipo de la respuesta.
+     * @param request la solicitud a enviar, idéntica en todos los intentos.
+     * @param tipoRespuesta la clase a la que se convierte la respuesta JSON.
+     * @param intento el número del intento, comenzando en 1.
+     * @param longitud la longitud del cuerpo reservada en el límite de tasa.
+     * @param anterior el nodo del intento anterior, o {@code null}.
+     * @return un futuro que se completa con la respuesta convertida.
+     */
+    private <T> CompletableFuture<T> enviarIntentoAsync(HttpRequest request, Class<T> tipoRespuesta, int intento,
+            long longitud, NodoApi anterior) {
+        NodoApi nodo;
+        try {
+            nodo = tomarDestino(anterior);
+        } catch (CircuitoAbiertoException e) {
+            limitador.devolver(longitud);
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest dirigida = nodo != null
+                ? HttpRequest.newBuilder(request, (nombre, valor) -> true)
+                        .uri(URI.create(nodo.resolver(request.uri().toString())))
+                        .build()
+                : request;
+        CompletableFuture<Void> turno = limiteConcurrencia != null
+                ? limiteConcurrencia.adquirirAsync()
+                : CompletableFuture.completedFuture(null);
+        return turno.thenCompose(ignorado -> enviarMedidoAsync(dirigida, tipoRespuesta))
+                .handle((respuesta, error) -> {
+                    if (error == null) {
+                        registrarResultado(nodo, false);
+                        return CompletableFuture.completedFuture(respuesta);
+                    }
+                    Throwable causa = PoliticaReintentos.desenvolver(error);
+                    if (!PoliticaReintentos.esTransitorio(causa)) {
+                        registrarResultado(nodo, false);
+                        return CompletableFuture.<T>failedFuture(causa);
+                    }
+                    registrarResultado(nodo, true);
+                    if (!politicaReintentos.quedanReintentos(intento) || !hayDestino()) {
+                        return CompletableFuture.<T>failedFuture(causa);
+                    }
+                    long espera = calcularEspera(intento, causa, nodo);
+                    METRICAS.registrarReintento();
+                    log.warn(REINTENTO_SOLICITUD, intento, configuracion.getResiliencia().getMaxReintentos(),
+                            dirigida.uri(), espera, causa.getMessage());
+                    Executor diferido = CompletableFuture.delayedExecutor(espera, TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> { }, diferido)
+                            .thenCompose(ignorado -> intentarAsync(request, tipoRespuesta, intento + 1, nodo));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Envía una solicitud asíncrona registrando su latencia y las solicitudes en curso.
+     * <p>
+     * Debe invocarse con un turno del límite de concurrencia asignado; el turno se libera al completarse.
+     * </p>
+     *
+     * @param <T> el tipo de la respuesta.
+     * @param request la solicitud a enviar.
+     * @param tipoRespuesta la clase a la que se convierte la respuesta JSON.
+     * @return un futuro que se completa con la respuesta convertida.
+     */
+    private <T> CompletableFuture<T> enviarMedidoAsync(HttpRequest request, Class<T> tipoRespuesta) {
+        long inicio = System.nanoTime();
+        METRICAS.iniciarSolicitud();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    METRICAS.finalizarSolicitud();
+                    METRICAS.registrarLatencia(EtapaEnum.ENVIO, System.nanoTime() - inicio);
+                    if (response != null) {
+                        METRICAS.registrarCodigoHttp(response.statusCode());
+                    } else {
+                        METRICAS.registrarErrorConexion();
+                    }
+                })
+                .thenApply(response -> convertirRespuesta(response, tipoRespuesta))
+                .whenComplete((respuesta, error) -> liberarConcurrencia(inicio,
+                        error == null ? null : PoliticaReintentos.desenvolver(error)));
+    }
+
+    /**
+     * Libera el turno de concurrencia de un intento según su resultado.
+     * <p>
+     * Una respuesta exitosa ajusta el límite según su latencia; un error transitorio lo reduce; cualquier
+     * otro error, como una respuesta 4xx, lo deja igual.
+     * </p>
+     *
+     * @param inicio el instante de inicio del intento, según {@link System#nanoTime()}.
+     * @param error el error del intento, o {@code null} si obtuvo respuesta.
+     */
+    private void liberarConcurrencia(long inicio, Throwable error) {
+        if (limiteConcurrencia == null) {
+            return;
+        }
+        if (error == null) {
+            limiteConcurrencia.liberarExito(inicio);
+        } else if (PoliticaReintentos.esTransitorio(error)) {
+            limiteConcurrencia.liberarFallo(inicio);
         } else {
-            throw new RuntimeException(ERROR_POST + responseCode);
+            limiteConcurrencia.liberar();
+        }
+    }
+
+    /**
+     * Convierte la respuesta del cliente asíncrono al tipo indicado.
+     *
+     * @param <T> el tipo de la respuesta.
+     * @param response la respuesta HTTP recibida.
+     * @param tipoRespuesta la clase a la que se convierte la respuesta JSON.
+     * @return la respuesta convertida.
+     * @throws ErrorHttpException si el código HTTP no es 200 ni 201.
+     */
+    private <T> T convertirRespuesta(HttpResponse<byte[]> response, Class<T> tipoRespuesta) {
+        int responseCode = response.statusCode();
+        if (responseCode != HttpURLConnection.HTTP_OK && responseCode != HttpURLConnection.HTTP_CREATED) {
+            throw new ErrorHttpException(responseCode);
+        }
+        try {
+            return objectMapper.readValue(response.body(), tipoRespuesta);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flujo de salida que cuenta los bytes escritos, para descontarlos del límite de tasa.
+     */
+    private static final class SalidaContada extends FilterOutputStream {
+
+        private long bytes;
+
+        private SalidaContada(OutputStream salida) {
+            super(salida);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes++;
         }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes += len;
+        }
+    }
+
+    /**
+     * Escritor del cuerpo de una solicitud, invocado una vez por cada intento.
+     */
+    @FunctionalInterface
+    private interface EscritorCuerpo {
+
+        /**
+         * Escribe el cuerpo de la solicitud.
+         *
+         * @param salida el flujo de salida de la conexión.
+         * @throws IOException si ocurre un error al escribir en la conexión.
+         */
+        void escribir(OutputStream salida) throws IOException;
     }
 }
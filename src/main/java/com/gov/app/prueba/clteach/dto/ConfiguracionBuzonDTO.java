@@ -0,0 +1,88 @@
+package com.gov.app.prueba.clteach.dto;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_EDAD_MINIMA_REENVIO_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_INTERVALO_DRENADO_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_SEGMENTOS_COMPACTACION;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_TAMANO_SEGMENTO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.DIRECTORIO_BUZON;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.URL_GUARDAR_PACIENTE;
+import java.nio.file.Path;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula la configuración del buzón de salida local.
+ * <p>
+ * El buzón guarda en disco cada paciente antes de enviarlo y lo reenvía en segundo plano
+ * mientras la API no confirme su recepción.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfiguracionBuzonDTO {
+
+    /**
+     * Directorio donde se guardan los segmentos del diario.
+     * <p>
+     * Solo un proceso puede utilizar el directorio a la vez.
+     * </p>
+     * Ejemplo: "~/.cltech-escritorio/buzon".
+     */
+    @Builder.Default
+    private Path directorio = DIRECTORIO_BUZON;
+
+    /**
+     * URL a la que se reenvían los pacientes pendientes.
+     * <p>
+     * Debe coincidir con el endpoint utilizado en el envío original.
+     * </p>
+     * Ejemplo: "http://localhost:8001/api/v1/pacientes/guardar".
+     */
+    @Builder.Default
+    private String url = URL_GUARDAR_PACIENTE;
+
+    /**
+     * Tamaño a partir del cual se abre un nuevo segmento del diario, en bytes.
+     * <p>
+     * Los segmentos cerrados se eliminan cuando todos sus registros han sido confirmados.
+     * </p>
+     * Ejemplo: 67108864.
+     */
+    @Builder.Default
+    private long tamanoSegmento = BUZON_TAMANO_SEGMENTO;
+
+    /**
+     * Intervalo entre ejecuciones del reenvío en segundo plano, en milisegundos.
+     * <p>
+     * Tras una caída de la API, los pendientes se reenvían en la siguiente ejecución.
+     * </p>
+     * Ejemplo: 5000.
+     */
+    @Builder.Default
+    private long intervaloDrenadoMs = BUZON_INTERVALO_DRENADO_MS;
+
+    /**
+     * Antigüedad mínima de un registro pendiente para que el reenvío en segundo plano lo procese, en milisegundos.
+     * <p>
+     * Un registro cuyo envío original sigue en curso nunca se reenvía; una vez liberado, espera además esta
+     * antigüedad desde su registro. Los registros recuperados al iniciar se reenvían de inmediato.
+     * </p>
+     * Ejemplo: 60000.
+     */
+    @Builder.Default
+    private long edadMinimaReenvioMs = BUZON_EDAD_MINIMA_REENVIO_MS;
+
+    /**
+     * Número de segmentos cerrados a partir del cual sus registros pendientes se compactan en el segmento activo.
+     * <p>
+     * Acota el espacio en disco ocupado por segmentos con pocos registros sin confirmar.
+     * </p>
+     * Ejemplo: 4.
+     */
+    @Builder.Default
+    private int segmentosCompactacion = BUZON_SEGMENTOS_COMPACTACION;
+}
@@ -0,0 +1,88 @@
+package com.gov.app.prueba.clteach.dto;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARPETA_CAPACIDAD_COLA;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARPETA_ESTABILIDAD_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARPETA_HILOS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.PATRON_ARCHIVOS_HL7;
+import java.nio.file.Path;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula la configuración del modo carpeta, que procesa sin intervención los archivos HL7
+ * depositados en una carpeta de entrada.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfiguracionCarpetaDTO {
+
+    /**
+     * Carpeta vigilada donde los analizadores depositan los archivos HL7.
+     * Ejemplo: "/datos/hl7/entrada".
+     */
+    private Path entrada;
+
+    /**
+     * Carpeta a la que se mueven los archivos procesados correctamente.
+     * <p>
+     * Si es {@code null} se utiliza la subcarpeta "procesados" de la carpeta de entrada.
+     * </p>
+     */
+    private Path procesados;
+
+    /**
+     * Carpeta a la que se mueven los archivos con errores.
+     * <p>
+     * Si es {@code null} se utiliza la subcarpeta "errores" de la carpeta de entrada.
+     * </p>
+     */
+    private Path errores;
+
+    /**
+     * Patrón de los archivos a procesar, con la sintaxis de {@link java.nio.file.FileSystem#getPathMatcher(String)}.
+     * <p>
+     * Un archivo escrito con otro nombre (por ejemplo "resultado.txt.part") y renombrado al terminar
+     * solo se procesa tras el renombrado.
+     * </p>
+     * Ejemplo: "glob:*.txt".
+     */
+    @Builder.Default
+    private String patron = PATRON_ARCHIVOS_HL7;
+
+    /**
+     * Tiempo durante el cual el tamaño y la fecha de modificación de un archivo no deben cambiar
+     * para considerarlo completamente escrito, en milisegundos.
+     * Ejemplo: 1000.
+     */
+    @Builder.Default
+    private long estabilidadMs = CARPETA_ESTABILIDAD_MS;
+
+    /**
+     * Número de archivos que se procesan de forma simultánea.
+     * Ejemplo: 4.
+     */
+    @Builder.Default
+    private int hilos = CARPETA_HILOS;
+
+    /**
+     * Número máximo de archivos listos a la espera de un hilo libre.
+     * <p>
+     * Cuando la cola está llena los archivos permanecen en la carpeta de entrada hasta que haya espacio.
+     * </p>
+     * Ejemplo: 1024.
+     */
+    @Builder.Default
+    private int capacidadCola = CARPETA_CAPACIDAD_COLA;
+
+    /**
+     * Indica si cada archivo se procesa como un lote de varios mensajes.
+     * <p>
+     * Si es {@code true} se utiliza {@code leerLoteHl7}; en caso contrario {@code leerArchivoHl7}.
+     * </p>
+     */
+    private boolean lote;
+}
@@ -0,0 +1,82 @@
+package com.gov.app.prueba.clteach.dto;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CONCURRENCIA_FACTOR_REDUCCION;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CONCURRENCIA_LIMITE_INICIAL;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CONCURRENCIA_LIMITE_MAXIMO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CONCURRENCIA_LIMITE_MINIMO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CONCURRENCIA_TOLERANCIA_LATENCIA;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CONCURRENCIA_VENTANA_MUESTRAS;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula la configuración del límite adaptativo de solicitudes HTTP simultáneas hacia la API.
+ * <p>
+ * El límite crece en uno por cada ventana de respuestas mientras la latencia reciente se mantiene cerca de
+ * la latencia base, y se reduce de forma multiplicativa ante tiempos de espera agotados, respuestas 5xx o
+ * 429, o una latencia reciente mayor que la base multiplicada por la tolerancia.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfiguracionConcurrenciaDTO {
+
+    /**
+     * Indica si se limita el número de solicitudes simultáneas.
+     * <p>
+     * Si es {@code false}, el número de solicitudes en curso solo depende de los hilos que las envían.
+     * </p>
+     */
+    @Builder.Default
+    private boolean habilitada = true;
+
+    /**
+     * Límite de solicitudes simultáneas al crear el cliente.
+     * Ejemplo: 8.
+     */
+    @Builder.Default
+    private int limiteInicial = CONCURRENCIA_LIMITE_INICIAL;
+
+    /**
+     * Límite mínimo; el límite nunca se reduce por debajo de este valor.
+     * Ejemplo: 1.
+     */
+    @Builder.Default
+    private int limiteMinimo = CONCURRENCIA_LIMITE_MINIMO;
+
+    /**
+     * Límite máximo; el límite nunca crece por encima de este valor.
+     * Ejemplo: 64.
+     */
+    @Builder.Default
+    private int limiteMaximo = CONCURRENCIA_LIMITE_MAXIMO;
+
+    /**
+     * Múltiplo de la latencia base a partir del cual la latencia reciente indica saturación.
+     * Ejemplo: 2.0.
+     */
+    @Builder.Default
+    private double toleranciaLatencia = CONCURRENCIA_TOLERANCIA_LATENCIA;
+
+    /**
+     * Factor por el que se multiplica el límite ante una señal de saturación, entre 0 y 1.
+     * Ejemplo: 0.8.
+     */
+    @Builder.Default
+    private double factorReduccion = CONCURRENCIA_FACTOR_REDUCCION;
+
+    /**
+     * Número de respuestas que abarca la media móvil de la latencia base.
+     * <p>
+     * Una ventana mayor hace la base más estable; una menor la ajusta antes si la API se vuelve más lenta
+     * de forma permanente.
+     * </p>
+     * Ejemplo: 500.
+     */
+    @Builder.Default
+    private int ventanaMuestras = CONCURRENCIA_VENTANA_MUESTRAS;
+}
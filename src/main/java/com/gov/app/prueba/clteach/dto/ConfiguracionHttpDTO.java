@@ -0,0 +1,87 @@
+package com.gov.app.prueba.clteach.dto;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.TIMEOUT_CONEXION_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.TIMEOUT_RESPUESTA_MS;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula la configuración del cliente HTTP utilizado para comunicarse con la API.
+ * <p>
+ * Define los tiempos máximos de espera y la versión del protocolo, de modo que un backend que no
+ * responde no bloquee indefinidamente los hilos de la aplicación.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfiguracionHttpDTO {
+
+    /**
+     * Tiempo máximo para establecer la conexión, en milisegundos.
+     * <p>
+     * Se aplica tanto al cliente síncrono como al asíncrono.
+     * </p>
+     * Ejemplo: 5000.
+     */
+    @Builder.Default
+    private long timeoutConexionMs = TIMEOUT_CONEXION_MS;
+
+    /**
+     * Tiempo máximo de espera de la respuesta, en milisegundos.
+     * <p>
+     * Si la API no responde en este tiempo, la solicitud falla con un error de tiempo de espera.
+     * </p>
+     * Ejemplo: 30000.
+     */
+    @Builder.Default
+    private long timeoutRespuestaMs = TIMEOUT_RESPUESTA_MS;
+
+    /**
+     * Indica si el cliente asíncrono debe intentar negociar HTTP/2.
+     * <p>
+     * Si el servidor no lo soporta, la conexión continúa en HTTP/1.1.
+     * </p>
+     */
+    private boolean http2;
+
+    /**
+     * Configuración de reintentos y del circuito de protección.
+     * <p>
+     * Se aplica tanto al cliente síncrono como al asíncrono.
+     * </p>
+     */
+    @Builder.Default
+    private ConfiguracionResilienciaDTO resiliencia = ConfiguracionResilienciaDTO.builder().build();
+
+    /**
+     * Presupuesto de solicitudes y bytes por segundo hacia la API.
+     * <p>
+     * Se aplica a cada intento, tanto en el cliente síncrono como en el asíncrono.
+     * </p>
+     */
+    @Builder.Default
+    private ConfiguracionLimiteTasaDTO limiteTasa = ConfiguracionLimiteTasaDTO.builder().build();
+
+    /**
+     * Configuración del límite adaptativo de solicitudes simultáneas hacia la API.
+     * <p>
+     * Se aplica a cada intento, tanto en el cliente síncrono como en el asíncrono.
+     * </p>
+     */
+    @Builder.Default
+    private ConfiguracionConcurrenciaDTO concurrencia = ConfiguracionConcurrenciaDTO.builder().build();
+
+    /**
+     * Nodos de la API entre los que se reparten las solicitudes.
+     * <p>
+     * Sin nodos, cada solicitud se envía al endpoint indicado y la disponibilidad de la API la controla
+     * el circuito de protección.
+     * </p>
+     */
+    @Builder.Default
+    private ConfiguracionNodosDTO nodos = ConfiguracionNodosDTO.builder().build();
+}
@@ -0,0 +1,59 @@
+package com.gov.app.prueba.clteach.dto;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.DIRECTORIO_INDICE;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.INDICE_CAPACIDAD_CACHE;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.INDICE_CAPACIDAD_INICIAL;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.INDICE_VIGENCIA_CACHE_MS;
+import java.nio.file.Path;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula la configuración del índice local de órdenes enviadas.
+ * <p>
+ * El índice se guarda en disco como una tabla hash mapeada en memoria y se consulta a través de una
+ * caché LRU acotada en tamaño y en tiempo.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfiguracionIndiceDTO {
+
+    /**
+     * Directorio donde se guarda el archivo del índice.
+     * <p>
+     * Solo un proceso puede utilizar el directorio a la vez.
+     * </p>
+     * Ejemplo: "~/.cltech-escritorio/indice".
+     */
+    @Builder.Default
+    private Path directorio = DIRECTORIO_INDICE;
+
+    /**
+     * Número inicial de ranuras de la tabla en disco; se redondea a una potencia de dos.
+     * <p>
+     * La tabla duplica su tamaño al superar el 75 % de ocupación. Cada ranura ocupa 16 bytes.
+     * </p>
+     * Ejemplo: 65536.
+     */
+    @Builder.Default
+    private int capacidadInicial = INDICE_CAPACIDAD_INICIAL;
+
+    /**
+     * Número máximo de órdenes conservadas en la caché en memoria.
+     * Ejemplo: 10000.
+     */
+    @Builder.Default
+    private int capacidadCache = INDICE_CAPACIDAD_CACHE;
+
+    /**
+     * Tiempo que una orden permanece en la caché en memoria antes de consultarse de nuevo en disco, en milisegundos.
+     * Ejemplo: 600000.
+     */
+    @Builder.Default
+    private long vigenciaCacheMs = INDICE_VIGENCIA_CACHE_MS;
+}
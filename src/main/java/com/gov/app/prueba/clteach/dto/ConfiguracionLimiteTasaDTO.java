@@ -0,0 +1,84 @@
+package com.gov.app.prueba.clteach.dto;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LIMITE_BYTES_POR_SEGUNDO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LIMITE_ESPERA_MAXIMA_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LIMITE_RAFAGA_BYTES;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LIMITE_RAFAGA_SOLICITUDES;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LIMITE_SOLICITUDES_POR_SEGUNDO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula el presupuesto de solicitudes y bytes por segundo acordado con la API.
+ * <p>
+ * Cada solicitud HTTP POST, incluidos los reintentos, consume una solicitud y tantos bytes como tenga
+ * su cuerpo. Tras un periodo de inactividad puede enviarse de golpe hasta la ráfaga configurada; a partir
+ * de ahí las solicitudes se espacian según la tasa.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfiguracionLimiteTasaDTO {
+
+    /**
+     * Número máximo de solicitudes por segundo.
+     * <p>
+     * Con valor 0 no se limita el número de solicitudes.
+     * </p>
+     * Ejemplo: 100.
+     */
+    @Builder.Default
+    private double solicitudesPorSegundo = LIMITE_SOLICITUDES_POR_SEGUNDO;
+
+    /**
+     * Número de solicitudes que pueden enviarse de golpe tras un periodo de inactividad.
+     * Ejemplo: 20.
+     */
+    @Builder.Default
+    private int rafagaSolicitudes = LIMITE_RAFAGA_SOLICITUDES;
+
+    /**
+     * Número máximo de bytes de cuerpo por segundo.
+     * <p>
+     * Con valor 0 no se limita el volumen enviado.
+     * </p>
+     * Ejemplo: 10485760.
+     */
+    @Builder.Default
+    private long bytesPorSegundo = LIMITE_BYTES_POR_SEGUNDO;
+
+    /**
+     * Número de bytes que pueden enviarse de golpe tras un periodo de inactividad.
+     * <p>
+     * Una solicitud con un cuerpo mayor que la ráfaga no se rechaza: espera a que el presupuesto esté
+     * completo y lo deja en negativo.
+     * </p>
+     * Ejemplo: 2097152.
+     */
+    @Builder.Default
+    private long rafagaBytes = LIMITE_RAFAGA_BYTES;
+
+    /**
+     * Indica si una solicitud que excede el presupuesto espera su turno.
+     * <p>
+     * Si es {@code false}, la solicitud se rechaza de inmediato con {@code TasaExcedidaException}, que se
+     * trata como un error transitorio.
+     * </p>
+     */
+    @Builder.Default
+    private boolean bloqueante = true;
+
+    /**
+     * Espera máxima en modo bloqueante, en milisegundos.
+     * <p>
+     * Si el turno de la solicitud queda más lejos, se rechaza sin consumir presupuesto.
+     * </p>
+     * Ejemplo: 30000.
+     */
+    @Builder.Default
+    private long esperaMaximaMs = LIMITE_ESPERA_MAXIMA_MS;
+}
@@ -0,0 +1,73 @@
+package com.gov.app.prueba.clteach.dto;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LOTE_ESPERA_MAXIMA_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LOTE_MAX_BYTES;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LOTE_MAX_ELEMENTOS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.URL_GUARDAR_PACIENTE;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula la configuración del envío agrupado de pacientes.
+ * <p>
+ * Un lote se envía cuando alcanza el número máximo de elementos, el tamaño máximo en bytes
+ * o el tiempo máximo de espera, lo que ocurra primero.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfiguracionLotesDTO {
+
+    /**
+     * URL del endpoint que recibe un arreglo JSON de pacientes.
+     * <p>
+     * Si es {@code null}, cada paciente se envía de forma individual a {@link #urlIndividual}.
+     * </p>
+     * Ejemplo: "http://localhost:8001/api/v1/pacientes/guardar-lote".
+     */
+    private String urlLote;
+
+    /**
+     * URL del endpoint que recibe un único paciente.
+     * <p>
+     * Se utiliza cuando no hay un endpoint de lotes configurado.
+     * </p>
+     * Ejemplo: "http://localhost:8001/api/v1/pacientes/guardar".
+     */
+    @Builder.Default
+    private String urlIndividual = URL_GUARDAR_PACIENTE;
+
+    /**
+     * Número máximo de pacientes por lote.
+     * <p>
+     * Al alcanzarlo, el lote se envía de inmediato.
+     * </p>
+     * Ejemplo: 100.
+     */
+    @Builder.Default
+    private int maxElementos = LOTE_MAX_ELEMENTOS;
+
+    /**
+     * Tamaño máximo del cuerpo JSON de un lote, en bytes.
+     * <p>
+     * Al alcanzarlo, el lote se envía de inmediato.
+     * </p>
+     * Ejemplo: 1048576.
+     */
+    @Builder.Default
+    private int maxBytes = LOTE_MAX_BYTES;
+
+    /**
+     * Tiempo máximo que el primer paciente de un lote espera antes de que este se envíe, en milisegundos.
+     * <p>
+     * Acota la latencia añadida por la agrupación cuando llegan pocos pacientes.
+     * </p>
+     * Ejemplo: 50.
+     */
+    @Builder.Default
+    private long esperaMaximaMs = LOTE_ESPERA_MAXIMA_MS;
+}
@@ -0,0 +1,76 @@
+package com.gov.app.prueba.clteach.dto;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.NODOS_EXPULSION_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.NODOS_INTERVALO_SALUD_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.NODOS_RUTA_SALUD;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.NODOS_UMBRAL_FALLOS;
+import com.gov.app.prueba.clteach.utils.helper.BalanceadorNodos;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula los nodos de la API entre los que se reparten las solicitudes y su verificación de salud.
+ * <p>
+ * Cada solicitud conserva la ruta del endpoint indicado, pero se envía al esquema, servidor y puerto del
+ * nodo elegido. Un nodo que acumula fallas consecutivas se expulsa del balanceo durante un tiempo, y las
+ * verificaciones activas lo reincorporan en cuanto vuelve a responder.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfiguracionNodosDTO {
+
+    /**
+     * URL base de cada nodo de la API.
+     * <p>
+     * Sin nodos, las solicitudes se envían al endpoint indicado sin balanceo. De forma predeterminada se
+     * toman de la propiedad del sistema {@code cltech.api.nodos}, separadas por comas.
+     * </p>
+     * Ejemplo: ["http://api-1:8001", "http://api-2:8001"].
+     */
+    @Builder.Default
+    private List<String> urls = BalanceadorNodos.nodosConfigurados();
+
+    /**
+     * Número de fallas consecutivas, de solicitudes o de verificaciones de salud, que expulsan un nodo.
+     * Ejemplo: 3.
+     */
+    @Builder.Default
+    private int umbralFallos = NODOS_UMBRAL_FALLOS;
+
+    /**
+     * Tiempo que un nodo expulsado permanece fuera del balanceo, en milisegundos.
+     * <p>
+     * Transcurrido ese tiempo el nodo recibe una única solicitud de prueba, salvo que una verificación
+     * activa lo haya reincorporado antes.
+     * </p>
+     * Ejemplo: 10000.
+     */
+    @Builder.Default
+    private long expulsionMs = NODOS_EXPULSION_MS;
+
+    /**
+     * Intervalo de las verificaciones activas de salud, en milisegundos.
+     * <p>
+     * Con valor 0 solo se usan las fallas de las solicitudes.
+     * </p>
+     * Ejemplo: 5000.
+     */
+    @Builder.Default
+    private long intervaloSaludMs = NODOS_INTERVALO_SALUD_MS;
+
+    /**
+     * Ruta que se consulta con GET en cada verificación de salud.
+     * <p>
+     * Cualquier respuesta distinta de 5xx indica que el nodo está disponible.
+     * </p>
+     * Ejemplo: "/".
+     */
+    @Builder.Default
+    private String rutaSalud = NODOS_RUTA_SALUD;
+}
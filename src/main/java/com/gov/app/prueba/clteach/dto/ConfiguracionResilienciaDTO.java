@@ -0,0 +1,75 @@
+package com.gov.app.prueba.clteach.dto;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CIRCUITO_APERTURA_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CIRCUITO_UMBRAL_FALLOS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.REINTENTO_ESPERA_INICIAL_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.REINTENTO_ESPERA_MAXIMA_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.REINTENTO_MAXIMO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula la configuración de reintentos y del circuito de protección de la API.
+ * <p>
+ * Los errores 5xx, 429 y de entrada/salida se reintentan con espera exponencial y variación aleatoria;
+ * tras varias fallas consecutivas el circuito se abre y las solicitudes se rechazan sin conectarse.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfiguracionResilienciaDTO {
+
+    /**
+     * Número máximo de reintentos tras el primer intento.
+     * <p>
+     * Con valor 0 no se reintenta.
+     * </p>
+     * Ejemplo: 3.
+     */
+    @Builder.Default
+    private int maxReintentos = REINTENTO_MAXIMO;
+
+    /**
+     * Espera base antes del primer reintento, en milisegundos.
+     * <p>
+     * Se duplica en cada reintento y se aplica una variación aleatoria entre cero y ese valor.
+     * </p>
+     * Ejemplo: 200.
+     */
+    @Builder.Default
+    private long esperaInicialMs = REINTENTO_ESPERA_INICIAL_MS;
+
+    /**
+     * Espera máxima entre reintentos, en milisegundos.
+     * <p>
+     * Acota el crecimiento exponencial de la espera.
+     * </p>
+     * Ejemplo: 5000.
+     */
+    @Builder.Default
+    private long esperaMaximaMs = REINTENTO_ESPERA_MAXIMA_MS;
+
+    /**
+     * Número de fallas consecutivas que abren el circuito.
+     * <p>
+     * Con valor 0 el circuito nunca se abre.
+     * </p>
+     * Ejemplo: 5.
+     */
+    @Builder.Default
+    private int umbralFallosCircuito = CIRCUITO_UMBRAL_FALLOS;
+
+    /**
+     * Tiempo que el circuito permanece abierto antes de permitir una solicitud de prueba, en milisegundos.
+     * <p>
+     * Si la prueba tiene éxito el circuito se cierra; si falla, vuelve a abrirse por el mismo tiempo.
+     * </p>
+     * Ejemplo: 10000.
+     */
+    @Builder.Default
+    private long aperturaCircuitoMs = CIRCUITO_APERTURA_MS;
+}
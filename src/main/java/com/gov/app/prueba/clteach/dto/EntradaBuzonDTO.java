@@ -0,0 +1,34 @@
+package com.gov.app.prueba.clteach.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO que representa un envío registrado en el buzón de salida local.
+ * <p>
+ * Identifica el registro dentro del diario en disco y conserva la clave de idempotencia con la que
+ * se envía a la API, que se mantiene en todos los reenvíos.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+public class EntradaBuzonDTO {
+
+    /**
+     * Identificador del registro dentro del buzón.
+     * <p>
+     * Se utiliza para confirmar el envío una vez la API lo acepta.
+     * </p>
+     * Ejemplo: 1542.
+     */
+    private long id;
+
+    /**
+     * Clave de idempotencia enviada a la API en el encabezado {@code Idempotency-Key}.
+     * <p>
+     * Permite a la API descartar un reenvío de un paciente que ya había recibido.
+     * </p>
+     * Ejemplo: "3f2c5e0a-8a4b-4d7e-9a61-2b7f0c1d9e44".
+     */
+    private String claveIdempotencia;
+}
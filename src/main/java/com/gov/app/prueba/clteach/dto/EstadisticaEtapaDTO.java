@@ -0,0 +1,68 @@
+package com.gov.app.prueba.clteach.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que resume el estado de una etapa de la canalización de procesamiento de archivos.
+ * <p>
+ * La profundidad de la cola y la utilización permiten identificar la etapa que limita el rendimiento:
+ * la cola de la etapa más lenta se mantiene llena y su utilización se acerca a 1.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaEtapaDTO {
+
+    /**
+     * Nombre de la etapa.
+     * Ejemplo: "ENVIO".
+     */
+    private String etapa;
+
+    /**
+     * Número de hilos que atienden la etapa.
+     * Ejemplo: 8.
+     */
+    private int hilos;
+
+    /**
+     * Capacidad máxima de la cola de entrada de la etapa.
+     * Ejemplo: 32.
+     */
+    private int capacidadCola;
+
+    /**
+     * Número de elementos en la cola de entrada en el momento de la consulta.
+     * Ejemplo: 12.
+     */
+    private int enCola;
+
+    /**
+     * Número máximo de elementos observado en la cola de entrada.
+     * Ejemplo: 32.
+     */
+    private int maximoEnCola;
+
+    /**
+     * Número de elementos procesados por la etapa.
+     * Ejemplo: 1200.
+     */
+    private long procesados;
+
+    /**
+     * Número de elementos cuyo procesamiento falló en la etapa.
+     * Ejemplo: 3.
+     */
+    private long fallidos;
+
+    /**
+     * Fracción del tiempo que los hilos de la etapa pasaron procesando, entre 0 y 1.
+     * Ejemplo: 0.92.
+     */
+    private double utilizacion;
+}
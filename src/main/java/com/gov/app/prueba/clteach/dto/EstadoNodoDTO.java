@@ -0,0 +1,51 @@
+package com.gov.app.prueba.clteach.dto;
+
+import com.gov.app.prueba.clteach.utils.enums.EstadoCircuitoEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que resume el estado de un nodo de la API dentro del balanceo.
+ * <p>
+ * Un nodo {@link EstadoCircuitoEnum#ABIERTO} está expulsado y no recibe solicitudes; uno
+ * {@link EstadoCircuitoEnum#SEMIABIERTO} está recibiendo su solicitud de prueba.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoNodoDTO {
+
+    /**
+     * URL base del nodo.
+     * Ejemplo: "http://api-1:8001".
+     */
+    private String url;
+
+    /**
+     * Estado del circuito del nodo.
+     * Ejemplo: CERRADO.
+     */
+    private EstadoCircuitoEnum estado;
+
+    /**
+     * Número de solicitudes en curso hacia el nodo.
+     * Ejemplo: 4.
+     */
+    private int enCurso;
+
+    /**
+     * Número de solicitudes enviadas al nodo.
+     * Ejemplo: 1200.
+     */
+    private long enviadas;
+
+    /**
+     * Número de solicitudes al nodo que fallaron con un error transitorio.
+     * Ejemplo: 3.
+     */
+    private long fallidas;
+}
@@ -0,0 +1,125 @@
+package com.gov.app.prueba.clteach.dto;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula una instantánea de las métricas del procesamiento HL7, tal como se vuelca
+ * periódicamente al archivo de métricas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstantaneaMetricasDTO {
+
+    /**
+     * Momento de la instantánea, en formato ISO-8601.
+     * Ejemplo: "2024-05-10T14:32:05.120Z".
+     */
+    private String fecha;
+
+    /**
+     * Número de archivos procesados correctamente.
+     */
+    private long archivosProcesados;
+
+    /**
+     * Número de archivos cuyo procesamiento o envío falló.
+     */
+    private long archivosFallidos;
+
+    /**
+     * Número de segmentos HL7 leídos.
+     */
+    private long segmentos;
+
+    /**
+     * Número de segmentos con un tipo distinto de PID, OBR y OBX.
+     */
+    private long segmentosDesconocidos;
+
+    /**
+     * Número de segmentos PID con menos campos de los requeridos.
+     */
+    private long pidIncompletos;
+
+    /**
+     * Número de segmentos OBR con menos campos de los requeridos.
+     */
+    private long obrIncompletos;
+
+    /**
+     * Número de segmentos OBX con menos campos de los requeridos.
+     */
+    private long obxIncompletos;
+
+    /**
+     * Número de reintentos de solicitudes HTTP.
+     */
+    private long reintentos;
+
+    /**
+     * Número de intentos de solicitud que fallaron sin obtener una respuesta HTTP.
+     */
+    private long erroresConexion;
+
+    /**
+     * Número de órdenes omitidas por haber sido enviadas antes con los mismos exámenes.
+     */
+    private long ordenesOmitidas;
+
+    /**
+     * Número de solicitudes HTTP rechazadas por exceder el límite de tasa.
+     */
+    private long rechazosTasa;
+
+    /**
+     * Límite adaptativo de solicitudes HTTP simultáneas en el momento de la instantánea.
+     */
+    private int limiteConcurrencia;
+
+    /**
+     * Número de reducciones del límite adaptativo de solicitudes HTTP simultáneas.
+     */
+    private long reduccionesConcurrencia;
+
+    /**
+     * Número de solicitudes HTTP en curso en el momento de la instantánea.
+     */
+    private int solicitudesEnCurso;
+
+    /**
+     * Número máximo de solicitudes HTTP simultáneas observado.
+     */
+    private int maximoSolicitudesEnCurso;
+
+    /**
+     * Número de respuestas recibidas por código HTTP.
+     * Ejemplo: {"201": 1180, "503": 20}.
+     */
+    private Map<Integer, Long> codigosHttp;
+
+    /**
+     * Resumen de latencias por etapa del procesamiento.
+     */
+    private Map<String, ResumenLatenciaDTO> latencias;
+
+    /**
+     * Resumen por prioridad del tiempo desde que un envío entra en la cola hasta la respuesta de la API.
+     */
+    private Map<String, ResumenLatenciaDTO> latenciasPrioridad;
+
+    /**
+     * Estadísticas de cada etapa de la canalización en curso, vacías si no hay ninguna.
+     */
+    private Map<String, EstadisticaEtapaDTO> etapasCanalizacion;
+
+    /**
+     * Estado de cada nodo de la API por URL base, vacío si no hay balanceo entre nodos.
+     */
+    private Map<String, EstadoNodoDTO> nodosApi;
+}
@@ -0,0 +1,301 @@
+package com.gov.app.prueba.clteach.dto;
+
+import com.gov.app.prueba.clteach.utils.enums.PrioridadEnum;
+import com.gov.app.prueba.clteach.utils.helper.DiccionarioCodigos;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lote de pacientes y resultados HL7 guardado por columnas.
+ * <p>
+ * En lugar de un {@link ExamenDTO} con dos cadenas por cada OBX, los exámenes se guardan en arreglos
+ * primitivos: el código del examen como un entero de un {@link DiccionarioCodigos}, los resultados
+ * numéricos como {@code double} junto con su número de decimales y los textuales como un entero de
+ * otro diccionario. Un examen ocupa así 17 bytes en lugar de más de cien, y los códigos y resultados
+ * repetidos se guardan una sola vez.
+ * </p>
+ * <p>
+ * Un resultado solo se guarda como número si vuelve a producir exactamente el mismo texto: sin ceros a la
+ * izquierda, sin signo {@code +}, sin exponente, sin cero negativo y con hasta 15 dígitos. Los
+ * {@link PacienteRequestDTO} se construyen únicamente al serializar, con {@link #materializar(int)}.
+ * </p>
+ * <p>
+ * Una instancia no es segura para uso concurrente.
+ * </p>
+ */
+public final class LoteResultadosDTO {
+
+    /** Indicador de resultado numérico en la columna de textos. */
+    private static final int NUMERICO = -1;
+
+    /** Indicador de resultado nulo en la columna de textos. */
+    private static final int NULO = -2;
+
+    /** Máximo de dígitos que un {@code double} representa sin pérdida. */
+    private static final int DIGITOS_EXACTOS = 15;
+
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final DiccionarioCodigos codigos = new DiccionarioCodigos();
+    private final DiccionarioCodigos textos = new DiccionarioCodigos();
+
+    private String[] nombres = new String[CAPACIDAD_INICIAL];
+    private String[] numerosOrden = new String[CAPACIDAD_INICIAL];
+    private int[] primerExamen = new int[CAPACIDAD_INICIAL];
+    private byte[] prioridades = new byte[CAPACIDAD_INICIAL];
+    private int pacientes;
+
+    private int[] codigoExamen = new int[CAPACIDAD_INICIAL];
+    private int[] textoResultado = new int[CAPACIDAD_INICIAL];
+    private double[] valorResultado = new double[CAPACIDAD_INICIAL];
+    private byte[] escalaResultado = new byte[CAPACIDAD_INICIAL];
+    private int examenes;
+
+    /**
+     * Agrega un paciente vacío al final del lote; los datos y exámenes siguientes le pertenecen.
+     */
+    public void iniciarPaciente() {
+        if (pacientes == nombres.length) {
+            int capacidad = pacientes << 1;
+            nombres = Arrays.copyOf(nombres, capacidad);
+            numerosOrden = Arrays.copyOf(numerosOrden, capacidad);
+            primerExamen = Arrays.copyOf(primerExamen, capacidad);
+            prioridades = Arrays.copyOf(prioridades, capacidad);
+        }
+        nombres[pacientes] = null;
+        numerosOrden[pacientes] = null;
+        primerExamen[pacientes] = examenes;
+        prioridades[pacientes] = (byte) PrioridadEnum.RUTINA.ordinal();
+        pacientes++;
+    }
+
+    /**
+     * Elimina el último paciente del lote junto con sus exámenes.
+     */
+    public void descartarPaciente() {
+        if (pacientes == 0) {
+            return;
+        }
+        pacientes--;
+        examenes = primerExamen[pacientes];
+        nombres[pacientes] = null;
+        numerosOrden[pacientes] = null;
+    }
+
+    /**
+     * Asigna los nombres del paciente actual.
+     *
+     * @param valor los nombres del paciente.
+     */
+    public void setNombres(String valor) {
+        nombres[pacientes - 1] = valor;
+    }
+
+    /**
+     * Asigna el número de orden del paciente actual.
+     *
+     * @param valor el número de orden.
+     */
+    public void setNumeroOrden(String valor) {
+        numerosOrden[pacientes - 1] = valor;
+    }
+
+    /**
+     * Eleva la prioridad del paciente actual si la indicada es más urgente.
+     *
+     * @param valor la prioridad leída de un segmento.
+     */
+    public void elevarPrioridad(PrioridadEnum valor) {
+        prioridades[pacientes - 1] = (byte) prioridad(pacientes - 1).masUrgente(valor).ordinal();
+    }
+
+    /**
+     * Retorna la prioridad de un paciente del lote.
+     *
+     * @param paciente la posición del paciente en el lote.
+     * @return la prioridad de envío del paciente.
+     */
+    public PrioridadEnum prioridad(int paciente) {
+        return PrioridadEnum.values()[prioridades[paciente]];
+    }
+
+    /**
+     * Agrega un examen al paciente actual.
+     *
+     * @param codigo    el código del examen.
+     * @param resultado el resultado del examen, tal como se enviará.
+     */
+    public void agregarExamen(String codigo, String resultado) {
+        if (examenes == codigoExamen.length) {
+            int capacidad = examenes << 1;
+            codigoExamen = Arrays.copyOf(codigoExamen, capacidad);
+            textoResultado = Arrays.copyOf(textoResultado, capacidad);
+            valorResultado = Arrays.copyOf(valorResultado, capacidad);
+            escalaResultado = Arrays.copyOf(escalaResultado, capacidad);
+        }
+        codigoExamen[examenes] = codigo == null ? NULO : codigos.codificar(codigo);
+        int escala = resultado == null ? -1 : escalaNumerica(resultado);
+        if (escala >= 0) {
+            textoResultado[examenes] = NUMERICO;
+            valorResultado[examenes] = Double.parseDouble(resultado);
+            escalaResultado[examenes] = (byte) escala;
+        } else {
+            textoResultado[examenes] = resultado == null ? NULO : textos.codificar(resultado);
+            valorResultado[examenes] = Double.NaN;
+            escalaResultado[examenes] = 0;
+        }
+        examenes++;
+    }
+
+    /**
+     * Retorna el número de pacientes del lote.
+     *
+     * @return el número de pacientes.
+     */
+    public int getPacientes() {
+        return pacientes;
+    }
+
+    /**
+     * Retorna el número total de exámenes del lote.
+     *
+     * @return el número de exámenes.
+     */
+    public int getExamenes() {
+        return examenes;
+    }
+
+    /**
+     * Retorna el número de códigos de examen distintos del lote.
+     *
+     * @return el tamaño del diccionario de códigos.
+     */
+    public int getCodigosDistintos() {
+        return codigos.tamano();
+    }
+
+    /**
+     * Retorna el número de exámenes de un paciente.
+     *
+     * @param paciente la posición del paciente en el lote.
+     * @return el número de exámenes del paciente.
+     */
+    public int examenesDe(int paciente) {
+        return finExamenes(paciente) - primerExamen[paciente];
+    }
+
+    /**
+     * Indica si el resultado de un examen se guardó como número.
+     *
+     * @param examen la posición del examen en el lote.
+     * @return {@code true} si el resultado es numérico.
+     */
+    public boolean esNumerico(int examen) {
+        return textoResultado[examen] == NUMERICO;
+    }
+
+    /**
+     * Retorna el valor numérico del resultado de un examen.
+     *
+     * @param examen la posición del examen en el lote.
+     * @return el valor del resultado, o {@link Double#NaN} si el resultado es textual.
+     */
+    public double valorNumerico(int examen) {
+        return valorResultado[examen];
+    }
+
+    /**
+     * Construye el {@link PacienteRequestDTO} de un paciente del lote.
+     *
+     * @param paciente la posición del paciente en el lote.
+     * @return el paciente con sus exámenes.
+     */
+    public PacienteRequestDTO materializar(int paciente) {
+        int inicio = primerExamen[paciente];
+        int fin = finExamenes(paciente);
+        List<ExamenDTO> lista = new ArrayList<>(fin - inicio);
+        for (int i = inicio; i < fin; i++) {
+            lista.add(ExamenDTO.builder()
+                    .codigoExamen(codigoExamen[i] == NULO ? null : codigos.valor(codigoExamen[i]))
+                    .resultadoExamen(resultado(i))
+                    .build());
+        }
+        return new PacienteRequestDTO(nombres[paciente], numerosOrden[paciente], lista, prioridad(paciente));
+    }
+
+    /**
+     * Reconstruye el texto del resultado de un examen.
+     *
+     * @param examen la posición del examen en el lote.
+     * @return el resultado, idéntico al texto agregado.
+     */
+    public String resultado(int examen) {
+        int texto = textoResultado[examen];
+        if (texto == NULO) {
+            return null;
+        }
+        if (texto != NUMERICO) {
+            return textos.valor(texto);
+        }
+        int escala = escalaResultado[examen];
+        if (escala == 0) {
+            return Long.toString((long) valorResultado[examen]);
+        }
+        return BigDecimal.valueOf(valorResultado[examen]).setScale(escala, RoundingMode.HALF_EVEN).toPlainString();
+    }
+
+    private int finExamenes(int paciente) {
+        return paciente + 1 < pacientes ? primerExamen[paciente + 1] : examenes;
+    }
+
+    /**
+     * Obtiene el número de decimales de un texto numérico que puede reconstruirse exactamente.
+     *
+     * @param texto el texto del resultado.
+     * @return el número de decimales, o {@code -1} si el texto no debe guardarse como número.
+     */
+    private static int escalaNumerica(String texto) {
+        int longitud = texto.length();
+        int i = 0;
+        boolean negativo = longitud > 0 && texto.charAt(0) == '-';
+        if (negativo) {
+            i++;
+        }
+        int inicioEntero = i;
+        boolean ceros = true;
+        while (i < longitud && esDigito(texto.charAt(i))) {
+            ceros &= texto.charAt(i) == '0';
+            i++;
+        }
+        int digitosEnteros = i - inicioEntero;
+        if (digitosEnteros == 0 || (digitosEnteros > 1 && texto.charAt(inicioEntero) == '0')) {
+            return -1;
+        }
+        int escala = 0;
+        if (i < longitud) {
+            if (texto.charAt(i) != '.') {
+                return -1;
+            }
+            int inicioDecimal = ++i;
+            while (i < longitud && esDigito(texto.charAt(i))) {
+                ceros &= texto.charAt(i) == '0';
+                i++;
+            }
+            escala = i - inicioDecimal;
+            if (escala == 0 || i < longitud) {
+                return -1;
+            }
+        }
+        if (digitosEnteros + escala > DIGITOS_EXACTOS || (negativo && ceros)) {
+            return -1;
+        }
+        return escala;
+    }
+
+    private static boolean esDigito(char caracter) {
+        return caracter >= '0' && caracter <= '9';
+    }
+}
@@ -0,0 +1,122 @@
+package com.gov.app.prueba.clteach.dto;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CAPACIDAD_COLA_CANALIZACION;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CONCURRENCIA_DIRECTORIO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILOS_ANALISIS_CANALIZACION;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILOS_ENVIO_CANALIZACION;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILOS_LECTURA_CANALIZACION;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILOS_SERIALIZACION_CANALIZACION;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.PATRON_ARCHIVOS_HL7;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que encapsula las opciones de procesamiento de un directorio de archivos HL7.
+ * <p>
+ * Permite limitar la concurrencia con la que se procesan los archivos, para no saturar la API,
+ * y definir qué archivos del directorio se deben procesar.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpcionesDirectorioDTO {
+
+    /**
+     * Número máximo de archivos que se procesan de forma simultánea.
+     * <p>
+     * Acota también el número de solicitudes HTTP en curso hacia la API.
+     * </p>
+     * Ejemplo: 8.
+     */
+    @Builder.Default
+    private int concurrencia = CONCURRENCIA_DIRECTORIO;
+
+    /**
+     * Patrón de los archivos a procesar, con la sintaxis de {@link java.nio.file.FileSystem#getPathMatcher(String)}.
+     * <p>
+     * Se evalúa sobre el nombre del archivo.
+     * </p>
+     * Ejemplo: "glob:*.txt".
+     */
+    @Builder.Default
+    private String patron = PATRON_ARCHIVOS_HL7;
+
+    /**
+     * Indica si se deben recorrer también los subdirectorios.
+     */
+    private boolean recursivo;
+
+    /**
+     * Indica si cada archivo se procesa como un lote de varios mensajes.
+     * <p>
+     * Si es {@code true} se utiliza {@code leerLoteHl7}; en caso contrario {@code leerArchivoHl7}.
+     * </p>
+     */
+    private boolean lote;
+
+    /**
+     * Configuración del envío agrupado de los mensajes de los archivos procesados como lote.
+     * <p>
+     * Si no es {@code null} y {@link #lote} es {@code true}, los mensajes de cada archivo se guardan por
+     * columnas y se envían en lotes de varios pacientes, compartidos por todos los archivos del directorio.
+     * Estos envíos consultan el índice de órdenes enviadas, pero no pasan por el buzón de salida ni por los
+     * carriles por orden. Cada archivo espera las respuestas de sus mensajes, de modo que un lote reúne
+     * mensajes de a lo sumo {@link #concurrencia} archivos antes de que lo envíe su espera máxima. Si es
+     * {@code null}, cada mensaje se envía por separado.
+     * </p>
+     */
+    private ConfiguracionLotesDTO envioLotes;
+
+    /**
+     * Indica si los archivos se procesan en una canalización de etapas en lugar de un archivo por hilo.
+     * <p>
+     * Cada etapa (lectura, análisis, serialización y envío) tiene su propio pool de hilos y una cola
+     * acotada; cuando el envío se retrasa, las etapas anteriores se detienen en lugar de acumular archivos
+     * en memoria. No aplica a los directorios procesados como lote, que conservan un archivo por hilo.
+     * </p>
+     */
+    private boolean canalizado;
+
+    /**
+     * Número de hilos de la etapa de lectura de la canalización.
+     * Ejemplo: 2.
+     */
+    @Builder.Default
+    private int hilosLectura = HILOS_LECTURA_CANALIZACION;
+
+    /**
+     * Número de hilos de la etapa de análisis de la canalización.
+     * Ejemplo: 4.
+     */
+    @Builder.Default
+    private int hilosAnalisis = HILOS_ANALISIS_CANALIZACION;
+
+    /**
+     * Número de hilos de la etapa de serialización de la canalización.
+     * Ejemplo: 2.
+     */
+    @Builder.Default
+    private int hilosSerializacion = HILOS_SERIALIZACION_CANALIZACION;
+
+    /**
+     * Número de carriles de la etapa de envío de la canalización, cada uno atendido por un único hilo.
+     * <p>
+     * Acota el número de solicitudes HTTP en curso hacia la API. Los archivos de una misma orden siempre
+     * usan el mismo carril y se envían de uno en uno, en el orden en que salen de la serialización.
+     * </p>
+     * Ejemplo: 8.
+     */
+    @Builder.Default
+    private int hilosEnvio = HILOS_ENVIO_CANALIZACION;
+
+    /**
+     * Capacidad de la cola de entrada de cada etapa de la canalización.
+     * Ejemplo: 32.
+     */
+    @Builder.Default
+    private int capacidadCola = CAPACIDAD_COLA_CANALIZACION;
+}
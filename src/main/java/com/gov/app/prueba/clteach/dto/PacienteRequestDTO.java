@@ -8,6 +8,8 @@
  */
 package com.gov.app.prueba.clteach.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gov.app.prueba.clteach.utils.enums.PrioridadEnum;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -25,10 +27,12 @@ import lombok.NoArgsConstructor;
 public class PacienteRequestDTO {
 
     /**
-     * Constructor por defecto que inicializa la lista de exámenes como una lista vacía.
+     * Constructor por defecto que inicializa la lista de exámenes como una lista vacía y la prioridad
+     * como {@link PrioridadEnum#RUTINA}.
      */
     public PacienteRequestDTO() {
         this.examenes = new ArrayList<>();
+        this.prioridad = PrioridadEnum.RUTINA;
     }
 
     /**
@@ -57,6 +61,17 @@ public class PacienteRequestDTO {
      */
     private List<ExamenDTO> examenes;
 
+    /**
+     * Prioridad de envío de la orden.
+     * <p>
+     * Se obtiene de OBR-5, OBR-27 y ORC-7 y solo se usa para ordenar los envíos; no forma parte del JSON
+     * enviado a la API.
+     * </p>
+     * Ejemplo: {@link PrioridadEnum#URGENTE}.
+     */
+    @JsonIgnore
+    private PrioridadEnum prioridad;
+
     /**
      * Añade un examen a la lista de exámenes del paciente.
      *
@@ -0,0 +1,64 @@
+package com.gov.app.prueba.clteach.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que representa el resultado agregado del procesamiento de un directorio de archivos HL7.
+ * <p>
+ * Contiene la respuesta obtenida para cada archivo, los totales de archivos exitosos y fallidos
+ * y el tiempo total empleado.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoDirectorioDTO {
+
+    /**
+     * Respuesta obtenida para cada archivo, indexada por la ruta del archivo y en orden de procesamiento.
+     */
+    @Builder.Default
+    private Map<String, RespuestaGeneralDTO> resultados = new LinkedHashMap<>();
+
+    /**
+     * Número total de archivos encontrados en el directorio.
+     * <p>
+     * Incluye tanto los archivos procesados correctamente como los fallidos.
+     * </p>
+     * Ejemplo: 120.
+     */
+    private int totalArchivos;
+
+    /**
+     * Número de archivos enviados correctamente.
+     * <p>
+     * Un archivo es exitoso cuando la API responde con estado "CREATED".
+     * </p>
+     * Ejemplo: 118.
+     */
+    private int exitosos;
+
+    /**
+     * Número de archivos cuyo procesamiento o envío falló.
+     * <p>
+     * El detalle de cada error se encuentra en {@link #resultados}.
+     * </p>
+     * Ejemplo: 2.
+     */
+    private int fallidos;
+
+    /**
+     * Tiempo total de procesamiento del directorio, en milisegundos.
+     * <p>
+     * Se mide desde el listado del directorio hasta la finalización del último archivo.
+     * </p>
+     * Ejemplo: 5400.
+     */
+    private long duracionMs;
+}
@@ -0,0 +1,62 @@
+package com.gov.app.prueba.clteach.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clase que resume la distribución de latencias de una etapa del procesamiento.
+ * <p>
+ * Los percentiles se calculan sobre cubetas logarítmicas, por lo que cada valor es el límite superior
+ * de su cubeta, con un error relativo menor al 3 %.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenLatenciaDTO {
+
+    /**
+     * Número de mediciones registradas.
+     * Ejemplo: 1200.
+     */
+    private long muestras;
+
+    /**
+     * Latencia media, en microsegundos.
+     * Ejemplo: 850.5.
+     */
+    private double mediaUs;
+
+    /**
+     * Mediana de la latencia, en microsegundos.
+     * Ejemplo: 610.
+     */
+    private long p50Us;
+
+    /**
+     * Percentil 90 de la latencia, en microsegundos.
+     * Ejemplo: 1500.
+     */
+    private long p90Us;
+
+    /**
+     * Percentil 99 de la latencia, en microsegundos.
+     * Ejemplo: 4100.
+     */
+    private long p99Us;
+
+    /**
+     * Percentil 99.9 de la latencia, en microsegundos.
+     * Ejemplo: 9800.
+     */
+    private long p999Us;
+
+    /**
+     * Latencia máxima observada, en microsegundos.
+     * Ejemplo: 15230.
+     */
+    private long maximoUs;
+}
@@ -0,0 +1,61 @@
+package com.gov.app.prueba.clteach.services;
+
+import com.gov.app.prueba.clteach.dto.EntradaBuzonDTO;
+import java.io.IOException;
+
+/**
+ * Interfaz para el buzón de salida local de envíos a la API.
+ * <p>
+ * Cada paciente se guarda de forma durable antes de enviarse y se marca como confirmado cuando la API
+ * lo acepta. Los registros sin confirmar se reenvían en segundo plano, de modo que una caída de la API
+ * o del propio proceso no provoca pérdida de datos.
+ * </p>
+ */
+public interface IBuzonSalidaService extends AutoCloseable {
+
+    /**
+     * Guarda un cuerpo JSON en el buzón antes de su envío.
+     * <p>
+     * Al retornar, el registro está sincronizado en disco.
+     * </p>
+     *
+     * @param cuerpo el cuerpo JSON a enviar, codificado en UTF-8.
+     * @return la entrada registrada, con su identificador y clave de idempotencia.
+     * @throws IOException si el registro no puede escribirse.
+     */
+    EntradaBuzonDTO registrar(byte[] cuerpo) throws IOException;
+
+    /**
+     * Marca un registro como confirmado por la API.
+     *
+     * @param id el identificador del registro.
+     * @throws IOException si la confirmación no puede escribirse.
+     */
+    void confirmar(long id) throws IOException;
+
+    /**
+     * Indica que el envío original de un registro terminó sin confirmarlo, por ejemplo ante un error
+     * transitorio. Hasta entonces el registro está en curso y el reenvío en segundo plano no lo procesa.
+     * <p>
+     * No tiene efecto si el registro ya fue confirmado.
+     * </p>
+     *
+     * @param id el identificador del registro.
+     */
+    void liberar(long id);
+
+    /**
+     * Retorna el número de registros pendientes de confirmación.
+     *
+     * @return el número de registros pendientes.
+     */
+    int pendientes();
+
+    /**
+     * Detiene el reenvío en segundo plano y cierra el diario.
+     *
+     * @throws IOException si ocurre un error al cerrar el diario.
+     */
+    @Override
+    void close() throws IOException;
+}
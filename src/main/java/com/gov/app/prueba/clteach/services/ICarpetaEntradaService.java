@@ -0,0 +1,33 @@
+package com.gov.app.prueba.clteach.services;
+
+import java.io.IOException;
+
+/**
+ * Interfaz para el servicio que vigila una carpeta de entrada y procesa los archivos HL7 que llegan a ella.
+ * <p>
+ * Cada archivo completamente escrito se procesa con {@link ILeerArchivoService} y se mueve a la carpeta
+ * de procesados o de errores según el resultado.
+ * </p>
+ */
+public interface ICarpetaEntradaService extends AutoCloseable {
+
+    /**
+     * Procesa los archivos ya presentes en la carpeta e inicia la vigilancia de los nuevos.
+     *
+     * @throws IOException si la carpeta no puede vigilarse.
+     */
+    void iniciar() throws IOException;
+
+    /**
+     * Bloquea el hilo actual hasta que el servicio se detenga.
+     *
+     * @throws InterruptedException si el hilo es interrumpido durante la espera.
+     */
+    void esperar() throws InterruptedException;
+
+    /**
+     * Detiene la vigilancia y espera a que terminen los archivos en curso.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,47 @@
+package com.gov.app.prueba.clteach.services;
+
+import com.gov.app.prueba.clteach.dto.LoteResultadosDTO;
+import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
+import com.gov.app.prueba.clteach.dto.RespuestaGeneralDTO;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz para el servicio encargado de agrupar pacientes en envíos por lotes.
+ * <p>
+ * Los pacientes se acumulan en un buffer y se envían a la API en un único arreglo JSON,
+ * reduciendo el costo fijo de cada solicitud HTTP en las cargas masivas.
+ * </p>
+ */
+public interface IEnvioLotesService extends AutoCloseable {
+
+    /**
+     * Encola un paciente para su envío en el próximo lote.
+     *
+     * @param request los datos del paciente a enviar.
+     * @return un futuro que se completa con la respuesta de la API para este paciente.
+     */
+    CompletableFuture<RespuestaGeneralDTO> enviar(PacienteRequestDTO request);
+
+    /**
+     * Encola todos los pacientes de un lote por columnas.
+     * <p>
+     * Cada paciente se convierte en un {@link PacienteRequestDTO} solo en el momento de encolarlo.
+     * </p>
+     *
+     * @param lote el lote de pacientes a enviar.
+     * @return un futuro por paciente, en el mismo orden del lote.
+     */
+    List<CompletableFuture<RespuestaGeneralDTO>> enviar(LoteResultadosDTO lote);
+
+    /**
+     * Envía de inmediato los pacientes pendientes en el buffer.
+     */
+    void vaciar();
+
+    /**
+     * Envía los pacientes pendientes y libera los recursos del servicio.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,47 @@
+package com.gov.app.prueba.clteach.services;
+
+import java.io.IOException;
+
+/**
+ * Interfaz para el índice local de órdenes ya enviadas y aceptadas por la API.
+ * <p>
+ * Cada orden se identifica por su número de orden y una huella del conjunto normalizado de sus
+ * exámenes. Permite omitir, antes de serializarla, una orden idéntica a otra que la API ya aceptó,
+ * por ejemplo cuando el mismo archivo se deposita de nuevo.
+ * </p>
+ */
+public interface IIndiceEnviadosService extends AutoCloseable {
+
+    /**
+     * Indica si una orden con el mismo número y los mismos exámenes ya fue aceptada por la API.
+     *
+     * @param numeroOrden el número de orden.
+     * @param huella      la huella de los exámenes de la orden.
+     * @return {@code true} si la orden ya fue aceptada con la misma huella.
+     */
+    boolean contiene(String numeroOrden, long huella);
+
+    /**
+     * Registra una orden aceptada por la API, reemplazando la huella anterior del mismo número de orden.
+     *
+     * @param numeroOrden el número de orden.
+     * @param huella      la huella de los exámenes de la orden.
+     * @throws IOException si el índice no puede ampliarse en disco.
+     */
+    void registrar(String numeroOrden, long huella) throws IOException;
+
+    /**
+     * Retorna el número de órdenes registradas en el índice.
+     *
+     * @return el número de órdenes registradas.
+     */
+    int tamano();
+
+    /**
+     * Sincroniza el índice en disco y lo cierra.
+     *
+     * @throws IOException si ocurre un error al cerrar el índice.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -1,7 +1,13 @@
 package com.gov.app.prueba.clteach.services;
 
+import com.gov.app.prueba.clteach.dto.OpcionesDirectorioDTO;
+import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
 import com.gov.app.prueba.clteach.dto.RespuestaGeneralDTO;
+import com.gov.app.prueba.clteach.dto.ResultadoDirectorioDTO;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 
 /**
  * Interfaz para el servicio encargado de procesar archivos HL7.
@@ -10,7 +16,7 @@ import java.io.File;
  * devolviendo una respuesta estructurada en un objeto {@link RespuestaGeneralDTO}.
  * </p>
  */
-public interface ILeerArchivoService {
+public interface ILeerArchivoService extends AutoCloseable {
 
     /**
      * Lee y procesa un archivo en formato HL7.
@@ -24,4 +30,52 @@ public interface ILeerArchivoService {
      * del resultado del procesamiento del archivo.
      */
     RespuestaGeneralDTO leerArchivoHl7(File archivo);
+
+    /**
+     * Lee de forma perezosa un archivo HL7 con varios mensajes.
+     * <p>
+     * Cada mensaje delimitado por MSH (o por los encabezados de archivo y lote FHS/BHS) se convierte
+     * en un {@link PacienteRequestDTO} a medida que se consume el flujo. El flujo mantiene el archivo
+     * abierto, por lo que debe cerrarse, idealmente con un bloque try-with-resources.
+     * </p>
+     *
+     * @param archivo el archivo HL7 a procesar.
+     * @return un flujo con un {@link PacienteRequestDTO} por cada mensaje válido.
+     * @throws IOException si el archivo no puede abrirse.
+     */
+    Stream<PacienteRequestDTO> leerMensajesHl7(File archivo) throws IOException;
+
+    /**
+     * Lee un archivo HL7 con varios mensajes y envía cada uno de ellos por separado.
+     *
+     * @param archivo el archivo HL7 a procesar.
+     * @return un objeto {@link RespuestaGeneralDTO} con el resumen del envío del lote.
+     */
+    RespuestaGeneralDTO leerLoteHl7(File archivo);
+
+    /**
+     * Procesa en paralelo todos los archivos HL7 de un directorio.
+     * <p>
+     * Los archivos se distribuyen en un pool de hilos acotado por {@link OpcionesDirectorioDTO#getConcurrencia()},
+     * de modo que el número de solicitudes simultáneas hacia la API nunca supera ese límite. Si
+     * {@link OpcionesDirectorioDTO#isCanalizado()} es {@code true}, los archivos recorren en su lugar una
+     * canalización de etapas cuyo límite de solicitudes es {@link OpcionesDirectorioDTO#getHilosEnvio()}.
+     * En ambos casos, los archivos de una misma orden se envían de uno en uno, en el orden en que llegan a su carril,
+     * que puede diferir del orden de los archivos porque estos se leen y analizan en paralelo. Los directorios
+     * procesados como lote con {@link OpcionesDirectorioDTO#getEnvioLotes()} envían sus mensajes agrupados en
+     * lotes de varios pacientes, sin pasar por esos carriles.
+     * </p>
+     *
+     * @param directorio el directorio que contiene los archivos HL7.
+     * @param opciones   las opciones de procesamiento.
+     * @return un objeto {@link ResultadoDirectorioDTO} con la respuesta de cada archivo y los totales.
+     * @throws IOException si el directorio no puede recorrerse.
+     */
+    ResultadoDirectorioDTO leerDirectorio(Path directorio, OpcionesDirectorioDTO opciones) throws IOException;
+
+    /**
+     * Libera los hilos del servicio; los envíos que aún no comenzaron se cancelan.
+     */
+    @Override
+    void close();
 }
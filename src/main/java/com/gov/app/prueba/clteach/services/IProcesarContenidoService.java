@@ -1,6 +1,10 @@
 package com.gov.app.prueba.clteach.services;
 
+import com.gov.app.prueba.clteach.dto.LoteResultadosDTO;
 import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
+import com.gov.app.prueba.clteach.utils.helper.ManejadorSegmentoHl7;
+import com.gov.app.prueba.clteach.utils.helper.VistaSegmentoHl7;
+import java.util.Iterator;
 
 /**
  * Interfaz para el servicio encargado de procesar el contenido de un archivo HL7.
@@ -22,4 +26,78 @@ public interface IProcesarContenidoService {
      * @return un objeto {@link PacienteRequestDTO} que contiene la información procesada del paciente.
      */
     PacienteRequestDTO procesarContenido(String[] lineas);
+
+    /**
+     * Procesa el contenido de un archivo HL7 entregado segmento a segmento.
+     * <p>
+     * Permite procesar archivos sin construir su contenido completo en memoria. Cada segmento
+     * solo necesita ser válido hasta que se solicite el siguiente.
+     * </p>
+     *
+     * @param segmentos los segmentos del archivo HL7, en orden.
+     * @return un objeto {@link PacienteRequestDTO} que contiene la información procesada del paciente.
+     */
+    PacienteRequestDTO procesarContenido(Iterator<? extends CharSequence> segmentos);
+
+    /**
+     * Procesa el contenido de un archivo HL7 a partir de vistas sobre sus segmentos.
+     * <p>
+     * Permite que quien ya separó los segmentos en campos, por ejemplo con
+     * {@link com.gov.app.prueba.clteach.utils.helper.TokenizadorHl7#vistas(Iterator)}, los entregue sin
+     * copiarlos. Cada vista solo necesita ser válida hasta que se solicite la siguiente.
+     * </p>
+     *
+     * @param segmentos las vistas sobre los segmentos del archivo HL7, en orden.
+     * @return un objeto {@link PacienteRequestDTO} que contiene la información procesada del paciente.
+     */
+    PacienteRequestDTO procesarVistas(Iterator<? extends VistaSegmentoHl7> segmentos);
+
+    /**
+     * Procesa de forma perezosa un archivo HL7 con varios mensajes.
+     * <p>
+     * Los mensajes se delimitan por los segmentos MSH y por los encabezados y cierres de archivo
+     * y lote (FHS, FTS, BHS, BTS). Cada mensaje se convierte en un {@link PacienteRequestDTO}
+     * independiente en el momento en que se solicita, por lo que la memoria utilizada no depende
+     * del número de mensajes del archivo.
+     * </p>
+     *
+     * @param segmentos los segmentos del archivo HL7, en orden.
+     * @return un iterador con un {@link PacienteRequestDTO} por cada mensaje válido.
+     */
+    Iterator<PacienteRequestDTO> procesarMensajes(Iterator<? extends CharSequence> segmentos);
+
+    /**
+     * Procesa un archivo HL7 con varios mensajes y guarda sus resultados en un lote por columnas.
+     * <p>
+     * Los mensajes se delimitan igual que en {@link #procesarMensajes(Iterator)}. En lugar de un objeto
+     * por paciente y por examen, los datos se guardan en un {@link LoteResultadosDTO} con los códigos de
+     * examen codificados en un diccionario; los {@link PacienteRequestDTO} se construyen al enviar.
+     * </p>
+     *
+     * @param segmentos los segmentos del archivo HL7, en orden.
+     * @return el lote con un paciente por cada mensaje válido.
+     */
+    LoteResultadosDTO procesarLote(Iterator<? extends CharSequence> segmentos);
+
+    /**
+     * Registra el manejador de un tipo de segmento, por ejemplo para extraer datos de NTE u ORC.
+     * <p>
+     * Reemplaza el manejador anterior del tipo, incluidos los predeterminados de PID, OBR y OBX.
+     * Debe invocarse antes de procesar archivos.
+     * </p>
+     *
+     * @param tipo      el tipo de segmento de tres caracteres.
+     * @param manejador el manejador del tipo.
+     */
+    void registrarManejador(String tipo, ManejadorSegmentoHl7 manejador);
+
+    /**
+     * Registra un tipo de segmento que debe omitirse sin contarse como desconocido.
+     * <p>
+     * Debe invocarse antes de procesar archivos.
+     * </p>
+     *
+     * @param tipo el tipo de segmento de tres caracteres.
+     */
+    void ignorarSegmento(String tipo);
 }
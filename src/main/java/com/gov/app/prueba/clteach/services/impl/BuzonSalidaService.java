@@ -0,0 +1,564 @@
+package com.gov.app.prueba.clteach.services.impl;
+
+import com.gov.app.prueba.clteach.dto.ApiClientDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionBuzonDTO;
+import com.gov.app.prueba.clteach.dto.EntradaBuzonDTO;
+import com.gov.app.prueba.clteach.services.IBuzonSalidaService;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_ARCHIVO_BLOQUEO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_DESCARTADO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_EN_USO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_ERROR_REENVIO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_ESPERA_CIERRE_MS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_EXTENSION_SEGMENTO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_RECUPERADO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_REENVIADOS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_REGISTRO_CORRUPTO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILO_BUZON;
+import com.gov.app.prueba.clteach.utils.helper.PoliticaReintentos;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buzón de salida durable basado en un diario de solo escritura al final en disco.
+ * <p>
+ * Cada paciente se escribe como un registro de envío antes de mandarse a la API, y se añade un registro
+ * de confirmación cuando la API lo acepta. Los registros tienen la forma
+ * {@code tipo | id | clave (UUID) | longitud | cuerpo | CRC32}; un registro incompleto o con CRC inválido
+ * marca el final válido del segmento.
+ * </p>
+ * <p>
+ * Las sincronizaciones con disco ({@link FileChannel#force(boolean)}) se agrupan: un único {@code force}
+ * cubre todos los registros escritos hasta ese momento por cualquier hilo. El diario se divide en segmentos
+ * que rotan al alcanzar el tamaño configurado; un segmento cerrado se elimina cuando todos sus registros están
+ * confirmados y no quedan segmentos anteriores en disco, ya que sus confirmaciones pueden referirse a registros
+ * de esos segmentos. Cuando se acumulan varios segmentos cerrados, sus registros pendientes se copian al
+ * segmento activo y se eliminan todos. Un hilo en segundo plano reenvía los registros recuperados al iniciar
+ * y los que quedan pendientes tras una caída de la API, salvo los que su envío original aún no libera.
+ * </p>
+ */
+@Slf4j
+public class BuzonSalidaService implements IBuzonSalidaService {
+
+    private static final byte TIPO_ENVIO = 1;
+    private static final byte TIPO_CONFIRMACION = 2;
+    private static final int ENCABEZADO = 1 + Long.BYTES * 3 + Integer.BYTES;
+    private static final int COLA = Integer.BYTES;
+    private static final byte[] VACIO = new byte[0];
+    private static final String FORMATO_SEGMENTO = "%012d";
+
+    private final ConfiguracionBuzonDTO configuracion;
+    private final ApiClientDTO apiClient;
+    private final FileChannel canalBloqueo;
+    private final FileLock bloqueo;
+    private final ScheduledExecutorService drenador;
+    private final AtomicBoolean drenando = new AtomicBoolean();
+
+    /** Registros pendientes en orden de registro; protegido por {@code this}. */
+    private final Map<Long, Registro> pendientes = new LinkedHashMap<>();
+
+    /** Número de registros pendientes por segmento; protegido por {@code this}. */
+    private final Map<Long, Integer> pendientesPorSegmento = new HashMap<>();
+
+    /** Segmentos cerrados que siguen en disco, en orden; protegido por {@code this}. */
+    private final TreeSet<Long> segmentosCerrados = new TreeSet<>();
+
+    /** Registros pendientes cuyo envío original sigue en curso; protegido por {@code this}. */
+    private final Set<Long> enCurso = new HashSet<>();
+
+    private long segmentoActivo;
+    private FileChannel canal;
+    private long tamanoActivo;
+    private long ultimoId;
+    private long escritos;
+
+    private final Object sincronizacion = new Object();
+    private long sincronizados;
+
+    /**
+     * Abre el buzón, recupera los registros pendientes e inicia el reenvío en segundo plano.
+     *
+     * @param configuracion la configuración del buzón.
+     * @param apiClient     el cliente HTTP utilizado para los reenvíos.
+     * @throws IOException si el directorio no puede abrirse o ya está en uso.
+     */
+    public BuzonSalidaService(ConfiguracionBuzonDTO configuracion, ApiClientDTO apiClient) throws IOException {
+        this.configuracion = configuracion;
+        this.apiClient = apiClient;
+        Path directorio = configuracion.getDirectorio();
+        Files.createDirectories(directorio);
+
+        this.canalBloqueo = FileChannel.open(directorio.resolve(BUZON_ARCHIVO_BLOQUEO),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock adquirido;
+        try {
+            adquirido = canalBloqueo.tryLock();
+        } catch (OverlappingFileLockException e) {
+            adquirido = null;
+        }
+        if (adquirido == null) {
+            canalBloqueo.close();
+            throw new IOException(BUZON_EN_USO + directorio);
+        }
+        this.bloqueo = adquirido;
+
+        try {
+            recuperar();
+        } catch (IOException | RuntimeException e) {
+            bloqueo.release();
+            canalBloqueo.close();
+            throw e;
+        }
+
+        this.drenador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, HILO_BUZON);
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        drenador.scheduleWithFixedDelay(this::drenar, 0, configuracion.getIntervaloDrenadoMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Guarda un cuerpo JSON en el buzón y espera a que esté sincronizado en disco.
+     *
+     * @param cuerpo Cuerpo JSON a enviar.
+     * @return Entrada registrada.
+     * @throws IOException Si el registro no puede escribirse.
+     */
+    @Override
+    public EntradaBuzonDTO registrar(byte[] cuerpo) throws IOException {
+        UUID clave = UUID.randomUUID();
+        long id;
+        long secuencia;
+        synchronized (this) {
+            rotarSiNecesario();
+            id = ++ultimoId;
+            long posicion = escribir(TIPO_ENVIO, id, clave, cuerpo);
+            agregarPendiente(new Registro(id, segmentoActivo, posicion, cuerpo.length, clave, System.nanoTime(), false));
+            enCurso.add(id);
+            secuencia = ++escritos;
+        }
+        sincronizar(secuencia);
+        return new EntradaBuzonDTO(id, clave.toString());
+    }
+
+    /**
+     * Marca un registro como confirmado. La confirmación no se sincroniza de inmediato: si se pierde
+     * por una caída, el registro se reenvía con la misma clave de idempotencia.
+     *
+     * @param id Identificador del registro.
+     * @throws IOException Si la confirmación no puede escribirse.
+     */
+    @Override
+    public synchronized void confirmar(long id) throws IOException {
+        enCurso.remove(id);
+        Registro registro = pendientes.remove(id);
+        if (registro == null) {
+            return;
+        }
+        rotarSiNecesario();
+        escribir(TIPO_CONFIRMACION, id, null, VACIO);
+        descontar(registro.segmento);
+    }
+
+    /**
+     * Permite que el reenvío en segundo plano procese el registro una vez cumplida su antigüedad mínima.
+     *
+     * @param id Identificador del registro.
+     */
+    @Override
+    public synchronized void liberar(long id) {
+        enCurso.remove(id);
+    }
+
+    @Override
+    public synchronized int pendientes() {
+        return pendientes.size();
+    }
+
+    /**
+     * Detiene el reenvío en segundo plano, sincroniza el segmento activo y libera el directorio.
+     * <p>
+     * Espera a que el reenvío interrumpido termine, para que no escriba en el diario ya cerrado; el registro
+     * que estaba reenviando queda pendiente.
+     * </p>
+     *
+     * @throws IOException Si ocurre un error al cerrar el diario.
+     */
+    @Override
+    public void close() throws IOException {
+        drenador.shutdownNow();
+        try {
+            drenador.awaitTermination(BUZON_ESPERA_CIERRE_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                canal.force(false);
+                canal.close();
+            } finally {
+                bloqueo.release();
+                canalBloqueo.close();
+            }
+        }
+    }
+
+    /**
+     * Sincroniza con disco al menos hasta la secuencia indicada, agrupando las solicitudes concurrentes.
+     *
+     * @param secuencia Secuencia del registro que debe quedar sincronizado.
+     * @throws IOException Si la sincronización falla.
+     */
+    private void sincronizar(long secuencia) throws IOException {
+        synchronized (sincronizacion) {
+            if (sincronizados >= secuencia) {
+                return;
+            }
+            long objetivo;
+            FileChannel actual;
+            synchronized (this) {
+                objetivo = escritos;
+                actual = canal;
+            }
+            try {
+                actual.force(false);
+            } catch (ClosedChannelException e) {
+                // El segmento se rotó y se sincronizó antes de cerrarse
+            }
+            sincronizados = objetivo;
+        }
+    }
+
+    /**
+     * Escribe un registro al final del segmento activo. Debe invocarse con el candado adquirido.
+     *
+     * @return Posición del cuerpo del registro dentro del segmento.
+     */
+    private long escribir(byte tipo, long id, UUID clave, byte[] cuerpo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCABEZADO + cuerpo.length + COLA);
+        buffer.put(tipo)
+                .putLong(id)
+                .putLong(clave != null ? clave.getMostSignificantBits() : 0L)
+                .putLong(clave != null ? clave.getLeastSignificantBits() : 0L)
+                .putInt(cuerpo.length)
+                .put(cuerpo);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        long inicio = tamanoActivo;
+        while (buffer.hasRemaining()) {
+            canal.write(buffer, inicio + buffer.position());
+        }
+        tamanoActivo += buffer.limit();
+        return inicio + ENCABEZADO;
+    }
+
+    /**
+     * Abre un nuevo segmento si el activo alcanzó el tamaño máximo. Debe invocarse con el candado adquirido.
+     */
+    private void rotarSiNecesario() throws IOException {
+        if (tamanoActivo < configuracion.getTamanoSegmento()) {
+            return;
+        }
+        canal.force(false);
+        canal.close();
+        long anterior = segmentoActivo;
+        abrirSegmento(anterior + 1);
+        segmentosCerrados.add(anterior);
+        liberarSegmentos();
+    }
+
+    /**
+     * Elimina, desde el más antiguo, los segmentos cerrados sin registros pendientes. Un segmento sin
+     * pendientes se conserva mientras exista uno anterior, ya que sus confirmaciones pueden referirse a
+     * registros de ese segmento y, sin ellas, esos registros se reenviarían tras reiniciar. Debe invocarse
+     * con el candado adquirido.
+     */
+    private void liberarSegmentos() throws IOException {
+        while (!segmentosCerrados.isEmpty() && !pendientesPorSegmento.containsKey(segmentosCerrados.first())) {
+            Files.deleteIfExists(rutaSegmento(segmentosCerrados.pollFirst()));
+        }
+    }
+
+    private void abrirSegmento(long numero) throws IOException {
+        segmentoActivo = numero;
+        canal = FileChannel.open(rutaSegmento(numero), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        tamanoActivo = canal.size();
+    }
+
+    private void agregarPendiente(Registro registro) {
+        pendientes.put(registro.id, registro);
+        pendientesPorSegmento.merge(registro.segmento, 1, Integer::sum);
+    }
+
+    /**
+     * Descuenta un registro pendiente de su segmento y elimina los segmentos cerrados que ya pueden liberarse.
+     */
+    private void descontar(long segmento) throws IOException {
+        Integer restantes = pendientesPorSegmento.merge(segmento, -1, Integer::sum);
+        if (restantes != null && restantes <= 0) {
+            pendientesPorSegmento.remove(segmento);
+            liberarSegmentos();
+        }
+    }
+
+    /**
+     * Reconstruye los registros pendientes a partir de los segmentos en disco y abre un segmento nuevo.
+     */
+    private synchronized void recuperar() throws IOException {
+        TreeSet<Long> segmentos = listarSegmentos();
+        for (long numero : segmentos) {
+            leerSegmento(numero);
+        }
+        for (Registro registro : pendientes.values()) {
+            pendientesPorSegmento.merge(registro.segmento, 1, Integer::sum);
+        }
+
+        abrirSegmento(segmentos.isEmpty() ? 1 : segmentos.last() + 1);
+        segmentosCerrados.addAll(segmentos);
+        liberarSegmentos();
+        log.info(BUZON_RECUPERADO, configuracion.getDirectorio(), pendientes.size());
+        compactar(1);
+    }
+
+    private TreeSet<Long> listarSegmentos() throws IOException {
+        TreeSet<Long> segmentos = new TreeSet<>();
+        try (Stream<Path> archivos = Files.list(configuracion.getDirectorio())) {
+            archivos.map(ruta -> ruta.getFileName().toString())
+                    .filter(nombre -> nombre.endsWith(BUZON_EXTENSION_SEGMENTO))
+                    .map(nombre -> nombre.substring(0, nombre.length() - BUZON_EXTENSION_SEGMENTO.length()))
+                    .filter(nombre -> !nombre.isEmpty() && nombre.chars().allMatch(Character::isDigit))
+                    .forEach(nombre -> segmentos.add(Long.parseLong(nombre)));
+        }
+        return segmentos;
+    }
+
+    /**
+     * Lee los registros válidos de un segmento y trunca el segmento en el primer registro corrupto.
+     */
+    private void leerSegmento(long numero) throws IOException {
+        Path ruta = rutaSegmento(numero);
+        try (FileChannel lectura = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long tamano = lectura.size();
+            long posicion = 0;
+            ByteBuffer encabezado = ByteBuffer.allocate(ENCABEZADO);
+            while (posicion < tamano) {
+                encabezado.clear();
+                int longitud = -1;
+                if (leerCompleto(lectura, encabezado, posicion)) {
+                    encabezado.flip();
+                    longitud = encabezado.getInt(ENCABEZADO - Integer.BYTES);
+                }
+                if (longitud < 0 || posicion + ENCABEZADO + longitud + COLA > tamano) {
+                    break;
+                }
+                ByteBuffer registro = ByteBuffer.allocate(ENCABEZADO + longitud + COLA);
+                if (!leerCompleto(lectura, registro, posicion)) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(registro.array(), 0, ENCABEZADO + longitud);
+                registro.flip();
+                if ((int) crc.getValue() != registro.getInt(ENCABEZADO + longitud)) {
+                    break;
+                }
+
+                byte tipo = registro.get();
+                long id = registro.getLong();
+                UUID clave = new UUID(registro.getLong(), registro.getLong());
+                if (tipo == TIPO_ENVIO) {
+                    pendientes.put(id, new Registro(id, numero, posicion + ENCABEZADO, longitud, clave, 0L, true));
+                } else if (tipo == TIPO_CONFIRMACION) {
+                    pendientes.remove(id);
+                }
+                ultimoId = Math.max(ultimoId, id);
+                posicion += ENCABEZADO + longitud + COLA;
+            }
+            if (posicion < tamano) {
+                log.warn(BUZON_REGISTRO_CORRUPTO, ruta, posicion);
+                lectura.truncate(posicion);
+            }
+        }
+    }
+
+    private static boolean leerCompleto(FileChannel lectura, ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            if (lectura.read(destino, posicion + destino.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copia al segmento activo los registros pendientes de los segmentos cerrados y elimina todos los segmentos
+     * cerrados, si hay al menos {@code minimoSegmentos} segmentos cerrados con pendientes. Las confirmaciones
+     * de los segmentos eliminados ya no hacen falta: solo se refieren a registros de segmentos cerrados.
+     */
+    private synchronized void compactar(int minimoSegmentos) throws IOException {
+        List<Long> cerrados = new ArrayList<>();
+        for (Long segmento : pendientesPorSegmento.keySet()) {
+            if (segmento != segmentoActivo) {
+                cerrados.add(segmento);
+            }
+        }
+        if (cerrados.isEmpty() || cerrados.size() < minimoSegmentos) {
+            return;
+        }
+
+        long destino = segmentoActivo;
+        for (Registro registro : new ArrayList<>(pendientes.values())) {
+            if (registro.segmento == destino) {
+                continue;
+            }
+            byte[] cuerpo = leer(registro);
+            long posicion = escribir(TIPO_ENVIO, registro.id, registro.clave, cuerpo);
+            Registro reubicado = new Registro(registro.id, destino, posicion, registro.longitud, registro.clave,
+                    registro.registradoNanos, registro.recuperado);
+            pendientes.put(registro.id, reubicado);
+            pendientesPorSegmento.merge(destino, 1, Integer::sum);
+            pendientesPorSegmento.merge(registro.segmento, -1, Integer::sum);
+        }
+        canal.force(false);
+        for (Long segmento : cerrados) {
+            pendientesPorSegmento.remove(segmento);
+        }
+        liberarSegmentos();
+    }
+
+    /**
+     * Lee el cuerpo de un registro pendiente. Debe invocarse con el candado adquirido.
+     */
+    private byte[] leer(Registro registro) throws IOException {
+        ByteBuffer cuerpo = ByteBuffer.allocate(registro.longitud);
+        if (registro.segmento == segmentoActivo) {
+            leerCompleto(canal, cuerpo, registro.posicion);
+        } else {
+            try (FileChannel lectura = FileChannel.open(rutaSegmento(registro.segmento), StandardOpenOption.READ)) {
+                leerCompleto(lectura, cuerpo, registro.posicion);
+            }
+        }
+        return cuerpo.array();
+    }
+
+    /**
+     * Reenvía los registros pendientes recuperados o con la antigüedad mínima configurada, omitiendo los
+     * que su envío original aún no libera.
+     * <p>
+     * El reenvío se detiene ante el primer error que no sea un rechazo definitivo, incluida una interrupción
+     * al cerrar el buzón, y se reanuda en la siguiente ejecución o tras reabrir el directorio. Solo se
+     * descartan los registros que la API rechaza de forma definitiva.
+     * </p>
+     */
+    private void drenar() {
+        if (!drenando.compareAndSet(false, true)) {
+            return;
+        }
+        int reenviados = 0;
+        try {
+            compactar(configuracion.getSegmentosCompactacion());
+            long limite = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(configuracion.getEdadMinimaReenvioMs());
+            List<Long> candidatos = new ArrayList<>();
+            synchronized (this) {
+                for (Registro registro : pendientes.values()) {
+                    if (enCurso.contains(registro.id)) {
+                        continue;
+                    }
+                    if (registro.recuperado || registro.registradoNanos - limite <= 0) {
+                        candidatos.add(registro.id);
+                    }
+                }
+            }
+
+            for (Long id : candidatos) {
+                byte[] cuerpo;
+                String clave;
+                synchronized (this) {
+                    Registro registro = pendientes.get(id);
+                    if (registro == null) {
+                        continue;
+                    }
+                    cuerpo = leer(registro);
+                    clave = registro.clave.toString();
+                }
+                try {
+                    apiClient.sendPostRequest(configuracion.getUrl(), cuerpo, clave);
+                    reenviados++;
+                } catch (Exception e) {
+                    if (!PoliticaReintentos.esRechazoDefinitivo(e)) {
+                        if (e instanceof InterruptedException) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw e;
+                    }
+                    log.error(BUZON_DESCARTADO, id, e.getMessage());
+                }
+                confirmar(id);
+            }
+        } catch (Exception e) {
+            if (!drenador.isShutdown()) {
+                log.warn(BUZON_ERROR_REENVIO, e.getMessage());
+            }
+        } finally {
+            drenando.set(false);
+            if (reenviados > 0) {
+                log.info(BUZON_REENVIADOS, reenviados);
+            }
+        }
+    }
+
+    private Path rutaSegmento(long numero) {
+        return configuracion.getDirectorio().resolve(String.format(FORMATO_SEGMENTO, numero) + BUZON_EXTENSION_SEGMENTO);
+    }
+
+    /**
+     * Ubicación en disco de un registro pendiente.
+     */
+    private static final class Registro {
+
+        private final long id;
+        private final long segmento;
+        private final long posicion;
+        private final int longitud;
+        private final UUID clave;
+        private final long registradoNanos;
+        private final boolean recuperado;
+
+        private Registro(long id, long segmento, long posicion, int longitud, UUID clave, long registradoNanos,
+                boolean recuperado) {
+            this.id = id;
+            this.segmento = segmento;
+            this.posicion = posicion;
+            this.longitud = longitud;
+            this.clave = clave;
+            this.registradoNanos = registradoNanos;
+            this.recuperado = recuperado;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.gov.app.prueba.clteach.services.impl;
+
+import com.gov.app.prueba.clteach.dto.ConfiguracionCarpetaDTO;
+import com.gov.app.prueba.clteach.dto.RespuestaGeneralDTO;
+import com.gov.app.prueba.clteach.services.ICarpetaEntradaService;
+import com.gov.app.prueba.clteach.services.ILeerArchivoService;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARPETA_ARCHIVO_ERROR;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARPETA_ARCHIVO_PROCESADO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARPETA_DESBORDE;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARPETA_ERRORES;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARPETA_INICIADA;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARPETA_NO_ACCESIBLE;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARPETA_PROCESADOS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_INESPERADO_PORCESAR;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_MOVER_ARCHIVO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_VIGILANCIA_CARPETA;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILO_CARPETA;
+import com.gov.app.prueba.clteach.utils.helper.Utilities;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio que vigila una carpeta de entrada con {@link WatchService} y procesa sin intervención
+ * los archivos HL7 que llegan a ella.
+ * <p>
+ * Los eventos de la carpeta solo registran el archivo como candidato. Un temporizador revisa los candidatos
+ * y considera completo un archivo cuando su tamaño y su fecha de modificación no cambian durante el tiempo
+ * de estabilidad configurado; los archivos escritos con otro nombre y renombrados al terminar no coinciden
+ * con el patrón hasta el renombrado. Los archivos completos se entregan a un pool de hilos fijo con una cola
+ * acotada: si la cola está llena, el archivo sigue como candidato hasta la siguiente revisión, de modo que
+ * una ráfaga de miles de archivos no crea un hilo por evento ni agota la memoria.
+ * </p>
+ * <p>
+ * Al terminar, cada archivo se mueve a la carpeta de procesados o de errores.
+ * </p>
+ */
+@Slf4j
+public class CarpetaEntradaService implements ICarpetaEntradaService {
+
+    private final ILeerArchivoService leerArchivoService;
+    private final ConfiguracionCarpetaDTO configuracion;
+    private final Path entrada;
+    private final Path procesados;
+    private final Path errores;
+    private final PathMatcher matcher;
+
+    /** Archivos detectados que aún no se consideran completos, con su última observación. */
+    private final Map<Path, Observacion> candidatos = new ConcurrentHashMap<>();
+
+    /** Archivos entregados al pool que aún no se han movido. */
+    private final Set<Path> enCurso = ConcurrentHashMap.newKeySet();
+
+    private final CountDownLatch detenido = new CountDownLatch(1);
+    private WatchService vigilante;
+    private ScheduledExecutorService temporizador;
+    private ThreadPoolExecutor executor;
+    private Thread hiloVigilante;
+
+    /**
+     * Crea el servicio de la carpeta de entrada.
+     *
+     * @param leerArchivoService el servicio que procesa cada archivo.
+     * @param configuracion      la configuración del modo carpeta.
+     */
+    public CarpetaEntradaService(ILeerArchivoService leerArchivoService, ConfiguracionCarpetaDTO configuracion) {
+        this.leerArchivoService = leerArchivoService;
+        this.configuracion = configuracion;
+        this.entrada = configuracion.getEntrada();
+        this.procesados = configuracion.getProcesados() != null ? configuracion.getProcesados() : entrada.resolve(CARPETA_PROCESADOS);
+        this.errores = configuracion.getErrores() != null ? configuracion.getErrores() : entrada.resolve(CARPETA_ERRORES);
+        this.matcher = entrada.getFileSystem().getPathMatcher(configuracion.getPatron());
+    }
+
+    /**
+     * Procesa los archivos ya presentes en la carpeta e inicia la vigilancia de los nuevos.
+     *
+     * @throws IOException Si la carpeta no puede vigilarse.
+     */
+    @Override
+    public void iniciar() throws IOException {
+        Files.createDirectories(procesados);
+        Files.createDirectories(errores);
+
+        vigilante = entrada.getFileSystem().newWatchService();
+        entrada.register(vigilante, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        AtomicInteger contador = new AtomicInteger();
+        int hilos = Math.max(configuracion.getHilos(), 1);
+        executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(configuracion.getCapacidadCola(), 1)),
+                tarea -> crearHilo(tarea, HILO_CARPETA + contador.incrementAndGet()));
+        temporizador = Executors.newSingleThreadScheduledExecutor(tarea -> crearHilo(tarea, HILO_CARPETA + "revision"));
+        long intervalo = Math.max(configuracion.getEstabilidadMs() / 2, 1L);
+        temporizador.scheduleWithFixedDelay(this::revisarCandidatos, intervalo, intervalo, TimeUnit.MILLISECONDS);
+
+        hiloVigilante = crearHilo(this::vigilar, HILO_CARPETA + "vigilante");
+        hiloVigilante.start();
+        recorrer();
+        log.info(CARPETA_INICIADA, entrada, hilos, configuracion.getCapacidadCola());
+    }
+
+    @Override
+    public void esperar() throws InterruptedException {
+        detenido.await();
+    }
+
+    /**
+     * Detiene la vigilancia y espera a que terminen los archivos en curso.
+     * Los archivos pendientes permanecen en la carpeta de entrada y se procesan en el siguiente inicio.
+     */
+    @Override
+    public void close() {
+        try {
+            if (vigilante != null) {
+                vigilante.close();
+            }
+        } catch (IOException e) {
+            log.warn(ERROR_VIGILANCIA_CARPETA, entrada, e.getMessage());
+        }
+        if (temporizador != null) {
+            temporizador.shutdownNow();
+        }
+        if (executor != null) {
+            executor.getQueue().clear();
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        detenido.countDown();
+    }
+
+    /**
+     * Registra como candidatos los archivos de los eventos de la carpeta.
+     */
+    private void vigilar() {
+        try {
+            while (true) {
+                WatchKey clave = vigilante.take();
+                for (WatchEvent<?> evento : clave.pollEvents()) {
+                    if (evento.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        log.warn(CARPETA_DESBORDE, entrada);
+                        recorrer();
+                    } else {
+                        registrar(entrada.resolve((Path) evento.context()));
+                    }
+                }
+                if (!clave.reset()) {
+                    log.error(ERROR_VIGILANCIA_CARPETA, entrada, CARPETA_NO_ACCESIBLE);
+                    close();
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Servicio detenido
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error(ERROR_VIGILANCIA_CARPETA, entrada, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Registra como candidatos todos los archivos presentes en la carpeta de entrada.
+     */
+    private void recorrer() throws IOException {
+        try (Stream<Path> archivos = Files.list(entrada)) {
+            archivos.forEach(this::registrar);
+        }
+    }
+
+    private void registrar(Path archivo) {
+        if (matcher.matches(archivo.getFileName()) && !enCurso.contains(archivo)) {
+            candidatos.putIfAbsent(archivo, new Observacion(-1L, -1L, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Entrega al pool los candidatos cuyo tamaño y fecha de modificación no cambiaron durante el tiempo
+     * de estabilidad. Se detiene cuando la cola del pool está llena.
+     */
+    private void revisarCandidatos() {
+        long ahora = System.nanoTime();
+        long estabilidad = TimeUnit.MILLISECONDS.toNanos(configuracion.getEstabilidadMs());
+        Iterator<Map.Entry<Path, Observacion>> iterador = candidatos.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Map.Entry<Path, Observacion> candidato = iterador.next();
+            Path archivo = candidato.getKey();
+            BasicFileAttributes atributos;
+            try {
+                atributos = Files.readAttributes(archivo, BasicFileAttributes.class);
+            } catch (IOException e) {
+                iterador.remove();
+                continue;
+            }
+            if (!atributos.isRegularFile()) {
+                iterador.remove();
+                continue;
+            }
+
+            Observacion anterior = candidato.getValue();
+            long tamano = atributos.size();
+            long modificado = atributos.lastModifiedTime().toMillis();
+            if (tamano != anterior.tamano || modificado != anterior.modificado) {
+                candidato.setValue(new Observacion(tamano, modificado, ahora));
+            } else if (ahora - anterior.desde >= estabilidad) {
+                enCurso.add(archivo);
+                try {
+                    executor.execute(() -> procesar(archivo));
+                } catch (RejectedExecutionException e) {
+                    enCurso.remove(archivo);
+                    return;
+                }
+                iterador.remove();
+            }
+        }
+    }
+
+    /**
+     * Procesa un archivo completo y lo mueve según el resultado.
+     *
+     * @param archivo Archivo de la carpeta de entrada.
+     */
+    private void procesar(Path archivo) {
+        try {
+            RespuestaGeneralDTO respuesta;
+            try {
+                respuesta = configuracion.isLote()
+                        ? leerArchivoService.leerLoteHl7(archivo.toFile())
+                        : leerArchivoService.leerArchivoHl7(archivo.toFile());
+            } catch (RuntimeException e) {
+                log.error(ERROR_INESPERADO_PORCESAR, e);
+                respuesta = null;
+            }
+            if (respuesta == null || Utilities.validacionRespuesta(respuesta.getStatus())) {
+                log.error(CARPETA_ARCHIVO_ERROR, archivo, respuesta != null ? respuesta.getMessage() : null);
+                mover(archivo, errores);
+            } else {
+                log.info(CARPETA_ARCHIVO_PROCESADO, archivo, respuesta.getMessage());
+                mover(archivo, procesados);
+            }
+        } finally {
+            enCurso.remove(archivo);
+        }
+    }
+
+    /**
+     * Mueve un archivo a una carpeta, agregando una marca de tiempo al nombre si ya existe otro igual.
+     *
+     * @param archivo Archivo a mover.
+     * @param destino Carpeta de destino.
+     */
+    private void mover(Path archivo, Path destino) {
+        Path nombre = archivo.getFileName();
+        Path objetivo = destino.resolve(nombre);
+        if (Files.exists(objetivo)) {
+            objetivo = destino.resolve(System.currentTimeMillis() + "-" + nombre);
+        }
+        try {
+            try {
+                Files.move(archivo, objetivo, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(archivo, objetivo);
+            }
+        } catch (NoSuchFileException e) {
+            // El archivo fue retirado de la carpeta durante el procesamiento
+        } catch (IOException e) {
+            log.error(ERROR_MOVER_ARCHIVO, archivo, destino, e.getMessage());
+        }
+    }
+
+    private static Thread crearHilo(Runnable tarea, String nombre) {
+        Thread hilo = new Thread(tarea, nombre);
+        hilo.setDaemon(true);
+        return hilo;
+    }
+
+    /**
+     * Tamaño y fecha de modificación observados de un archivo candidato, y el instante desde el cual no cambian.
+     */
+    private static final class Observacion {
+
+        private final long tamano;
+        private final long modificado;
+        private final long desde;
+
+        private Observacion(long tamano, long modificado, long desde) {
+            this.tamano = tamano;
+            this.modificado = modificado;
+            this.desde = desde;
+        }
+    }
+}
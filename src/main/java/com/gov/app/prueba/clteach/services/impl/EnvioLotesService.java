@@ -0,0 +1,258 @@
+package com.gov.app.prueba.clteach.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gov.app.prueba.clteach.dto.ApiClientDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionLotesDTO;
+import com.gov.app.prueba.clteach.dto.LoteResultadosDTO;
+import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
+import com.gov.app.prueba.clteach.dto.RespuestaGeneralDTO;
+import com.gov.app.prueba.clteach.services.IEnvioLotesService;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_ENVIO_LOTE;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_ENVIO_LOTES_CERRADO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_RESPUESTA_LOTE_INCOMPLETA;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILO_ENVIO_LOTES;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio que agrupa pacientes en envíos por lotes hacia la API.
+ * <p>
+ * Los pacientes se serializan al encolarse y se acumulan hasta alcanzar el número máximo de elementos,
+ * el tamaño máximo en bytes o el tiempo máximo de espera; entonces se envían en un único arreglo JSON.
+ * La respuesta del lote se reparte entre los futuros de cada paciente según su posición, ya sea un
+ * arreglo JSON o un {@link RespuestaGeneralDTO} cuyo campo {@code data} es un arreglo. Si la respuesta
+ * no contiene un arreglo, se entrega la misma respuesta a todos los pacientes del lote.
+ * </p>
+ * <p>
+ * Si no hay un endpoint de lotes configurado, cada paciente se envía de inmediato de forma individual.
+ * </p>
+ */
+@Slf4j
+public class EnvioLotesService implements IEnvioLotesService {
+
+    private final ApiClientDTO apiClient;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter escritorPaciente;
+    private final ConfiguracionLotesDTO configuracion;
+    private final ScheduledExecutorService temporizador;
+
+    private final Object candado = new Object();
+    private List<Pendiente> pendientes = new ArrayList<>();
+    private int bytesPendientes;
+    private ScheduledFuture<?> vaciadoProgramado;
+    private boolean cerrado;
+
+    /**
+     * Crea el servicio sobre la instancia compartida de {@link ApiClientDTO}.
+     *
+     * @param configuracion la configuración de los lotes.
+     */
+    public EnvioLotesService(ConfiguracionLotesDTO configuracion) {
+        this(ApiClientDTO.getInstance(), configuracion);
+    }
+
+    /**
+     * Crea el servicio sobre un cliente HTTP específico.
+     *
+     * @param apiClient     el cliente HTTP utilizado para los envíos.
+     * @param configuracion la configuración de los lotes.
+     */
+    public EnvioLotesService(ApiClientDTO apiClient, ConfiguracionLotesDTO configuracion) {
+        this.apiClient = apiClient;
+        this.objectMapper = apiClient.getObjectMapper();
+        this.escritorPaciente = apiClient.getEscritorPaciente();
+        this.configuracion = configuracion;
+        this.temporizador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, HILO_ENVIO_LOTES);
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Encola un paciente para su envío en el próximo lote.
+     *
+     * @param request Datos del paciente a enviar.
+     * @return Futuro con la respuesta de la API para este paciente.
+     */
+    @Override
+    public CompletableFuture<RespuestaGeneralDTO> enviar(PacienteRequestDTO request) {
+        byte[] json;
+        try {
+            json = escritorPaciente.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (configuracion.getUrlLote() == null) {
+            return apiClient.sendPostAsync(configuracion.getUrlIndividual(), json, RespuestaGeneralDTO.class);
+        }
+
+        CompletableFuture<RespuestaGeneralDTO> futuro = new CompletableFuture<>();
+        List<Pendiente> anterior = null;
+        List<Pendiente> completo = null;
+        synchronized (candado) {
+            if (cerrado) {
+                return CompletableFuture.failedFuture(new IllegalStateException(ERROR_ENVIO_LOTES_CERRADO));
+            }
+            if (!pendientes.isEmpty() && bytesPendientes + json.length + 1 > configuracion.getMaxBytes()) {
+                anterior = extraer();
+            }
+            pendientes.add(new Pendiente(json, futuro));
+            bytesPendientes += json.length + 1;
+            if (pendientes.size() >= configuracion.getMaxElementos() || bytesPendientes >= configuracion.getMaxBytes()) {
+                completo = extraer();
+            } else if (pendientes.size() == 1) {
+                vaciadoProgramado = temporizador.schedule(this::vaciar, configuracion.getEsperaMaximaMs(), TimeUnit.MILLISECONDS);
+            }
+        }
+        enviarLote(anterior);
+        enviarLote(completo);
+        return futuro;
+    }
+
+    /**
+     * Encola todos los pacientes de un lote por columnas.
+     *
+     * @param lote Lote de pacientes a enviar.
+     * @return Futuros con la respuesta de la API para cada paciente, en el orden del lote.
+     */
+    @Override
+    public List<CompletableFuture<RespuestaGeneralDTO>> enviar(LoteResultadosDTO lote) {
+        List<CompletableFuture<RespuestaGeneralDTO>> futuros = new ArrayList<>(lote.getPacientes());
+        for (int i = 0; i < lote.getPacientes(); i++) {
+            futuros.add(enviar(lote.materializar(i)));
+        }
+        return futuros;
+    }
+
+    /**
+     * Envía de inmediato los pacientes pendientes en el buffer.
+     */
+    @Override
+    public void vaciar() {
+        List<Pendiente> lote;
+        synchronized (candado) {
+            lote = extraer();
+        }
+        enviarLote(lote);
+    }
+
+    /**
+     * Envía los pacientes pendientes y detiene el temporizador.
+     */
+    @Override
+    public void close() {
+        List<Pendiente> lote;
+        synchronized (candado) {
+            cerrado = true;
+            lote = extraer();
+        }
+        enviarLote(lote);
+        temporizador.shutdown();
+    }
+
+    /**
+     * Retira los pacientes pendientes del buffer. Debe invocarse con el candado adquirido.
+     *
+     * @return Pacientes pendientes, o {@code null} si el buffer está vacío.
+     */
+    private List<Pendiente> extraer() {
+        if (vaciadoProgramado != null) {
+            vaciadoProgramado.cancel(false);
+            vaciadoProgramado = null;
+        }
+        if (pendientes.isEmpty()) {
+            return null;
+        }
+        List<Pendiente> lote = pendientes;
+        pendientes = new ArrayList<>();
+        bytesPendientes = 0;
+        return lote;
+    }
+
+    /**
+     * Construye el arreglo JSON de un lote y lo envía al endpoint de lotes.
+     *
+     * @param lote Pacientes del lote; si es {@code null} no se envía nada.
+     */
+    private void enviarLote(List<Pendiente> lote) {
+        if (lote == null) {
+            return;
+        }
+        int tamano = 1;
+        for (Pendiente pendiente : lote) {
+            tamano += pendiente.json.length + 1;
+        }
+        byte[] cuerpo = new byte[tamano];
+        int posicion = 0;
+        cuerpo[posicion++] = '[';
+        for (Pendiente pendiente : lote) {
+            if (posicion > 1) {
+                cuerpo[posicion++] = ',';
+            }
+            System.arraycopy(pendiente.json, 0, cuerpo, posicion, pendiente.json.length);
+            posicion += pendiente.json.length;
+        }
+        cuerpo[posicion] = ']';
+
+        apiClient.sendPostAsync(configuracion.getUrlLote(), cuerpo, JsonNode.class)
+                .whenComplete((respuesta, error) -> {
+                    if (error != null) {
+                        log.error(ERROR_ENVIO_LOTE, lote.size(), error.getMessage());
+                        lote.forEach(pendiente -> pendiente.futuro.completeExceptionally(error));
+                    } else {
+                        distribuir(respuesta, lote);
+                    }
+                });
+    }
+
+    /**
+     * Reparte la respuesta de un lote entre los futuros de sus pacientes.
+     *
+     * @param respuesta Respuesta JSON del endpoint de lotes.
+     * @param lote      Pacientes del lote, en el mismo orden en que se enviaron.
+     */
+    private void distribuir(JsonNode respuesta, List<Pendiente> lote) {
+        JsonNode elementos = respuesta.isArray() ? respuesta
+                : respuesta.path("data").isArray() ? respuesta.get("data") : null;
+
+        for (int i = 0; i < lote.size(); i++) {
+            CompletableFuture<RespuestaGeneralDTO> futuro = lote.get(i).futuro;
+            JsonNode elemento = elementos == null ? respuesta : elementos.get(i);
+            if (elemento == null) {
+                futuro.completeExceptionally(new IllegalStateException(
+                        String.format(ERROR_RESPUESTA_LOTE_INCOMPLETA, i + 1, lote.size())));
+                continue;
+            }
+            try {
+                futuro.complete(objectMapper.treeToValue(elemento, RespuestaGeneralDTO.class));
+            } catch (JsonProcessingException e) {
+                futuro.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Paciente serializado a la espera de ser enviado.
+     */
+    private static final class Pendiente {
+
+        private final byte[] json;
+        private final CompletableFuture<RespuestaGeneralDTO> futuro;
+
+        private Pendiente(byte[] json, CompletableFuture<RespuestaGeneralDTO> futuro) {
+            this.json = json;
+            this.futuro = futuro;
+        }
+    }
+}
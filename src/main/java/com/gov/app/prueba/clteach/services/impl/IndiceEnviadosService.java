@@ -0,0 +1,290 @@
+package com.gov.app.prueba.clteach.services.impl;
+
+import com.gov.app.prueba.clteach.dto.ConfiguracionIndiceDTO;
+import com.gov.app.prueba.clteach.services.IIndiceEnviadosService;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.INDICE_ARCHIVO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.INDICE_ARCHIVO_BLOQUEO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.INDICE_EN_USO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.INDICE_INVALIDO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.INDICE_LLENO;
+import com.gov.app.prueba.clteach.utils.helper.HuellaPaciente;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice de órdenes enviadas guardado como una tabla hash de direccionamiento abierto mapeada en memoria.
+ * <p>
+ * El archivo tiene un encabezado {@code magia | versión | capacidad | ocupadas} seguido de ranuras de
+ * 16 bytes {@code clave del número de orden | huella de los exámenes}; una clave cero marca una ranura
+ * libre. Las colisiones se resuelven con sondeo lineal y, al superar el 75 % de ocupación, la tabla se
+ * reconstruye con el doble de ranuras en un archivo temporal que reemplaza al original con un movimiento
+ * atómico.
+ * </p>
+ * <p>
+ * Las escrituras llegan a la caché de páginas del sistema operativo en cuanto se realizan, por lo que
+ * sobreviven a la caída del proceso; al cerrar el índice se sincronizan en disco. Delante de la tabla hay
+ * una caché LRU acotada en tamaño cuyas entradas caducan tras la vigencia configurada. Si el archivo está
+ * dañado, el índice se reinicia vacío: en el peor caso una orden se envía de nuevo.
+ * </p>
+ */
+@Slf4j
+public class IndiceEnviadosService implements IIndiceEnviadosService {
+
+    private static final int MAGIA = 0x484C3749;
+    private static final int VERSION = 1;
+    private static final int ENCABEZADO = Integer.BYTES * 4;
+    private static final int RANURA = Long.BYTES * 2;
+    private static final int POSICION_CAPACIDAD = Integer.BYTES * 2;
+    private static final int POSICION_OCUPADAS = Integer.BYTES * 3;
+    private static final int CAPACIDAD_MINIMA = 16;
+    private static final int CAPACIDAD_MAXIMA = 1 << 26;
+
+    private final Path archivo;
+    private final long vigenciaNanos;
+    private final FileChannel canalBloqueo;
+    private final FileLock bloqueo;
+
+    /** Caché LRU de huellas por número de orden; protegida por {@code this}. */
+    private final Map<String, EntradaCache> cache;
+
+    private MappedByteBuffer tabla;
+    private int capacidad;
+    private int ocupadas;
+
+    /**
+     * Abre el índice, creándolo vacío si no existe.
+     *
+     * @param configuracion la configuración del índice.
+     * @throws IOException si el directorio no puede abrirse o ya está en uso.
+     */
+    public IndiceEnviadosService(ConfiguracionIndiceDTO configuracion) throws IOException {
+        Path directorio = configuracion.getDirectorio();
+        Files.createDirectories(directorio);
+        this.archivo = directorio.resolve(INDICE_ARCHIVO);
+        this.vigenciaNanos = TimeUnit.MILLISECONDS.toNanos(configuracion.getVigenciaCacheMs());
+        int capacidadCache = Math.max(configuracion.getCapacidadCache(), 1);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EntradaCache> mayor) {
+                return size() > capacidadCache;
+            }
+        };
+
+        this.canalBloqueo = FileChannel.open(directorio.resolve(INDICE_ARCHIVO_BLOQUEO),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock adquirido;
+        try {
+            adquirido = canalBloqueo.tryLock();
+        } catch (OverlappingFileLockException e) {
+            adquirido = null;
+        }
+        if (adquirido == null) {
+            canalBloqueo.close();
+            throw new IOException(INDICE_EN_USO + directorio);
+        }
+        this.bloqueo = adquirido;
+
+        try {
+            abrir(ajustarCapacidad(configuracion.getCapacidadInicial()));
+        } catch (IOException | RuntimeException e) {
+            bloqueo.release();
+            canalBloqueo.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized boolean contiene(String numeroOrden, long huella) {
+        long ahora = System.nanoTime();
+        EntradaCache entrada = cache.get(numeroOrden);
+        if (entrada != null) {
+            if (ahora - entrada.creada < vigenciaNanos) {
+                return entrada.huella == huella;
+            }
+            cache.remove(numeroOrden);
+        }
+
+        int posicion = buscar(clave(numeroOrden));
+        if (tabla.getLong(posicion) == 0L) {
+            return false;
+        }
+        long guardada = tabla.getLong(posicion + Long.BYTES);
+        cache.put(numeroOrden, new EntradaCache(guardada, ahora));
+        return guardada == huella;
+    }
+
+    @Override
+    public synchronized void registrar(String numeroOrden, long huella) throws IOException {
+        long clave = clave(numeroOrden);
+        int posicion = buscar(clave);
+        if (tabla.getLong(posicion) == 0L) {
+            if ((ocupadas + 1L) * 4 > capacidad * 3L) {
+                if (capacidad >= CAPACIDAD_MAXIMA) {
+                    throw new IOException(INDICE_LLENO + archivo);
+                }
+                crecer();
+                posicion = buscar(clave);
+            }
+            ocupadas++;
+            tabla.putInt(POSICION_OCUPADAS, ocupadas);
+        }
+        // La huella se escribe antes que la clave para que la ranura nunca quede con una huella ajena
+        tabla.putLong(posicion + Long.BYTES, huella);
+        tabla.putLong(posicion, clave);
+        cache.put(numeroOrden, new EntradaCache(huella, System.nanoTime()));
+    }
+
+    @Override
+    public synchronized int tamano() {
+        return ocupadas;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            tabla.force();
+        } finally {
+            bloqueo.release();
+            canalBloqueo.close();
+        }
+    }
+
+    /**
+     * Mapea el archivo del índice, creándolo o reiniciándolo si no es válido.
+     *
+     * @param capacidadInicial el número de ranuras de una tabla nueva.
+     * @throws IOException si el archivo no puede abrirse.
+     */
+    private void abrir(int capacidadInicial) throws IOException {
+        if (Files.exists(archivo)) {
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long tamano = canal.size();
+                if (tamano >= ENCABEZADO) {
+                    MappedByteBuffer existente = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+                    int capacidadArchivo = existente.getInt(POSICION_CAPACIDAD);
+                    if (existente.getInt(0) == MAGIA && existente.getInt(Integer.BYTES) == VERSION
+                            && Integer.bitCount(capacidadArchivo) == 1
+                            && tamano == ENCABEZADO + (long) capacidadArchivo * RANURA) {
+                        tabla = existente;
+                        capacidad = capacidadArchivo;
+                        ocupadas = existente.getInt(POSICION_OCUPADAS);
+                        return;
+                    }
+                }
+            }
+            log.warn(INDICE_INVALIDO, archivo);
+        }
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        MappedByteBuffer nueva = crearTabla(temporal, capacidadInicial);
+        nueva.force();
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        tabla = nueva;
+        capacidad = capacidadInicial;
+        ocupadas = 0;
+    }
+
+    /**
+     * Reconstruye la tabla con el doble de ranuras.
+     *
+     * @throws IOException si la nueva tabla no puede escribirse.
+     */
+    private void crecer() throws IOException {
+        int nuevaCapacidad = capacidad << 1;
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        MappedByteBuffer nueva = crearTabla(temporal, nuevaCapacidad);
+        int mascara = nuevaCapacidad - 1;
+        for (int i = 0; i < capacidad; i++) {
+            int origen = ENCABEZADO + i * RANURA;
+            long clave = tabla.getLong(origen);
+            if (clave == 0L) {
+                continue;
+            }
+            int ranura = (int) (clave ^ (clave >>> 32)) & mascara;
+            while (nueva.getLong(ENCABEZADO + ranura * RANURA) != 0L) {
+                ranura = (ranura + 1) & mascara;
+            }
+            nueva.putLong(ENCABEZADO + ranura * RANURA + Long.BYTES, tabla.getLong(origen + Long.BYTES));
+            nueva.putLong(ENCABEZADO + ranura * RANURA, clave);
+        }
+        nueva.putInt(POSICION_OCUPADAS, ocupadas);
+        nueva.force();
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        tabla = nueva;
+        capacidad = nuevaCapacidad;
+    }
+
+    /**
+     * Crea un archivo con una tabla vacía y lo mapea en memoria.
+     *
+     * @param destino    el archivo a crear.
+     * @param ranuras    el número de ranuras.
+     * @return la tabla mapeada.
+     * @throws IOException si el archivo no puede crearse.
+     */
+    private static MappedByteBuffer crearTabla(Path destino, int ranuras) throws IOException {
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer nueva = canal.map(FileChannel.MapMode.READ_WRITE, 0, ENCABEZADO + (long) ranuras * RANURA);
+            nueva.putInt(0, MAGIA);
+            nueva.putInt(Integer.BYTES, VERSION);
+            nueva.putInt(POSICION_CAPACIDAD, ranuras);
+            nueva.putInt(POSICION_OCUPADAS, 0);
+            return nueva;
+        }
+    }
+
+    /**
+     * Busca la ranura de una clave o la primera ranura libre de su secuencia de sondeo.
+     *
+     * @param clave la clave del número de orden.
+     * @return la posición en bytes de la ranura.
+     */
+    private int buscar(long clave) {
+        int mascara = capacidad - 1;
+        int ranura = (int) (clave ^ (clave >>> 32)) & mascara;
+        while (true) {
+            int posicion = ENCABEZADO + ranura * RANURA;
+            long actual = tabla.getLong(posicion);
+            if (actual == clave || actual == 0L) {
+                return posicion;
+            }
+            ranura = (ranura + 1) & mascara;
+        }
+    }
+
+    private static long clave(String numeroOrden) {
+        long clave = HuellaPaciente.claveOrden(numeroOrden);
+        // La clave cero está reservada para las ranuras libres
+        return clave == 0L ? 1L : clave;
+    }
+
+    private static int ajustarCapacidad(int solicitada) {
+        int capacidad = Math.max(Math.min(solicitada, CAPACIDAD_MAXIMA), CAPACIDAD_MINIMA);
+        return Integer.bitCount(capacidad) == 1 ? capacidad : Integer.highestOneBit(capacidad) << 1;
+    }
+
+    /**
+     * Huella conservada en la caché en memoria junto con el momento en que se leyó.
+     */
+    private static final class EntradaCache {
+
+        private final long huella;
+        private final long creada;
+
+        private EntradaCache(long huella, long creada) {
+            this.huella = huella;
+            this.creada = creada;
+        }
+    }
+}
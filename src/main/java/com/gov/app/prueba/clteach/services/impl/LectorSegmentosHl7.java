@@ -0,0 +1,556 @@
+package com.gov.app.prueba.clteach.services.impl;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUFFERS_DIRECTOS_POOL;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CHARSET_CONFIGURADO_INVALIDO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CHARSET_HL7;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CODIFICACION_MSH18_DESCONOCIDA;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CODIFICACION_NO_SOPORTADA;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.MSH;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.PROPIEDAD_CHARSET_HL7;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.TAMANO_BUFFER_CARACTERES;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.TAMANO_BUFFER_DIRECTO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.UMBRAL_MAPEO_BYTES;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.VENTANA_MAPEO_BYTES;
+import com.gov.app.prueba.clteach.utils.enums.CodificacionHl7Enum;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lector NIO que entrega los segmentos de un archivo HL7 uno a uno, sin construir
+ * el contenido completo del archivo en memoria.
+ * <p>
+ * Los archivos que superan {@code UMBRAL_MAPEO_BYTES} se leen mediante ventanas mapeadas en memoria
+ * ({@link FileChannel#map}); los más pequeños utilizan un buffer directo tomado de un pool compartido.
+ * Los segmentos se delimitan directamente sobre los bytes con la secuencia literal {@code \n},
+ * descartando los saltos de línea reales, tal como lo hacía la lectura línea a línea anterior.
+ * </p>
+ * <p>
+ * La codificación se determina al abrir el archivo: primero por la marca de orden de bytes (BOM) de UTF-8,
+ * luego por MSH-18 del primer mensaje y, si no se declara, por la configurada. Solo se aceptan codificaciones
+ * compatibles con ASCII, en las que los delimitadores HL7 ocupan un byte. Los segmentos formados solo por
+ * bytes ASCII, y todos los segmentos en ISO-8859-1, se entregan como una vista sobre los bytes en la que
+ * cada byte es un carácter; únicamente se crean cadenas para los campos que se extraen. Los demás
+ * segmentos se decodifican completos con un {@link CharsetDecoder}.
+ * </p>
+ * <p>
+ * En modo flujo ({@link #abrirFlujo(Path, Charset)}) los retornos de carro y saltos de línea reales
+ * también terminan el segmento, como exige el estándar HL7, y los segmentos vacíos se omiten.
+ * </p>
+ * <p>
+ * El {@link CharSequence} retornado por {@link #next()} se reutiliza y solo es válido hasta la siguiente
+ * invocación. Los errores de lectura se propagan como {@link UncheckedIOException}.
+ * </p>
+ */
+@Slf4j
+public final class LectorSegmentosHl7 implements Iterator<CharSequence>, Closeable {
+
+    /** Pool de buffers directos para los archivos que no se mapean en memoria. */
+    private static final BlockingQueue<ByteBuffer> POOL = new ArrayBlockingQueue<>(BUFFERS_DIRECTOS_POOL);
+
+    /** Segmento vacío entregado para conservar la semántica de {@link String#split(String)}. */
+    private static final String VACIO = "";
+
+    /** Texto con los delimitadores HL7 usado para verificar que una codificación es compatible con ASCII. */
+    private static final String MUESTRA_ASCII = "MSH|^~\\&#\r\nAZaz09 ";
+
+    /** Barra invertida pendiente que resultó no formar parte de la secuencia literal {@code \n}. */
+    private static final byte[] BARRA = {'\\'};
+
+    /** Número de separadores de campo que preceden a MSH-18, contando MSH-1. */
+    private static final int SEPARADORES_MSH18 = 17;
+
+    private final FileChannel canal;
+    private final long tamano;
+    private final boolean mapeado;
+    private final boolean modoFlujo;
+    private final Charset charset;
+    private final boolean latin1;
+    private final CharsetDecoder decodificador;
+    private final SegmentoBytes vistaBytes = new SegmentoBytes();
+    private CharBuffer caracteres = CharBuffer.allocate(TAMANO_BUFFER_CARACTERES);
+
+    /** Bytes del segmento en curso. */
+    private byte[] segmento = new byte[TAMANO_BUFFER_CARACTERES];
+    private int longitud;
+
+    /** Unión de los bytes del segmento en curso; tiene el bit alto activo si alguno no es ASCII. */
+    private int bitsAltos;
+
+    /** Segmento entregado por {@link #next()}: {@link #vistaBytes} o {@link #caracteres}. */
+    private CharSequence actual;
+
+    /** Bytes pendientes de copiar: ventana mapeada o buffer directo del pool. */
+    private ByteBuffer bytes;
+
+    /** Copia en el heap del bloque que se está analizando. */
+    private final byte[] bloque = new byte[TAMANO_BUFFER_DIRECTO];
+    private int inicioBloque;
+    private int finBloque;
+
+    /** Posición en el archivo del primer byte de la ventana mapeada actual. */
+    private long posicion;
+
+    private boolean finEntrada;
+    private boolean barraPendiente;
+
+    /** Segmentos vacíos intermedios que aún no se han entregado. */
+    private int vaciosPendientes;
+
+    /** Indica si {@link #actual} contiene un segmento completo listo para entregarse. */
+    private boolean listo;
+
+    private LectorSegmentosHl7(FileChannel canal, ByteBuffer contenido, Charset configurado, boolean modoFlujo)
+            throws IOException {
+        this.canal = canal;
+        this.modoFlujo = modoFlujo;
+        this.tamano = canal != null ? canal.size() : contenido.remaining();
+        this.mapeado = canal == null || tamano > UMBRAL_MAPEO_BYTES;
+        if (canal == null) {
+            this.bytes = contenido;
+        } else if (mapeado) {
+            this.bytes = mapear(0);
+        } else {
+            ByteBuffer buffer = POOL.poll();
+            this.bytes = buffer != null ? buffer : ByteBuffer.allocateDirect(TAMANO_BUFFER_DIRECTO);
+            this.bytes.clear();
+            this.finEntrada = canal.read(bytes) < 0;
+            this.bytes.flip();
+        }
+        try {
+            this.charset = detectarCharset(configurado);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        this.latin1 = StandardCharsets.ISO_8859_1.equals(charset);
+        this.decodificador = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Abre un archivo HL7 para su lectura por segmentos.
+     *
+     * @param archivo     la ruta del archivo.
+     * @param configurado la codificación a usar si el archivo no tiene BOM ni declara MSH-18.
+     * @return el lector posicionado al inicio del archivo.
+     * @throws IOException si el archivo no puede abrirse o su codificación no es compatible con ASCII.
+     */
+    public static LectorSegmentosHl7 abrir(Path archivo, Charset configurado) throws IOException {
+        return abrir(archivo, configurado, false);
+    }
+
+    /**
+     * Abre un archivo HL7 en modo flujo, aceptando {@code \r} y {@code \n} reales como terminadores
+     * de segmento además de la secuencia literal {@code \n}.
+     *
+     * @param archivo     la ruta del archivo.
+     * @param configurado la codificación a usar si el archivo no tiene BOM ni declara MSH-18.
+     * @return el lector posicionado al inicio del archivo.
+     * @throws IOException si el archivo no puede abrirse o su codificación no es compatible con ASCII.
+     */
+    public static LectorSegmentosHl7 abrirFlujo(Path archivo, Charset configurado) throws IOException {
+        return abrir(archivo, configurado, true);
+    }
+
+    /**
+     * Abre el contenido de un archivo HL7 ya cargado en memoria para su lectura por segmentos.
+     * <p>
+     * El arreglo se recorre como una única ventana mapeada, sin copiarlo ni tomar buffers del pool.
+     * </p>
+     *
+     * @param contenido   los bytes del archivo.
+     * @param configurado la codificación a usar si el contenido no tiene BOM ni declara MSH-18.
+     * @return el lector posicionado al inicio del contenido.
+     * @throws IOException si la codificación del contenido no es compatible con ASCII.
+     */
+    public static LectorSegmentosHl7 abrir(byte[] contenido, Charset configurado) throws IOException {
+        return new LectorSegmentosHl7(null, ByteBuffer.wrap(contenido), configurado, false);
+    }
+
+    private static LectorSegmentosHl7 abrir(Path archivo, Charset configurado, boolean modoFlujo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            return new LectorSegmentosHl7(canal, null, configurado, modoFlujo);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene la codificación configurada para los archivos sin BOM ni MSH-18.
+     * <p>
+     * Se toma de la propiedad del sistema {@code cltech.hl7.charset}; si no existe o no es válida,
+     * se usa {@code CHARSET_HL7}. No depende de la codificación predeterminada de la JVM.
+     * </p>
+     *
+     * @return la codificación configurada.
+     */
+    public static Charset charsetConfigurado() {
+        String nombre = System.getProperty(PROPIEDAD_CHARSET_HL7);
+        if (nombre == null || nombre.isBlank()) {
+            return CHARSET_HL7;
+        }
+        try {
+            return Charset.forName(nombre.strip());
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            log.warn(CHARSET_CONFIGURADO_INVALIDO, nombre, CHARSET_HL7);
+            return CHARSET_HL7;
+        }
+    }
+
+    /**
+     * Retorna la codificación con la que se lee el archivo.
+     *
+     * @return la codificación detectada o configurada.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!listo && vaciosPendientes == 0) {
+            try {
+                listo = avanzar();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return listo;
+    }
+
+    @Override
+    public CharSequence next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (vaciosPendientes > 0) {
+            vaciosPendientes--;
+            return VACIO;
+        }
+        listo = false;
+        return actual;
+    }
+
+    /**
+     * Libera el canal y devuelve el buffer directo al pool.
+     *
+     * @throws IOException si ocurre un error al cerrar el canal.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!mapeado && bytes != null) {
+            POOL.offer(bytes.clear());
+        }
+        bytes = null;
+        if (canal != null) {
+            canal.close();
+        }
+    }
+
+    /**
+     * Lee bytes hasta completar el siguiente segmento no vacío.
+     * <p>
+     * Los tramos sin {@code \}, CR ni LF se copian al segmento con {@link System#arraycopy}.
+     * </p>
+     * <p>
+     * Los segmentos vacíos se acumulan en {@link #vaciosPendientes} y solo se entregan si después
+     * aparece un segmento con contenido, igual que {@link String#split(String)} descarta los finales.
+     * En las codificaciones compatibles con ASCII los bytes de {@code \}, {@code n}, CR y LF nunca forman
+     * parte de un carácter multibyte, por lo que pueden buscarse sin decodificar.
+     * </p>
+     *
+     * @return {@code true} si hay un segmento disponible.
+     * @throws IOException si ocurre un error de lectura.
+     */
+    private boolean avanzar() throws IOException {
+        longitud = 0;
+        bitsAltos = 0;
+        while (inicioBloque < finBloque || llenarBloque()) {
+            byte[] datos = bloque;
+            int i = inicioBloque;
+            if (barraPendiente) {
+                barraPendiente = false;
+                if (datos[i] == 'n') {
+                    inicioBloque = i + 1;
+                    if (terminarSegmento()) {
+                        return entregar();
+                    }
+                    continue;
+                }
+                agregar(BARRA, 0, 1);
+            }
+
+            int inicio = i;
+            int bits = 0;
+            while (i < finBloque) {
+                byte b = datos[i];
+                if (b == '\\' || b == '\n' || b == '\r') {
+                    break;
+                }
+                bits |= b;
+                i++;
+            }
+            agregar(datos, inicio, i - inicio);
+            bitsAltos |= bits;
+            if (i == finBloque) {
+                inicioBloque = i;
+                continue;
+            }
+
+            inicioBloque = i + 1;
+            if (datos[i] == '\\') {
+                barraPendiente = true;
+            } else if (modoFlujo && terminarSegmento()) {
+                return entregar();
+            }
+        }
+        if (barraPendiente) {
+            barraPendiente = false;
+            agregar(BARRA, 0, 1);
+        }
+        if (longitud == 0) {
+            vaciosPendientes = 0;
+            return false;
+        }
+        return entregar();
+    }
+
+    private void agregar(byte[] origen, int desde, int cantidad) {
+        if (longitud + cantidad > segmento.length) {
+            segmento = Arrays.copyOf(segmento, Math.max(longitud + cantidad, segmento.length << 1));
+        }
+        System.arraycopy(origen, desde, segmento, longitud, cantidad);
+        longitud += cantidad;
+    }
+
+    /**
+     * Copia el siguiente bloque de bytes del archivo a {@link #bloque}, donde se recorre como arreglo.
+     *
+     * @return {@code true} si se copiaron bytes; {@code false} al final del archivo.
+     * @throws IOException si ocurre un error de lectura.
+     */
+    private boolean llenarBloque() throws IOException {
+        if (!bytes.hasRemaining() && !recargar()) {
+            return false;
+        }
+        int cantidad = Math.min(bytes.remaining(), bloque.length);
+        bytes.get(bloque, 0, cantidad);
+        inicioBloque = 0;
+        finBloque = cantidad;
+        return true;
+    }
+
+    /**
+     * Cierra el segmento en curso.
+     *
+     * @return {@code true} si el segmento tiene contenido y puede entregarse.
+     */
+    private boolean terminarSegmento() {
+        if (longitud > 0) {
+            return true;
+        }
+        if (!modoFlujo) {
+            vaciosPendientes++;
+        }
+        return false;
+    }
+
+    /**
+     * Prepara el segmento en curso para entregarlo, decodificándolo solo si contiene bytes no ASCII
+     * en una codificación multibyte.
+     *
+     * @return siempre {@code true}.
+     */
+    private boolean entregar() {
+        if (latin1 || bitsAltos >= 0) {
+            vistaBytes.posicionar(segmento, longitud);
+            actual = vistaBytes;
+            return true;
+        }
+        int maximo = (int) Math.ceil(longitud * (double) decodificador.maxCharsPerByte());
+        if (caracteres.capacity() < maximo) {
+            caracteres = CharBuffer.allocate(maximo);
+        }
+        caracteres.clear();
+        decodificador.reset();
+        ByteBuffer entrada = ByteBuffer.wrap(segmento, 0, longitud);
+        decodificador.decode(entrada, caracteres, true);
+        decodificador.flush(caracteres);
+        caracteres.flip();
+        actual = caracteres;
+        return true;
+    }
+
+    /**
+     * Carga el siguiente bloque de bytes del archivo.
+     *
+     * @return {@code true} si se obtuvieron bytes; {@code false} al final del archivo.
+     * @throws IOException si ocurre un error de lectura.
+     */
+    private boolean recargar() throws IOException {
+        while (!finEntrada && !bytes.hasRemaining()) {
+            if (mapeado) {
+                long siguiente = posicion + bytes.limit();
+                if (siguiente >= tamano) {
+                    finEntrada = true;
+                } else {
+                    bytes = mapear(siguiente);
+                }
+            } else {
+                bytes.clear();
+                int leidos = canal.read(bytes);
+                bytes.flip();
+                if (leidos < 0) {
+                    finEntrada = true;
+                }
+            }
+        }
+        return bytes.hasRemaining();
+    }
+
+    private ByteBuffer mapear(long desde) throws IOException {
+        posicion = desde;
+        return canal.map(FileChannel.MapMode.READ_ONLY, desde, Math.min(VENTANA_MAPEO_BYTES, tamano - desde));
+    }
+
+    /**
+     * Determina la codificación del archivo a partir del primer bloque leído, omitiendo el BOM si existe.
+     *
+     * @param configurado la codificación a usar si el archivo no la declara.
+     * @return la codificación del archivo.
+     * @throws IOException si el archivo usa una codificación incompatible con ASCII.
+     */
+    private Charset detectarCharset(Charset configurado) throws IOException {
+        int inicio = bytes.position();
+        int disponibles = bytes.limit() - inicio;
+        if (disponibles >= 2) {
+            int primero = bytes.get(inicio) & 0xFF;
+            int segundo = bytes.get(inicio + 1) & 0xFF;
+            if ((primero == 0xFE && segundo == 0xFF) || (primero == 0xFF && segundo == 0xFE)) {
+                throw new IOException(CODIFICACION_NO_SOPORTADA + "UTF-16");
+            }
+            if (disponibles >= 3 && primero == 0xEF && segundo == 0xBB && (bytes.get(inicio + 2) & 0xFF) == 0xBF) {
+                bytes.position(inicio + 3);
+                return StandardCharsets.UTF_8;
+            }
+        }
+
+        String declarado = leerMsh18();
+        Charset charset = configurado;
+        if (declarado != null && !declarado.isEmpty()) {
+            CodificacionHl7Enum codificacion = CodificacionHl7Enum.desdeMsh18(declarado);
+            if (codificacion != null) {
+                charset = codificacion.getCharset();
+            } else {
+                log.warn(CODIFICACION_MSH18_DESCONOCIDA, declarado, configurado);
+            }
+        }
+        if (!Arrays.equals(MUESTRA_ASCII.getBytes(charset), MUESTRA_ASCII.getBytes(StandardCharsets.US_ASCII))) {
+            throw new IOException(CODIFICACION_NO_SOPORTADA + charset);
+        }
+        return charset;
+    }
+
+    /**
+     * Lee la primera repetición de MSH-18 del primer segmento, sin consumir bytes.
+     *
+     * @return el valor de MSH-18 sin espacios alrededor, o {@code null} si el bloque no empieza con un
+     * MSH completo hasta ese campo.
+     */
+    private String leerMsh18() {
+        int i = bytes.position();
+        int limite = bytes.limit();
+        while (i < limite && (bytes.get(i) == '\r' || bytes.get(i) == '\n' || bytes.get(i) == ' ')) {
+            i++;
+        }
+        if (limite - i < 6 || bytes.get(i) != MSH.charAt(0) || bytes.get(i + 1) != MSH.charAt(1)
+                || bytes.get(i + 2) != MSH.charAt(2)) {
+            return null;
+        }
+        byte separador = bytes.get(i + 3);
+        byte repeticion = bytes.get(i + 5);
+        int separadores = 0;
+        int inicioCampo = -1;
+        for (int j = i + 3; j < limite; j++) {
+            byte b = bytes.get(j);
+            boolean finSegmento = b == '\r' || b == '\n' || (b == '\\' && j + 1 < limite && bytes.get(j + 1) == 'n');
+            if (inicioCampo >= 0 && (b == separador || b == repeticion || finSegmento)) {
+                byte[] valor = new byte[j - inicioCampo];
+                bytes.get(inicioCampo, valor);
+                return new String(valor, StandardCharsets.US_ASCII).strip();
+            }
+            if (finSegmento) {
+                return null;
+            }
+            if (b == separador && ++separadores == SEPARADORES_MSH18) {
+                inicioCampo = j + 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Vista de un segmento sobre sus bytes, en la que cada byte es un carácter ISO-8859-1.
+     * <p>
+     * Es exacta para los segmentos ASCII en cualquier codificación compatible y para todos los segmentos
+     * en ISO-8859-1. Las subsecuencias se materializan directamente como {@link String}.
+     * </p>
+     */
+    private static final class SegmentoBytes implements CharSequence {
+
+        private byte[] bytes;
+        private int longitud;
+
+        private void posicionar(byte[] bytes, int longitud) {
+            this.bytes = bytes;
+            this.longitud = longitud;
+        }
+
+        @Override
+        public int length() {
+            return longitud;
+        }
+
+        @Override
+        public char charAt(int indice) {
+            if (indice >= longitud) {
+                throw new IndexOutOfBoundsException(indice);
+            }
+            return (char) (bytes[indice] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int inicio, int fin) {
+            if (inicio < 0 || fin > longitud || inicio > fin) {
+                throw new IndexOutOfBoundsException(inicio);
+            }
+            return new String(bytes, inicio, fin - inicio, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, longitud, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -1,40 +1,241 @@
 package com.gov.app.prueba.clteach.services.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.gov.app.prueba.clteach.dto.ApiClientDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionBuzonDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionIndiceDTO;
+import com.gov.app.prueba.clteach.dto.EntradaBuzonDTO;
+import com.gov.app.prueba.clteach.dto.EstadisticaEtapaDTO;
+import com.gov.app.prueba.clteach.dto.LoteResultadosDTO;
+import com.gov.app.prueba.clteach.dto.OpcionesDirectorioDTO;
 import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
 import com.gov.app.prueba.clteach.dto.RespuestaGeneralDTO;
+import com.gov.app.prueba.clteach.dto.ResultadoDirectorioDTO;
+import com.gov.app.prueba.clteach.services.IBuzonSalidaService;
+import com.gov.app.prueba.clteach.services.IEnvioLotesService;
+import com.gov.app.prueba.clteach.services.IIndiceEnviadosService;
 import com.gov.app.prueba.clteach.services.ILeerArchivoService;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BUZON_NO_DISPONIBLE;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CAPACIDAD_CARRILES;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARRILES_ENVIO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CANALIZACION_DIRECTORIO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.DIRECTORIO_BUZON;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.DIRECTORIO_INDICE;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.DIRECTORIO_PROCESADO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_CIERRE_RECURSO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_ENVIO_MENSAJE_LOTE;
 import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_INESPERADO_PORCESAR;
 import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_LECTURA_ARCHIVO;
 import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_LEER_ARCHIVO_HL7;
 import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_PROCESAMIENTO_DATOS;
-import static com.gov.app.prueba.clteach.utils.constants.Constants.PATRON_LINEAS;
-import static com.gov.app.prueba.clteach.utils.constants.Constants.SALTO_TEXTO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_REGISTRO_INDICE;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILO_CARRIL;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILO_DIRECTORIO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.INDICE_NO_DISPONIBLE;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LOTE_CON_ERRORES;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LOTE_ENVIADO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ORDEN_OMITIDA;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ORDEN_YA_ENVIADA;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.PROCESAMIENTO_INTERRUMPIDO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.UMBRAL_LECTURA_CANALIZACION_BYTES;
 import static com.gov.app.prueba.clteach.utils.constants.Constants.URL_GUARDAR_PACIENTE;
+import com.gov.app.prueba.clteach.utils.enums.EtapaEnum;
 import com.gov.app.prueba.clteach.utils.enums.HttpStatusEnum;
+import com.gov.app.prueba.clteach.utils.helper.CanalizacionEtapas;
+import com.gov.app.prueba.clteach.utils.helper.DespachadorCarriles;
+import com.gov.app.prueba.clteach.utils.helper.HuellaPaciente;
+import com.gov.app.prueba.clteach.utils.helper.IteradorCronometrado;
+import com.gov.app.prueba.clteach.utils.helper.MetricasHl7;
+import com.gov.app.prueba.clteach.utils.helper.PoliticaReintentos;
 import com.gov.app.prueba.clteach.utils.helper.Utilities;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Servicio para procesar archivos HL7 y enviar datos al sistema.
+ * <p>
+ * La duración de la lectura, el análisis, la serialización y el archivo completo se registra en
+ * {@link MetricasHl7}.
+ * </p>
+ * <p>
+ * Si hay un índice de órdenes enviadas, una orden idéntica a otra ya aceptada por la API se omite antes
+ * de serializarse y se responde como enviada.
+ * </p>
+ * <p>
+ * Un directorio puede procesarse además en una canalización de etapas (lectura, análisis, serialización y
+ * envío), cada una con su propio pool de hilos y una cola acotada, de modo que un envío lento detiene la
+ * lectura en lugar de acumular archivos en memoria.
+ * </p>
+ * <p>
+ * Los envíos se reparten en carriles según el número de orden: las actualizaciones de una misma orden se
+ * envían de una en una y en el orden en que llegan al carril, mientras que las órdenes distintas se envían
+ * en paralelo. Así, dos actualizaciones de una orden nunca se envían a la vez. El orden de llegada al
+ * carril no es necesariamente el de los archivos: los archivos se leen y analizan en varios hilos, cada
+ * directorio usa sus propios carriles y el buzón reenvía los pendientes fuera de ellos, por lo que una
+ * actualización posterior puede llegar a la API antes que una anterior procesada en paralelo.
+ * </p>
+ * <p>
+ * Dentro de cada carril, las órdenes urgentes se envían antes que las prioritarias y estas antes que las
+ * de rutina, sin que las de rutina esperen indefinidamente. El tiempo desde que cada envío entra en su
+ * carril hasta la respuesta de la API se registra por prioridad en {@link MetricasHl7}.
+ * </p>
+ * <p>
+ * Los archivos de un directorio procesado como lote pueden enviarse además de forma agrupada: sus mensajes
+ * se guardan en un {@link LoteResultadosDTO} y se envían con un {@link EnvioLotesService} compartido por
+ * todo el directorio.
+ * </p>
  */
 @Slf4j
 public class LeerArchivoService implements ILeerArchivoService {
 
+    /** Codificación de los archivos sin BOM ni MSH-18, independiente de la codificación de la JVM. */
+    private static final Charset CHARSET_CONFIGURADO = LectorSegmentosHl7.charsetConfigurado();
+
     private final ApiClientDTO apiClient;
-    private final ObjectMapper objectMapper;
+    private final ObjectWriter escritorPaciente;
     private final ProcesarContenidoService procesarContenidoService;
+    private final IBuzonSalidaService buzon;
+    private final IIndiceEnviadosService indice;
+    private final MetricasHl7 metricas;
+    private final DespachadorCarriles carriles;
+    /** Indica si el buzón y el índice los abrió este servicio y debe cerrarlos. */
+    private final boolean recursosPropios;
 
+    /**
+     * Crea el servicio con el buzón de salida y el índice de órdenes enviadas de los directorios
+     * predeterminados, que se cierran junto con el servicio.
+     */
     public LeerArchivoService() {
+        this(abrirBuzon(), abrirIndice(), CARRILES_ENVIO, true);
+    }
+
+    /**
+     * Crea el servicio con un buzón de salida específico y sin índice de órdenes enviadas.
+     *
+     * @param buzon Buzón donde se guardan los envíos hasta ser confirmados, o {@code null} para enviar sin guardarlos.
+     */
+    public LeerArchivoService(IBuzonSalidaService buzon) {
+        this(buzon, null);
+    }
+
+    /**
+     * Crea el servicio con un buzón de salida y un índice de órdenes enviadas específicos.
+     *
+     * @param buzon  Buzón donde se guardan los envíos hasta ser confirmados, o {@code null} para enviar sin guardarlos.
+     * @param indice Índice de órdenes ya aceptadas, o {@code null} para enviar todas las órdenes.
+     */
+    public LeerArchivoService(IBuzonSalidaService buzon, IIndiceEnviadosService indice) {
+        this(buzon, indice, CARRILES_ENVIO);
+    }
+
+    /**
+     * Crea el servicio con un buzón de salida, un índice de órdenes enviadas y un número de carriles específicos.
+     *
+     * @param buzon    Buzón donde se guardan los envíos hasta ser confirmados, o {@code null} para enviar sin guardarlos.
+     * @param indice   Índice de órdenes ya aceptadas, o {@code null} para enviar todas las órdenes.
+     * @param carriles Número de carriles de envío de los archivos que se procesan fuera de un directorio.
+     */
+    public LeerArchivoService(IBuzonSalidaService buzon, IIndiceEnviadosService indice, int carriles) {
+        this(buzon, indice, carriles, false);
+    }
+
+    private LeerArchivoService(IBuzonSalidaService buzon, IIndiceEnviadosService indice, int carriles,
+            boolean recursosPropios) {
         this.apiClient = ApiClientDTO.getInstance();
-        this.objectMapper = new ObjectMapper();
+        this.escritorPaciente = apiClient.getEscritorPaciente();
         this.procesarContenidoService = new ProcesarContenidoService();
+        this.buzon = buzon;
+        this.indice = indice;
+        this.metricas = MetricasHl7.getInstance();
+        this.carriles = new DespachadorCarriles(HILO_CARRIL, carriles, CAPACIDAD_CARRILES);
+        this.recursosPropios = recursosPropios;
+    }
+
+    /**
+     * Detiene los hilos de los carriles de envío; los envíos que aún no comenzaron se cancelan.
+     * <p>
+     * El buzón y el índice se cierran solo si los abrió el constructor predeterminado; los recibidos en los
+     * demás constructores pueden compartirse con otros servicios y los cierra quien los creó. Un envío en
+     * curso que no alcance a confirmarse queda pendiente en el buzón y se reenvía al reabrirlo.
+     * </p>
+     */
+    @Override
+    public void close() {
+        carriles.close();
+        if (!recursosPropios) {
+            return;
+        }
+        cerrar(buzon, "buzón de salida");
+        cerrar(indice, "índice de órdenes enviadas");
+    }
+
+    /**
+     * Cierra un recurso propio del servicio, registrando el error si no puede cerrarse.
+     *
+     * @param recurso Recurso a cerrar, o {@code null} si no se abrió.
+     * @param nombre  Nombre del recurso para el log.
+     */
+    private static void cerrar(AutoCloseable recurso, String nombre) {
+        if (recurso == null) {
+            return;
+        }
+        try {
+            recurso.close();
+        } catch (Exception e) {
+            log.warn(ERROR_CIERRE_RECURSO, nombre, e.getMessage());
+        }
+    }
+
+    /**
+     * Abre el buzón de salida en el directorio predeterminado.
+     *
+     * @return Buzón abierto, o {@code null} si no está disponible.
+     */
+    private static IBuzonSalidaService abrirBuzon() {
+        try {
+            return new BuzonSalidaService(ConfiguracionBuzonDTO.builder().build(), ApiClientDTO.getInstance());
+        } catch (IOException e) {
+            log.warn(BUZON_NO_DISPONIBLE, DIRECTORIO_BUZON, e);
+            return null;
+        }
+    }
+
+    /**
+     * Abre el índice de órdenes enviadas en el directorio predeterminado.
+     *
+     * @return Índice abierto, o {@code null} si no está disponible.
+     */
+    private static IIndiceEnviadosService abrirIndice() {
+        try {
+            return new IndiceEnviadosService(ConfiguracionIndiceDTO.builder().build());
+        } catch (IOException e) {
+            log.warn(INDICE_NO_DISPONIBLE, DIRECTORIO_INDICE, e);
+            return null;
+        }
     }
 
     /**
@@ -45,46 +246,798 @@ public class LeerArchivoService implements ILeerArchivoService {
      */
     @Override
     public RespuestaGeneralDTO leerArchivoHl7(File archivo) {
+        return leerArchivoHl7(archivo, carriles);
+    }
+
+    /**
+     * Lee y procesa un archivo HL7, enviándolo en los carriles indicados.
+     *
+     * @param archivo  Archivo HL7 a procesar.
+     * @param carriles Carriles donde se envía el paciente.
+     * @return Respuesta general del procesamiento.
+     */
+    private RespuestaGeneralDTO leerArchivoHl7(File archivo, DespachadorCarriles carriles) {
+        long inicio = System.nanoTime();
+        RespuestaGeneralDTO respuesta = procesarArchivoHl7(archivo, carriles);
+        metricas.registrarArchivo(!Utilities.validacionRespuesta(respuesta.getStatus()), System.nanoTime() - inicio);
+        return respuesta;
+    }
+
+    /**
+     * Lee, procesa y envía un archivo HL7, convirtiendo cualquier error en una respuesta de error.
+     *
+     * @param archivo  Archivo HL7 a procesar.
+     * @param carriles Carriles donde se envía el paciente.
+     * @return Respuesta general del procesamiento.
+     */
+    private RespuestaGeneralDTO procesarArchivoHl7(File archivo, DespachadorCarriles carriles) {
+        try {
+            PacienteRequestDTO request = leerArchivo(archivo);
+            return enviarDatos(request, carriles);
+        } catch (Exception e) {
+            return manejarErrorArchivo(e);
+        }
+    }
+
+    /**
+     * Lee de forma perezosa un archivo HL7 con varios mensajes.
+     * <p>
+     * El archivo se abre en modo flujo, aceptando {@code \r} como terminador de segmento,
+     * y se cierra al cerrar el {@link Stream} retornado.
+     * </p>
+     *
+     * @param archivo Archivo HL7 con uno o varios mensajes.
+     * @return Flujo perezoso con un {@link PacienteRequestDTO} por mensaje.
+     * @throws IOException Si el archivo no puede abrirse.
+     */
+    @Override
+    public Stream<PacienteRequestDTO> leerMensajesHl7(File archivo) throws IOException {
+        LectorSegmentosHl7 lector = LectorSegmentosHl7.abrirFlujo(archivo.toPath(), CHARSET_CONFIGURADO);
+        Iterator<PacienteRequestDTO> mensajes = procesarContenidoService.procesarMensajes(lector);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(mensajes,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        lector.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Lee un archivo HL7 con varios mensajes y los envía uno a uno.
+     * <p>
+     * Un error en el envío de un mensaje no detiene el resto del lote; el resultado resume
+     * cuántos mensajes se enviaron y cuántos fallaron.
+     * </p>
+     *
+     * @param archivo Archivo HL7 con uno o varios mensajes.
+     * @return Respuesta general con el resumen del lote.
+     */
+    @Override
+    public RespuestaGeneralDTO leerLoteHl7(File archivo) {
+        return leerLoteHl7(archivo, carriles);
+    }
+
+    /**
+     * Lee un archivo HL7 con varios mensajes y los envía uno a uno en los carriles indicados.
+     *
+     * @param archivo  Archivo HL7 con uno o varios mensajes.
+     * @param carriles Carriles donde se envían los mensajes.
+     * @return Respuesta general con el resumen del lote.
+     */
+    private RespuestaGeneralDTO leerLoteHl7(File archivo, DespachadorCarriles carriles) {
+        long inicio = System.nanoTime();
+        RespuestaGeneralDTO respuesta = procesarLoteHl7(archivo, carriles);
+        metricas.registrarArchivo(!Utilities.validacionRespuesta(respuesta.getStatus()), System.nanoTime() - inicio);
+        return respuesta;
+    }
+
+    /**
+     * Lee un archivo HL7 con varios mensajes y los envía uno a uno, resumiendo el resultado.
+     *
+     * @param archivo  Archivo HL7 con uno o varios mensajes.
+     * @param carriles Carriles donde se envían los mensajes.
+     * @return Respuesta general con el resumen del lote.
+     */
+    private RespuestaGeneralDTO procesarLoteHl7(File archivo, DespachadorCarriles carriles) {
+        int total = 0;
+        int fallidos = 0;
+        try (Stream<PacienteRequestDTO> mensajes = leerMensajesHl7(archivo)) {
+            Iterator<PacienteRequestDTO> iterador = mensajes.iterator();
+            while (iterador.hasNext()) {
+                PacienteRequestDTO request = iterador.next();
+                total++;
+                if (!enviarMensajeLote(request, total, carriles)) {
+                    fallidos++;
+                }
+            }
+        } catch (IOException e) {
+            return manejarError(ERROR_LEER_ARCHIVO_HL7, e, ERROR_LECTURA_ARCHIVO);
+        } catch (UncheckedIOException e) {
+            return manejarError(ERROR_LEER_ARCHIVO_HL7, e.getCause(), ERROR_LECTURA_ARCHIVO);
+        } catch (Exception e) {
+            return manejarError(ERROR_INESPERADO_PORCESAR, e, ERROR_PROCESAMIENTO_DATOS);
+        }
+        return construirResumenLote(total, fallidos);
+    }
+
+    /**
+     * Procesa en paralelo todos los archivos HL7 de un directorio.
+     * <p>
+     * Por defecto cada archivo se procesa en un pool de tamaño fijo igual a la concurrencia configurada; los
+     * archivos restantes esperan en la cola del pool. Si las opciones lo indican, los archivos recorren en su
+     * lugar una canalización de etapas. El resultado conserva el orden alfabético de los archivos.
+     * </p>
+     *
+     * @param directorio Directorio con los archivos HL7.
+     * @param opciones   Opciones de procesamiento.
+     * @return Resultado agregado del directorio.
+     * @throws IOException Si el directorio no puede recorrerse.
+     */
+    @Override
+    public ResultadoDirectorioDTO leerDirectorio(Path directorio, OpcionesDirectorioDTO opciones) throws IOException {
+        long inicio = System.nanoTime();
+        List<Path> archivos = listarArchivos(directorio, opciones);
+        ResultadoDirectorioDTO resultado = new ResultadoDirectorioDTO();
+        resultado.setTotalArchivos(archivos.size());
+
+        if (!archivos.isEmpty()) {
+            List<RespuestaGeneralDTO> respuestas = opciones.isCanalizado() && !opciones.isLote()
+                    ? procesarCanalizado(directorio, archivos, opciones)
+                    : procesarEnPool(archivos, opciones);
+            for (int i = 0; i < archivos.size(); i++) {
+                RespuestaGeneralDTO respuesta = respuestas.get(i);
+                resultado.getResultados().put(archivos.get(i).toString(), respuesta);
+                if (Utilities.validacionRespuesta(respuesta.getStatus())) {
+                    resultado.setFallidos(resultado.getFallidos() + 1);
+                } else {
+                    resultado.setExitosos(resultado.getExitosos() + 1);
+                }
+            }
+        }
+
+        resultado.setDuracionMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        log.info(DIRECTORIO_PROCESADO, directorio, resultado.getTotalArchivos(), resultado.getExitosos(),
+                resultado.getFallidos(), resultado.getDuracionMs());
+        return resultado;
+    }
+
+    /**
+     * Lista los archivos de un directorio que cumplen el patrón de las opciones.
+     *
+     * @param directorio Directorio a recorrer.
+     * @param opciones   Opciones con el patrón y la profundidad.
+     * @return Archivos encontrados, ordenados por ruta.
+     * @throws IOException Si el directorio no puede recorrerse.
+     */
+    private List<Path> listarArchivos(Path directorio, OpcionesDirectorioDTO opciones) throws IOException {
+        PathMatcher matcher = directorio.getFileSystem().getPathMatcher(opciones.getPatron());
+        try (Stream<Path> rutas = Files.walk(directorio, opciones.isRecursivo() ? Integer.MAX_VALUE : 1)) {
+            return rutas.filter(Files::isRegularFile)
+                    .filter(ruta -> matcher.matches(ruta.getFileName()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Procesa cada archivo completo en un hilo de un pool de tamaño fijo.
+     * <p>
+     * Los envíos del directorio usan sus propios carriles, uno por hilo del pool, de modo que la concurrencia
+     * configurada no queda limitada por los carriles del servicio; se cierran al terminar el directorio. Si
+     * las opciones configuran el envío agrupado de los lotes, los mensajes de todos los archivos comparten un
+     * único {@link EnvioLotesService}, que se cierra también al terminar el directorio.
+     * </p>
+     *
+     * @param archivos Archivos a procesar.
+     * @param opciones Opciones con la concurrencia, el modo lote y el envío agrupado.
+     * @return Respuesta de cada archivo, en el mismo orden.
+     */
+    private List<RespuestaGeneralDTO> procesarEnPool(List<Path> archivos, OpcionesDirectorioDTO opciones) {
+        int hilos = Math.min(Math.max(opciones.getConcurrencia(), 1), archivos.size());
+        ExecutorService executor = crearExecutor(hilos);
+        DespachadorCarriles carrilesDirectorio = new DespachadorCarriles(HILO_CARRIL, hilos, CAPACIDAD_CARRILES);
+        IEnvioLotesService envioLotes = opciones.isLote() && opciones.getEnvioLotes() != null
+                ? new EnvioLotesService(apiClient, opciones.getEnvioLotes())
+                : null;
         try {
-            String contenido = leerArchivo(archivo);
-            String[] lineas = contenido.split(PATRON_LINEAS);
-            PacienteRequestDTO request = procesarContenidoService.procesarContenido(lineas);
-            return enviarDatos(request);
+            List<Future<RespuestaGeneralDTO>> futuros = new ArrayList<>(archivos.size());
+            for (Path archivo : archivos) {
+                futuros.add(executor.submit(() -> {
+                    if (envioLotes != null) {
+                        return leerLoteAgrupado(archivo.toFile(), envioLotes);
+                    }
+                    return opciones.isLote()
+                            ? leerLoteHl7(archivo.toFile(), carrilesDirectorio)
+                            : leerArchivoHl7(archivo.toFile(), carrilesDirectorio);
+                }));
+            }
+            List<RespuestaGeneralDTO> respuestas = new ArrayList<>(archivos.size());
+            for (Future<RespuestaGeneralDTO> futuro : futuros) {
+                respuestas.add(esperarResultado(futuro));
+            }
+            return respuestas;
+        } finally {
+            executor.shutdownNow();
+            if (envioLotes != null) {
+                envioLotes.close();
+            }
+            carrilesDirectorio.close();
+        }
+    }
+
+    /**
+     * Lee un archivo HL7 con varios mensajes y los envía de forma agrupada.
+     *
+     * @param archivo    Archivo HL7 con uno o varios mensajes.
+     * @param envioLotes Servicio que agrupa los mensajes en envíos por lotes.
+     * @return Respuesta general con el resumen del lote.
+     */
+    private RespuestaGeneralDTO leerLoteAgrupado(File archivo, IEnvioLotesService envioLotes) {
+        long inicio = System.nanoTime();
+        RespuestaGeneralDTO respuesta = procesarLoteAgrupado(archivo, envioLotes);
+        metricas.registrarArchivo(!Utilities.validacionRespuesta(respuesta.getStatus()), System.nanoTime() - inicio);
+        return respuesta;
+    }
+
+    /**
+     * Guarda los mensajes de un archivo en un lote por columnas, los encola en el envío agrupado y espera
+     * la respuesta de cada uno, resumiendo el resultado.
+     * <p>
+     * Sin índice de órdenes enviadas, el lote se encola completo; con índice, cada paciente se consulta
+     * antes de encolarse y se registra cuando la API lo acepta.
+     * </p>
+     *
+     * @param archivo    Archivo HL7 con uno o varios mensajes.
+     * @param envioLotes Servicio que agrupa los mensajes en envíos por lotes.
+     * @return Respuesta general con el resumen del lote.
+     */
+    private RespuestaGeneralDTO procesarLoteAgrupado(File archivo, IEnvioLotesService envioLotes) {
+        List<CompletableFuture<RespuestaGeneralDTO>> futuros;
+        try (LectorSegmentosHl7 lector = LectorSegmentosHl7.abrirFlujo(archivo.toPath(), CHARSET_CONFIGURADO)) {
+            LoteResultadosDTO lote = procesarContenidoService.procesarLote(lector);
+            if (indice == null) {
+                futuros = envioLotes.enviar(lote);
+            } else {
+                futuros = new ArrayList<>(lote.getPacientes());
+                for (int i = 0; i < lote.getPacientes(); i++) {
+                    futuros.add(encolarEnLote(lote.materializar(i), envioLotes));
+                }
+            }
         } catch (IOException e) {
             return manejarError(ERROR_LEER_ARCHIVO_HL7, e, ERROR_LECTURA_ARCHIVO);
+        } catch (UncheckedIOException e) {
+            return manejarError(ERROR_LEER_ARCHIVO_HL7, e.getCause(), ERROR_LECTURA_ARCHIVO);
         } catch (Exception e) {
             return manejarError(ERROR_INESPERADO_PORCESAR, e, ERROR_PROCESAMIENTO_DATOS);
         }
+
+        int fallidos = 0;
+        for (int i = 0; i < futuros.size(); i++) {
+            if (!esperarMensajeLote(futuros.get(i), i + 1)) {
+                fallidos++;
+            }
+        }
+        return construirResumenLote(futuros.size(), fallidos);
+    }
+
+    /**
+     * Omite la orden si ya fue aceptada; si no, encola el paciente en el envío agrupado y lo registra en el
+     * índice cuando la API lo acepta.
+     *
+     * @param request    Datos del paciente procesados.
+     * @param envioLotes Servicio que agrupa los mensajes en envíos por lotes.
+     * @return Futuro con la respuesta de la API, o completado con una respuesta de éxito si la orden ya había
+     * sido aceptada.
+     */
+    private CompletableFuture<RespuestaGeneralDTO> encolarEnLote(PacienteRequestDTO request,
+            IEnvioLotesService envioLotes) {
+        String numeroOrden = request.getNumeroOrden();
+        if (numeroOrden == null) {
+            return envioLotes.enviar(request);
+        }
+        long huella = HuellaPaciente.huellaExamenes(request.getExamenes());
+        if (indice.contiene(numeroOrden, huella)) {
+            return CompletableFuture.completedFuture(omitirOrden(numeroOrden));
+        }
+        return envioLotes.enviar(request).thenApply(respuesta -> {
+            registrarEnIndice(numeroOrden, huella, respuesta);
+            return respuesta;
+        });
     }
 
     /**
-     * Lee el contenido de un archivo HL7.
+     * Procesa los archivos en una canalización de lectura, análisis, serialización y envío.
+     * <p>
+     * Cada etapa tiene su propio pool de hilos y una cola de entrada acotada. Cuando la API responde más
+     * lento de lo que se leen los archivos, las colas se llenan y la lectura se detiene, de modo que nunca
+     * hay en memoria más archivos que la suma de las capacidades de las colas y los hilos. Solo los archivos
+     * pequeños se cargan completos; los demás se recorren por segmentos en el análisis. Mientras dura el
+     * procesamiento, la profundidad de las colas y la utilización de cada etapa se exponen en {@link MetricasHl7}.
+     * </p>
+     * <p>
+     * La etapa de envío reparte los archivos en carriles por número de orden, de modo que las actualizaciones
+     * de una misma orden se envían de una en una y en el orden en que salen de la serialización, y dentro de
+     * cada carril envía primero las órdenes más urgentes. Como las etapas anteriores tienen varios hilos, ese
+     * orden puede diferir del orden alfabético de los archivos.
+     * </p>
+     *
+     * @param directorio Directorio procesado, para el log.
+     * @param archivos   Archivos a procesar.
+     * @param opciones   Opciones con los hilos de cada etapa y la capacidad de las colas.
+     * @return Respuesta de cada archivo, en el mismo orden.
+     */
+    private List<RespuestaGeneralDTO> procesarCanalizado(Path directorio, List<Path> archivos,
+            OpcionesDirectorioDTO opciones) {
+        RespuestaGeneralDTO[] respuestas = new RespuestaGeneralDTO[archivos.size()];
+        int capacidad = opciones.getCapacidadCola();
+        CanalizacionEtapas<TrabajoArchivo> canalizacion = new CanalizacionEtapas<TrabajoArchivo>(
+                trabajo -> finalizarTrabajo(trabajo, respuestas),
+                (trabajo, e) -> trabajo.respuesta = manejarErrorArchivo(e))
+                .agregarEtapa(EtapaEnum.LECTURA.name(), opciones.getHilosLectura(), capacidad, this::leerContenido)
+                .agregarEtapa(EtapaEnum.ANALISIS.name(), opciones.getHilosAnalisis(), capacidad, this::analizarContenido)
+                .agregarEtapa(EtapaEnum.SERIALIZACION.name(), opciones.getHilosSerializacion(), capacidad,
+                        this::serializarPaciente)
+                .agregarEtapaOrdenada(EtapaEnum.ENVIO.name(), opciones.getHilosEnvio(), capacidad,
+                        trabajo -> trabajo.request.getNumeroOrden(), trabajo -> trabajo.request.getPrioridad(),
+                        this::enviarSerializado);
+        metricas.publicarCanalizacion(canalizacion);
+        TrabajoArchivo[] trabajos = new TrabajoArchivo[archivos.size()];
+        try {
+            canalizacion.iniciar();
+            for (int i = 0; i < archivos.size(); i++) {
+                trabajos[i] = new TrabajoArchivo(i, archivos.get(i));
+                canalizacion.enviar(trabajos[i]);
+            }
+            canalizacion.cerrarEntrada();
+            canalizacion.esperar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            canalizacion.close();
+            metricas.retirarCanalizacion(canalizacion);
+            liberarEnBuzon(trabajos);
+        }
+
+        List<EstadisticaEtapaDTO> estadisticas = canalizacion.estadisticas();
+        log.info(CANALIZACION_DIRECTORIO, directorio, estadisticas);
+        for (int i = 0; i < respuestas.length; i++) {
+            if (respuestas[i] == null) {
+                respuestas[i] = Utilities.construirError(PROCESAMIENTO_INTERRUMPIDO,
+                        HttpStatusEnum.INTERNAL_SERVER_ERROR.getReasonPhrase());
+            }
+        }
+        return Arrays.asList(respuestas);
+    }
+
+    /**
+     * Libera en el buzón los pacientes de la canalización, de modo que los que no llegaron a enviarse, por
+     * ejemplo porque la canalización se interrumpió, se reenvíen en segundo plano. Liberar un registro ya
+     * confirmado no tiene efecto.
+     *
+     * @param trabajos Archivos enviados a la canalización; los que no llegaron a enviarse son {@code null}.
+     */
+    private void liberarEnBuzon(TrabajoArchivo[] trabajos) {
+        for (TrabajoArchivo trabajo : trabajos) {
+            if (trabajo != null && trabajo.entrada != null) {
+                buzon.liberar(trabajo.entrada.getId());
+            }
+        }
+    }
+
+    /**
+     * Etapa de lectura: carga el contenido completo del archivo si no supera
+     * {@code UMBRAL_LECTURA_CANALIZACION_BYTES}.
+     * <p>
+     * Los archivos mayores no se cargan: la etapa de análisis los recorre con {@link LectorSegmentosHl7},
+     * de modo que los archivos en cola nunca ocupan más que ese umbral cada uno.
+     * </p>
+     *
+     * @param trabajo Archivo en curso.
+     * @return {@code true} para continuar con el análisis.
+     * @throws IOException Si el archivo no puede leerse.
+     */
+    private boolean leerContenido(TrabajoArchivo trabajo) throws IOException {
+        trabajo.inicio = System.nanoTime();
+        if (Files.size(trabajo.archivo) <= UMBRAL_LECTURA_CANALIZACION_BYTES) {
+            trabajo.contenido = Files.readAllBytes(trabajo.archivo);
+            metricas.registrarLatencia(EtapaEnum.LECTURA, System.nanoTime() - trabajo.inicio);
+        }
+        return true;
+    }
+
+    /**
+     * Etapa de análisis: recorre los segmentos del contenido leído, o del archivo si la lectura no lo cargó,
+     * y construye el paciente.
+     *
+     * @param trabajo Archivo en curso.
+     * @return {@code true} para continuar con la serialización.
+     * @throws IOException Si el archivo no puede leerse o su codificación no es compatible con ASCII.
+     */
+    private boolean analizarContenido(TrabajoArchivo trabajo) throws IOException {
+        if (trabajo.contenido == null) {
+            trabajo.request = leerArchivo(trabajo.archivo.toFile());
+            return true;
+        }
+        long inicio = System.nanoTime();
+        try (LectorSegmentosHl7 lector = LectorSegmentosHl7.abrir(trabajo.contenido, CHARSET_CONFIGURADO)) {
+            trabajo.request = procesarContenidoService.procesarContenido(lector);
+        } finally {
+            trabajo.contenido = null;
+            metricas.registrarLatencia(EtapaEnum.ANALISIS, System.nanoTime() - inicio);
+        }
+        return true;
+    }
+
+    /**
+     * Etapa de serialización: omite la orden si ya fue aceptada antes de esta ejecución; si no, la convierte
+     * a JSON y la guarda en el buzón de salida si existe.
+     *
+     * @param trabajo Archivo en curso.
+     * @return {@code true} para continuar con el envío; {@code false} si la orden se omitió.
+     * @throws IOException Si el paciente no puede serializarse o guardarse en el buzón.
+     */
+    private boolean serializarPaciente(TrabajoArchivo trabajo) throws IOException {
+        PacienteRequestDTO request = trabajo.request;
+        if (indice != null && request.getNumeroOrden() != null) {
+            trabajo.huella = HuellaPaciente.huellaExamenes(request.getExamenes());
+            if (indice.contiene(request.getNumeroOrden(), trabajo.huella)) {
+                trabajo.respuesta = omitirOrden(request.getNumeroOrden());
+                return false;
+            }
+        }
+
+        long inicio = System.nanoTime();
+        trabajo.json = escritorPaciente.writeValueAsBytes(request);
+        metricas.registrarLatencia(EtapaEnum.SERIALIZACION, System.nanoTime() - inicio);
+        if (buzon != null) {
+            trabajo.entrada = buzon.registrar(trabajo.json);
+        }
+        trabajo.encolado = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Etapa de envío: omite la orden si ya fue aceptada; si no, envía el JSON serializado y registra la orden
+     * en el índice si fue aceptada.
+     * <p>
+     * La consulta de la serialización se repite aquí porque esa etapa tiene varios hilos: dos archivos con la
+     * misma orden pueden pasarla antes de que se registre ninguno. Esta etapa envía las actualizaciones de una
+     * orden de una en una, así que la segunda ve el registro de la primera; su registro en el buzón se descarta
+     * sin enviarse. El tiempo desde que el archivo entró en la etapa se registra según la prioridad de la orden.
+     * </p>
+     *
+     * @param trabajo Archivo en curso.
+     * @return {@code true}; es la última etapa.
+     * @throws Exception Si ocurre un error en la solicitud HTTP.
+     */
+    private boolean enviarSerializado(TrabajoArchivo trabajo) throws Exception {
+        String numeroOrden = trabajo.request.getNumeroOrden();
+        if (indice != null && numeroOrden != null && indice.contiene(numeroOrden, trabajo.huella)) {
+            if (trabajo.entrada != null) {
+                buzon.confirmar(trabajo.entrada.getId());
+            }
+            trabajo.json = null;
+            trabajo.respuesta = omitirOrden(numeroOrden);
+            return true;
+        }
+
+        try {
+            trabajo.respuesta = trabajo.entrada != null
+                    ? enviarRegistrado(trabajo.json, trabajo.entrada)
+                    : apiClient.sendPostRequest(URL_GUARDAR_PACIENTE, trabajo.json, UUID.randomUUID().toString());
+        } finally {
+            metricas.registrarLatenciaPrioridad(trabajo.request.getPrioridad(), System.nanoTime() - trabajo.encolado);
+        }
+        trabajo.json = null;
+        if (indice != null && numeroOrden != null) {
+            registrarEnIndice(numeroOrden, trabajo.huella, trabajo.respuesta);
+        }
+        return true;
+    }
+
+    /**
+     * Guarda la respuesta de un archivo que salió de la canalización y registra sus métricas.
+     *
+     * @param trabajo    Archivo terminado, con su respuesta o su error.
+     * @param respuestas Respuestas de los archivos, por posición.
+     */
+    private void finalizarTrabajo(TrabajoArchivo trabajo, RespuestaGeneralDTO[] respuestas) {
+        respuestas[trabajo.posicion] = trabajo.respuesta;
+        long duracion = trabajo.inicio == 0L ? 0L : System.nanoTime() - trabajo.inicio;
+        metricas.registrarArchivo(!Utilities.validacionRespuesta(trabajo.respuesta.getStatus()), duracion);
+    }
+
+    /**
+     * Crea el pool de hilos que procesa los archivos de un directorio.
+     *
+     * @param hilos Número de hilos del pool.
+     * @return Pool de hilos de tamaño fijo.
+     */
+    private ExecutorService crearExecutor(int hilos) {
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, HILO_DIRECTORIO + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Espera el resultado del procesamiento de un archivo.
+     *
+     * @param futuro Resultado pendiente del archivo.
+     * @return Respuesta del archivo, o una respuesta de error si el procesamiento falló o fue interrumpido.
+     */
+    private RespuestaGeneralDTO esperarResultado(Future<RespuestaGeneralDTO> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futuro.cancel(true);
+            return Utilities.construirError(PROCESAMIENTO_INTERRUMPIDO, HttpStatusEnum.INTERNAL_SERVER_ERROR.getReasonPhrase());
+        } catch (ExecutionException e) {
+            return manejarError(ERROR_INESPERADO_PORCESAR, e, ERROR_PROCESAMIENTO_DATOS);
+        }
+    }
+
+    /**
+     * Lee y procesa un archivo HL7 segmento a segmento.
+     * <p>
+     * El archivo se recorre con {@link LectorSegmentosHl7}, que lo mapea en memoria o lo lee con
+     * buffers directos, por lo que nunca se construye una cadena con el contenido completo.
+     * Como la lectura y el análisis se intercalan, el tiempo pasado dentro del lector se registra
+     * como lectura y el resto como análisis.
+     * </p>
      *
      * @param archivo Archivo HL7.
-     * @return Contenido del archivo como cadena.
+     * @return Datos del paciente procesados.
      * @throws IOException Si ocurre un error al leer el archivo.
      */
-    private String leerArchivo(File archivo) throws IOException {
-        StringBuilder contenido = new StringBuilder();
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            while ((linea = br.readLine()) != null) {
-                contenido.append(linea.replace(PATRON_LINEAS, SALTO_TEXTO));
+    private PacienteRequestDTO leerArchivo(File archivo) throws IOException {
+        long inicio = System.nanoTime();
+        try (LectorSegmentosHl7 lector = LectorSegmentosHl7.abrir(archivo.toPath(), CHARSET_CONFIGURADO)) {
+            long apertura = System.nanoTime() - inicio;
+            IteradorCronometrado<CharSequence> segmentos = new IteradorCronometrado<>(lector);
+            try {
+                return procesarContenidoService.procesarContenido(segmentos);
+            } finally {
+                long lectura = apertura + segmentos.getNanos();
+                metricas.registrarLatencia(EtapaEnum.LECTURA, lectura);
+                metricas.registrarLatencia(EtapaEnum.ANALISIS, System.nanoTime() - inicio - lectura);
             }
         }
-        return contenido.toString();
     }
 
     /**
      * Envía los datos procesados a un sistema remoto mediante HTTP POST.
+     * <p>
+     * Sin buzón de salida, el paciente se serializa directamente sobre la conexión. Si hay un buzón, el
+     * cuerpo se serializa una sola vez a bytes, se guarda en disco antes de enviarse y se confirma cuando
+     * la API responde. Ante un error transitorio o con el circuito abierto el registro queda pendiente y
+     * el buzón lo reenvía más tarde con la misma clave de idempotencia.
+     * </p>
+     * <p>
+     * El envío se ejecuta en el carril de su número de orden, según su prioridad, y este hilo espera su
+     * resultado, de modo que dos actualizaciones de la misma orden no se envían a la vez y la consulta al
+     * índice ve el registro de la anterior. El tiempo de espera y envío se registra según la prioridad.
+     * </p>
+     *
+     * @param request  Datos del paciente procesados.
+     * @param carriles Carriles donde se envía el paciente.
+     * @return Respuesta del sistema remoto, o una respuesta de éxito si la orden ya había sido aceptada.
+     * @throws Exception Si ocurre un error en la solicitud HTTP.
+     */
+    private RespuestaGeneralDTO enviarDatos(PacienteRequestDTO request, DespachadorCarriles carriles)
+            throws Exception {
+        long inicio = System.nanoTime();
+        try {
+            return carriles.despachar(request.getNumeroOrden(), request.getPrioridad(),
+                    () -> enviarEnCarril(request)).get();
+        } catch (ExecutionException e) {
+            Throwable causa = PoliticaReintentos.desenvolver(e);
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw (Exception) causa;
+        } finally {
+            metricas.registrarLatenciaPrioridad(request.getPrioridad(), System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Omite la orden si ya fue aceptada; si no, envía el paciente y lo registra en el índice.
      *
      * @param request Datos del paciente procesados.
+     * @return Respuesta del sistema remoto, o una respuesta de éxito si la orden ya había sido aceptada.
+     * @throws Exception Si ocurre un error en la solicitud HTTP.
+     */
+    private RespuestaGeneralDTO enviarEnCarril(PacienteRequestDTO request) throws Exception {
+        String numeroOrden = request.getNumeroOrden();
+        if (indice == null || numeroOrden == null) {
+            return enviarPaciente(request);
+        }
+
+        long huella = HuellaPaciente.huellaExamenes(request.getExamenes());
+        if (indice.contiene(numeroOrden, huella)) {
+            return omitirOrden(numeroOrden);
+        }
+
+        RespuestaGeneralDTO respuesta = enviarPaciente(request);
+        registrarEnIndice(numeroOrden, huella, respuesta);
+        return respuesta;
+    }
+
+    /**
+     * Registra una orden omitida por haber sido aceptada antes con los mismos exámenes.
+     *
+     * @param numeroOrden Número de la orden omitida.
+     * @return Respuesta de éxito que indica que la orden ya había sido enviada.
+     */
+    private RespuestaGeneralDTO omitirOrden(String numeroOrden) {
+        metricas.registrarOrdenOmitida();
+        log.info(ORDEN_OMITIDA, numeroOrden);
+        return RespuestaGeneralDTO.builder()
+                .status(HttpStatusEnum.CREATED.getReasonPhrase().toUpperCase())
+                .codigo(HttpStatusEnum.CREATED.getCode())
+                .data(numeroOrden)
+                .message(String.format(ORDEN_YA_ENVIADA, numeroOrden))
+                .build();
+    }
+
+    /**
+     * Registra una orden en el índice si la API la aceptó.
+     *
+     * @param numeroOrden Número de la orden enviada.
+     * @param huella      Huella de los exámenes de la orden.
+     * @param respuesta   Respuesta de la API.
+     */
+    private void registrarEnIndice(String numeroOrden, long huella, RespuestaGeneralDTO respuesta) {
+        if (!Utilities.validacionRespuesta(respuesta.getStatus())) {
+            try {
+                indice.registrar(numeroOrden, huella);
+            } catch (IOException e) {
+                log.warn(ERROR_REGISTRO_INDICE, numeroOrden, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Envía un paciente a la API, guardándolo antes en el buzón de salida si existe.
+     *
+     * @param request Datos del paciente procesados.
+     * @return Respuesta del sistema remoto.
+     * @throws Exception Si ocurre un error en la solicitud HTTP.
+     */
+    private RespuestaGeneralDTO enviarPaciente(PacienteRequestDTO request) throws Exception {
+        if (buzon == null) {
+            return apiClient.sendPostRequest(URL_GUARDAR_PACIENTE, request);
+        }
+
+        long inicio = System.nanoTime();
+        byte[] jsonExamen = escritorPaciente.writeValueAsBytes(request);
+        metricas.registrarLatencia(EtapaEnum.SERIALIZACION, System.nanoTime() - inicio);
+        return enviarRegistrado(jsonExamen, buzon.registrar(jsonExamen));
+    }
+
+    /**
+     * Envía un paciente ya guardado en el buzón de salida y lo confirma según el resultado.
+     * <p>
+     * Solo un rechazo definitivo de la API confirma el registro sin enviarlo; ante cualquier otro error,
+     * incluida una interrupción, el registro queda pendiente y se libera para que el buzón lo reenvíe más tarde.
+     * </p>
+     *
+     * @param json    Paciente serializado.
+     * @param entrada Registro del paciente en el buzón.
      * @return Respuesta del sistema remoto.
      * @throws Exception Si ocurre un error en la solicitud HTTP.
      */
-    private RespuestaGeneralDTO enviarDatos(PacienteRequestDTO request) throws Exception {
-        String jsonExamen = objectMapper.writeValueAsString(request);
-        return apiClient.sendPostRequest(URL_GUARDAR_PACIENTE, jsonExamen);
+    private RespuestaGeneralDTO enviarRegistrado(byte[] json, EntradaBuzonDTO entrada) throws Exception {
+        RespuestaGeneralDTO respuesta;
+        try {
+            respuesta = apiClient.sendPostRequest(URL_GUARDAR_PACIENTE, json, entrada.getClaveIdempotencia());
+        } catch (Exception e) {
+            if (PoliticaReintentos.esRechazoDefinitivo(e)) {
+                buzon.confirmar(entrada.getId());
+            } else if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw e;
+        } finally {
+            buzon.liberar(entrada.getId());
+        }
+        buzon.confirmar(entrada.getId());
+        return respuesta;
+    }
+
+    /**
+     * Envía un mensaje de un lote, registrando el error sin interrumpir el lote.
+     *
+     * @param request  Datos del paciente del mensaje.
+     * @param numero   Posición del mensaje dentro del lote.
+     * @param carriles Carriles donde se envía el mensaje.
+     * @return {@code true} si el mensaje fue aceptado por el sistema remoto.
+     */
+    private boolean enviarMensajeLote(PacienteRequestDTO request, int numero, DespachadorCarriles carriles) {
+        try {
+            RespuestaGeneralDTO respuesta = enviarDatos(request, carriles);
+            if (Utilities.validacionRespuesta(respuesta.getStatus())) {
+                log.error(ERROR_ENVIO_MENSAJE_LOTE, numero, respuesta.getMessage());
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.error(ERROR_ENVIO_MENSAJE_LOTE, numero, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Espera la respuesta de un mensaje de un lote enviado de forma agrupada, registrando el error sin
+     * interrumpir el lote.
+     *
+     * @param futuro Respuesta pendiente del mensaje.
+     * @param numero Posición del mensaje dentro del lote.
+     * @return {@code true} si el mensaje fue aceptado por el sistema remoto.
+     */
+    private boolean esperarMensajeLote(CompletableFuture<RespuestaGeneralDTO> futuro, int numero) {
+        try {
+            RespuestaGeneralDTO respuesta = futuro.get();
+            if (Utilities.validacionRespuesta(respuesta.getStatus())) {
+                log.error(ERROR_ENVIO_MENSAJE_LOTE, numero, respuesta.getMessage());
+                return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error(ERROR_ENVIO_MENSAJE_LOTE, numero, PROCESAMIENTO_INTERRUMPIDO);
+            return false;
+        } catch (ExecutionException e) {
+            Throwable causa = PoliticaReintentos.desenvolver(e);
+            log.error(ERROR_ENVIO_MENSAJE_LOTE, numero, causa.getMessage(), causa);
+            return false;
+        }
+    }
+
+    /**
+     * Construye la respuesta que resume el envío de un lote.
+     *
+     * @param total    Número de mensajes leídos.
+     * @param fallidos Número de mensajes cuyo envío falló.
+     * @return Respuesta con el resumen del lote.
+     */
+    private RespuestaGeneralDTO construirResumenLote(int total, int fallidos) {
+        if (total == 0) {
+            return Utilities.construirError(ERROR_PROCESAMIENTO_DATOS, HttpStatusEnum.INTERNAL_SERVER_ERROR.getReasonPhrase());
+        }
+        if (fallidos > 0) {
+            return Utilities.construirError(String.format(LOTE_CON_ERRORES, fallidos, total),
+                    HttpStatusEnum.INTERNAL_SERVER_ERROR.getReasonPhrase());
+        }
+        return RespuestaGeneralDTO.builder()
+                .status(HttpStatusEnum.CREATED.getReasonPhrase().toUpperCase())
+                .codigo(HttpStatusEnum.CREATED.getCode())
+                .data(total)
+                .message(String.format(LOTE_ENVIADO, total))
+                .build();
+    }
+
+    /**
+     * Convierte un error del procesamiento de un archivo en una respuesta de error.
+     *
+     * @param e Excepción ocurrida al leer, analizar o enviar el archivo.
+     * @return Respuesta con información del error.
+     */
+    private RespuestaGeneralDTO manejarErrorArchivo(Exception e) {
+        if (e instanceof IOException) {
+            return manejarError(ERROR_LEER_ARCHIVO_HL7, e, ERROR_LECTURA_ARCHIVO);
+        }
+        if (e instanceof UncheckedIOException) {
+            return manejarError(ERROR_LEER_ARCHIVO_HL7, ((UncheckedIOException) e).getCause(), ERROR_LECTURA_ARCHIVO);
+        }
+        return manejarError(ERROR_INESPERADO_PORCESAR, e, ERROR_PROCESAMIENTO_DATOS);
     }
 
     /**
@@ -99,4 +1052,31 @@ public class LeerArchivoService implements ILeerArchivoService {
         log.error(mensajeLog, e);
         return Utilities.construirError(mensajeUI, HttpStatusEnum.INTERNAL_SERVER_ERROR.getReasonPhrase());
     }
+
+    /**
+     * Archivo en curso dentro de la canalización, con los resultados parciales de cada etapa.
+     * <p>
+     * Cada etapa libera lo que la siguiente ya no necesita, para que los archivos en cola no retengan
+     * su contenido completo.
+     * </p>
+     */
+    private static final class TrabajoArchivo {
+
+        private final int posicion;
+        private final Path archivo;
+        private long inicio;
+        private byte[] contenido;
+        private PacienteRequestDTO request;
+        private long huella;
+        private byte[] json;
+        /** Volátil porque, al terminar la canalización, se revisa desde otro hilo para liberar el registro. */
+        private volatile EntradaBuzonDTO entrada;
+        private long encolado;
+        private RespuestaGeneralDTO respuesta;
+
+        private TrabajoArchivo(int posicion, Path archivo) {
+            this.posicion = posicion;
+            this.archivo = archivo;
+        }
+    }
 }
@@ -1,9 +1,22 @@
 package com.gov.app.prueba.clteach.services.impl;
 
 import com.gov.app.prueba.clteach.dto.ExamenDTO;
+import com.gov.app.prueba.clteach.dto.LoteResultadosDTO;
 import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
 import com.gov.app.prueba.clteach.services.IProcesarContenidoService;
+import com.gov.app.prueba.clteach.utils.enums.PrioridadEnum;
+import com.gov.app.prueba.clteach.utils.helper.DestinoPaciente;
+import com.gov.app.prueba.clteach.utils.helper.ManejadorSegmentoHl7;
+import com.gov.app.prueba.clteach.utils.helper.MetricasHl7;
+import com.gov.app.prueba.clteach.utils.helper.RegistroManejadoresHl7;
+import com.gov.app.prueba.clteach.utils.helper.TokenizadorHl7;
 import com.gov.app.prueba.clteach.utils.helper.Utilities;
+import com.gov.app.prueba.clteach.utils.helper.VistaSegmentoHl7;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import lombok.extern.slf4j.Slf4j;
 
 import static com.gov.app.prueba.clteach.utils.constants.Constants.*;
@@ -15,10 +28,74 @@ import static com.gov.app.prueba.clteach.utils.constants.Constants.*;
  * para analizar y extraer información relevante de los segmentos HL7 ("PID", "OBR", "OBX").
  * Los datos procesados se almacenan en un objeto {@link PacienteRequestDTO}.
  * </p>
+ * <p>
+ * Los segmentos se recorren una sola vez con {@link TokenizadorHl7} y se leen a través de
+ * {@link VistaSegmentoHl7}; solo se crean cadenas para los campos que realmente se leen
+ * (PID-5, OBR-2, OBX-3 y OBX-5, y los códigos de prioridad de OBR-5, OBR-27 y ORC-7). Los segmentos
+ * que se registran en los logs se muestran tal como llegaron, sin volver a unir sus campos.
+ * </p>
+ * <p>
+ * Los segmentos leídos, desconocidos e incompletos se contabilizan en {@link MetricasHl7}.
+ * </p>
+ * <p>
+ * Cada segmento se despacha al manejador de su tipo en un {@link RegistroManejadoresHl7}, buscando por la
+ * clave empaquetada del tipo. Los segmentos de {@code SEGMENTOS_IGNORADOS} se omiten sin registrarse, y
+ * los desconocidos se agrupan por tipo en un único mensaje de log por archivo.
+ * </p>
+ * <p>
+ * Los campos extraídos se entregan a un {@link DestinoPaciente}, de modo que el mismo análisis
+ * alimenta tanto un {@link PacienteRequestDTO} como un {@link LoteResultadosDTO} por columnas.
+ * </p>
  */
 @Slf4j
 public class ProcesarContenidoService implements IProcesarContenidoService {
 
+    private static final int CLAVE_MSH = RegistroManejadoresHl7.clave(MSH);
+    private static final int CLAVE_FHS = RegistroManejadoresHl7.clave(FHS);
+    private static final int CLAVE_BHS = RegistroManejadoresHl7.clave(BHS);
+    private static final int CLAVE_FTS = RegistroManejadoresHl7.clave(FTS);
+    private static final int CLAVE_BTS = RegistroManejadoresHl7.clave(BTS);
+
+    /** Máximo de tipos distintos que se detallan en el mensaje de segmentos desconocidos. */
+    private static final int MAX_TIPOS_DESCONOCIDOS = 32;
+
+    private final MetricasHl7 metricas = MetricasHl7.getInstance();
+    private final RegistroManejadoresHl7 manejadores = new RegistroManejadoresHl7();
+
+    /**
+     * Crea el servicio con los manejadores de PID, OBR y OBX y los segmentos ignorados predeterminados.
+     */
+    public ProcesarContenidoService() {
+        manejadores.registrar(PID, this::procesarPID);
+        manejadores.registrar(OBR, this::procesarOBR);
+        manejadores.registrar(OBX, this::procesarOBX);
+        manejadores.registrar(ORC, this::procesarORC);
+        SEGMENTOS_IGNORADOS.forEach(manejadores::ignorar);
+    }
+
+    /**
+     * Registra el manejador de un tipo de segmento, reemplazando el anterior si existía.
+     *
+     * @param tipo      el tipo de segmento de tres caracteres, por ejemplo {@code NTE}.
+     * @param manejador el manejador del tipo.
+     * @throws IllegalArgumentException si el tipo no tiene tres caracteres ASCII.
+     */
+    @Override
+    public void registrarManejador(String tipo, ManejadorSegmentoHl7 manejador) {
+        manejadores.registrar(tipo, manejador);
+    }
+
+    /**
+     * Registra un tipo de segmento que debe omitirse sin contarse como desconocido.
+     *
+     * @param tipo el tipo de segmento de tres caracteres.
+     * @throws IllegalArgumentException si el tipo no tiene tres caracteres ASCII.
+     */
+    @Override
+    public void ignorarSegmento(String tipo) {
+        manejadores.ignorar(tipo);
+    }
+
      /**
      * Procesa el contenido de un archivo HL7 representado como un array de líneas.
      *
@@ -39,26 +116,71 @@ public class ProcesarContenidoService implements IProcesarContenidoService {
         if (lineas == null || lineas.length == 0) {
             throw new IllegalArgumentException(HL7_VACIO_NULO);
         }
+        return procesarContenido(Arrays.asList(lineas).iterator());
+    }
+
+    /**
+     * Procesa el contenido de un archivo HL7 entregado segmento a segmento.
+     *
+     * <p>
+     * Aplica las mismas reglas que {@link #procesarContenido(String[])} sin requerir que todos
+     * los segmentos estén en memoria a la vez.
+     * </p>
+     *
+     * @param segmentos los segmentos del archivo HL7, en orden.
+     * @return un objeto {@link PacienteRequestDTO} que contiene los datos procesados del paciente.
+     * @throws IllegalArgumentException si los segmentos son nulos.
+     * @throws IllegalStateException    si el archivo HL7 no contiene segmentos válidos.
+     */
+    @Override
+    public PacienteRequestDTO procesarContenido(Iterator<? extends CharSequence> segmentos) {
+        if (segmentos == null) {
+            throw new IllegalArgumentException(HL7_VACIO_NULO);
+        }
+
+        return procesarVistas(new TokenizadorHl7().vistas(segmentos));
+    }
+
+    /**
+     * Procesa el contenido de un archivo HL7 a partir de vistas sobre sus segmentos.
+     *
+     * <p>
+     * Aplica las mismas reglas que {@link #procesarContenido(String[])}; los campos se leen directamente
+     * de las vistas, sin copiar los segmentos.
+     * </p>
+     *
+     * @param segmentos las vistas sobre los segmentos del archivo HL7, en orden.
+     * @return un objeto {@link PacienteRequestDTO} que contiene los datos procesados del paciente.
+     * @throws IllegalArgumentException si los segmentos son nulos.
+     * @throws IllegalStateException    si el archivo HL7 no contiene segmentos válidos.
+     */
+    @Override
+    public PacienteRequestDTO procesarVistas(Iterator<? extends VistaSegmentoHl7> segmentos) {
+        if (segmentos == null) {
+            throw new IllegalArgumentException(HL7_VACIO_NULO);
+        }
 
         PacienteRequestDTO request = new PacienteRequestDTO();
+        DestinoPaciente destino = new DestinoRequest(request);
+        SegmentosDesconocidos desconocidos = new SegmentosDesconocidos();
         boolean formatoValido = false;
+        long leidos = 0;
 
-        for (String segmento : lineas) {
-            if (segmento.isBlank()) {
-                log.warn(SEGMENTO_VACIO_MAL_FORMATO);
+        while (segmentos.hasNext()) {
+            VistaSegmentoHl7 segmento = segmentos.next();
+            if (segmento.numeroCampos() == 0 || Utilities.esBlanco(segmento.texto())) {
+                log.warn(SEGMENTO_VACIO_MAL_FORMATO, segmento.texto());
                 continue;
             }
 
-            String textoLimpio = Utilities.limpiarLinea(segmento);
-            String[] campos = textoLimpio.split(PATRON_CAMPOS);
-
-            if (campos.length == 0) {
-                log.warn(SEGMENTO_VACIO_MAL_FORMATO, segmento);
-                continue;
+            leidos++;
+            Boolean procesado = procesarSegmento(segmento, destino, desconocidos);
+            if (procesado != null) {
+                formatoValido = procesado;
             }
-
-            formatoValido = procesarSegmento(campos, request);
         }
+        metricas.registrarSegmentos(leidos);
+        desconocidos.reportar();
 
         if (!formatoValido) {
             throw new IllegalStateException(HL7_NO_VALIDO);
@@ -67,29 +189,82 @@ public class ProcesarContenidoService implements IProcesarContenidoService {
         return request;
     }
 
-  /**
-     * Procesa un segmento HL7 según su tipo.
+    /**
+     * Procesa de forma perezosa un archivo HL7 con varios mensajes.
      *
      * <p>
-     * Identifica el tipo del segmento HL7 (por ejemplo, "PID", "OBR", "OBX") y delega
-     * el procesamiento al método correspondiente. Si el segmento no es reconocido,
-     * se registra en los logs como desconocido.
+     * A diferencia de {@link #procesarContenido(Iterator)}, un mensaje se considera válido si al menos
+     * uno de sus segmentos PID, OBR u OBX se procesó correctamente; los mensajes sin segmentos válidos
+     * se registran en los logs y se omiten sin interrumpir el resto del lote.
      * </p>
      *
-     * @param campos  los campos del segmento HL7, separados por el delimitador `|`.
-     * @param request el objeto {@link PacienteRequestDTO} donde se almacenará la información procesada.
-     * @return {@code true} si el segmento fue procesado correctamente; {@code false} en caso contrario.
+     * @param segmentos los segmentos del archivo HL7, en orden.
+     * @return un iterador con un {@link PacienteRequestDTO} por cada mensaje válido.
+     * @throws IllegalArgumentException si los segmentos son nulos.
      */
-    private boolean procesarSegmento(String[] campos, PacienteRequestDTO request) {
-        return switch (campos[0]) {
-            case PID -> procesarPID(campos, request);
-            case OBR -> procesarOBR(campos, request);
-            case OBX -> procesarOBX(campos, request);
-            default -> {
-                log.info(SEGMENTOS_DESCONOCIDOS, String.join(PATRON_BARRA, campos));
-                yield false;
+    @Override
+    public Iterator<PacienteRequestDTO> procesarMensajes(Iterator<? extends CharSequence> segmentos) {
+        if (segmentos == null) {
+            throw new IllegalArgumentException(HL7_VACIO_NULO);
+        }
+        return new IteradorMensajes(segmentos);
+    }
+
+    /**
+     * Procesa un archivo HL7 con varios mensajes y guarda los resultados en un lote por columnas.
+     *
+     * <p>
+     * Aplica las mismas reglas que {@link #procesarMensajes(Iterator)}, pero sin crear un
+     * {@link PacienteRequestDTO} ni un {@link ExamenDTO} por registro; los códigos de examen y los
+     * resultados repetidos se guardan una sola vez.
+     * </p>
+     *
+     * @param segmentos los segmentos del archivo HL7, en orden.
+     * @return el lote con un paciente por cada mensaje válido.
+     * @throws IllegalArgumentException si los segmentos son nulos.
+     */
+    @Override
+    public LoteResultadosDTO procesarLote(Iterator<? extends CharSequence> segmentos) {
+        if (segmentos == null) {
+            throw new IllegalArgumentException(HL7_VACIO_NULO);
+        }
+        LoteResultadosDTO lote = new LoteResultadosDTO();
+        DestinoPaciente destino = new DestinoLote(lote);
+        LectorMensajes lector = new LectorMensajes(segmentos);
+        while (segmentos.hasNext()) {
+            lote.iniciarPaciente();
+            if (lector.leerMensaje(destino) != Boolean.TRUE) {
+                lote.descartarPaciente();
             }
-        };
+        }
+        return lote;
+    }
+
+    /**
+     * Procesa un segmento HL7 según su tipo.
+     *
+     * <p>
+     * Busca el manejador del tipo del segmento por su clave empaquetada y le delega el procesamiento.
+     * Si el segmento no es reconocido, se contabiliza como desconocido.
+     * </p>
+     *
+     * @param campos       la vista sobre el segmento HL7.
+     * @param destino      el destino donde se almacenará la información procesada.
+     * @param desconocidos el contador de segmentos desconocidos del archivo.
+     * @return {@code true} si el segmento fue procesado correctamente, {@code false} si no es válido o
+     * es desconocido, o {@code null} si es un segmento ignorado o que no decide la validez del mensaje.
+     */
+    private Boolean procesarSegmento(VistaSegmentoHl7 campos, DestinoPaciente destino, SegmentosDesconocidos desconocidos) {
+        ManejadorSegmentoHl7 manejador = manejadores.buscar(campos.claveTipo());
+        if (manejador == RegistroManejadoresHl7.IGNORADO) {
+            return null;
+        }
+        if (manejador != null) {
+            return manejador.procesar(campos, destino);
+        }
+        metricas.registrarSegmentoDesconocido();
+        desconocidos.registrar(campos);
+        return false;
     }
 
      /**
@@ -100,16 +275,19 @@ public class ProcesarContenidoService implements IProcesarContenidoService {
      * del paciente. Si el segmento está incompleto, registra una advertencia en los logs.
      * </p>
      *
-     * @param campos  los campos del segmento "PID", separados por el delimitador `|`.
-     * @param request el objeto {@link PacienteRequestDTO} donde se almacenará la información procesada.
+     * @param campos  la vista sobre el segmento "PID".
+     * @param destino el destino donde se almacenará la información procesada.
      * @return {@code true} si el segmento es válido y se procesó correctamente; {@code false} en caso contrario.
      */
-    private boolean procesarPID(String[] campos, PacienteRequestDTO request) {
-        if (campos.length > 5) {
-            request.setNombres(Utilities.quitarPalabraFinal(campos[5], PATRON_P));
+    private boolean procesarPID(VistaSegmentoHl7 campos, DestinoPaciente destino) {
+        if (campos.numeroCampos() > 5) {
+            destino.nombres(Utilities.quitarPalabraFinal(campos.campo(5), PATRON_P));
             return true;
         } else {
-            log.warn(PID_INCOMPLETO, String.join(PATRON_BARRA, campos));
+            metricas.registrarPidIncompleto();
+            if (log.isWarnEnabled()) {
+                log.warn(PID_INCOMPLETO, campos.texto());
+            }
             return false;
         }
     }
@@ -119,19 +297,29 @@ public class ProcesarContenidoService implements IProcesarContenidoService {
      *
      * <p>
      * Este método analiza el segmento "OBR" del archivo HL7 y extrae el número de orden
-     * asociado al paciente. Si el segmento está incompleto, registra una advertencia en los logs.
+     * asociado al paciente, junto con la prioridad de OBR-5 y del sexto componente de OBR-27 si
+     * existen. Si el segmento está incompleto, registra una advertencia en los logs.
      * </p>
      *
-     * @param campos  los campos del segmento "OBR", separados por el delimitador `|`.
-     * @param request el objeto {@link PacienteRequestDTO} donde se almacenará la información procesada.
+     * @param campos  la vista sobre el segmento "OBR".
+     * @param destino el destino donde se almacenará la información procesada.
      * @return {@code true} si el segmento es válido y se procesó correctamente; {@code false} en caso contrario.
      */
-    private boolean procesarOBR(String[] campos, PacienteRequestDTO request) {
-        if (campos.length > 2) {
-            request.setNumeroOrden(campos[2].strip());
+    private boolean procesarOBR(VistaSegmentoHl7 campos, DestinoPaciente destino) {
+        if (campos.numeroCampos() > 2) {
+            destino.numeroOrden(campos.campo(2).strip());
+            if (campos.numeroCampos() > 5) {
+                destino.prioridad(PrioridadEnum.desdeCodigo(campos.componente(5, 1)));
+            }
+            if (campos.numeroCampos() > 27) {
+                destino.prioridad(PrioridadEnum.desdeCodigo(campos.componente(27, 6)));
+            }
             return true;
         } else {
-            log.warn(OBR_INCOMPLETO, String.join(PATRON_BARRA, campos));
+            metricas.registrarObrIncompleto();
+            if (log.isWarnEnabled()) {
+                log.warn(OBR_INCOMPLETO, campos.texto());
+            }
             return false;
         }
     }
@@ -145,21 +333,233 @@ public class ProcesarContenidoService implements IProcesarContenidoService {
      * registra una advertencia en los logs.
      * </p>
      *
-     * @param campos  los campos del segmento "OBX", separados por el delimitador `|`.
-     * @param request el objeto {@link PacienteRequestDTO} donde se almacenará la información procesada.
+     * @param campos  la vista sobre el segmento "OBX".
+     * @param destino el destino donde se almacenará la información procesada.
      * @return {@code true} si el segmento es válido y se procesó correctamente; {@code false} en caso contrario.
      */
-    private boolean procesarOBX(String[] campos, PacienteRequestDTO request) {
-        if (campos.length > 5) {
-            ExamenDTO examen = ExamenDTO.builder()
-                    .codigoExamen(Utilities.quitarPalabraFinal(campos[3], PATRON_L))
-                    .resultadoExamen(campos[5].strip())
-                    .build();
-            request.add(examen);
+    private boolean procesarOBX(VistaSegmentoHl7 campos, DestinoPaciente destino) {
+        if (campos.numeroCampos() > 5) {
+            destino.examen(Utilities.quitarPalabraFinal(campos.campo(3), PATRON_L), campos.campo(5).strip());
             return true;
         } else {
-            log.warn(OBX_INCOMPLETO, String.join(PATRON_BARRA, campos));
+            metricas.registrarObxIncompleto();
+            if (log.isWarnEnabled()) {
+                log.warn(OBX_INCOMPLETO, campos.texto());
+            }
             return false;
         }
     }
+
+    /**
+     * Procesa un segmento "ORC" para extraer la prioridad de la orden.
+     *
+     * <p>
+     * La prioridad es el sexto componente de ORC-7 (cantidad y tiempo). El segmento ORC no aporta datos
+     * del paciente, por lo que, como los segmentos ignorados, no decide la validez del mensaje.
+     * </p>
+     *
+     * @param campos  la vista sobre el segmento "ORC".
+     * @param destino el destino donde se almacenará la prioridad.
+     * @return {@code null}; el segmento no decide la validez del mensaje.
+     */
+    private Boolean procesarORC(VistaSegmentoHl7 campos, DestinoPaciente destino) {
+        if (campos.numeroCampos() > 7) {
+            destino.prioridad(PrioridadEnum.desdeCodigo(campos.componente(7, 6)));
+        }
+        return null;
+    }
+
+    /**
+     * Contador de los segmentos desconocidos de un archivo, agrupados por tipo.
+     */
+    private static final class SegmentosDesconocidos {
+
+        private Map<String, Integer> porTipo;
+        private int total;
+
+        private void registrar(VistaSegmentoHl7 segmento) {
+            total++;
+            if (porTipo == null) {
+                porTipo = new LinkedHashMap<>();
+            }
+            String tipo = segmento.tipo();
+            if (porTipo.size() < MAX_TIPOS_DESCONOCIDOS || porTipo.containsKey(tipo)) {
+                porTipo.merge(tipo, 1, Integer::sum);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(SEGMENTOS_DESCONOCIDOS, segmento.texto());
+            }
+        }
+
+        private void reportar() {
+            if (total > 0) {
+                log.info(SEGMENTOS_DESCONOCIDOS_ARCHIVO, total, porTipo);
+            }
+            porTipo = null;
+            total = 0;
+        }
+    }
+
+    /**
+     * Destino que llena un {@link PacienteRequestDTO}.
+     */
+    private static final class DestinoRequest implements DestinoPaciente {
+
+        private final PacienteRequestDTO request;
+
+        private DestinoRequest(PacienteRequestDTO request) {
+            this.request = request;
+        }
+
+        @Override
+        public void nombres(String nombres) {
+            request.setNombres(nombres);
+        }
+
+        @Override
+        public void numeroOrden(String numeroOrden) {
+            request.setNumeroOrden(numeroOrden);
+        }
+
+        @Override
+        public void examen(String codigo, String resultado) {
+            request.add(ExamenDTO.builder().codigoExamen(codigo).resultadoExamen(resultado).build());
+        }
+
+        @Override
+        public void prioridad(PrioridadEnum prioridad) {
+            request.setPrioridad(request.getPrioridad().masUrgente(prioridad));
+        }
+    }
+
+    /**
+     * Destino que agrega los campos al paciente actual de un {@link LoteResultadosDTO}.
+     */
+    private static final class DestinoLote implements DestinoPaciente {
+
+        private final LoteResultadosDTO lote;
+
+        private DestinoLote(LoteResultadosDTO lote) {
+            this.lote = lote;
+        }
+
+        @Override
+        public void nombres(String nombres) {
+            lote.setNombres(nombres);
+        }
+
+        @Override
+        public void numeroOrden(String numeroOrden) {
+            lote.setNumeroOrden(numeroOrden);
+        }
+
+        @Override
+        public void examen(String codigo, String resultado) {
+            lote.agregarExamen(codigo, resultado);
+        }
+
+        @Override
+        public void prioridad(PrioridadEnum prioridad) {
+            lote.elevarPrioridad(prioridad);
+        }
+    }
+
+    /**
+     * Lector que consume los segmentos de un archivo HL7 mensaje a mensaje.
+     */
+    private final class LectorMensajes {
+
+        private final Iterator<? extends CharSequence> segmentos;
+        private final TokenizadorHl7 tokenizador = new TokenizadorHl7();
+        private final SegmentosDesconocidos desconocidos = new SegmentosDesconocidos();
+        private int numeroMensaje;
+
+        private LectorMensajes(Iterator<? extends CharSequence> segmentos) {
+            this.segmentos = segmentos;
+        }
+
+        /**
+         * Consume segmentos hasta el siguiente límite de mensaje.
+         *
+         * @param destino el destino de los campos del mensaje.
+         * @return {@code TRUE} si el mensaje es válido, {@code FALSE} si no contenía segmentos válidos,
+         * o {@code null} si no quedaban segmentos fuera de los límites de mensaje.
+         */
+        private Boolean leerMensaje(DestinoPaciente destino) {
+            boolean contenido = false;
+            boolean valido = false;
+            long leidos = 0;
+
+            while (segmentos.hasNext()) {
+                CharSequence segmento = segmentos.next();
+                if (Utilities.esBlanco(segmento) || tokenizador.tokenizar(segmento) == 0) {
+                    continue;
+                }
+                leidos++;
+                if (esLimiteMensaje(tokenizador)) {
+                    if (contenido) {
+                        break;
+                    }
+                    continue;
+                }
+                contenido = true;
+                valido |= procesarSegmento(tokenizador, destino, desconocidos) == Boolean.TRUE;
+            }
+
+            metricas.registrarSegmentos(leidos);
+            if (!segmentos.hasNext()) {
+                desconocidos.reportar();
+            }
+            if (!contenido) {
+                return null;
+            }
+            numeroMensaje++;
+            if (!valido) {
+                log.warn(MENSAJE_HL7_DESCARTADO, numeroMensaje);
+            }
+            return valido;
+        }
+
+        private boolean esLimiteMensaje(VistaSegmentoHl7 campos) {
+            int clave = campos.claveTipo();
+            return clave == CLAVE_MSH || clave == CLAVE_FHS || clave == CLAVE_BHS
+                    || clave == CLAVE_FTS || clave == CLAVE_BTS;
+        }
+    }
+
+    /**
+     * Iterador que construye un {@link PacienteRequestDTO} por mensaje a medida que se consume.
+     */
+    private final class IteradorMensajes implements Iterator<PacienteRequestDTO> {
+
+        private final Iterator<? extends CharSequence> segmentos;
+        private final LectorMensajes lector;
+        private PacienteRequestDTO siguiente;
+
+        private IteradorMensajes(Iterator<? extends CharSequence> segmentos) {
+            this.segmentos = segmentos;
+            this.lector = new LectorMensajes(segmentos);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (siguiente == null && segmentos.hasNext()) {
+                PacienteRequestDTO request = new PacienteRequestDTO();
+                if (lector.leerMensaje(new DestinoRequest(request)) == Boolean.TRUE) {
+                    siguiente = request;
+                }
+            }
+            return siguiente != null;
+        }
+
+        @Override
+        public PacienteRequestDTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PacienteRequestDTO mensaje = siguiente;
+            siguiente = null;
+            return mensaje;
+        }
+    }
 }
@@ -8,6 +8,11 @@
  */
 package com.gov.app.prueba.clteach.utils.constants;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
 public class Constants {
 
     // HTTP Constants
@@ -32,12 +37,331 @@ public class Constants {
     /** Mensaje de error para solicitudes HTTP POST con código HTTP no exitoso. */
     public static final String ERROR_POST = "Error en la solicitud POST: Código HTTP ";
 
+    /** Tiempo máximo predeterminado para establecer una conexión HTTP, en milisegundos. */
+    public static final long TIMEOUT_CONEXION_MS = 5_000L;
+
+    /** Tiempo máximo predeterminado de espera de una respuesta HTTP, en milisegundos. */
+    public static final long TIMEOUT_RESPUESTA_MS = 30_000L;
+
+    /** Nombre del encabezado HTTP con la clave de idempotencia de la solicitud. */
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /** Tamaño de cada fragmento de un cuerpo HTTP enviado en modo fragmentado, en bytes. */
+    public static final int TAMANO_FRAGMENTO_HTTP = 16 * 1024;
+
+    // Reintentos y circuito
+    /** Número máximo predeterminado de reintentos de una solicitud HTTP. */
+    public static final int REINTENTO_MAXIMO = 3;
+
+    /** Espera base predeterminada antes del primer reintento, en milisegundos. */
+    public static final long REINTENTO_ESPERA_INICIAL_MS = 200L;
+
+    /** Espera máxima predeterminada entre reintentos, en milisegundos. */
+    public static final long REINTENTO_ESPERA_MAXIMA_MS = 5_000L;
+
+    /** Número predeterminado de fallas consecutivas que abren el circuito. */
+    public static final int CIRCUITO_UMBRAL_FALLOS = 5;
+
+    /** Tiempo predeterminado que el circuito permanece abierto, en milisegundos. */
+    public static final long CIRCUITO_APERTURA_MS = 10_000L;
+
+    /** Mensaje de error cuando el circuito hacia la API está abierto. */
+    public static final String ERROR_CIRCUITO_ABIERTO = "La API no está disponible: circuito abierto.";
+
+    /** Mensaje de log para un reintento de solicitud HTTP. */
+    public static final String REINTENTO_SOLICITUD = "Reintento {} de {} hacia {} en {} ms: {}";
+
+    /** Mensaje de log para un cuerpo de respuesta de error que no pudo descartarse. */
+    public static final String ERROR_DESCARTAR_RESPUESTA = "No se pudo descartar la respuesta de error: {}";
+
+    /** Mensaje de log para un cambio de estado del circuito. */
+    public static final String CAMBIO_ESTADO_CIRCUITO = "Circuito hacia la API: {} -> {}";
+
+    // Límite de tasa
+    /** Número máximo predeterminado de solicitudes HTTP POST por segundo hacia la API; 0 lo deshabilita. */
+    public static final double LIMITE_SOLICITUDES_POR_SEGUNDO = 100.0;
+
+    /** Número predeterminado de solicitudes que pueden enviarse de golpe tras un periodo de inactividad. */
+    public static final int LIMITE_RAFAGA_SOLICITUDES = 20;
+
+    /** Número máximo predeterminado de bytes por segundo enviados a la API; 0 lo deshabilita. */
+    public static final long LIMITE_BYTES_POR_SEGUNDO = 10L * 1024 * 1024;
+
+    /** Número predeterminado de bytes que pueden enviarse de golpe tras un periodo de inactividad. */
+    public static final long LIMITE_RAFAGA_BYTES = 2L * 1024 * 1024;
+
+    /** Espera máxima predeterminada por el límite de tasa en modo bloqueante, en milisegundos. */
+    public static final long LIMITE_ESPERA_MAXIMA_MS = 30_000L;
+
+    /** Mensaje de error cuando una solicitud excede el límite de tasa hacia la API. */
+    public static final String ERROR_TASA_EXCEDIDA = "Solicitud rechazada: se excedió el límite de tasa hacia la API.";
+
+    // Concurrencia adaptativa
+    /** Límite inicial predeterminado de solicitudes HTTP simultáneas hacia la API. */
+    public static final int CONCURRENCIA_LIMITE_INICIAL = 8;
+
+    /** Límite mínimo predeterminado de solicitudes HTTP simultáneas hacia la API. */
+    public static final int CONCURRENCIA_LIMITE_MINIMO = 1;
+
+    /** Límite máximo predeterminado de solicitudes HTTP simultáneas hacia la API. */
+    public static final int CONCURRENCIA_LIMITE_MAXIMO = 64;
+
+    /** Múltiplo de la latencia base a partir del cual se considera que la API está saturada. */
+    public static final double CONCURRENCIA_TOLERANCIA_LATENCIA = 2.0;
+
+    /** Factor por el que se multiplica el límite de concurrencia ante una señal de saturación. */
+    public static final double CONCURRENCIA_FACTOR_REDUCCION = 0.8;
+
+    /** Número de respuestas que abarca la media móvil de la latencia base. */
+    public static final int CONCURRENCIA_VENTANA_MUESTRAS = 500;
+
+    /** Número de respuestas que abarca la media móvil de la latencia reciente. */
+    public static final int CONCURRENCIA_VENTANA_RECIENTE = 10;
+
+    /** Mensaje de log para una reducción del límite de concurrencia. */
+    public static final String LIMITE_CONCURRENCIA_REDUCIDO = "Límite de concurrencia hacia la API: {} -> {} ({})";
+
+    /** Motivo de reducción del límite de concurrencia por una latencia superior a la tolerada. */
+    public static final String MOTIVO_LATENCIA = "latencia";
+
+    /** Motivo de reducción del límite de concurrencia por un error transitorio. */
+    public static final String MOTIVO_ERROR = "error";
+
+    // Nodos de la API
+    /** Propiedad del sistema con las URL base de los nodos de la API, separadas por comas. */
+    public static final String PROPIEDAD_NODOS_API = "cltech.api.nodos";
+
+    /** Separador de las URL base en la propiedad de nodos de la API. */
+    public static final String SEPARADOR_NODOS = ",";
+
+    /** Número predeterminado de fallas consecutivas que expulsan un nodo de la API. */
+    public static final int NODOS_UMBRAL_FALLOS = 3;
+
+    /** Tiempo predeterminado que un nodo expulsado permanece fuera del balanceo, en milisegundos. */
+    public static final long NODOS_EXPULSION_MS = 10_000L;
+
+    /** Intervalo predeterminado de las verificaciones activas de salud de los nodos, en milisegundos. */
+    public static final long NODOS_INTERVALO_SALUD_MS = 5_000L;
+
+    /** Ruta predeterminada que se consulta en las verificaciones activas de salud de los nodos. */
+    public static final String NODOS_RUTA_SALUD = "/";
+
+    /** Nombre del hilo que verifica la salud de los nodos de la API. */
+    public static final String HILO_SALUD_NODOS = "hl7-salud-nodos";
+
+    /** Método HTTP GET, usado en las verificaciones de salud. */
+    public static final String HTTP_GET = "GET";
+
+    /** Mensaje de error cuando todos los nodos de la API están expulsados. */
+    public static final String ERROR_SIN_NODOS = "La API no está disponible: todos sus nodos están expulsados.";
+
+    /** Mensaje de log para un cambio de estado de un nodo de la API. */
+    public static final String CAMBIO_ESTADO_NODO = "Nodo {} de la API: {} -> {}";
+
+    /** Mensaje de log al iniciar el balanceo entre nodos de la API. */
+    public static final String NODOS_INICIADOS = "Balanceo entre {} nodos de la API: {}";
+
+    // Envío por lotes
+    /** Número máximo predeterminado de pacientes por envío agrupado. */
+    public static final int LOTE_MAX_ELEMENTOS = 100;
+
+    /** Tamaño máximo predeterminado, en bytes, del cuerpo de un envío agrupado. */
+    public static final int LOTE_MAX_BYTES = 1024 * 1024;
+
+    /** Tiempo máximo predeterminado que un paciente espera en el buffer antes de enviarse, en milisegundos. */
+    public static final long LOTE_ESPERA_MAXIMA_MS = 50L;
+
+    /** Nombre del hilo que vacía el buffer de envíos agrupados por tiempo. */
+    public static final String HILO_ENVIO_LOTES = "hl7-envio-lotes";
+
+    /** Mensaje de error cuando la respuesta de un envío agrupado no incluye todos los elementos. */
+    public static final String ERROR_RESPUESTA_LOTE_INCOMPLETA = "La respuesta del envío agrupado no incluye el elemento %d de %d.";
+
+    /** Mensaje de error cuando se intenta enviar con el servicio de lotes cerrado. */
+    public static final String ERROR_ENVIO_LOTES_CERRADO = "El servicio de envío por lotes está cerrado.";
+
+    /** Mensaje de log para un envío agrupado fallido. */
+    public static final String ERROR_ENVIO_LOTE = "Error en el envío agrupado de {} pacientes: {}";
+
+    // Buzón de salida
+    /** Directorio predeterminado del buzón de salida local. */
+    public static final Path DIRECTORIO_BUZON = Path.of(System.getProperty("user.home"), ".cltech-escritorio", "buzon");
+
+    /** Tamaño predeterminado de cada segmento del diario del buzón, en bytes. */
+    public static final long BUZON_TAMANO_SEGMENTO = 64L * 1024L * 1024L;
+
+    /** Intervalo predeterminado del reenvío en segundo plano del buzón, en milisegundos. */
+    public static final long BUZON_INTERVALO_DRENADO_MS = 5_000L;
+
+    /** Antigüedad mínima predeterminada de un registro para ser reenviado, en milisegundos. */
+    public static final long BUZON_EDAD_MINIMA_REENVIO_MS = 60_000L;
+
+    /** Número predeterminado de segmentos cerrados que dispara la compactación del buzón. */
+    public static final int BUZON_SEGMENTOS_COMPACTACION = 4;
+
+    /** Espera máxima, en milisegundos, a que termine un reenvío en curso al cerrar el buzón. */
+    public static final long BUZON_ESPERA_CIERRE_MS = 5_000L;
+
+    /** Extensión de los segmentos del diario del buzón. */
+    public static final String BUZON_EXTENSION_SEGMENTO = ".log";
+
+    /** Nombre del archivo de bloqueo del directorio del buzón. */
+    public static final String BUZON_ARCHIVO_BLOQUEO = "buzon.lock";
+
+    /** Nombre del hilo que reenvía los registros pendientes del buzón. */
+    public static final String HILO_BUZON = "hl7-buzon-drenado";
+
+    /** Mensaje de log al recuperar registros pendientes del buzón. */
+    public static final String BUZON_RECUPERADO = "Buzón de salida {}: {} envíos pendientes recuperados.";
+
+    /** Mensaje de log para un registro corrupto o incompleto del buzón. */
+    public static final String BUZON_REGISTRO_CORRUPTO = "Registro corrupto o incompleto en {} (posición {}); se descarta el resto del segmento.";
+
+    /** Mensaje de log al reenviar registros pendientes del buzón. */
+    public static final String BUZON_REENVIADOS = "Buzón de salida: {} envíos pendientes reenviados.";
+
+    /** Mensaje de log cuando falla el reenvío de un registro del buzón. */
+    public static final String BUZON_ERROR_REENVIO = "Reenvío del buzón interrumpido, se reintentará: {}";
+
+    /** Mensaje de log cuando la API rechaza de forma definitiva un registro del buzón. */
+    public static final String BUZON_DESCARTADO = "Registro {} del buzón rechazado por la API y descartado: {}";
+
+    /** Mensaje de log cuando el buzón de salida no puede abrirse. */
+    public static final String BUZON_NO_DISPONIBLE = "No fue posible abrir el buzón de salida en {}; los envíos no se guardarán en disco.";
+
+    /** Mensaje de error cuando el directorio del buzón ya está en uso por otro proceso. */
+    public static final String BUZON_EN_USO = "El directorio del buzón ya está en uso por otro proceso: ";
+
+    // Índice de órdenes enviadas
+    /** Directorio predeterminado del índice local de órdenes enviadas. */
+    public static final Path DIRECTORIO_INDICE = Path.of(System.getProperty("user.home"), ".cltech-escritorio", "indice");
+
+    /** Nombre del archivo de la tabla del índice de órdenes enviadas. */
+    public static final String INDICE_ARCHIVO = "enviados.idx";
+
+    /** Nombre del archivo de bloqueo del directorio del índice. */
+    public static final String INDICE_ARCHIVO_BLOQUEO = "indice.lock";
+
+    /** Número inicial predeterminado de ranuras de la tabla del índice. */
+    public static final int INDICE_CAPACIDAD_INICIAL = 1 << 16;
+
+    /** Número máximo predeterminado de órdenes en la caché en memoria del índice. */
+    public static final int INDICE_CAPACIDAD_CACHE = 10_000;
+
+    /** Vigencia predeterminada de una orden en la caché en memoria del índice, en milisegundos. */
+    public static final long INDICE_VIGENCIA_CACHE_MS = 600_000L;
+
+    /** Mensaje de log cuando el archivo del índice no es válido y se reinicia vacío. */
+    public static final String INDICE_INVALIDO = "El índice de órdenes enviadas {} no es válido; se reinicia vacío.";
+
+    /** Mensaje de log cuando el índice de órdenes enviadas no puede abrirse. */
+    public static final String INDICE_NO_DISPONIBLE = "No fue posible abrir el índice de órdenes enviadas en {}; no se omitirán órdenes repetidas.";
+
+    /** Mensaje de log cuando el buzón o el índice propios del servicio no pueden cerrarse. */
+    public static final String ERROR_CIERRE_RECURSO = "No fue posible cerrar el {}: {}";
+
+    /** Mensaje de log cuando una orden no puede registrarse en el índice. */
+    public static final String ERROR_REGISTRO_INDICE = "No fue posible registrar la orden {} en el índice de enviadas: {}";
+
+    /** Mensaje de log para una orden omitida por haber sido enviada antes con el mismo contenido. */
+    public static final String ORDEN_OMITIDA = "Orden {} omitida: ya fue enviada con los mismos exámenes.";
+
+    /** Mensaje de respuesta para una orden omitida por haber sido enviada antes con el mismo contenido. */
+    public static final String ORDEN_YA_ENVIADA = "La orden %s ya fue enviada con los mismos exámenes; no se reenvía.";
+
+    /** Mensaje de error cuando el directorio del índice ya está en uso por otro proceso. */
+    public static final String INDICE_EN_USO = "El directorio del índice ya está en uso por otro proceso: ";
+
+    /** Mensaje de error cuando la tabla del índice alcanzó su capacidad máxima. */
+    public static final String INDICE_LLENO = "El índice de órdenes enviadas alcanzó su capacidad máxima: ";
+
+    // Carpeta de entrada
+    /** Argumento de línea de comandos que inicia la aplicación en modo carpeta, sin interfaz gráfica. */
+    public static final String ARGUMENTO_CARPETA = "--carpeta";
+
+    /** Nombre predeterminado de la subcarpeta de archivos procesados correctamente. */
+    public static final String CARPETA_PROCESADOS = "procesados";
+
+    /** Nombre predeterminado de la subcarpeta de archivos con errores. */
+    public static final String CARPETA_ERRORES = "errores";
+
+    /** Tiempo predeterminado que un archivo debe mantener su tamaño para considerarse completo, en milisegundos. */
+    public static final long CARPETA_ESTABILIDAD_MS = 1_000L;
+
+    /** Número predeterminado de hilos que procesan los archivos de la carpeta de entrada. */
+    public static final int CARPETA_HILOS = 4;
+
+    /** Capacidad predeterminada de la cola de archivos listos para procesarse. */
+    public static final int CARPETA_CAPACIDAD_COLA = 1024;
+
+    /** Prefijo del nombre de los hilos del modo carpeta. */
+    public static final String HILO_CARPETA = "hl7-carpeta-";
+
+    /** Mensaje de uso del modo carpeta. */
+    public static final String USO_MODO_CARPETA = "Uso: --carpeta <directorio de entrada>";
+
+    /** Mensaje de log al iniciar la vigilancia de la carpeta de entrada. */
+    public static final String CARPETA_INICIADA = "Vigilando la carpeta de entrada {} ({} hilos, cola de {} archivos).";
+
+    /** Mensaje de log para un archivo de la carpeta procesado correctamente. */
+    public static final String CARPETA_ARCHIVO_PROCESADO = "Archivo {} procesado: {}";
+
+    /** Mensaje de log para un archivo de la carpeta procesado con errores. */
+    public static final String CARPETA_ARCHIVO_ERROR = "Archivo {} con errores: {}";
+
+    /** Mensaje de log cuando se pierden eventos de la carpeta y se recorre de nuevo. */
+    public static final String CARPETA_DESBORDE = "Se perdieron eventos de la carpeta {}; se recorre de nuevo.";
+
+    /** Detalle del error de vigilancia cuando la carpeta de entrada deja de ser accesible. */
+    public static final String CARPETA_NO_ACCESIBLE = "la carpeta ya no es accesible";
+
+    /** Mensaje de log cuando no es posible mover un archivo procesado. */
+    public static final String ERROR_MOVER_ARCHIVO = "No fue posible mover el archivo {} a {}: {}";
+
+    /** Mensaje de log para un error en la vigilancia de la carpeta de entrada. */
+    public static final String ERROR_VIGILANCIA_CARPETA = "Error en la vigilancia de la carpeta {}: {}";
+
+    // Métricas
+    /** Nombre JMX con el que se publican las métricas del procesamiento HL7. */
+    public static final String OBJETO_JMX_METRICAS = "com.gov.app.prueba.clteach:type=MetricasHl7";
+
+    /** Propiedad del sistema con el archivo donde se vuelcan periódicamente las métricas. */
+    public static final String PROPIEDAD_ARCHIVO_METRICAS = "cltech.metricas.archivo";
+
+    /** Propiedad del sistema con el intervalo del volcado de métricas, en milisegundos. */
+    public static final String PROPIEDAD_INTERVALO_METRICAS = "cltech.metricas.intervaloMs";
+
+    /** Intervalo predeterminado del volcado de métricas a archivo, en milisegundos. */
+    public static final long METRICAS_INTERVALO_MS = 60_000L;
+
+    /** Nombre del hilo que vuelca las métricas a archivo. */
+    public static final String HILO_METRICAS = "hl7-metricas";
+
+    /** Mensaje de log al iniciar el volcado periódico de métricas. */
+    public static final String METRICAS_VOLCADO_INICIADO = "Métricas volcadas cada {} ms en {}.";
+
+    /** Mensaje de log cuando las métricas no pueden publicarse en JMX. */
+    public static final String METRICAS_NO_PUBLICADAS = "No fue posible publicar las métricas en JMX: {}";
+
+    /** Mensaje de log cuando las métricas no pueden escribirse en el archivo de volcado. */
+    public static final String ERROR_VOLCADO_METRICAS = "No fue posible escribir las métricas en {}: {}";
+
     // Dimensiones Generales
     /** Ancho predeterminado de componentes visuales. */
-    public static final int WIDTH = 300;
+    public static final int WIDTH = 640;
 
     /** Alto predeterminado de componentes visuales. */
-    public static final int HEIGHT = 250;
+    public static final int HEIGHT = 420;
+
+    // Ventana de subida
+    /** Número de archivos que la ventana de subida procesa de forma simultánea. */
+    public static final int CONCURRENCIA_VENTANA = 4;
+
+    /** Prefijo del nombre de los hilos que procesan los archivos de la ventana de subida. */
+    public static final String HILO_VENTANA = "hl7-ventana-";
+
+    /** Texto del avance de la ventana de subida: procesados, total, archivos por segundo y KB por segundo. */
+    public static final String AVANCE_VENTANA = "%d de %d archivos · %.1f archivos/s · %.1f KB/s";
 
     // HL7 Segment Constants
     /** Identificador del segmento PID en HL7. */
@@ -49,6 +373,31 @@ public class Constants {
     /** Identificador del segmento OBX en HL7. */
     public static final String OBX = "OBX";
 
+    /** Identificador del segmento MSH (encabezado de mensaje) en HL7. */
+    public static final String MSH = "MSH";
+
+    /** Identificador del segmento FHS (encabezado de archivo) en HL7. */
+    public static final String FHS = "FHS";
+
+    /** Identificador del segmento FTS (cierre de archivo) en HL7. */
+    public static final String FTS = "FTS";
+
+    /** Identificador del segmento BHS (encabezado de lote) en HL7. */
+    public static final String BHS = "BHS";
+
+    /** Identificador del segmento BTS (cierre de lote) en HL7. */
+    public static final String BTS = "BTS";
+
+    /** Identificador del segmento ORC (orden común) en HL7. */
+    public static final String ORC = "ORC";
+
+    /** Identificador del segmento NTE (notas y comentarios) en HL7. */
+    public static final String NTE = "NTE";
+
+    /** Segmentos HL7 conocidos que se omiten sin registrarse como desconocidos. */
+    public static final List<String> SEGMENTOS_IGNORADOS = List.of(MSH, FHS, FTS, BHS, BTS, NTE,
+            "EVN", "PD1", "PV1", "PV2", "NK1", "AL1", "DG1", "IN1", "TQ1", "SPM", "SAC", "CTI");
+
     // Patrones y Delimitadores
     /** Delimitador de campos en HL7. */
     public static final String PATRON_BARRA = "|";
@@ -68,6 +417,85 @@ public class Constants {
     /** Carácter de salto de línea en texto. */
     public static final String SALTO_TEXTO = "\n";
 
+    // Lectura de archivos
+    /** Codificación explícita de los archivos HL7. */
+    public static final Charset CHARSET_HL7 = StandardCharsets.UTF_8;
+
+    /** Propiedad del sistema con la codificación de los archivos HL7 sin BOM ni MSH-18. */
+    public static final String PROPIEDAD_CHARSET_HL7 = "cltech.hl7.charset";
+
+    /** Mensaje de advertencia cuando la codificación configurada no existe. */
+    public static final String CHARSET_CONFIGURADO_INVALIDO = "Codificación HL7 configurada no válida: {}; se usa {}";
+
+    /** Mensaje de advertencia cuando MSH-18 declara una codificación no soportada. */
+    public static final String CODIFICACION_MSH18_DESCONOCIDA = "Codificación MSH-18 no soportada: {}; se usa {}";
+
+    /** Mensaje de error cuando la codificación de un archivo no es compatible con ASCII. */
+    public static final String CODIFICACION_NO_SOPORTADA = "Codificación no soportada para archivos HL7: ";
+
+    /** Tamaño a partir del cual un archivo HL7 se lee mapeado en memoria. */
+    public static final long UMBRAL_MAPEO_BYTES = 1024L * 1024L;
+
+    /** Tamaño máximo de cada ventana mapeada en memoria. */
+    public static final long VENTANA_MAPEO_BYTES = 64L * 1024L * 1024L;
+
+    /** Tamaño de los buffers directos utilizados para archivos pequeños. */
+    public static final int TAMANO_BUFFER_DIRECTO = 64 * 1024;
+
+    /** Número máximo de buffers directos conservados en el pool. */
+    public static final int BUFFERS_DIRECTOS_POOL = 16;
+
+    /** Tamaño del bloque de caracteres decodificados en cada lectura. */
+    public static final int TAMANO_BUFFER_CARACTERES = 8 * 1024;
+
+    // Procesamiento de directorios
+    /** Número predeterminado de archivos procesados en paralelo al leer un directorio. */
+    public static final int CONCURRENCIA_DIRECTORIO = 8;
+
+    /** Patrón predeterminado de los archivos HL7 de un directorio. */
+    public static final String PATRON_ARCHIVOS_HL7 = "glob:*.txt";
+
+    /** Prefijo del nombre de los hilos que procesan archivos de un directorio. */
+    public static final String HILO_DIRECTORIO = "hl7-directorio-";
+
+    // Canalización de etapas
+    /** Número predeterminado de hilos de la etapa de lectura de archivos. */
+    public static final int HILOS_LECTURA_CANALIZACION = 2;
+
+    /** Número predeterminado de hilos de la etapa de análisis de segmentos. */
+    public static final int HILOS_ANALISIS_CANALIZACION = 4;
+
+    /** Número predeterminado de hilos de la etapa de serialización a JSON. */
+    public static final int HILOS_SERIALIZACION_CANALIZACION = 2;
+
+    /** Número predeterminado de carriles de la etapa de envío; acota las solicitudes HTTP en curso. */
+    public static final int HILOS_ENVIO_CANALIZACION = CONCURRENCIA_DIRECTORIO;
+
+    /** Capacidad predeterminada de la cola de entrada de cada etapa. */
+    public static final int CAPACIDAD_COLA_CANALIZACION = 32;
+
+    /** Tamaño máximo de un archivo que la etapa de lectura de la canalización carga completo en memoria. */
+    public static final long UMBRAL_LECTURA_CANALIZACION_BYTES = 64L * 1024L;
+
+    /** Prefijo del nombre de los hilos de las etapas de la canalización. */
+    public static final String HILO_CANALIZACION = "hl7-canalizacion-";
+
+    // Carriles ordenados por orden
+    /** Número predeterminado de carriles que envían los pacientes, cada uno atendido por un único hilo. */
+    public static final int CARRILES_ENVIO = CONCURRENCIA_DIRECTORIO;
+
+    /** Número máximo predeterminado de envíos pendientes de cada prioridad en cada carril. */
+    public static final int CAPACIDAD_CARRILES = 32;
+
+    /** Tiempo de espera tras el cual un envío pendiente sube un nivel de prioridad, en milisegundos. */
+    public static final long ENVEJECIMIENTO_PRIORIDAD_MS = 2000;
+
+    /** Prefijo del nombre de los hilos de los carriles de envío. */
+    public static final String HILO_CARRIL = "hl7-carril-";
+
+    /** Mensaje de error al despachar una tarea con los carriles cerrados. */
+    public static final String CARRILES_CERRADOS = "Los carriles de envío están cerrados.";
+
     // Mensajes de Error
     /** Mensaje para segmentos PID incompletos. */
     public static final String PID_INCOMPLETO = "Segmento PID incompleto: {}";
@@ -84,6 +512,12 @@ public class Constants {
     /** Mensaje para segmentos desconocidos en HL7. */
     public static final String SEGMENTOS_DESCONOCIDOS = "Segmento desconocido: {}";
 
+    /** Mensaje con el total de segmentos desconocidos de un archivo, agrupados por tipo. */
+    public static final String SEGMENTOS_DESCONOCIDOS_ARCHIVO = "Segmentos desconocidos omitidos en el archivo: {} {}";
+
+    /** Mensaje de error cuando un tipo de segmento no tiene tres caracteres ASCII. */
+    public static final String TIPO_SEGMENTO_INVALIDO = "El tipo de segmento debe tener tres caracteres ASCII: ";
+
     /** Mensaje para segmentos vacíos o mal formados. */
     public static final String SEGMENTO_VACIO_MAL_FORMATO = "Segmento vacío o mal formado: {}";
 
@@ -105,6 +539,36 @@ public class Constants {
     /** Mensaje de error cuando el archivo HL7 está vacío o es nulo. */
     public static final String HL7_VACIO_NULO = "El archivo HL7 está vacío o es nulo.";
 
+    /** Mensaje para mensajes HL7 de un lote descartados por no contener segmentos válidos. */
+    public static final String MENSAJE_HL7_DESCARTADO = "Mensaje HL7 {} del lote descartado: no contiene segmentos PID, OBR u OBX válidos.";
+
+    /** Mensaje para un mensaje del lote cuyo envío falló. */
+    public static final String ERROR_ENVIO_MENSAJE_LOTE = "Error al enviar el mensaje {} del lote: {}";
+
+    /** Mensaje de resumen de un lote enviado correctamente. */
+    public static final String LOTE_ENVIADO = "Lote procesado: %d mensajes enviados.";
+
+    /** Mensaje de resumen de un lote con envíos fallidos. */
+    public static final String LOTE_CON_ERRORES = "Lote procesado con errores: %d de %d mensajes no se enviaron.";
+
+    /** Mensaje de resumen del procesamiento de un directorio. */
+    public static final String DIRECTORIO_PROCESADO = "Directorio {} procesado: {} archivos, {} exitosos, {} fallidos en {} ms.";
+
+    /** Mensaje con las estadísticas de las etapas de la canalización al terminar un directorio. */
+    public static final String CANALIZACION_DIRECTORIO = "Canalización del directorio {} finalizada: {}";
+
+    /** Mensaje de error cuando se interrumpe el procesamiento de un directorio. */
+    public static final String PROCESAMIENTO_INTERRUMPIDO = "El procesamiento del directorio fue interrumpido.";
+
+    /** Mensaje de error al modificar o iniciar una canalización que ya fue iniciada. */
+    public static final String CANALIZACION_INICIADA = "La canalización ya fue iniciada.";
+
+    /** Mensaje de error al iniciar una canalización sin etapas. */
+    public static final String CANALIZACION_SIN_ETAPAS = "La canalización no tiene etapas.";
+
+    /** Mensaje de log cuando el destino o el manejador de errores de la canalización falla con un elemento. */
+    public static final String CANALIZACION_ERROR_DESTINO = "Error al entregar un elemento de la etapa {}: {}";
+
     /** Mensaje de error inesperado al procesar datos. */
     public static final String ERROR_INESPERADO_PORCESAR = "Error inesperado al procesar datos.";
 
@@ -0,0 +1,49 @@
+package com.gov.app.prueba.clteach.utils.enums;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Enumeración que representa los juegos de caracteres que un mensaje HL7 puede declarar en MSH-18
+ * (tabla HL7 0211) y que el lector de archivos soporta.
+ */
+@Getter
+@AllArgsConstructor
+public enum CodificacionHl7Enum {
+    /**
+     * ASCII de 7 bits, valor predeterminado del estándar cuando MSH-18 está vacío.
+     */
+    ASCII("ASCII", StandardCharsets.US_ASCII),
+    /**
+     * ISO-8859-1 (Latin-1), habitual en los equipos con Windows.
+     */
+    ISO_8859_1("8859/1", StandardCharsets.ISO_8859_1),
+    /**
+     * ISO-8859-15 (Latin-9).
+     */
+    ISO_8859_15("8859/15", Charset.forName("ISO-8859-15")),
+    /**
+     * UTF-8.
+     */
+    UTF_8("UNICODE UTF-8", StandardCharsets.UTF_8);
+
+    private final String descripcion;
+    private final Charset charset;
+
+    /**
+     * Busca la codificación correspondiente a un valor de MSH-18.
+     *
+     * @param valor el valor de MSH-18, sin espacios alrededor.
+     * @return la codificación, o {@code null} si el valor no es una codificación soportada.
+     */
+    public static CodificacionHl7Enum desdeMsh18(String valor) {
+        for (CodificacionHl7Enum codificacion : values()) {
+            if (codificacion.descripcion.equalsIgnoreCase(valor)) {
+                return codificacion;
+            }
+        }
+        return null;
+    }
+}
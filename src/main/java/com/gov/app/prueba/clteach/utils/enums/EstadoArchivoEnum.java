@@ -0,0 +1,34 @@
+package com.gov.app.prueba.clteach.utils.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Enumeración que representa el estado de un archivo en la cola de envío de la ventana de subida.
+ */
+@Getter
+@AllArgsConstructor
+public enum EstadoArchivoEnum {
+    /**
+     * El archivo espera un hilo libre.
+     */
+    PENDIENTE("Pendiente"),
+    /**
+     * El archivo se está leyendo o enviando.
+     */
+    PROCESANDO("Procesando"),
+    /**
+     * La API aceptó el archivo.
+     */
+    ENVIADO("Enviado"),
+    /**
+     * El procesamiento o el envío del archivo falló.
+     */
+    ERROR("Error"),
+    /**
+     * El usuario canceló el envío antes de que el archivo se procesara.
+     */
+    CANCELADO("Cancelado");
+
+    private final String descripcion;
+}
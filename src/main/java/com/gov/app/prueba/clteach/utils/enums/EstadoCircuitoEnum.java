@@ -0,0 +1,19 @@
+package com.gov.app.prueba.clteach.utils.enums;
+
+/**
+ * Enumeración que representa los estados del circuito que protege las llamadas a la API.
+ */
+public enum EstadoCircuitoEnum {
+    /**
+     * Las solicitudes fluyen con normalidad.
+     */
+    CERRADO,
+    /**
+     * Las solicitudes se rechazan de inmediato hasta que transcurra el tiempo de apertura.
+     */
+    ABIERTO,
+    /**
+     * Se permite una única solicitud de prueba para comprobar si la API se recuperó.
+     */
+    SEMIABIERTO
+}
@@ -0,0 +1,38 @@
+package com.gov.app.prueba.clteach.utils.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Enumeración que representa las etapas del procesamiento de un archivo HL7 cuya latencia se mide.
+ */
+@Getter
+@AllArgsConstructor
+public enum EtapaEnum {
+    /**
+     * Lectura y decodificación de los segmentos del archivo.
+     */
+    LECTURA("Lectura"),
+    /**
+     * Separación de campos y construcción del {@code PacienteRequestDTO}.
+     */
+    ANALISIS("Análisis"),
+    /**
+     * Conversión del {@code PacienteRequestDTO} a JSON.
+     */
+    SERIALIZACION("Serialización"),
+    /**
+     * Cada intento de solicitud HTTP POST hacia la API.
+     */
+    ENVIO("Envío"),
+    /**
+     * Espera de cada intento de solicitud HTTP POST por el límite de tasa hacia la API.
+     */
+    ESPERA_TASA("Espera por límite de tasa"),
+    /**
+     * Procesamiento completo de un archivo, desde la apertura hasta la respuesta final.
+     */
+    ARCHIVO("Archivo");
+
+    private final String descripcion;
+}
@@ -0,0 +1,68 @@
+package com.gov.app.prueba.clteach.utils.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Enumeración que representa la prioridad de envío de una orden, de la más urgente a la menos urgente.
+ * <p>
+ * Se obtiene de los códigos de prioridad HL7 (tabla 0027) de OBR-5 y del sexto componente de OBR-27 y
+ * ORC-7. El orden de las constantes es el orden en que se atienden.
+ * </p>
+ */
+@Getter
+@AllArgsConstructor
+public enum PrioridadEnum {
+    /**
+     * Orden STAT: código {@code S}.
+     */
+    URGENTE("Urgente"),
+    /**
+     * Orden que debe atenderse antes que las de rutina: códigos {@code A} (ASAP), {@code P} (preoperatoria),
+     * {@code C} (devolución de llamada) y {@code T} (tiempo crítico).
+     */
+    PRIORITARIA("Prioritaria"),
+    /**
+     * Orden de rutina: código {@code R}, cualquier otro código o sin prioridad.
+     */
+    RUTINA("Rutina");
+
+    private final String descripcion;
+
+    /**
+     * Obtiene la prioridad de un código de la tabla HL7 0027.
+     * <p>
+     * Solo se considera el primer carácter, de modo que {@code STAT} equivale a {@code S} y los códigos
+     * de tiempo crítico como {@code TS30} equivalen a {@code T}.
+     * </p>
+     *
+     * @param codigo el código de prioridad, o {@code null}.
+     * @return la prioridad del código; {@link #RUTINA} si el código está vacío o no se reconoce.
+     */
+    public static PrioridadEnum desdeCodigo(String codigo) {
+        if (codigo == null || codigo.isBlank()) {
+            return RUTINA;
+        }
+        switch (Character.toUpperCase(codigo.strip().charAt(0))) {
+            case 'S':
+                return URGENTE;
+            case 'A':
+            case 'P':
+            case 'C':
+            case 'T':
+                return PRIORITARIA;
+            default:
+                return RUTINA;
+        }
+    }
+
+    /**
+     * Retorna la más urgente entre esta prioridad y otra.
+     *
+     * @param otra la otra prioridad, o {@code null}.
+     * @return la prioridad más urgente de las dos.
+     */
+    public PrioridadEnum masUrgente(PrioridadEnum otra) {
+        return otra != null && otra.ordinal() < ordinal() ? otra : this;
+    }
+}
@@ -0,0 +1,30 @@
+package com.gov.app.prueba.clteach.utils.exceptions;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_CIRCUITO_ABIERTO;
+
+/**
+ * Excepción lanzada cuando el circuito hacia la API está abierto.
+ * <p>
+ * La solicitud se rechaza sin abrir ninguna conexión, porque las fallas recientes indican que
+ * la API no está disponible.
+ * </p>
+ */
+public class CircuitoAbiertoException extends RuntimeException {
+
+    /**
+     * Crea la excepción con el mensaje estándar de circuito abierto.
+     */
+    public CircuitoAbiertoException() {
+        super(ERROR_CIRCUITO_ABIERTO);
+    }
+
+    /**
+     * Crea la excepción con un mensaje específico, por ejemplo cuando todos los nodos de la API están
+     * expulsados.
+     *
+     * @param mensaje el detalle del rechazo.
+     */
+    public CircuitoAbiertoException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,39 @@
+package com.gov.app.prueba.clteach.utils.exceptions;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_POST;
+import lombok.Getter;
+
+/**
+ * Excepción lanzada cuando la API responde con un código HTTP no exitoso.
+ * <p>
+ * Conserva el código de estado para que la capa de resiliencia pueda decidir si la solicitud
+ * debe reintentarse (errores 5xx y 429) o si el error es definitivo (resto de errores 4xx).
+ * </p>
+ */
+@Getter
+public class ErrorHttpException extends RuntimeException {
+
+    /**
+     * Código de estado HTTP recibido.
+     */
+    private final int codigo;
+
+    /**
+     * Crea la excepción a partir del código HTTP recibido.
+     *
+     * @param codigo el código de estado HTTP.
+     */
+    public ErrorHttpException(int codigo) {
+        super(ERROR_POST + codigo);
+        this.codigo = codigo;
+    }
+
+    /**
+     * Indica si el error corresponde a una falla transitoria del servidor que justifica reintentar.
+     *
+     * @return {@code true} si el código es 5xx o 429.
+     */
+    public boolean isReintentable() {
+        return codigo >= 500 || codigo == 429;
+    }
+}
@@ -0,0 +1,20 @@
+package com.gov.app.prueba.clteach.utils.exceptions;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_TASA_EXCEDIDA;
+
+/**
+ * Excepción lanzada cuando una solicitud excede el límite de tasa hacia la API.
+ * <p>
+ * La solicitud se rechaza sin abrir ninguna conexión. Se considera un error transitorio: puede
+ * reintentarse más tarde, cuando el presupuesto de solicitudes y bytes se haya recuperado.
+ * </p>
+ */
+public class TasaExcedidaException extends RuntimeException {
+
+    /**
+     * Crea la excepción con el mensaje estándar de límite de tasa excedido.
+     */
+    public TasaExcedidaException() {
+        super(ERROR_TASA_EXCEDIDA);
+    }
+}
@@ -0,0 +1,212 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.ConfiguracionNodosDTO;
+import com.gov.app.prueba.clteach.dto.EstadoNodoDTO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_SIN_NODOS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILO_SALUD_NODOS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HTTP_GET;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.NODOS_INICIADOS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.PROPIEDAD_NODOS_API;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.SEPARADOR_NODOS;
+import com.gov.app.prueba.clteach.utils.exceptions.CircuitoAbiertoException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Balanceador de solicitudes entre varios nodos de la API, con detección de fallas y verificación de salud.
+ * <p>
+ * Cada solicitud se asigna con la estrategia de dos opciones aleatorias: se eligen dos nodos disponibles al
+ * azar y se usa el que tiene menos solicitudes en curso. Así la carga se reparte según la velocidad real de
+ * cada nodo, sin estado compartido entre hilos más allá de un contador por nodo.
+ * </p>
+ * <p>
+ * Un nodo que acumula fallas consecutivas, de solicitudes o de verificaciones de salud, se expulsa del
+ * balanceo. Vuelve a recibir solicitudes cuando una verificación activa tiene éxito o, transcurrido el
+ * tiempo de expulsión, cuando su solicitud de prueba responde. La API solo se considera no disponible
+ * cuando todos los nodos están expulsados.
+ * </p>
+ */
+@Slf4j
+public final class BalanceadorNodos implements AutoCloseable {
+
+    private final NodoApi[] nodos;
+    private final String rutaSalud;
+    private ScheduledExecutorService verificaciones;
+
+    /**
+     * Crea el balanceador con todos los nodos disponibles.
+     *
+     * @param configuracion los nodos de la API y los parámetros de expulsión.
+     * @throws IllegalArgumentException si la configuración no tiene nodos.
+     */
+    public BalanceadorNodos(ConfiguracionNodosDTO configuracion) {
+        if (configuracion.getUrls() == null || configuracion.getUrls().isEmpty()) {
+            throw new IllegalArgumentException(ERROR_SIN_NODOS);
+        }
+        this.nodos = configuracion.getUrls().stream()
+                .map(url -> new NodoApi(url, configuracion.getUmbralFallos(), configuracion.getExpulsionMs()))
+                .toArray(NodoApi[]::new);
+        this.rutaSalud = configuracion.getRutaSalud();
+        log.info(NODOS_INICIADOS, nodos.length, configuracion.getUrls());
+    }
+
+    /**
+     * Obtiene las URL base de los nodos configuradas en la propiedad del sistema {@code cltech.api.nodos}.
+     *
+     * @return las URL base, o una lista vacía si la propiedad no existe.
+     */
+    public static List<String> nodosConfigurados() {
+        String valor = System.getProperty(PROPIEDAD_NODOS_API);
+        if (valor == null || valor.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(valor.split(SEPARADOR_NODOS))
+                .map(String::strip)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Asigna una solicitud a un nodo.
+     * <p>
+     * Un nodo expulsado cuyo tiempo de expulsión terminó recibe la solicitud como prueba. En otro caso se
+     * elige entre los nodos disponibles, evitando el nodo del intento anterior si hay otro. El invocante
+     * debe informar el resultado con {@link NodoApi#finalizar(boolean)}.
+     * </p>
+     *
+     * @param anterior el nodo del intento anterior de la misma solicitud, o {@code null}.
+     * @return el nodo asignado.
+     * @throws CircuitoAbiertoException si todos los nodos están expulsados.
+     */
+    public NodoApi seleccionar(NodoApi anterior) {
+        NodoApi[] candidatos = new NodoApi[nodos.length];
+        int total = 0;
+        for (NodoApi nodo : nodos) {
+            if (nodo.isDisponible()) {
+                if (nodo != anterior) {
+                    candidatos[total++] = nodo;
+                }
+            } else if (nodo.permitirPrueba()) {
+                nodo.iniciar();
+                return nodo;
+            }
+        }
+        if (total == 0) {
+            if (anterior == null || !anterior.isDisponible()) {
+                throw new CircuitoAbiertoException(ERROR_SIN_NODOS);
+            }
+            candidatos[total++] = anterior;
+        }
+        NodoApi elegido = candidatos[0];
+        if (total > 1) {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            int primero = aleatorio.nextInt(total);
+            int segundo = aleatorio.nextInt(total - 1);
+            if (segundo >= primero) {
+                segundo++;
+            }
+            elegido = candidatos[primero].getEnCurso() <= candidatos[segundo].getEnCurso()
+                    ? candidatos[primero]
+                    : candidatos[segundo];
+        }
+        elegido.iniciar();
+        return elegido;
+    }
+
+    /**
+     * Indica si algún nodo, además del indicado, participa en el balanceo.
+     *
+     * @param nodo el nodo a descartar.
+     * @return {@code true} si otro nodo está disponible.
+     */
+    public boolean hayAlternativa(NodoApi nodo) {
+        for (NodoApi otro : nodos) {
+            if (otro != nodo && otro.isDisponible()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si algún nodo participa en el balanceo.
+     *
+     * @return {@code true} si al menos un nodo está disponible.
+     */
+    public boolean hayDisponible() {
+        return hayAlternativa(null);
+    }
+
+    /**
+     * Inicia las verificaciones activas de salud de todos los nodos.
+     * <p>
+     * Cada verificación es una solicitud GET asíncrona a la ruta de salud de cada nodo; una respuesta
+     * distinta de 5xx indica que el nodo está disponible. Si las verificaciones ya estaban iniciadas, la
+     * llamada no tiene efecto.
+     * </p>
+     *
+     * @param cliente     el cliente HTTP con el que se envían las verificaciones.
+     * @param intervaloMs el intervalo entre verificaciones, en milisegundos.
+     * @param timeoutMs   el tiempo máximo de espera de cada verificación, en milisegundos.
+     */
+    public synchronized void iniciarVerificaciones(HttpClient cliente, long intervaloMs, long timeoutMs) {
+        if (verificaciones != null) {
+            return;
+        }
+        List<HttpRequest> solicitudes = new ArrayList<>(nodos.length);
+        for (NodoApi nodo : nodos) {
+            solicitudes.add(HttpRequest.newBuilder(URI.create(nodo.getUrl() + rutaSalud))
+                    .timeout(Duration.ofMillis(timeoutMs))
+                    .method(HTTP_GET, HttpRequest.BodyPublishers.noBody())
+                    .build());
+        }
+        verificaciones = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, HILO_SALUD_NODOS);
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        verificaciones.scheduleWithFixedDelay(() -> {
+            for (int i = 0; i < nodos.length; i++) {
+                NodoApi nodo = nodos[i];
+                cliente.sendAsync(solicitudes.get(i), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((respuesta, error) ->
+                                nodo.registrarSalud(error == null && respuesta.statusCode() < 500));
+            }
+        }, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Construye el estado de cada nodo, en el orden de la configuración.
+     *
+     * @return el estado de los nodos.
+     */
+    public List<EstadoNodoDTO> estados() {
+        List<EstadoNodoDTO> resultado = new ArrayList<>(nodos.length);
+        for (NodoApi nodo : nodos) {
+            resultado.add(nodo.estado());
+        }
+        return resultado;
+    }
+
+    /**
+     * Detiene las verificaciones activas de salud.
+     */
+    @Override
+    public synchronized void close() {
+        if (verificaciones != null) {
+            verificaciones.shutdownNow();
+            verificaciones = null;
+        }
+    }
+}
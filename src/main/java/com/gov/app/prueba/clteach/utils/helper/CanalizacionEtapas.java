@@ -0,0 +1,433 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.EstadisticaEtapaDTO;
+import com.gov.app.prueba.clteach.utils.enums.PrioridadEnum;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CANALIZACION_ERROR_DESTINO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CANALIZACION_INICIADA;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CANALIZACION_SIN_ETAPAS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILO_CANALIZACION;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Canalización de etapas conectadas por colas acotadas, cada una atendida por su propio pool de hilos.
+ * <p>
+ * Cada elemento recorre las etapas en el orden en que se agregaron. Una etapa toma los elementos de su
+ * cola de entrada y los deposita en la cola de la siguiente; si esa cola está llena, el hilo se bloquea
+ * hasta que haya espacio. Así, cuando una etapa se retrasa, las anteriores se detienen una tras otra y
+ * finalmente {@link #enviar(Object)} bloquea al productor, sin que la memoria crezca sin límite.
+ * </p>
+ * <p>
+ * Un elemento sale de la canalización hacia el destino al terminar la última etapa, cuando una etapa
+ * indica que no debe continuar o cuando una etapa lanza una excepción; en este último caso se invoca
+ * antes el manejador de errores. El destino y el manejador se invocan desde los hilos de las etapas, por
+ * lo que deben ser seguros para uso concurrente; si fallan con un elemento, el error se registra y la etapa
+ * continúa con el siguiente. Un hilo interrumpido deja su etapa, pero la etapa sigue avisando el fin de la
+ * entrada a la siguiente al salir su último hilo, de modo que {@link #esperar()} no queda bloqueado.
+ * </p>
+ * <p>
+ * Una etapa ordenada reparte los elementos en carriles según una clave, cada uno atendido por un único
+ * hilo: los elementos con la misma clave se procesan de uno en uno y en el orden en que llegan a la etapa,
+ * y los de claves distintas avanzan en paralelo. Dentro de cada carril, los elementos más urgentes se
+ * procesan primero, sin que los de rutina esperen indefinidamente; ver {@link DespachadorCarriles}.
+ * </p>
+ *
+ * @param <E> el tipo de los elementos que recorren la canalización.
+ */
+@Slf4j
+public final class CanalizacionEtapas<E> implements AutoCloseable {
+
+    /** Marca de fin de entrada; cada hilo de una etapa termina al recibir una. */
+    private static final Object FIN = new Object();
+
+    /**
+     * Trabajo que una etapa realiza sobre cada elemento.
+     *
+     * @param <E> el tipo de los elementos que recorren la canalización.
+     */
+    @FunctionalInterface
+    public interface ProcesadorEtapa<E> {
+
+        /**
+         * Procesa un elemento.
+         *
+         * @param elemento el elemento a procesar.
+         * @return {@code true} si el elemento debe pasar a la siguiente etapa; {@code false} para
+         * entregarlo de inmediato al destino.
+         * @throws Exception si el procesamiento falla.
+         */
+        boolean procesar(E elemento) throws Exception;
+    }
+
+    private final Consumer<E> destino;
+    private final BiConsumer<E, Exception> manejadorError;
+    private final List<Etapa> etapas = new ArrayList<>();
+    private final CountDownLatch terminada = new CountDownLatch(1);
+    private volatile long inicio;
+
+    /**
+     * Crea una canalización sin etapas.
+     *
+     * @param destino        el consumidor que recibe cada elemento al salir de la canalización.
+     * @param manejadorError el consumidor que recibe cada elemento cuyo procesamiento lanzó una excepción.
+     */
+    public CanalizacionEtapas(Consumer<E> destino, BiConsumer<E, Exception> manejadorError) {
+        this.destino = destino;
+        this.manejadorError = manejadorError;
+    }
+
+    /**
+     * Agrega una etapa al final de la canalización.
+     *
+     * @param nombre     el nombre de la etapa, usado en los hilos y en las estadísticas.
+     * @param hilos      el número de hilos que atienden la etapa.
+     * @param capacidad  la capacidad de la cola de entrada de la etapa.
+     * @param procesador el trabajo que la etapa realiza sobre cada elemento.
+     * @return esta canalización.
+     * @throws IllegalStateException si la canalización ya fue iniciada.
+     */
+    public CanalizacionEtapas<E> agregarEtapa(String nombre, int hilos, int capacidad, ProcesadorEtapa<E> procesador) {
+        if (inicio != 0L) {
+            throw new IllegalStateException(CANALIZACION_INICIADA);
+        }
+        etapas.add(new Etapa(nombre, Math.max(hilos, 1), Math.max(capacidad, 1), null, null, procesador));
+        return this;
+    }
+
+    /**
+     * Agrega al final de la canalización una etapa que conserva el orden de los elementos con la misma clave
+     * y atiende primero los más urgentes.
+     *
+     * @param nombre     el nombre de la etapa, usado en los hilos y en las estadísticas.
+     * @param carriles   el número de carriles, cada uno atendido por un hilo.
+     * @param capacidad  el número máximo de elementos pendientes de cada prioridad en cada carril.
+     * @param clave      la función que obtiene la clave de cada elemento; puede retornar {@code null}.
+     * @param prioridad  la función que obtiene la prioridad de cada elemento; puede retornar {@code null}.
+     * @param procesador el trabajo que la etapa realiza sobre cada elemento.
+     * @return esta canalización.
+     * @throws IllegalStateException si la canalización ya fue iniciada.
+     */
+    public CanalizacionEtapas<E> agregarEtapaOrdenada(String nombre, int carriles, int capacidad,
+            Function<E, ?> clave, Function<E, PrioridadEnum> prioridad, ProcesadorEtapa<E> procesador) {
+        if (inicio != 0L) {
+            throw new IllegalStateException(CANALIZACION_INICIADA);
+        }
+        etapas.add(new Etapa(nombre, Math.max(carriles, 1), Math.max(capacidad, 1), clave, prioridad, procesador));
+        return this;
+    }
+
+    /**
+     * Inicia los hilos de todas las etapas.
+     *
+     * @return esta canalización.
+     * @throws IllegalStateException si la canalización no tiene etapas o ya fue iniciada.
+     */
+    public CanalizacionEtapas<E> iniciar() {
+        if (etapas.isEmpty()) {
+            throw new IllegalStateException(CANALIZACION_SIN_ETAPAS);
+        }
+        if (inicio != 0L) {
+            throw new IllegalStateException(CANALIZACION_INICIADA);
+        }
+        inicio = System.nanoTime();
+        for (int i = 0; i < etapas.size(); i++) {
+            etapas.get(i).iniciar(i + 1 < etapas.size() ? etapas.get(i + 1) : null);
+        }
+        return this;
+    }
+
+    /**
+     * Deposita un elemento en la cola de la primera etapa, esperando si está llena.
+     *
+     * @param elemento el elemento a procesar.
+     * @throws InterruptedException si el hilo es interrumpido mientras espera.
+     */
+    public void enviar(E elemento) throws InterruptedException {
+        etapas.get(0).poner(elemento);
+    }
+
+    /**
+     * Indica que no se enviarán más elementos.
+     * <p>
+     * Cada etapa termina cuando ha procesado todos los elementos pendientes y avisa a la siguiente.
+     * </p>
+     *
+     * @throws InterruptedException si el hilo es interrumpido mientras espera espacio en la cola.
+     */
+    public void cerrarEntrada() throws InterruptedException {
+        etapas.get(0).finalizar();
+    }
+
+    /**
+     * Espera a que todos los elementos hayan salido de la canalización.
+     *
+     * @throws InterruptedException si el hilo es interrumpido mientras espera.
+     */
+    public void esperar() throws InterruptedException {
+        terminada.await();
+    }
+
+    /**
+     * Construye las estadísticas de cada etapa, en el orden de la canalización.
+     *
+     * @return las estadísticas de las etapas.
+     */
+    public List<EstadisticaEtapaDTO> estadisticas() {
+        List<EstadisticaEtapaDTO> resultado = new ArrayList<>(etapas.size());
+        for (Etapa etapa : etapas) {
+            resultado.add(etapa.estadistica());
+        }
+        return resultado;
+    }
+
+    /**
+     * Detiene de inmediato los hilos de todas las etapas, descartando los elementos pendientes.
+     */
+    @Override
+    public void close() {
+        for (Etapa etapa : etapas) {
+            if (etapa.executor != null) {
+                etapa.executor.shutdownNow();
+            }
+            if (etapa.carriles != null) {
+                etapa.carriles.close();
+            }
+        }
+    }
+
+    /**
+     * Etapa de la canalización con su cola de entrada, sus hilos y sus contadores.
+     * <p>
+     * Si tiene función de clave, la etapa es ordenada: en lugar de una cola compartida usa un
+     * {@link DespachadorCarriles}, y termina cuando la entrada se cerró y no quedan elementos pendientes.
+     * </p>
+     */
+    private final class Etapa {
+
+        private final String nombre;
+        private final int hilos;
+        private final int capacidad;
+        private final Function<E, ?> clave;
+        private final Function<E, PrioridadEnum> prioridad;
+        private final ProcesadorEtapa<E> procesador;
+        private final BlockingQueue<Object> cola;
+        private final AtomicInteger activos;
+        private final AtomicInteger pendientes = new AtomicInteger(1);
+        private final AtomicInteger maximoEnCola = new AtomicInteger();
+        private final LongAdder procesados = new LongAdder();
+        private final LongAdder fallidos = new LongAdder();
+        private final LongAdder ocupado = new LongAdder();
+        private ExecutorService executor;
+        private DespachadorCarriles carriles;
+        private Etapa siguiente;
+        private volatile long fin;
+
+        private Etapa(String nombre, int hilos, int capacidad, Function<E, ?> clave,
+                Function<E, PrioridadEnum> prioridad, ProcesadorEtapa<E> procesador) {
+            this.nombre = nombre;
+            this.hilos = hilos;
+            this.capacidad = capacidad;
+            this.clave = clave;
+            this.prioridad = prioridad;
+            this.procesador = procesador;
+            this.cola = clave == null ? new ArrayBlockingQueue<>(capacidad) : null;
+            this.activos = new AtomicInteger(hilos);
+        }
+
+        private void iniciar(Etapa siguiente) {
+            String prefijo = HILO_CANALIZACION + nombre.toLowerCase(Locale.ROOT) + "-";
+            this.siguiente = siguiente;
+            if (clave != null) {
+                carriles = new DespachadorCarriles(prefijo, hilos, capacidad);
+                return;
+            }
+            AtomicInteger contador = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(hilos, tarea -> {
+                Thread hilo = new Thread(tarea, prefijo + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            for (int i = 0; i < hilos; i++) {
+                executor.execute(() -> atender(siguiente));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void poner(Object elemento) throws InterruptedException {
+            if (carriles == null) {
+                cola.put(elemento);
+                maximoEnCola.accumulateAndGet(cola.size(), Math::max);
+                return;
+            }
+            E recibido = (E) elemento;
+            pendientes.incrementAndGet();
+            try {
+                carriles.despachar(clave.apply(recibido), prioridad.apply(recibido), () -> {
+                    try {
+                        procesar(recibido, siguiente);
+                    } finally {
+                        terminarPendiente();
+                    }
+                    return null;
+                });
+            } catch (InterruptedException | RuntimeException e) {
+                terminarPendiente();
+                throw e;
+            }
+            maximoEnCola.accumulateAndGet(carriles.getPendientes(), Math::max);
+        }
+
+        private void finalizar() throws InterruptedException {
+            if (carriles != null) {
+                terminarPendiente();
+                return;
+            }
+            for (int i = 0; i < hilos; i++) {
+                cola.put(FIN);
+            }
+        }
+
+        /**
+         * Descuenta un elemento pendiente de una etapa ordenada; el cierre de la entrada cuenta como uno.
+         * Quien deja la cuenta en cero termina la etapa.
+         */
+        private void terminarPendiente() {
+            if (pendientes.decrementAndGet() == 0) {
+                terminar();
+            }
+        }
+
+        /**
+         * Marca el fin de la etapa y avisa a la siguiente, o a quien espera si es la última.
+         * <p>
+         * El aviso se entrega aunque el hilo esté interrumpido, ya que la etapa siguiente solo termina al
+         * recibirlo; la interrupción se restablece después.
+         * </p>
+         */
+        private void terminar() {
+            fin = System.nanoTime();
+            if (siguiente == null) {
+                terminada.countDown();
+                return;
+            }
+            boolean interrumpido = Thread.interrupted();
+            try {
+                siguiente.finalizar();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            } finally {
+                if (interrumpido) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /**
+         * Bucle de cada hilo de la etapa: toma elementos hasta recibir la marca de fin o ser interrumpido.
+         * El último hilo en salir termina la etapa, cualquiera sea el motivo.
+         *
+         * @param siguiente la etapa siguiente, o {@code null} si es la última.
+         */
+        @SuppressWarnings("unchecked")
+        private void atender(Etapa siguiente) {
+            try {
+                Object tomado;
+                while ((tomado = cola.take()) != FIN) {
+                    procesar((E) tomado, siguiente);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (activos.decrementAndGet() == 0) {
+                    terminar();
+                }
+            }
+        }
+
+        /**
+         * Procesa un elemento y lo entrega a la siguiente etapa o al destino.
+         * <p>
+         * Si el procesamiento se interrumpe, el elemento se entrega como fallido y la interrupción se
+         * restablece para que el hilo deje la etapa. Si la siguiente etapa no lo acepta, el elemento también
+         * se entrega como fallido; una interrupción de esa espera se propaga después.
+         * </p>
+         *
+         * @param elemento  el elemento a procesar.
+         * @param siguiente la etapa siguiente, o {@code null} si es la última.
+         * @throws InterruptedException si el hilo es interrumpido mientras espera espacio en la siguiente etapa.
+         */
+        private void procesar(E elemento, Etapa siguiente) throws InterruptedException {
+            boolean continuar;
+            long comienzo = System.nanoTime();
+            try {
+                continuar = procesador.procesar(elemento);
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                fallidos.increment();
+                manejarError(elemento, e);
+                continuar = false;
+            }
+            ocupado.add(System.nanoTime() - comienzo);
+            procesados.increment();
+            if (continuar && siguiente != null) {
+                try {
+                    siguiente.poner(elemento);
+                    return;
+                } catch (InterruptedException e) {
+                    manejarError(elemento, e);
+                    entregar(elemento);
+                    throw e;
+                } catch (RuntimeException e) {
+                    manejarError(elemento, e);
+                }
+            }
+            entregar(elemento);
+        }
+
+        private void manejarError(E elemento, Exception error) {
+            try {
+                manejadorError.accept(elemento, error);
+            } catch (RuntimeException e) {
+                log.error(CANALIZACION_ERROR_DESTINO, nombre, e.getMessage(), e);
+            }
+        }
+
+        private void entregar(E elemento) {
+            try {
+                destino.accept(elemento);
+            } catch (RuntimeException e) {
+                log.error(CANALIZACION_ERROR_DESTINO, nombre, e.getMessage(), e);
+            }
+        }
+
+        private EstadisticaEtapaDTO estadistica() {
+            long comienzo = inicio;
+            long termino = fin != 0L ? fin : System.nanoTime();
+            long disponible = comienzo == 0L ? 0L : (termino - comienzo) * hilos;
+            return EstadisticaEtapaDTO.builder()
+                    .etapa(nombre)
+                    .hilos(hilos)
+                    .capacidadCola(capacidad)
+                    .enCola(carriles != null ? (fin != 0L ? 0 : carriles.getPendientes()) : cola != null ? cola.size() : 0)
+                    .maximoEnCola(maximoEnCola.get())
+                    .procesados(procesados.sum())
+                    .fallidos(fallidos.sum())
+                    .utilizacion(disponible <= 0L ? 0.0 : Math.min(1.0, (double) ocupado.sum() / disponible))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubeta de tokens sin bloqueos, implementada como algoritmo de tasa genérica de celdas (GCRA).
+ * <p>
+ * En lugar de contar tokens y rellenarlos con un temporizador, la cubeta guarda un único valor: el
+ * instante teórico en que quedaría llena si no llegaran más solicitudes. Reservar {@code n} unidades
+ * adelanta ese instante {@code n} intervalos; la reserva debe esperar lo que el instante resultante
+ * exceda a la ráfaga permitida. Como todo el estado cabe en un {@link AtomicLong}, las reservas se
+ * confirman con compare-and-set y ningún hilo toma un bloqueo.
+ * </p>
+ * <p>
+ * Las reservas son turnos: una reserva con espera ya tiene su lugar, de modo que los hilos que esperan
+ * salen en el orden en que reservaron y la tasa se respeta aunque duerman de más.
+ * </p>
+ */
+public final class CubetaTokens {
+
+    private final double intervaloNanos;
+    private final long toleranciaNanos;
+
+    /** Instante teórico, según {@link System#nanoTime()}, en que la cubeta queda llena. */
+    private final AtomicLong llena;
+
+    /**
+     * Crea la cubeta llena.
+     *
+     * @param tasaPorSegundo el número de unidades que se recuperan por segundo; debe ser mayor que 0.
+     * @param rafaga         el número de unidades que pueden consumirse de golpe con la cubeta llena.
+     */
+    public CubetaTokens(double tasaPorSegundo, long rafaga) {
+        this.intervaloNanos = TimeUnit.SECONDS.toNanos(1) / tasaPorSegundo;
+        this.toleranciaNanos = costo(Math.max(rafaga, 1L));
+        this.llena = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserva unidades si la espera necesaria no excede el máximo indicado.
+     * <p>
+     * Una reserva mayor que la ráfaga solo espera a que la cubeta esté llena, para que nunca quede
+     * bloqueada indefinidamente.
+     * </p>
+     *
+     * @param unidades          el número de unidades a reservar.
+     * @param esperaMaximaNanos la espera máxima aceptada, en nanosegundos; con 0 solo se reserva si hay
+     *                          unidades disponibles de inmediato.
+     * @return la espera antes de usar la reserva, en nanosegundos, o {@code -1} si no se reservó.
+     */
+    public long reservar(long unidades, long esperaMaximaNanos) {
+        long costo = costo(unidades);
+        long holgura = Math.max(toleranciaNanos, costo);
+        while (true) {
+            long ahora = System.nanoTime();
+            long actual = llena.get();
+            long siguiente = (actual - ahora > 0 ? actual : ahora) + costo;
+            long espera = Math.max(siguiente - ahora - holgura, 0L);
+            if (espera > esperaMaximaNanos) {
+                return -1L;
+            }
+            if (llena.compareAndSet(actual, siguiente)) {
+                return espera;
+            }
+        }
+    }
+
+    /**
+     * Consume unidades sin esperar, aunque la cubeta quede en negativo.
+     * <p>
+     * Se usa cuando el consumo solo se conoce después de ocurrir; las reservas siguientes esperan
+     * lo necesario para compensarlo.
+     * </p>
+     *
+     * @param unidades el número de unidades consumidas.
+     */
+    public void consumir(long unidades) {
+        long costo = costo(unidades);
+        long ahora = System.nanoTime();
+        llena.getAndUpdate(actual -> (actual - ahora > 0 ? actual : ahora) + costo);
+    }
+
+    /**
+     * Devuelve unidades de una reserva que no llegó a usarse.
+     *
+     * @param unidades el número de unidades reservadas.
+     */
+    public void devolver(long unidades) {
+        llena.addAndGet(-costo(unidades));
+    }
+
+    private long costo(long unidades) {
+        return Math.round(unidades * intervaloNanos);
+    }
+}
@@ -0,0 +1,177 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+/**
+ * Caracteres de codificación de un mensaje HL7 v2, declarados en MSH-1 y MSH-2.
+ * <p>
+ * Precalcula una tabla con la clase de cada carácter ASCII (literal, separador de campo, de componente,
+ * de repetición, de subcomponente o escape), de modo que el análisis de un segmento resuelve cada
+ * carácter con un solo acceso a un arreglo. Los caracteres fuera de ASCII siempre son literales.
+ * </p>
+ * <p>
+ * Las instancias son inmutables y pueden compartirse entre hilos.
+ * </p>
+ */
+public final class DelimitadoresHl7 {
+
+    /** Carácter sin significado especial. */
+    public static final byte LITERAL = 0;
+
+    /** Separador de campos (MSH-1). */
+    public static final byte CAMPO = 1;
+
+    /** Separador de componentes (primer carácter de MSH-2). */
+    public static final byte COMPONENTE = 2;
+
+    /** Separador de repeticiones (segundo carácter de MSH-2). */
+    public static final byte REPETICION = 3;
+
+    /** Carácter de escape (tercer carácter de MSH-2). */
+    public static final byte ESCAPE = 4;
+
+    /** Separador de subcomponentes (cuarto carácter de MSH-2). */
+    public static final byte SUBCOMPONENTE = 5;
+
+    /** Delimitadores recomendados por el estándar: {@code |^~\&}. */
+    public static final DelimitadoresHl7 ESTANDAR = new DelimitadoresHl7('|', '^', '~', '\\', '&');
+
+    /** Posición de MSH-1 dentro del segmento. */
+    private static final int POSICION_CAMPO = 3;
+
+    /** Indicador de carácter de codificación no declarado. */
+    private static final char SIN_DECLARAR = 0;
+
+    private final char campo;
+    private final char componente;
+    private final char repeticion;
+    private final char escape;
+    private final char subcomponente;
+    private final byte[] clases = new byte[128];
+
+    private DelimitadoresHl7(char campo, char componente, char repeticion, char escape, char subcomponente) {
+        this.campo = campo;
+        this.componente = componente;
+        this.repeticion = repeticion;
+        this.escape = escape;
+        this.subcomponente = subcomponente;
+        clasificar(subcomponente, SUBCOMPONENTE);
+        clasificar(repeticion, REPETICION);
+        clasificar(componente, COMPONENTE);
+        clasificar(escape, ESCAPE);
+        clasificar(campo, CAMPO);
+    }
+
+    /**
+     * Obtiene los delimitadores declarados en un segmento de encabezado (MSH, FHS o BHS).
+     * <p>
+     * MSH-1 es el carácter siguiente al nombre del segmento y MSH-2 son los caracteres hasta el siguiente
+     * separador de campo. Los caracteres de MSH-2 omitidos quedan sin declarar. Si el segmento no declara
+     * caracteres ASCII válidos, o declara los mismos que {@code actuales}, se retorna {@code actuales}.
+     * </p>
+     *
+     * @param segmento el texto del segmento de encabezado.
+     * @param actuales los delimitadores vigentes antes del encabezado.
+     * @return los delimitadores del mensaje.
+     */
+    public static DelimitadoresHl7 desdeEncabezado(CharSequence segmento, DelimitadoresHl7 actuales) {
+        if (segmento.length() <= POSICION_CAMPO) {
+            return actuales;
+        }
+        char campo = segmento.charAt(POSICION_CAMPO);
+        char[] codificacion = {SIN_DECLARAR, SIN_DECLARAR, SIN_DECLARAR, SIN_DECLARAR};
+        for (int i = 0; i < codificacion.length && POSICION_CAMPO + 1 + i < segmento.length(); i++) {
+            char caracter = segmento.charAt(POSICION_CAMPO + 1 + i);
+            if (caracter == campo) {
+                break;
+            }
+            codificacion[i] = caracter;
+        }
+        if (!valido(campo)) {
+            return actuales;
+        }
+        for (char caracter : codificacion) {
+            if (caracter != SIN_DECLARAR && (!valido(caracter) || caracter == campo)) {
+                return actuales;
+            }
+        }
+        if (actuales.iguales(campo, codificacion)) {
+            return actuales;
+        }
+        if (ESTANDAR.iguales(campo, codificacion)) {
+            return ESTANDAR;
+        }
+        return new DelimitadoresHl7(campo, codificacion[0], codificacion[1], codificacion[2], codificacion[3]);
+    }
+
+    /**
+     * Retorna la clase de un carácter.
+     *
+     * @param caracter el carácter a clasificar.
+     * @return una de las constantes {@link #LITERAL}, {@link #CAMPO}, {@link #COMPONENTE},
+     * {@link #REPETICION}, {@link #ESCAPE} o {@link #SUBCOMPONENTE}.
+     */
+    public byte clase(char caracter) {
+        return caracter < clases.length ? clases[caracter] : LITERAL;
+    }
+
+    /**
+     * Retorna el carácter que representa una secuencia de escape de delimitador.
+     *
+     * @param codigo la letra de la secuencia: {@code F}, {@code S}, {@code R}, {@code T} o {@code E}.
+     * @return el delimitador correspondiente, o {@code 0} si la letra no es un escape de delimitador
+     * o el delimitador no fue declarado.
+     */
+    public char delimitadorEscapado(char codigo) {
+        switch (codigo) {
+            case 'F':
+                return campo;
+            case 'S':
+                return componente;
+            case 'R':
+                return repeticion;
+            case 'T':
+                return subcomponente;
+            case 'E':
+                return escape;
+            default:
+                return SIN_DECLARAR;
+        }
+    }
+
+    public char getCampo() {
+        return campo;
+    }
+
+    public char getComponente() {
+        return componente;
+    }
+
+    public char getRepeticion() {
+        return repeticion;
+    }
+
+    public char getEscape() {
+        return escape;
+    }
+
+    public char getSubcomponente() {
+        return subcomponente;
+    }
+
+    private void clasificar(char caracter, byte clase) {
+        if (caracter != SIN_DECLARAR) {
+            clases[caracter] = clase;
+        }
+    }
+
+    private boolean iguales(char otroCampo, char[] codificacion) {
+        return campo == otroCampo && componente == codificacion[0] && repeticion == codificacion[1]
+                && escape == codificacion[2] && subcomponente == codificacion[3];
+    }
+
+    /**
+     * Indica si un carácter puede declararse como delimitador: ASCII visible, no alfanumérico.
+     */
+    private static boolean valido(char caracter) {
+        return caracter > ' ' && caracter < 127 && !Character.isLetterOrDigit(caracter);
+    }
+}
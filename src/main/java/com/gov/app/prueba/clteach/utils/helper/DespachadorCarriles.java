@@ -0,0 +1,355 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CARRILES_CERRADOS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ENVEJECIMIENTO_PRIORIDAD_MS;
+import com.gov.app.prueba.clteach.utils.enums.PrioridadEnum;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Despachador de tareas en carriles ordenados por clave y por prioridad, cada uno atendido por un único hilo.
+ * <p>
+ * La clave de cada tarea, por ejemplo el número de orden de un paciente, determina su carril mediante su
+ * código hash, sin bloqueos ni estado compartido. Las tareas de un mismo carril se ejecutan de una en una;
+ * las de claves distintas se reparten entre los carriles y avanzan en paralelo.
+ * </p>
+ * <p>
+ * Cada carril tiene una cola sin bloqueos por cada {@link PrioridadEnum} y atiende primero la más urgente.
+ * Para que las tareas de rutina no esperen indefinidamente, cada intervalo de envejecimiento que una tarea
+ * pasa en la cola cuenta como un nivel de prioridad más: una tarea de rutina que esperó más de dos
+ * intervalos se atiende antes que una urgente recién llegada.
+ * </p>
+ * <p>
+ * El orden de una misma clave tiene precedencia sobre la prioridad: mientras una clave tenga tareas
+ * pendientes en su carril, las nuevas tareas de esa clave se encolan en el mismo nivel que aquellas, de modo
+ * que dos actualizaciones de la misma orden nunca se envían a la vez ni fuera de orden.
+ * </p>
+ * <p>
+ * Un carril con mucho trabajo o con un envío lento no detiene a los demás. Las tareas pendientes están
+ * acotadas por carril y por prioridad: el productor solo espera cuando el carril de su clave ya tiene la
+ * capacidad completa de su prioridad, de modo que un carril detenido no bloquea a los productores de los
+ * demás carriles y una tarea urgente no espera detrás de un volumen de tareas de rutina. Las tareas sin
+ * clave se reparten entre los carriles por turnos.
+ * </p>
+ */
+public final class DespachadorCarriles implements AutoCloseable {
+
+    private static final PrioridadEnum[] PRIORIDADES = PrioridadEnum.values();
+
+    private final Carril[] carriles;
+    private final int capacidad;
+    private final long envejecimiento;
+    private final AtomicInteger turnoSinClave = new AtomicInteger();
+    private volatile boolean cerrado;
+
+    /**
+     * Crea el despachador con el envejecimiento predeterminado e inicia el hilo de cada carril.
+     *
+     * @param prefijo   el prefijo del nombre de los hilos.
+     * @param carriles  el número de carriles.
+     * @param capacidad el número máximo de tareas pendientes de cada prioridad en cada carril.
+     */
+    public DespachadorCarriles(String prefijo, int carriles, int capacidad) {
+        this(prefijo, carriles, capacidad, ENVEJECIMIENTO_PRIORIDAD_MS);
+    }
+
+    /**
+     * Crea el despachador e inicia el hilo de cada carril.
+     *
+     * @param prefijo          el prefijo del nombre de los hilos.
+     * @param carriles         el número de carriles.
+     * @param capacidad        el número máximo de tareas pendientes de cada prioridad en cada carril.
+     * @param envejecimientoMs el tiempo de espera tras el cual una tarea sube un nivel de prioridad, en
+     *                         milisegundos; {@code 0} para atender siempre primero la prioridad más urgente.
+     */
+    public DespachadorCarriles(String prefijo, int carriles, int capacidad, long envejecimientoMs) {
+        this.carriles = new Carril[Math.max(carriles, 1)];
+        this.capacidad = Math.max(capacidad, 1);
+        this.envejecimiento = TimeUnit.MILLISECONDS.toNanos(Math.max(envejecimientoMs, 0L));
+        for (int i = 0; i < this.carriles.length; i++) {
+            Carril carril = new Carril();
+            Thread hilo = new Thread(carril, prefijo + (i + 1));
+            hilo.setDaemon(true);
+            carril.hilo = hilo;
+            this.carriles[i] = carril;
+            hilo.start();
+        }
+    }
+
+    /**
+     * Despacha una tarea en el carril de su clave.
+     * <p>
+     * El futuro se completa desde el hilo del carril, por lo que sus continuaciones deben ser breves.
+     * </p>
+     *
+     * @param <R>       el tipo del resultado de la tarea.
+     * @param clave     la clave que ordena la tarea, o {@code null} si no requiere orden.
+     * @param prioridad la prioridad de la tarea, o {@code null} para {@link PrioridadEnum#RUTINA}.
+     * @param tarea     la tarea a ejecutar.
+     * @return un futuro que se completa con el resultado o el error de la tarea.
+     * @throws InterruptedException       si el hilo es interrumpido mientras espera capacidad en el carril.
+     * @throws RejectedExecutionException si el despachador está cerrado.
+     */
+    public <R> CompletableFuture<R> despachar(Object clave, PrioridadEnum prioridad, Callable<R> tarea)
+            throws InterruptedException {
+        if (cerrado) {
+            throw new RejectedExecutionException(CARRILES_CERRADOS);
+        }
+        int nivel = (prioridad != null ? prioridad : PrioridadEnum.RUTINA).ordinal();
+        Carril carril = carriles[indice(clave)];
+        carril.disponibles[nivel].acquire();
+        Tarea<R> pendiente = new Tarea<>(clave, nivel, tarea);
+        carril.encolar(pendiente);
+        // Si el carril se cerró mientras se encolaba, su hilo pudo terminar de vaciar las colas antes de
+        // que la tarea llegara; se cancela aquí salvo que el carril ya la haya tomado
+        if (cerrado && pendiente.reclamar()) {
+            pendiente.cancelar();
+            carril.disponibles[nivel].release();
+        }
+        return pendiente.resultado;
+    }
+
+    /**
+     * Calcula el carril de una clave.
+     *
+     * @param clave la clave de la tarea, o {@code null}.
+     * @return el índice del carril, entre 0 y el número de carriles menos 1.
+     */
+    public int indice(Object clave) {
+        int hash = clave != null ? clave.hashCode() : turnoSinClave.getAndIncrement();
+        // Mezcla los bits altos para que las claves con prefijos comunes no se concentren en un carril
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, carriles.length);
+    }
+
+    /**
+     * Retorna el número de carriles.
+     *
+     * @return el número de carriles, cada uno con un hilo.
+     */
+    public int getCarriles() {
+        return carriles.length;
+    }
+
+    /**
+     * Retorna el número máximo de tareas pendientes de cada prioridad en un carril.
+     *
+     * @return la capacidad de cada prioridad en cada carril.
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Retorna el número de tareas pendientes, incluidas las que se están ejecutando.
+     *
+     * @return las tareas despachadas que aún no terminan.
+     */
+    public int getPendientes() {
+        int pendientes = 0;
+        for (Carril carril : carriles) {
+            for (Semaphore disponible : carril.disponibles) {
+                pendientes += capacidad - disponible.availablePermits();
+            }
+        }
+        return pendientes;
+    }
+
+    /**
+     * Detiene los hilos de los carriles; las tareas que no comenzaron se cancelan.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        for (Carril carril : carriles) {
+            LockSupport.unpark(carril.hilo);
+        }
+    }
+
+    /**
+     * Carril con una cola de tareas y un cupo por prioridad, y el único hilo que las consume.
+     */
+    private final class Carril implements Runnable {
+
+        private final Semaphore[] disponibles = new Semaphore[PRIORIDADES.length];
+        @SuppressWarnings("unchecked")
+        private final ConcurrentLinkedQueue<Tarea<?>>[] colas = new ConcurrentLinkedQueue[PRIORIDADES.length];
+        private final ConcurrentHashMap<Object, PendientesClave> porClave = new ConcurrentHashMap<>();
+        private volatile boolean esperando;
+        private Thread hilo;
+
+        private Carril() {
+            for (int i = 0; i < colas.length; i++) {
+                colas[i] = new ConcurrentLinkedQueue<>();
+                disponibles[i] = new Semaphore(capacidad);
+            }
+        }
+
+        /**
+         * Encola una tarea en el nivel de su prioridad o, si su clave tiene tareas pendientes, en el nivel
+         * de estas, y despierta al hilo del carril si está detenido.
+         *
+         * @param tarea la tarea a encolar.
+         */
+        private void encolar(Tarea<?> tarea) {
+            if (tarea.clave == null) {
+                colas[tarea.nivel].offer(tarea);
+            } else {
+                porClave.compute(tarea.clave, (clave, pendientes) -> {
+                    PendientesClave actuales = pendientes != null ? pendientes : new PendientesClave(tarea.nivel);
+                    actuales.cantidad++;
+                    colas[actuales.nivel].offer(tarea);
+                    return actuales;
+                });
+            }
+            if (esperando) {
+                LockSupport.unpark(hilo);
+            }
+        }
+
+        /**
+         * Toma la siguiente tarea: la cabeza de la cola cuyo nivel, descontado el tiempo que lleva esperando
+         * en intervalos de envejecimiento, es menor; ante un empate, la de la prioridad más urgente. Solo el
+         * hilo del carril consume, por lo que la cabeza de cada cola no cambia entre la consulta y la
+         * extracción.
+         *
+         * @return la tarea, o {@code null} si todas las colas están vacías.
+         */
+        private Tarea<?> tomar() {
+            long ahora = System.nanoTime();
+            int elegida = -1;
+            long mejor = Long.MAX_VALUE;
+            for (int i = 0; i < colas.length; i++) {
+                Tarea<?> cabeza = colas[i].peek();
+                if (cabeza == null) {
+                    continue;
+                }
+                // Nivel expresado en nanosegundos de espera: cada nivel equivale a un intervalo de envejecimiento
+                long nivel = envejecimiento > 0L ? i * envejecimiento - (ahora - cabeza.encolada) : i;
+                if (nivel < mejor) {
+                    mejor = nivel;
+                    elegida = i;
+                }
+            }
+            if (elegida < 0) {
+                return null;
+            }
+            Tarea<?> tarea = colas[elegida].poll();
+            if (tarea.clave != null) {
+                porClave.computeIfPresent(tarea.clave,
+                        (clave, pendientes) -> --pendientes.cantidad == 0 ? null : pendientes);
+            }
+            return tarea;
+        }
+
+        /**
+         * Bucle del hilo del carril: ejecuta las tareas de una en una y se detiene cuando las colas están
+         * vacías.
+         * <p>
+         * El hilo anuncia que va a detenerse antes de revisar las colas por última vez; un productor que
+         * encola después ve el aviso y lo despierta, de modo que ninguna tarea queda sin atender.
+         * </p>
+         */
+        @Override
+        public void run() {
+            while (!cerrado) {
+                Tarea<?> tarea = tomar();
+                if (tarea == null) {
+                    esperando = true;
+                    tarea = tomar();
+                    if (tarea == null) {
+                        if (!cerrado) {
+                            LockSupport.park(this);
+                        }
+                        esperando = false;
+                        continue;
+                    }
+                    esperando = false;
+                }
+                if (tarea.reclamar()) {
+                    tarea.run();
+                    disponibles[tarea.nivel].release();
+                }
+                // Una interrupción dejada por la tarea no debe impedir que el hilo vuelva a detenerse
+                Thread.interrupted();
+            }
+            Tarea<?> descartada;
+            while ((descartada = tomar()) != null) {
+                if (descartada.reclamar()) {
+                    descartada.cancelar();
+                    disponibles[descartada.nivel].release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Tareas pendientes de una clave en su carril y el nivel en que se encolan.
+     */
+    private static final class PendientesClave {
+
+        private final int nivel;
+        private int cantidad;
+
+        private PendientesClave(int nivel) {
+            this.nivel = nivel;
+        }
+    }
+
+    /**
+     * Tarea despachada con el futuro de su resultado.
+     *
+     * @param <R> el tipo del resultado.
+     */
+    private static final class Tarea<R> {
+
+        private final Object clave;
+        private final int nivel;
+        private final long encolada = System.nanoTime();
+        private final Callable<R> tarea;
+        private final CompletableFuture<R> resultado = new CompletableFuture<>();
+        private final AtomicBoolean reclamada = new AtomicBoolean();
+
+        private Tarea(Object clave, int nivel, Callable<R> tarea) {
+            this.clave = clave;
+            this.nivel = nivel;
+            this.tarea = tarea;
+        }
+
+        /**
+         * Ejecuta la tarea y completa su futuro. Cualquier error, incluso un {@link Error}, se entrega al
+         * futuro para que quien espera no quede bloqueado y el hilo del carril siga atendiendo su cola.
+         */
+        private void run() {
+            try {
+                resultado.complete(tarea.call());
+            } catch (Throwable e) {
+                resultado.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Reserva la tarea para ejecutarla o cancelarla. Solo quien la reserva completa su futuro y libera
+         * su cupo, de modo que el carril y un productor que la encoló durante el cierre no la atienden dos
+         * veces.
+         *
+         * @return {@code true} si la tarea no había sido reservada.
+         */
+        private boolean reclamar() {
+            return reclamada.compareAndSet(false, true);
+        }
+
+        private void cancelar() {
+            resultado.completeExceptionally(new CancellationException(CARRILES_CERRADOS));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.utils.enums.PrioridadEnum;
+
+/**
+ * Receptor de los datos de un paciente extraídos de los segmentos HL7.
+ * <p>
+ * Permite que los manejadores de segmentos alimenten tanto un
+ * {@link com.gov.app.prueba.clteach.dto.PacienteRequestDTO} como un
+ * {@link com.gov.app.prueba.clteach.dto.LoteResultadosDTO} sin conocer cuál de los dos se está construyendo.
+ * </p>
+ */
+public interface DestinoPaciente {
+
+    /**
+     * Asigna los nombres del paciente.
+     *
+     * @param nombres los nombres del paciente.
+     */
+    void nombres(String nombres);
+
+    /**
+     * Asigna el número de orden del paciente.
+     *
+     * @param numeroOrden el número de orden.
+     */
+    void numeroOrden(String numeroOrden);
+
+    /**
+     * Agrega un examen al paciente.
+     *
+     * @param codigo    el código del examen.
+     * @param resultado el resultado del examen.
+     */
+    void examen(String codigo, String resultado);
+
+    /**
+     * Informa una prioridad de la orden; el destino conserva la más urgente de las informadas.
+     *
+     * @param prioridad la prioridad leída de un segmento.
+     */
+    void prioridad(PrioridadEnum prioridad);
+}
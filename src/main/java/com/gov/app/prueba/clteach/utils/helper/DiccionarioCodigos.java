@@ -0,0 +1,57 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Diccionario que asigna un código entero consecutivo a cada texto distinto.
+ * <p>
+ * Permite guardar una sola instancia de cada código de examen o resultado textual repetido y referirse
+ * a ella con un {@code int}. Una instancia no es segura para uso concurrente.
+ * </p>
+ */
+public final class DiccionarioCodigos {
+
+    private final Map<String, Integer> codigos = new HashMap<>();
+    private String[] valores = new String[16];
+    private int tamano;
+
+    /**
+     * Obtiene el código de un texto, asignándole uno nuevo si no estaba en el diccionario.
+     *
+     * @param valor el texto a codificar.
+     * @return el código del texto, entre {@code 0} y {@link #tamano()} - 1.
+     */
+    public int codificar(String valor) {
+        Integer codigo = codigos.get(valor);
+        if (codigo != null) {
+            return codigo;
+        }
+        if (tamano == valores.length) {
+            valores = Arrays.copyOf(valores, tamano << 1);
+        }
+        valores[tamano] = valor;
+        codigos.put(valor, tamano);
+        return tamano++;
+    }
+
+    /**
+     * Obtiene el texto de un código.
+     *
+     * @param codigo el código obtenido con {@link #codificar(String)}.
+     * @return el texto del código.
+     */
+    public String valor(int codigo) {
+        return valores[codigo];
+    }
+
+    /**
+     * Retorna el número de textos distintos del diccionario.
+     *
+     * @return el número de textos distintos.
+     */
+    public int tamano() {
+        return tamano;
+    }
+}
@@ -0,0 +1,113 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.ResumenLatenciaDTO;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con cubetas logarítmicas, al estilo de HdrHistogram.
+ * <p>
+ * Los valores se registran en microsegundos. Los primeros 64 microsegundos tienen una cubeta cada uno y,
+ * a partir de ahí, cada potencia de dos se divide en 32 cubetas, de modo que el error relativo es menor
+ * al 3 % en todo el rango sin importar la magnitud del valor. Registrar un valor no reserva memoria ni
+ * toma bloqueos, por lo que puede usarse desde cualquier número de hilos.
+ * </p>
+ */
+public final class HistogramaLatencia {
+
+    private static final int BITS_SUBCUBETA = 6;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int MITAD = SUBCUBETAS >> 1;
+    private static final int CUBETAS = SUBCUBETAS + (Long.SIZE - 1 - BITS_SUBCUBETA) * MITAD;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final LongAdder muestras = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Registra una latencia.
+     *
+     * @param nanos la latencia medida con {@link System#nanoTime()}, en nanosegundos.
+     */
+    public void registrar(long nanos) {
+        long micros = Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0L);
+        cubetas.incrementAndGet(indice(micros));
+        muestras.increment();
+        suma.add(micros);
+        maximo.accumulate(micros);
+    }
+
+    /**
+     * Calcula el resumen de las latencias registradas.
+     * <p>
+     * Las mediciones que ocurren durante el cálculo pueden quedar incluidas solo en parte.
+     * </p>
+     *
+     * @return el resumen con la media, los percentiles y el máximo.
+     */
+    public ResumenLatenciaDTO resumir() {
+        long[] copia = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            total += copia[i];
+        }
+        long max = maximo.get();
+        return ResumenLatenciaDTO.builder()
+                .muestras(total)
+                .mediaUs(total == 0 ? 0.0 : (double) suma.sum() / muestras.sum())
+                .p50Us(percentil(copia, total, 0.50, max))
+                .p90Us(percentil(copia, total, 0.90, max))
+                .p99Us(percentil(copia, total, 0.99, max))
+                .p999Us(percentil(copia, total, 0.999, max))
+                .maximoUs(max)
+                .build();
+    }
+
+    /**
+     * Descarta todas las mediciones registradas.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            cubetas.set(i, 0L);
+        }
+        muestras.reset();
+        suma.reset();
+        maximo.reset();
+    }
+
+    private static long percentil(long[] copia, long total, double fraccion, long max) {
+        if (total == 0) {
+            return 0L;
+        }
+        long objetivo = Math.max((long) Math.ceil(total * fraccion), 1L);
+        long acumulado = 0;
+        for (int i = 0; i < copia.length; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int indice(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int desplazamiento = Long.SIZE - 1 - Long.numberOfLeadingZeros(valor) - (BITS_SUBCUBETA - 1);
+        return SUBCUBETAS + (desplazamiento - 1) * MITAD + (int) ((valor >>> desplazamiento) - MITAD);
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int desplazamiento = (indice - SUBCUBETAS) / MITAD + 1;
+        long base = MITAD + (indice - SUBCUBETAS) % MITAD;
+        return ((base + 1) << desplazamiento) - 1;
+    }
+}
@@ -0,0 +1,92 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.ExamenDTO;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cálculo de claves y huellas de 64 bits para identificar órdenes ya enviadas.
+ * <p>
+ * La huella de los exámenes no depende de su orden dentro del archivo ni de los espacios al inicio o al
+ * final de cada campo: cada examen se reduce a un valor de 64 bits, los valores se ordenan y se combinan.
+ * Con 64 bits, la probabilidad de que dos conjuntos distintos produzcan la misma huella es despreciable
+ * para el volumen de órdenes de un laboratorio.
+ * </p>
+ */
+public final class HuellaPaciente {
+
+    private static final long SEMILLA = 0xcbf29ce484222325L;
+    private static final long PRIMO = 0x100000001b3L;
+    private static final char SEPARADOR = '\u001F';
+
+    private HuellaPaciente() {
+    }
+
+    /**
+     * Calcula la clave de 64 bits de un número de orden.
+     *
+     * @param numeroOrden el número de orden.
+     * @return la clave del número de orden.
+     */
+    public static long claveOrden(String numeroOrden) {
+        return mezclar(acumular(SEMILLA, numeroOrden));
+    }
+
+    /**
+     * Calcula la huella del conjunto normalizado de exámenes de una orden.
+     *
+     * @param examenes los exámenes de la orden.
+     * @return la huella de los exámenes.
+     */
+    public static long huellaExamenes(List<ExamenDTO> examenes) {
+        if (examenes == null || examenes.isEmpty()) {
+            return mezclar(SEMILLA);
+        }
+        long[] valores = new long[examenes.size()];
+        for (int i = 0; i < valores.length; i++) {
+            ExamenDTO examen = examenes.get(i);
+            long hash = acumular(SEMILLA, examen.getCodigoExamen());
+            hash = (hash ^ SEPARADOR) * PRIMO;
+            valores[i] = mezclar(acumular(hash, examen.getResultadoExamen()));
+        }
+        Arrays.sort(valores);
+        long huella = SEMILLA ^ valores.length;
+        for (long valor : valores) {
+            huella = mezclar(huella ^ valor) * PRIMO;
+        }
+        return mezclar(huella);
+    }
+
+    /**
+     * Acumula los caracteres de un texto, sin espacios al inicio ni al final, con FNV-1a.
+     */
+    private static long acumular(long hash, String texto) {
+        if (texto == null) {
+            return hash * PRIMO;
+        }
+        int inicio = 0;
+        int fin = texto.length();
+        while (inicio < fin && Character.isWhitespace(texto.charAt(inicio))) {
+            inicio++;
+        }
+        while (fin > inicio && Character.isWhitespace(texto.charAt(fin - 1))) {
+            fin--;
+        }
+        for (int i = inicio; i < fin; i++) {
+            hash = (hash ^ texto.charAt(i)) * PRIMO;
+        }
+        return hash;
+    }
+
+    /**
+     * Dispersa los bits de un valor con el finalizador de MurmurHash3.
+     */
+    private static long mezclar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xff51afd7ed558ccdL;
+        valor ^= valor >>> 33;
+        valor *= 0xc4ceb9fe1a85ec53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+}
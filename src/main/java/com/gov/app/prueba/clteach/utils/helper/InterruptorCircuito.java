@@ -0,0 +1,138 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CAMBIO_ESTADO_CIRCUITO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CAMBIO_ESTADO_NODO;
+import com.gov.app.prueba.clteach.utils.enums.EstadoCircuitoEnum;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuito que protege las llamadas a la API frente a fallas consecutivas.
+ * <p>
+ * Mientras está {@link EstadoCircuitoEnum#CERRADO} todas las solicitudes se permiten. Al acumular el
+ * número configurado de fallas consecutivas pasa a {@link EstadoCircuitoEnum#ABIERTO} y rechaza las
+ * solicitudes sin conectarse. Transcurrido el tiempo de apertura pasa a
+ * {@link EstadoCircuitoEnum#SEMIABIERTO} y deja pasar una única solicitud de prueba, cuyo resultado
+ * cierra o vuelve a abrir el circuito.
+ * </p>
+ * <p>
+ * Puede proteger la API completa o un único nodo de ella; en ese caso los cambios de estado se registran
+ * con el nombre del nodo.
+ * </p>
+ */
+@Slf4j
+public class InterruptorCircuito {
+
+    private final String nombre;
+    private final int umbralFallos;
+    private final long aperturaNanos;
+
+    private EstadoCircuitoEnum estado = EstadoCircuitoEnum.CERRADO;
+    private int fallosConsecutivos;
+    private long abiertoDesde;
+    private boolean pruebaEnCurso;
+
+    /**
+     * Crea el circuito.
+     *
+     * @param umbralFallos número de fallas consecutivas que abren el circuito; 0 lo deshabilita.
+     * @param aperturaMs   tiempo que el circuito permanece abierto, en milisegundos.
+     */
+    public InterruptorCircuito(int umbralFallos, long aperturaMs) {
+        this(null, umbralFallos, aperturaMs);
+    }
+
+    /**
+     * Crea el circuito de un nodo de la API.
+     *
+     * @param nombre       el nombre del nodo, para el log; {@code null} si el circuito protege la API completa.
+     * @param umbralFallos número de fallas consecutivas que abren el circuito; 0 lo deshabilita.
+     * @param aperturaMs   tiempo que el circuito permanece abierto, en milisegundos.
+     */
+    public InterruptorCircuito(String nombre, int umbralFallos, long aperturaMs) {
+        this.nombre = nombre;
+        this.umbralFallos = umbralFallos;
+        this.aperturaNanos = TimeUnit.MILLISECONDS.toNanos(aperturaMs);
+    }
+
+    /**
+     * Indica si una solicitud puede enviarse.
+     * <p>
+     * En estado semiabierto solo se permite la solicitud de prueba; el invocante debe informar
+     * su resultado con {@link #registrarExito()} o {@link #registrarFallo()}.
+     * </p>
+     *
+     * @return {@code true} si la solicitud puede enviarse.
+     */
+    public synchronized boolean permitir() {
+        switch (estado) {
+            case CERRADO:
+                return true;
+            case ABIERTO:
+                if (System.nanoTime() - abiertoDesde < aperturaNanos) {
+                    return false;
+                }
+                cambiarEstado(EstadoCircuitoEnum.SEMIABIERTO);
+                pruebaEnCurso = true;
+                return true;
+            default:
+                if (pruebaEnCurso) {
+                    return false;
+                }
+                pruebaEnCurso = true;
+                return true;
+        }
+    }
+
+    /**
+     * Registra una solicitud exitosa, cerrando el circuito si estaba en prueba.
+     */
+    public synchronized void registrarExito() {
+        fallosConsecutivos = 0;
+        pruebaEnCurso = false;
+        if (estado != EstadoCircuitoEnum.CERRADO) {
+            cambiarEstado(EstadoCircuitoEnum.CERRADO);
+        }
+    }
+
+    /**
+     * Registra una solicitud fallida, abriendo el circuito si se alcanza el umbral o si falló la prueba.
+     */
+    public synchronized void registrarFallo() {
+        pruebaEnCurso = false;
+        fallosConsecutivos++;
+        boolean abrir = estado == EstadoCircuitoEnum.SEMIABIERTO
+                || (estado == EstadoCircuitoEnum.CERRADO && umbralFallos > 0 && fallosConsecutivos >= umbralFallos);
+        if (abrir) {
+            abiertoDesde = System.nanoTime();
+            cambiarEstado(EstadoCircuitoEnum.ABIERTO);
+        }
+    }
+
+    /**
+     * Retorna el estado actual del circuito.
+     *
+     * @return el estado del circuito.
+     */
+    public synchronized EstadoCircuitoEnum getEstado() {
+        return estado;
+    }
+
+    /**
+     * Indica si el circuito está abierto, en cuyo caso no tiene sentido esperar para reintentar.
+     *
+     * @return {@code true} si el circuito está abierto.
+     */
+    public synchronized boolean isAbierto() {
+        return estado == EstadoCircuitoEnum.ABIERTO;
+    }
+
+    private void cambiarEstado(EstadoCircuitoEnum nuevo) {
+        if (nombre == null) {
+            log.warn(CAMBIO_ESTADO_CIRCUITO, estado, nuevo);
+        } else {
+            log.warn(CAMBIO_ESTADO_NODO, nombre, estado, nuevo);
+        }
+        estado = nuevo;
+    }
+}
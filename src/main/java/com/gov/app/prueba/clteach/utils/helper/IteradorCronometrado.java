@@ -0,0 +1,56 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import java.util.Iterator;
+
+/**
+ * Iterador que acumula el tiempo pasado dentro de otro iterador.
+ * <p>
+ * Permite separar, en un procesamiento en flujo, el tiempo de lectura de los segmentos del tiempo
+ * que el consumidor dedica a analizarlos.
+ * </p>
+ *
+ * @param <T> el tipo de los elementos.
+ */
+public final class IteradorCronometrado<T> implements Iterator<T> {
+
+    private final Iterator<T> iterador;
+    private long nanos;
+
+    /**
+     * Crea el iterador cronometrado.
+     *
+     * @param iterador el iterador cuyo tiempo se mide.
+     */
+    public IteradorCronometrado(Iterator<T> iterador) {
+        this.iterador = iterador;
+    }
+
+    @Override
+    public boolean hasNext() {
+        long inicio = System.nanoTime();
+        try {
+            return iterador.hasNext();
+        } finally {
+            nanos += System.nanoTime() - inicio;
+        }
+    }
+
+    @Override
+    public T next() {
+        long inicio = System.nanoTime();
+        try {
+            return iterador.next();
+        } finally {
+            nanos += System.nanoTime() - inicio;
+        }
+    }
+
+    /**
+     * Retorna el tiempo acumulado dentro del iterador.
+     *
+     * @return el tiempo acumulado, en nanosegundos.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+}
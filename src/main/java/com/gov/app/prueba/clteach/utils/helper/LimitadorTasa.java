@@ -0,0 +1,143 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.ConfiguracionLimiteTasaDTO;
+import com.gov.app.prueba.clteach.utils.enums.EtapaEnum;
+import com.gov.app.prueba.clteach.utils.exceptions.TasaExcedidaException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitador de las solicitudes HTTP POST hacia la API, con un presupuesto de solicitudes y otro de bytes.
+ * <p>
+ * Cada presupuesto es una {@link CubetaTokens} independiente; una solicitud solo se envía cuando ambos
+ * la permiten. En modo bloqueante la solicitud reserva su turno y espera; en modo no bloqueante se rechaza
+ * con {@link TasaExcedidaException} si no puede enviarse de inmediato. En ambos casos la reserva no usa
+ * bloqueos, por lo que muchos hilos pueden competir por el presupuesto sin serializarse.
+ * </p>
+ * <p>
+ * La espera de cada solicitud se registra en {@link MetricasHl7} como {@link EtapaEnum#ESPERA_TASA} y
+ * cada rechazo se contabiliza.
+ * </p>
+ */
+public final class LimitadorTasa {
+
+    private static final MetricasHl7 METRICAS = MetricasHl7.getInstance();
+
+    private final CubetaTokens solicitudes;
+    private final CubetaTokens bytes;
+    private final long esperaMaximaNanos;
+
+    /**
+     * Crea el limitador.
+     *
+     * @param configuracion el presupuesto de solicitudes y bytes por segundo.
+     */
+    public LimitadorTasa(ConfiguracionLimiteTasaDTO configuracion) {
+        this.solicitudes = configuracion.getSolicitudesPorSegundo() > 0
+                ? new CubetaTokens(configuracion.getSolicitudesPorSegundo(), configuracion.getRafagaSolicitudes())
+                : null;
+        this.bytes = configuracion.getBytesPorSegundo() > 0
+                ? new CubetaTokens(configuracion.getBytesPorSegundo(), configuracion.getRafagaBytes())
+                : null;
+        this.esperaMaximaNanos = configuracion.isBloqueante() ? TimeUnit.MILLISECONDS.toNanos(configuracion.getEsperaMaximaMs()) : 0L;
+    }
+
+    /**
+     * Indica si el limitador restringe alguna de las dos magnitudes.
+     *
+     * @return {@code true} si hay un presupuesto de solicitudes o de bytes.
+     */
+    public boolean isActivo() {
+        return solicitudes != null || bytes != null;
+    }
+
+    /**
+     * Indica si el limitador restringe los bytes enviados.
+     *
+     * @return {@code true} si hay un presupuesto de bytes.
+     */
+    public boolean limitaBytes() {
+        return bytes != null;
+    }
+
+    /**
+     * Obtiene el permiso para enviar una solicitud, esperando su turno en modo bloqueante.
+     *
+     * @param longitud la longitud del cuerpo en bytes, o {@code -1} si se desconoce; en ese caso los bytes
+     *                 se descuentan después con {@link #consumirBytes(long)}.
+     * @throws TasaExcedidaException si la solicitud no puede enviarse dentro de la espera permitida.
+     * @throws InterruptedException  si el hilo es interrumpido mientras espera.
+     */
+    public void adquirir(long longitud) throws InterruptedException {
+        long espera = reservar(longitud);
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+
+    /**
+     * Reserva el turno de una solicitud sin esperar.
+     * <p>
+     * Permite a los envíos asíncronos diferir la solicitud sin bloquear un hilo. La espera se registra
+     * como métrica al reservar.
+     * </p>
+     *
+     * @param longitud la longitud del cuerpo en bytes, o {@code -1} si se desconoce.
+     * @return la espera antes de enviar la solicitud, en nanosegundos.
+     * @throws TasaExcedidaException si la solicitud no puede enviarse dentro de la espera permitida.
+     */
+    public long reservar(long longitud) {
+        if (!isActivo()) {
+            return 0L;
+        }
+        long espera = 0L;
+        if (solicitudes != null) {
+            espera = solicitudes.reservar(1L, esperaMaximaNanos);
+            if (espera < 0) {
+                throw rechazar();
+            }
+        }
+        if (bytes != null) {
+            // Sin longitud no se reserva nada, pero se espera a que se salde la deuda de envíos anteriores
+            long esperaBytes = bytes.reservar(Math.max(longitud, 0L), esperaMaximaNanos);
+            if (esperaBytes < 0) {
+                if (solicitudes != null) {
+                    solicitudes.devolver(1L);
+                }
+                throw rechazar();
+            }
+            espera = Math.max(espera, esperaBytes);
+        }
+        METRICAS.registrarLatencia(EtapaEnum.ESPERA_TASA, espera);
+        return espera;
+    }
+
+    /**
+     * Devuelve el turno de una solicitud que finalmente no se envió.
+     *
+     * @param longitud la longitud del cuerpo indicada al reservar.
+     */
+    public void devolver(long longitud) {
+        if (solicitudes != null) {
+            solicitudes.devolver(1L);
+        }
+        if (bytes != null && longitud > 0) {
+            bytes.devolver(longitud);
+        }
+    }
+
+    /**
+     * Descuenta los bytes de una solicitud cuya longitud no se conocía al reservar.
+     *
+     * @param cantidad el número de bytes enviados.
+     */
+    public void consumirBytes(long cantidad) {
+        if (bytes != null && cantidad > 0) {
+            bytes.consumir(cantidad);
+        }
+    }
+
+    private TasaExcedidaException rechazar() {
+        METRICAS.registrarRechazoTasa();
+        return new TasaExcedidaException();
+    }
+}
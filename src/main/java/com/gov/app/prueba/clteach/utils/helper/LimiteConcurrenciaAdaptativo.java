@@ -0,0 +1,293 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.ConfiguracionConcurrenciaDTO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.CONCURRENCIA_VENTANA_RECIENTE;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.LIMITE_CONCURRENCIA_REDUCIDO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.MOTIVO_ERROR;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.MOTIVO_LATENCIA;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Límite adaptativo de solicitudes HTTP simultáneas, con incremento aditivo y reducción multiplicativa (AIMD).
+ * <p>
+ * Cada solicitud toma un turno antes de enviarse y lo libera al terminar, informando el resultado:
+ * </p>
+ * <ul>
+ *   <li>Si la latencia reciente se mantiene cerca de la base, el límite crece {@code 1 / límite} por
+ *   respuesta, es decir, uno por cada ventana completa de solicitudes. Solo crece si el límite se está
+ *   usando.</li>
+ *   <li>Si la latencia reciente supera la base multiplicada por la tolerancia, o la solicitud falla con un
+ *   error transitorio (tiempo de espera agotado, 5xx, 429), el límite se multiplica por el factor de
+ *   reducción.</li>
+ *   <li>Los errores no transitorios, como un 400, no modifican el límite.</li>
+ * </ul>
+ * <p>
+ * Como en el algoritmo Gradient2, la latencia reciente es una media móvil exponencial de pocas respuestas
+ * y la base es otra de muchas respuestas. Así, una latencia con variaciones estables, por ejemplo bimodal,
+ * no se confunde con saturación. La base se actualiza con cada respuesta, también durante una saturación:
+ * una saturación breve apenas la mueve, mientras que una API que se vuelve más lenta de forma permanente
+ * termina fijando la nueva base y el límite deja de reducirse.
+ * Como en TCP, el límite se reduce como máximo una vez por ventana: las señales de solicitudes que
+ * comenzaron antes de la última reducción ya reflejan el límite anterior y se ignoran.
+ * </p>
+ * <p>
+ * Los hilos síncronos esperan su turno bloqueados; los envíos asíncronos reciben un futuro que se completa
+ * cuando se libera un turno, sin bloquear ningún hilo. El límite vigente se publica en {@link MetricasHl7}.
+ * </p>
+ */
+@Slf4j
+public final class LimiteConcurrenciaAdaptativo {
+
+    private static final MetricasHl7 METRICAS = MetricasHl7.getInstance();
+    private static final CompletableFuture<Void> CONCEDIDO = CompletableFuture.completedFuture(null);
+
+    private final int minimo;
+    private final int maximo;
+    private final double tolerancia;
+    private final double factorReduccion;
+    private final double pesoBase;
+    private final LongSupplier reloj;
+
+    private final ReentrantLock candado = new ReentrantLock();
+    private final Condition disponible = candado.newCondition();
+    private final Deque<CompletableFuture<Void>> esperasAsync = new ArrayDeque<>();
+
+    private double limite;
+    private int enCurso;
+    private double latenciaBase;
+    private double latenciaReciente;
+    private long muestras;
+    private long ultimaReduccion;
+
+    /**
+     * Crea el límite con su valor inicial.
+     *
+     * @param configuracion la configuración del límite.
+     */
+    public LimiteConcurrenciaAdaptativo(ConfiguracionConcurrenciaDTO configuracion) {
+        this(configuracion, System::nanoTime);
+    }
+
+    /**
+     * Crea el límite con un reloj específico, que permite probar el ajuste con latencias exactas.
+     *
+     * @param configuracion la configuración del límite.
+     * @param reloj         el reloj en nanosegundos con el que se miden las latencias.
+     */
+    LimiteConcurrenciaAdaptativo(ConfiguracionConcurrenciaDTO configuracion, LongSupplier reloj) {
+        this.reloj = reloj;
+        this.minimo = Math.max(configuracion.getLimiteMinimo(), 1);
+        this.maximo = Math.max(configuracion.getLimiteMaximo(), minimo);
+        this.tolerancia = configuracion.getToleranciaLatencia();
+        this.factorReduccion = configuracion.getFactorReduccion();
+        this.pesoBase = 1.0 / Math.max(configuracion.getVentanaMuestras(), CONCURRENCIA_VENTANA_RECIENTE);
+        this.limite = Math.min(Math.max(configuracion.getLimiteInicial(), minimo), maximo);
+        this.ultimaReduccion = reloj.getAsLong() - 1;
+        METRICAS.actualizarLimiteConcurrencia((int) limite);
+    }
+
+    /**
+     * Espera un turno libre.
+     *
+     * @throws InterruptedException si el hilo es interrumpido mientras espera.
+     */
+    public void adquirir() throws InterruptedException {
+        candado.lock();
+        try {
+            while (enCurso >= (int) limite) {
+                disponible.await();
+            }
+            enCurso++;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Solicita un turno sin bloquear.
+     * <p>
+     * Si el futuro se cancela antes de completarse, el turno asignado se devuelve.
+     * </p>
+     *
+     * @return un futuro que se completa cuando el turno está asignado.
+     */
+    public CompletableFuture<Void> adquirirAsync() {
+        candado.lock();
+        try {
+            if (esperasAsync.isEmpty() && enCurso < (int) limite) {
+                enCurso++;
+                return CONCEDIDO;
+            }
+            CompletableFuture<Void> espera = new CompletableFuture<>();
+            esperasAsync.add(espera);
+            return espera;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Libera el turno de una solicitud que obtuvo respuesta, ajustando el límite según su latencia.
+     *
+     * @param inicio el instante de inicio de la solicitud, según el reloj del límite ({@link System#nanoTime()} de forma predeterminada).
+     */
+    public void liberarExito(long inicio) {
+        long latencia = reloj.getAsLong() - inicio;
+        List<CompletableFuture<Void>> concedidos;
+        candado.lock();
+        try {
+            enCurso--;
+            registrarLatencia(latencia);
+            // Con pocas muestras la media reciente aún no es representativa
+            if (muestras >= CONCURRENCIA_VENTANA_RECIENTE) {
+                if (latenciaReciente > latenciaBase * tolerancia) {
+                    reducir(inicio, MOTIVO_LATENCIA);
+                } else if (enCurso + 1 >= limite / 2 && limite < maximo) {
+                    crecer();
+                }
+            }
+            concedidos = despachar();
+        } finally {
+            candado.unlock();
+        }
+        completar(concedidos);
+    }
+
+    /**
+     * Libera el turno de una solicitud que falló con un error transitorio, reduciendo el límite.
+     *
+     * @param inicio el instante de inicio de la solicitud, según el reloj del límite ({@link System#nanoTime()} de forma predeterminada).
+     */
+    public void liberarFallo(long inicio) {
+        List<CompletableFuture<Void>> concedidos;
+        candado.lock();
+        try {
+            enCurso--;
+            reducir(inicio, MOTIVO_ERROR);
+            concedidos = despachar();
+        } finally {
+            candado.unlock();
+        }
+        completar(concedidos);
+    }
+
+    /**
+     * Libera el turno de una solicitud sin modificar el límite, por ejemplo tras un error no transitorio.
+     */
+    public void liberar() {
+        List<CompletableFuture<Void>> concedidos;
+        candado.lock();
+        try {
+            enCurso--;
+            concedidos = despachar();
+        } finally {
+            candado.unlock();
+        }
+        completar(concedidos);
+    }
+
+    /**
+     * Retorna el límite vigente.
+     *
+     * @return el número máximo de solicitudes simultáneas permitido en este momento.
+     */
+    public int getLimite() {
+        candado.lock();
+        try {
+            return (int) limite;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Incorpora una latencia a las medias reciente y base. Requiere el candado.
+     *
+     * @param latencia la latencia de la respuesta, en nanosegundos.
+     */
+    private void registrarLatencia(long latencia) {
+        if (muestras++ == 0) {
+            latenciaBase = latencia;
+            latenciaReciente = latencia;
+            return;
+        }
+        latenciaReciente += (latencia - latenciaReciente) / CONCURRENCIA_VENTANA_RECIENTE;
+        latenciaBase += (latencia - latenciaBase) * pesoBase;
+    }
+
+    /**
+     * Aumenta el límite en {@code 1 / límite}. Requiere el candado.
+     */
+    private void crecer() {
+        int anterior = (int) limite;
+        limite = Math.min(maximo, limite + 1.0 / limite);
+        if ((int) limite != anterior) {
+            METRICAS.actualizarLimiteConcurrencia((int) limite);
+        }
+    }
+
+    /**
+     * Reduce el límite, salvo que la solicitud haya comenzado antes de la última reducción. Requiere el candado.
+     *
+     * @param inicio el instante de inicio de la solicitud que originó la señal.
+     * @param motivo el motivo de la reducción, para el log.
+     */
+    private void reducir(long inicio, String motivo) {
+        if (inicio - ultimaReduccion <= 0) {
+            return;
+        }
+        ultimaReduccion = reloj.getAsLong();
+        int anterior = (int) limite;
+        limite = Math.max(minimo, limite * factorReduccion);
+        METRICAS.registrarReduccionConcurrencia();
+        if ((int) limite != anterior) {
+            METRICAS.actualizarLimiteConcurrencia((int) limite);
+            log.debug(LIMITE_CONCURRENCIA_REDUCIDO, anterior, (int) limite, motivo);
+        }
+    }
+
+    /**
+     * Asigna los turnos libres a los envíos asíncronos en espera y despierta a los hilos bloqueados.
+     * Requiere el candado.
+     *
+     * @return los futuros a completar una vez liberado el candado, o {@code null} si no hay ninguno.
+     */
+    private List<CompletableFuture<Void>> despachar() {
+        List<CompletableFuture<Void>> concedidos = null;
+        while (!esperasAsync.isEmpty() && enCurso < (int) limite) {
+            if (concedidos == null) {
+                concedidos = new ArrayList<>();
+            }
+            concedidos.add(esperasAsync.poll());
+            enCurso++;
+        }
+        if (enCurso < (int) limite) {
+            disponible.signalAll();
+        }
+        return concedidos;
+    }
+
+    /**
+     * Completa fuera del candado los futuros de los turnos asignados; devuelve el turno de los cancelados.
+     *
+     * @param concedidos los futuros a completar, o {@code null}.
+     */
+    private void completar(List<CompletableFuture<Void>> concedidos) {
+        if (concedidos == null) {
+            return;
+        }
+        for (CompletableFuture<Void> concedido : concedidos) {
+            if (!concedido.complete(null)) {
+                liberar();
+            }
+        }
+    }
+}
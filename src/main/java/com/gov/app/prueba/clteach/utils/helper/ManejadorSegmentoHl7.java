@@ -0,0 +1,18 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+/**
+ * Manejador de un tipo de segmento HL7, registrado en un {@link RegistroManejadoresHl7}.
+ */
+@FunctionalInterface
+public interface ManejadorSegmentoHl7 {
+
+    /**
+     * Procesa un segmento y entrega los datos extraídos al destino.
+     *
+     * @param segmento la vista sobre el segmento; solo es válida durante la llamada.
+     * @param destino  el destino de los datos del paciente.
+     * @return {@code true} si el segmento es válido y se procesó correctamente; {@code false} en caso contrario;
+     * o {@code null} si el segmento no decide la validez del mensaje, como los segmentos ignorados.
+     */
+    Boolean procesar(VistaSegmentoHl7 segmento, DestinoPaciente destino);
+}
@@ -0,0 +1,498 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gov.app.prueba.clteach.dto.EstadisticaEtapaDTO;
+import com.gov.app.prueba.clteach.dto.EstadoNodoDTO;
+import com.gov.app.prueba.clteach.dto.InstantaneaMetricasDTO;
+import com.gov.app.prueba.clteach.dto.ResumenLatenciaDTO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_VOLCADO_METRICAS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILO_METRICAS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.METRICAS_NO_PUBLICADAS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.METRICAS_VOLCADO_INICIADO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.OBJETO_JMX_METRICAS;
+import com.gov.app.prueba.clteach.utils.enums.EtapaEnum;
+import com.gov.app.prueba.clteach.utils.enums.PrioridadEnum;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Singleton que acumula las métricas del procesamiento de archivos HL7.
+ * <p>
+ * Mantiene un {@link HistogramaLatencia} por cada {@link EtapaEnum} y por cada {@link PrioridadEnum},
+ * contadores de archivos, segmentos, segmentos incompletos, códigos HTTP, reintentos, órdenes omitidas y
+ * rechazos por límite de tasa, el límite adaptativo de concurrencia y sus reducciones, el número de
+ * solicitudes HTTP en curso, las estadísticas de la canalización de etapas activa y el estado de los nodos
+ * de la API. Todos los registros usan {@link LongAdder} o variables atómicas, por lo que los hilos que
+ * procesan archivos no compiten por un bloqueo.
+ * </p>
+ * <p>
+ * La instancia se publica como MXBean con el nombre {@code com.gov.app.prueba.clteach:type=MetricasHl7} y,
+ * opcionalmente, se vuelca en formato JSON a un archivo local cada cierto intervalo.
+ * </p>
+ */
+@Slf4j
+public final class MetricasHl7 implements MetricasHl7MXBean {
+
+    // Instancia única del Singleton
+    private static volatile MetricasHl7 instance;
+
+    private final Map<EtapaEnum, HistogramaLatencia> latencias = new EnumMap<>(EtapaEnum.class);
+    private final Map<PrioridadEnum, HistogramaLatencia> latenciasPrioridad = new EnumMap<>(PrioridadEnum.class);
+    private final LongAdder archivosProcesados = new LongAdder();
+    private final LongAdder archivosFallidos = new LongAdder();
+    private final LongAdder segmentos = new LongAdder();
+    private final LongAdder segmentosDesconocidos = new LongAdder();
+    private final LongAdder pidIncompletos = new LongAdder();
+    private final LongAdder obrIncompletos = new LongAdder();
+    private final LongAdder obxIncompletos = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder erroresConexion = new LongAdder();
+    private final LongAdder ordenesOmitidas = new LongAdder();
+    private final LongAdder rechazosTasa = new LongAdder();
+    private final LongAdder reduccionesConcurrencia = new LongAdder();
+    private final AtomicInteger limiteConcurrencia = new AtomicInteger();
+    private final Map<Integer, LongAdder> codigosHttp = new ConcurrentHashMap<>();
+    private final AtomicInteger solicitudesEnCurso = new AtomicInteger();
+    private final AtomicInteger maximoSolicitudesEnCurso = new AtomicInteger();
+    private final AtomicReference<CanalizacionEtapas<?>> canalizacion = new AtomicReference<>();
+    private final AtomicReference<BalanceadorNodos> balanceador = new AtomicReference<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ScheduledExecutorService volcado;
+
+    private MetricasHl7() {
+        for (EtapaEnum etapa : EtapaEnum.values()) {
+            latencias.put(etapa, new HistogramaLatencia());
+        }
+        for (PrioridadEnum prioridad : PrioridadEnum.values()) {
+            latenciasPrioridad.put(prioridad, new HistogramaLatencia());
+        }
+    }
+
+    /**
+     * Obtiene la instancia única de {@code MetricasHl7}, publicándola en JMX la primera vez.
+     *
+     * @return la instancia única de {@code MetricasHl7}.
+     */
+    public static MetricasHl7 getInstance() {
+        if (instance == null) {
+            synchronized (MetricasHl7.class) {
+                if (instance == null) {
+                    MetricasHl7 metricas = new MetricasHl7();
+                    metricas.publicar();
+                    instance = metricas;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Registra la latencia de una etapa.
+     *
+     * @param etapa la etapa medida.
+     * @param nanos la duración de la etapa, en nanosegundos.
+     */
+    public void registrarLatencia(EtapaEnum etapa, long nanos) {
+        latencias.get(etapa).registrar(nanos);
+    }
+
+    /**
+     * Registra el tiempo que tardó un envío desde que entró en la cola de envío hasta la respuesta de la API.
+     *
+     * @param prioridad la prioridad de la orden enviada, o {@code null} para {@link PrioridadEnum#RUTINA}.
+     * @param nanos     la duración, en nanosegundos.
+     */
+    public void registrarLatenciaPrioridad(PrioridadEnum prioridad, long nanos) {
+        latenciasPrioridad.get(prioridad != null ? prioridad : PrioridadEnum.RUTINA).registrar(nanos);
+    }
+
+    /**
+     * Registra el fin del procesamiento de un archivo y su latencia total.
+     *
+     * @param exitoso {@code true} si el archivo se procesó y envió correctamente.
+     * @param nanos   la duración total del procesamiento, en nanosegundos.
+     */
+    public void registrarArchivo(boolean exitoso, long nanos) {
+        (exitoso ? archivosProcesados : archivosFallidos).increment();
+        latencias.get(EtapaEnum.ARCHIVO).registrar(nanos);
+    }
+
+    /**
+     * Publica una canalización de etapas para que sus colas y su utilización se expongan en las métricas.
+     * <p>
+     * Solo se expone la última canalización publicada.
+     * </p>
+     *
+     * @param canalizacion la canalización en curso.
+     */
+    public void publicarCanalizacion(CanalizacionEtapas<?> canalizacion) {
+        this.canalizacion.set(canalizacion);
+    }
+
+    /**
+     * Deja de exponer una canalización de etapas, si es la que está publicada.
+     *
+     * @param canalizacion la canalización que terminó.
+     */
+    public void retirarCanalizacion(CanalizacionEtapas<?> canalizacion) {
+        this.canalizacion.compareAndSet(canalizacion, null);
+    }
+
+    /**
+     * Publica un balanceador de nodos para que el estado de cada nodo se exponga en las métricas.
+     * <p>
+     * Solo se expone el último balanceador publicado.
+     * </p>
+     *
+     * @param balanceador el balanceador de los nodos de la API.
+     */
+    public void publicarBalanceador(BalanceadorNodos balanceador) {
+        this.balanceador.set(balanceador);
+    }
+
+    /**
+     * Suma segmentos leídos; se invoca una vez por archivo o mensaje para no tocar el contador por segmento.
+     *
+     * @param cantidad el número de segmentos leídos.
+     */
+    public void registrarSegmentos(long cantidad) {
+        segmentos.add(cantidad);
+    }
+
+    /**
+     * Registra un segmento de tipo desconocido.
+     */
+    public void registrarSegmentoDesconocido() {
+        segmentosDesconocidos.increment();
+    }
+
+    /**
+     * Registra un segmento PID incompleto.
+     */
+    public void registrarPidIncompleto() {
+        pidIncompletos.increment();
+    }
+
+    /**
+     * Registra un segmento OBR incompleto.
+     */
+    public void registrarObrIncompleto() {
+        obrIncompletos.increment();
+    }
+
+    /**
+     * Registra un segmento OBX incompleto.
+     */
+    public void registrarObxIncompleto() {
+        obxIncompletos.increment();
+    }
+
+    /**
+     * Registra una respuesta HTTP.
+     *
+     * @param codigo el código HTTP de la respuesta.
+     */
+    public void registrarCodigoHttp(int codigo) {
+        codigosHttp.computeIfAbsent(codigo, c -> new LongAdder()).increment();
+    }
+
+    /**
+     * Registra un intento de solicitud que falló sin obtener una respuesta HTTP.
+     */
+    public void registrarErrorConexion() {
+        erroresConexion.increment();
+    }
+
+    /**
+     * Registra el reintento de una solicitud HTTP.
+     */
+    public void registrarReintento() {
+        reintentos.increment();
+    }
+
+    /**
+     * Registra una orden omitida por haber sido enviada antes con los mismos exámenes.
+     */
+    public void registrarOrdenOmitida() {
+        ordenesOmitidas.increment();
+    }
+
+    /**
+     * Registra una solicitud HTTP rechazada por exceder el límite de tasa.
+     */
+    public void registrarRechazoTasa() {
+        rechazosTasa.increment();
+    }
+
+    /**
+     * Registra una reducción del límite adaptativo de solicitudes simultáneas.
+     */
+    public void registrarReduccionConcurrencia() {
+        reduccionesConcurrencia.increment();
+    }
+
+    /**
+     * Publica el límite adaptativo de solicitudes simultáneas vigente.
+     *
+     * @param limite el límite vigente.
+     */
+    public void actualizarLimiteConcurrencia(int limite) {
+        limiteConcurrencia.set(limite);
+    }
+
+    /**
+     * Registra el inicio de una solicitud HTTP; debe acompañarse de {@link #finalizarSolicitud()}.
+     */
+    public void iniciarSolicitud() {
+        int enCurso = solicitudesEnCurso.incrementAndGet();
+        maximoSolicitudesEnCurso.accumulateAndGet(enCurso, Math::max);
+    }
+
+    /**
+     * Registra el fin de una solicitud HTTP, con o sin respuesta.
+     */
+    public void finalizarSolicitud() {
+        solicitudesEnCurso.decrementAndGet();
+    }
+
+    @Override
+    public long getArchivosProcesados() {
+        return archivosProcesados.sum();
+    }
+
+    @Override
+    public long getArchivosFallidos() {
+        return archivosFallidos.sum();
+    }
+
+    @Override
+    public long getSegmentos() {
+        return segmentos.sum();
+    }
+
+    @Override
+    public long getSegmentosDesconocidos() {
+        return segmentosDesconocidos.sum();
+    }
+
+    @Override
+    public long getPidIncompletos() {
+        return pidIncompletos.sum();
+    }
+
+    @Override
+    public long getObrIncompletos() {
+        return obrIncompletos.sum();
+    }
+
+    @Override
+    public long getObxIncompletos() {
+        return obxIncompletos.sum();
+    }
+
+    @Override
+    public long getReintentos() {
+        return reintentos.sum();
+    }
+
+    @Override
+    public long getErroresConexion() {
+        return erroresConexion.sum();
+    }
+
+    @Override
+    public long getOrdenesOmitidas() {
+        return ordenesOmitidas.sum();
+    }
+
+    @Override
+    public long getRechazosTasa() {
+        return rechazosTasa.sum();
+    }
+
+    @Override
+    public int getLimiteConcurrencia() {
+        return limiteConcurrencia.get();
+    }
+
+    @Override
+    public long getReduccionesConcurrencia() {
+        return reduccionesConcurrencia.sum();
+    }
+
+    @Override
+    public int getSolicitudesEnCurso() {
+        return solicitudesEnCurso.get();
+    }
+
+    @Override
+    public int getMaximoSolicitudesEnCurso() {
+        return maximoSolicitudesEnCurso.get();
+    }
+
+    @Override
+    public Map<Integer, Long> getCodigosHttp() {
+        Map<Integer, Long> codigos = new TreeMap<>();
+        codigosHttp.forEach((codigo, contador) -> codigos.put(codigo, contador.sum()));
+        return codigos;
+    }
+
+    @Override
+    public Map<String, ResumenLatenciaDTO> getLatencias() {
+        Map<String, ResumenLatenciaDTO> resumen = new LinkedHashMap<>();
+        latencias.forEach((etapa, histograma) -> resumen.put(etapa.name(), histograma.resumir()));
+        return resumen;
+    }
+
+    @Override
+    public Map<String, ResumenLatenciaDTO> getLatenciasPrioridad() {
+        Map<String, ResumenLatenciaDTO> resumen = new LinkedHashMap<>();
+        latenciasPrioridad.forEach((prioridad, histograma) -> resumen.put(prioridad.name(), histograma.resumir()));
+        return resumen;
+    }
+
+    @Override
+    public Map<String, EstadisticaEtapaDTO> getEtapasCanalizacion() {
+        Map<String, EstadisticaEtapaDTO> etapas = new LinkedHashMap<>();
+        CanalizacionEtapas<?> actual = canalizacion.get();
+        if (actual != null) {
+            actual.estadisticas().forEach(estadistica -> etapas.put(estadistica.getEtapa(), estadistica));
+        }
+        return etapas;
+    }
+
+    @Override
+    public Map<String, EstadoNodoDTO> getNodosApi() {
+        Map<String, EstadoNodoDTO> estados = new LinkedHashMap<>();
+        BalanceadorNodos actual = balanceador.get();
+        if (actual != null) {
+            actual.estados().forEach(estado -> estados.put(estado.getUrl(), estado));
+        }
+        return estados;
+    }
+
+    @Override
+    public void reiniciar() {
+        latencias.values().forEach(HistogramaLatencia::reiniciar);
+        latenciasPrioridad.values().forEach(HistogramaLatencia::reiniciar);
+        archivosProcesados.reset();
+        archivosFallidos.reset();
+        segmentos.reset();
+        segmentosDesconocidos.reset();
+        pidIncompletos.reset();
+        obrIncompletos.reset();
+        obxIncompletos.reset();
+        reintentos.reset();
+        erroresConexion.reset();
+        ordenesOmitidas.reset();
+        rechazosTasa.reset();
+        reduccionesConcurrencia.reset();
+        codigosHttp.clear();
+        maximoSolicitudesEnCurso.set(solicitudesEnCurso.get());
+    }
+
+    /**
+     * Construye una instantánea de todas las métricas.
+     *
+     * @return la instantánea con la fecha actual.
+     */
+    public InstantaneaMetricasDTO instantanea() {
+        return InstantaneaMetricasDTO.builder()
+                .fecha(Instant.now().toString())
+                .archivosProcesados(getArchivosProcesados())
+                .archivosFallidos(getArchivosFallidos())
+                .segmentos(getSegmentos())
+                .segmentosDesconocidos(getSegmentosDesconocidos())
+                .pidIncompletos(getPidIncompletos())
+                .obrIncompletos(getObrIncompletos())
+                .obxIncompletos(getObxIncompletos())
+                .reintentos(getReintentos())
+                .erroresConexion(getErroresConexion())
+                .ordenesOmitidas(getOrdenesOmitidas())
+                .rechazosTasa(getRechazosTasa())
+                .limiteConcurrencia(getLimiteConcurrencia())
+                .reduccionesConcurrencia(getReduccionesConcurrencia())
+                .solicitudesEnCurso(getSolicitudesEnCurso())
+                .maximoSolicitudesEnCurso(getMaximoSolicitudesEnCurso())
+                .codigosHttp(getCodigosHttp())
+                .latencias(getLatencias())
+                .latenciasPrioridad(getLatenciasPrioridad())
+                .etapasCanalizacion(getEtapasCanalizacion())
+                .nodosApi(getNodosApi())
+                .build();
+    }
+
+    /**
+     * Inicia el volcado periódico de las métricas a un archivo JSON.
+     * <p>
+     * Cada volcado reemplaza el archivo por completo mediante un archivo temporal y un movimiento atómico,
+     * por lo que un lector nunca observa un archivo a medio escribir. Si el volcado ya estaba iniciado,
+     * la llamada no tiene efecto.
+     * </p>
+     *
+     * @param archivo    el archivo de destino.
+     * @param intervaloMs el intervalo entre volcados, en milisegundos.
+     */
+    public synchronized void iniciarVolcado(Path archivo, long intervaloMs) {
+        if (volcado != null) {
+            return;
+        }
+        volcado = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, HILO_METRICAS);
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        volcado.scheduleWithFixedDelay(() -> volcar(archivo), intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        log.info(METRICAS_VOLCADO_INICIADO, intervaloMs, archivo);
+    }
+
+    /**
+     * Escribe las métricas actuales en un archivo JSON.
+     *
+     * @param archivo el archivo de destino.
+     */
+    public void volcar(Path archivo) {
+        try {
+            Path absoluto = archivo.toAbsolutePath();
+            Files.createDirectories(absoluto.getParent());
+            Path temporal = Files.createTempFile(absoluto.getParent(), absoluto.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(temporal.toFile(), instantanea());
+                Files.move(temporal, absoluto, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn(ERROR_VOLCADO_METRICAS, archivo, e.getMessage());
+        }
+    }
+
+    /**
+     * Publica la instancia en el servidor de MBeans de la plataforma.
+     */
+    private void publicar() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJETO_JMX_METRICAS));
+        } catch (JMException | RuntimeException e) {
+            log.warn(METRICAS_NO_PUBLICADAS, e.getMessage());
+        }
+    }
+}
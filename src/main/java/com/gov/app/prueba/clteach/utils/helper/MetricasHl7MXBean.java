@@ -0,0 +1,121 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.EstadisticaEtapaDTO;
+import com.gov.app.prueba.clteach.dto.EstadoNodoDTO;
+import com.gov.app.prueba.clteach.dto.ResumenLatenciaDTO;
+import java.util.Map;
+
+/**
+ * Interfaz de administración de las métricas del procesamiento HL7.
+ * <p>
+ * Se publica en el servidor de MBeans de la plataforma, por lo que sus atributos pueden consultarse
+ * con JConsole o Java Mission Control mientras la aplicación está en ejecución.
+ * </p>
+ */
+public interface MetricasHl7MXBean {
+
+    /**
+     * @return el número de archivos procesados correctamente.
+     */
+    long getArchivosProcesados();
+
+    /**
+     * @return el número de archivos cuyo procesamiento o envío falló.
+     */
+    long getArchivosFallidos();
+
+    /**
+     * @return el número de segmentos HL7 leídos.
+     */
+    long getSegmentos();
+
+    /**
+     * @return el número de segmentos con un tipo distinto de PID, OBR y OBX.
+     */
+    long getSegmentosDesconocidos();
+
+    /**
+     * @return el número de segmentos PID incompletos.
+     */
+    long getPidIncompletos();
+
+    /**
+     * @return el número de segmentos OBR incompletos.
+     */
+    long getObrIncompletos();
+
+    /**
+     * @return el número de segmentos OBX incompletos.
+     */
+    long getObxIncompletos();
+
+    /**
+     * @return el número de reintentos de solicitudes HTTP.
+     */
+    long getReintentos();
+
+    /**
+     * @return el número de intentos de solicitud que fallaron sin obtener una respuesta HTTP.
+     */
+    long getErroresConexion();
+
+    /**
+     * @return el número de órdenes omitidas por haber sido enviadas antes con los mismos exámenes.
+     */
+    long getOrdenesOmitidas();
+
+    /**
+     * @return el número de solicitudes HTTP rechazadas por exceder el límite de tasa.
+     */
+    long getRechazosTasa();
+
+    /**
+     * @return el límite adaptativo de solicitudes HTTP simultáneas vigente.
+     */
+    int getLimiteConcurrencia();
+
+    /**
+     * @return el número de reducciones del límite adaptativo de solicitudes HTTP simultáneas.
+     */
+    long getReduccionesConcurrencia();
+
+    /**
+     * @return el número de solicitudes HTTP en curso.
+     */
+    int getSolicitudesEnCurso();
+
+    /**
+     * @return el número máximo de solicitudes HTTP simultáneas observado.
+     */
+    int getMaximoSolicitudesEnCurso();
+
+    /**
+     * @return el número de respuestas recibidas por código HTTP.
+     */
+    Map<Integer, Long> getCodigosHttp();
+
+    /**
+     * @return el resumen de latencias por etapa del procesamiento.
+     */
+    Map<String, ResumenLatenciaDTO> getLatencias();
+
+    /**
+     * @return el resumen por prioridad del tiempo desde que un envío entra en la cola hasta la respuesta de la API.
+     */
+    Map<String, ResumenLatenciaDTO> getLatenciasPrioridad();
+
+    /**
+     * @return las estadísticas de cada etapa de la canalización en curso, vacías si no hay ninguna.
+     */
+    Map<String, EstadisticaEtapaDTO> getEtapasCanalizacion();
+
+    /**
+     * @return el estado de cada nodo de la API por URL base, vacío si no hay balanceo entre nodos.
+     */
+    Map<String, EstadoNodoDTO> getNodosApi();
+
+    /**
+     * Reinicia todos los contadores e histogramas, salvo las solicitudes en curso.
+     */
+    void reiniciar();
+}
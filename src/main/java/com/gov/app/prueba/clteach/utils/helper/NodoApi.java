@@ -0,0 +1,147 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.EstadoNodoDTO;
+import com.gov.app.prueba.clteach.utils.enums.EstadoCircuitoEnum;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nodo de la API dentro de un {@link BalanceadorNodos}, con sus solicitudes en curso y su propio
+ * {@link InterruptorCircuito}.
+ * <p>
+ * El circuito del nodo hace de detector pasivo de fallas: al acumular fallas consecutivas se abre y el nodo
+ * queda expulsado del balanceo; transcurrido el tiempo de expulsión recibe una única solicitud de prueba.
+ * Las verificaciones activas de salud también informan al circuito.
+ * </p>
+ */
+public final class NodoApi {
+
+    private final String url;
+    private final InterruptorCircuito circuito;
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final LongAdder enviadas = new LongAdder();
+    private final LongAdder fallidas = new LongAdder();
+
+    /**
+     * Crea el nodo.
+     *
+     * @param url          la URL base del nodo, con esquema, servidor y puerto.
+     * @param umbralFallos el número de fallas consecutivas que expulsan el nodo.
+     * @param expulsionMs  el tiempo que el nodo permanece expulsado, en milisegundos.
+     */
+    NodoApi(String url, int umbralFallos, long expulsionMs) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.circuito = new InterruptorCircuito(this.url, umbralFallos, expulsionMs);
+    }
+
+    /**
+     * Retorna la URL base del nodo.
+     *
+     * @return la URL base, sin barra final.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Construye la URL de un endpoint en este nodo, conservando su ruta y su consulta.
+     *
+     * @param endpoint la URL del endpoint, en cualquier nodo.
+     * @return la URL del endpoint en este nodo.
+     */
+    public String resolver(String endpoint) {
+        URI destino = URI.create(endpoint);
+        StringBuilder resultado = new StringBuilder(url);
+        if (destino.getRawPath() != null) {
+            resultado.append(destino.getRawPath());
+        }
+        if (destino.getRawQuery() != null) {
+            resultado.append('?').append(destino.getRawQuery());
+        }
+        return resultado.toString();
+    }
+
+    /**
+     * Registra el resultado de una solicitud enviada al nodo y la retira de las solicitudes en curso.
+     *
+     * @param fallo {@code true} si la solicitud falló con un error transitorio; cualquier otro resultado
+     *              indica que el nodo respondió.
+     */
+    public void finalizar(boolean fallo) {
+        enCurso.decrementAndGet();
+        if (fallo) {
+            fallidas.increment();
+            circuito.registrarFallo();
+        } else {
+            circuito.registrarExito();
+        }
+    }
+
+    /**
+     * Registra una solicitud asignada al nodo.
+     */
+    void iniciar() {
+        enCurso.incrementAndGet();
+        enviadas.increment();
+    }
+
+    /**
+     * Registra el resultado de una verificación activa de salud.
+     * <p>
+     * Una verificación exitosa solo reincorpora un nodo expulsado: no borra las fallas de las solicitudes
+     * de un nodo que responde a la verificación pero no a las solicitudes.
+     * </p>
+     *
+     * @param disponible {@code true} si el nodo respondió a la verificación.
+     */
+    void registrarSalud(boolean disponible) {
+        if (!disponible) {
+            circuito.registrarFallo();
+        } else if (circuito.getEstado() != EstadoCircuitoEnum.CERRADO) {
+            circuito.registrarExito();
+        }
+    }
+
+    /**
+     * Indica si el nodo participa en el balanceo.
+     *
+     * @return {@code true} si el circuito del nodo está cerrado.
+     */
+    boolean isDisponible() {
+        return circuito.getEstado() == EstadoCircuitoEnum.CERRADO;
+    }
+
+    /**
+     * Solicita que un nodo expulsado reciba una solicitud de prueba.
+     *
+     * @return {@code true} si terminó el tiempo de expulsión y la prueba le corresponde al invocante.
+     */
+    boolean permitirPrueba() {
+        return circuito.permitir();
+    }
+
+    /**
+     * Retorna el número de solicitudes en curso hacia el nodo.
+     *
+     * @return las solicitudes asignadas que aún no terminan.
+     */
+    int getEnCurso() {
+        return enCurso.get();
+    }
+
+    /**
+     * Construye el resumen del estado del nodo.
+     *
+     * @return el estado del nodo.
+     */
+    EstadoNodoDTO estado() {
+        return EstadoNodoDTO.builder()
+                .url(url)
+                .estado(circuito.getEstado())
+                .enCurso(enCurso.get())
+                .enviadas(enviadas.sum())
+                .fallidas(fallidas.sum())
+                .build();
+    }
+}
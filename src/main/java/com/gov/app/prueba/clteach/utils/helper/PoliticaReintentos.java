@@ -0,0 +1,110 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.gov.app.prueba.clteach.dto.ConfiguracionResilienciaDTO;
+import com.gov.app.prueba.clteach.utils.exceptions.ErrorHttpException;
+import com.gov.app.prueba.clteach.utils.exceptions.TasaExcedidaException;
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de reintentos con espera exponencial y variación aleatoria completa ("full jitter").
+ * <p>
+ * La espera antes del reintento {@code n} es un valor aleatorio entre cero y
+ * {@code min(esperaMaxima, esperaInicial * 2^(n-1))}, lo que evita que muchos clientes reintenten
+ * a la vez contra una API que se está recuperando.
+ * </p>
+ */
+public class PoliticaReintentos {
+
+    private final ConfiguracionResilienciaDTO configuracion;
+
+    /**
+     * Crea la política a partir de la configuración de resiliencia.
+     *
+     * @param configuracion la configuración de reintentos.
+     */
+    public PoliticaReintentos(ConfiguracionResilienciaDTO configuracion) {
+        this.configuracion = configuracion;
+    }
+
+    /**
+     * Indica si quedan reintentos tras el intento indicado.
+     *
+     * @param intento el número del intento que acaba de fallar, comenzando en 1.
+     * @return {@code true} si puede reintentarse.
+     */
+    public boolean quedanReintentos(int intento) {
+        return intento <= configuracion.getMaxReintentos();
+    }
+
+    /**
+     * Calcula la espera antes del siguiente intento.
+     *
+     * @param intento el número del intento que acaba de fallar, comenzando en 1.
+     * @return la espera en milisegundos.
+     */
+    public long calcularEspera(int intento) {
+        long tope = configuracion.getEsperaInicialMs() << Math.min(intento - 1, 30);
+        if (tope <= 0 || tope > configuracion.getEsperaMaximaMs()) {
+            tope = configuracion.getEsperaMaximaMs();
+        }
+        return tope <= 0 ? 0 : ThreadLocalRandom.current().nextLong(tope + 1);
+    }
+
+    /**
+     * Indica si un error corresponde a una falla transitoria que justifica reintentar.
+     * <p>
+     * Se reintentan los errores de entrada/salida (conexión rechazada, tiempo de espera agotado)
+     * y las respuestas 5xx o 429; los errores de conversión JSON y el resto de respuestas 4xx no. Un rechazo
+     * por el límite de tasa propio también es transitorio, aunque no se reintenta dentro de la misma solicitud.
+     * </p>
+     *
+     * @param error el error ocurrido.
+     * @return {@code true} si el error es transitorio.
+     */
+    public static boolean esTransitorio(Throwable error) {
+        Throwable causa = desenvolver(error);
+        if (causa instanceof ErrorHttpException) {
+            return ((ErrorHttpException) causa).isReintentable();
+        }
+        if (causa instanceof TasaExcedidaException) {
+            return true;
+        }
+        return causa instanceof IOException && !(causa instanceof JsonProcessingException);
+    }
+
+    /**
+     * Indica si un error corresponde a un rechazo definitivo del paciente, que no tiene sentido reenviar.
+     * <p>
+     * Solo lo son las respuestas 4xx no reintentables y los errores de conversión JSON; cualquier otro error,
+     * incluida una interrupción durante la espera de un turno o de un reintento, deja el envío pendiente.
+     * </p>
+     *
+     * @param error el error ocurrido.
+     * @return {@code true} si el error es un rechazo definitivo.
+     */
+    public static boolean esRechazoDefinitivo(Throwable error) {
+        Throwable causa = desenvolver(error);
+        if (causa instanceof ErrorHttpException) {
+            return !((ErrorHttpException) causa).isReintentable();
+        }
+        return causa instanceof JsonProcessingException;
+    }
+
+    /**
+     * Obtiene la causa real de un error envuelto por la ejecución asíncrona.
+     *
+     * @param error el error recibido.
+     * @return la causa original.
+     */
+    public static Throwable desenvolver(Throwable error) {
+        Throwable causa = error;
+        while ((causa instanceof CompletionException || causa instanceof ExecutionException) && causa.getCause() != null) {
+            causa = causa.getCause();
+        }
+        return causa;
+    }
+}
@@ -0,0 +1,142 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.TIPO_SEGMENTO_INVALIDO;
+
+/**
+ * Registro de manejadores de segmentos HL7 por tipo de segmento.
+ * <p>
+ * Cada tipo de tres caracteres ASCII se empaqueta en un {@code int} de 21 bits con {@link #clave(char, char, char)},
+ * y los manejadores se guardan en una tabla de direccionamiento abierto indexada por esa clave, de modo que
+ * la búsqueda no crea subcadenas ni calcula {@code hashCode} de cadenas.
+ * </p>
+ * <p>
+ * Los tipos registrados con {@link #ignorar(String)} retornan {@link #IGNORADO}, que el procesamiento
+ * omite sin más costo que la búsqueda. Los manejadores deben registrarse antes de procesar; las búsquedas
+ * concurrentes son seguras mientras no se registren manejadores nuevos.
+ * </p>
+ */
+public final class RegistroManejadoresHl7 {
+
+    /** Manejador de los segmentos conocidos que no aportan datos y se omiten. */
+    public static final ManejadorSegmentoHl7 IGNORADO = (segmento, destino) -> null;
+
+    /** Clave de los tipos de segmento que no tienen tres caracteres ASCII. */
+    public static final int SIN_CLAVE = -1;
+
+    /** Clave que marca una posición libre de la tabla; ningún tipo ASCII visible la produce. */
+    private static final int LIBRE = 0;
+
+    private int[] claves = new int[32];
+    private ManejadorSegmentoHl7[] manejadores = new ManejadorSegmentoHl7[32];
+    private int tamano;
+
+    /**
+     * Empaqueta un tipo de segmento de tres caracteres en un entero.
+     *
+     * @param primero el primer carácter.
+     * @param segundo el segundo carácter.
+     * @param tercero el tercer carácter.
+     * @return la clave del tipo, o {@link #SIN_CLAVE} si algún carácter no es ASCII.
+     */
+    public static int clave(char primero, char segundo, char tercero) {
+        if ((primero | segundo | tercero) >= 128) {
+            return SIN_CLAVE;
+        }
+        return primero << 14 | segundo << 7 | tercero;
+    }
+
+    /**
+     * Empaqueta un tipo de segmento en un entero.
+     *
+     * @param tipo el tipo de segmento, por ejemplo {@code PID}.
+     * @return la clave del tipo.
+     * @throws IllegalArgumentException si el tipo no tiene tres caracteres ASCII.
+     */
+    public static int clave(String tipo) {
+        int clave = tipo == null || tipo.length() != 3 ? SIN_CLAVE : clave(tipo.charAt(0), tipo.charAt(1), tipo.charAt(2));
+        if (clave == SIN_CLAVE || clave == LIBRE) {
+            throw new IllegalArgumentException(TIPO_SEGMENTO_INVALIDO + tipo);
+        }
+        return clave;
+    }
+
+    /**
+     * Registra el manejador de un tipo de segmento, reemplazando el anterior si existía.
+     *
+     * @param tipo      el tipo de segmento.
+     * @param manejador el manejador del tipo.
+     */
+    public void registrar(String tipo, ManejadorSegmentoHl7 manejador) {
+        int clave = clave(tipo);
+        if ((tamano + 1) << 1 > claves.length) {
+            ampliar();
+        }
+        if (colocar(claves, manejadores, clave, manejador)) {
+            tamano++;
+        }
+    }
+
+    /**
+     * Registra un tipo de segmento conocido que debe omitirse.
+     *
+     * @param tipo el tipo de segmento.
+     */
+    public void ignorar(String tipo) {
+        registrar(tipo, IGNORADO);
+    }
+
+    /**
+     * Busca el manejador de un tipo de segmento.
+     *
+     * @param clave la clave del tipo, obtenida con {@link VistaSegmentoHl7#claveTipo()}.
+     * @return el manejador, {@link #IGNORADO}, o {@code null} si el tipo es desconocido.
+     */
+    public ManejadorSegmentoHl7 buscar(int clave) {
+        if (clave == SIN_CLAVE || clave == LIBRE) {
+            return null;
+        }
+        int mascara = claves.length - 1;
+        for (int i = posicion(clave, mascara); ; i = (i + 1) & mascara) {
+            int actual = claves[i];
+            if (actual == clave) {
+                return manejadores[i];
+            }
+            if (actual == LIBRE) {
+                return null;
+            }
+        }
+    }
+
+    private void ampliar() {
+        int[] nuevasClaves = new int[claves.length << 1];
+        ManejadorSegmentoHl7[] nuevosManejadores = new ManejadorSegmentoHl7[nuevasClaves.length];
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != LIBRE) {
+                colocar(nuevasClaves, nuevosManejadores, claves[i], manejadores[i]);
+            }
+        }
+        claves = nuevasClaves;
+        manejadores = nuevosManejadores;
+    }
+
+    /**
+     * Coloca un manejador en la tabla por sondeo lineal.
+     *
+     * @return {@code true} si la clave no estaba registrada.
+     */
+    private static boolean colocar(int[] claves, ManejadorSegmentoHl7[] manejadores, int clave, ManejadorSegmentoHl7 manejador) {
+        int mascara = claves.length - 1;
+        int i = posicion(clave, mascara);
+        while (claves[i] != LIBRE && claves[i] != clave) {
+            i = (i + 1) & mascara;
+        }
+        boolean nueva = claves[i] == LIBRE;
+        claves[i] = clave;
+        manejadores[i] = manejador;
+        return nueva;
+    }
+
+    private static int posicion(int clave, int mascara) {
+        return (clave * 0x9E3779B9 >>> 16) & mascara;
+    }
+}
@@ -0,0 +1,502 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import java.util.Iterator;
+
+import static com.gov.app.prueba.clteach.utils.constants.Constants.BHS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.FHS;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.MSH;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.PATRON_BARRA;
+
+/**
+ * Tokenizador de segmentos HL7 basado en desplazamientos.
+ * <p>
+ * Recorre el segmento una sola vez, carácter a carácter, y registra únicamente las posiciones
+ * de los delimitadores de campo. Los campos se materializan como {@link String} solo cuando se
+ * solicitan mediante {@link #campo(int)}, decodificando en ese momento las secuencias de escape
+ * y reemplazando por espacio los separadores de componente, repetición y subcomponente.
+ * </p>
+ * <p>
+ * Los delimitadores se toman de MSH-1 y MSH-2 (o FHS/BHS) cada vez que se tokeniza un encabezado y se
+ * aplican a los segmentos siguientes; hasta entonces se usan los de {@link DelimitadoresHl7#ESTANDAR}.
+ * Cada carácter se clasifica con la tabla precalculada de {@link DelimitadoresHl7}, sin expresiones
+ * regulares ni asignaciones por carácter: los campos decodificados se escriben en un buffer reutilizable.
+ * </p>
+ * <p>
+ * Las secuencias {@code \F\}, {@code \S\}, {@code \R\}, {@code \T\} y {@code \E\} producen el delimitador
+ * correspondiente, {@code \Xhh..\} produce un carácter ISO-8859-1 por cada par hexadecimal, {@code \.br\}
+ * produce un espacio y las demás secuencias de formato se eliminan. Un escape sin cierre se conserva literal.
+ * </p>
+ * <p>
+ * Para los segmentos sin secuencias de escape, el resultado es equivalente a
+ * {@code Utilities.limpiarLinea(segmento).split("\\|")}: se elimina el carácter {@code \} final que no
+ * cierra una secuencia de escape y se descartan los campos vacíos al final del segmento.
+ * </p>
+ * <p>
+ * Implementa {@link VistaSegmentoHl7}: tras {@link #tokenizar(CharSequence)} la misma instancia sirve de
+ * vista sobre el segmento, y {@link #vistas(Iterator)} la entrega segmento a segmento.
+ * </p>
+ * <p>
+ * Una instancia es reutilizable entre segmentos pero no es segura para uso concurrente.
+ * </p>
+ */
+public final class TokenizadorHl7 implements VistaSegmentoHl7 {
+
+    /** Carácter de escape que se elimina al final de la línea. */
+    private static final char ESCAPE_FINAL = '\\';
+
+    /** Capacidad inicial del arreglo de desplazamientos. */
+    private static final int CAPACIDAD_INICIAL = 32;
+
+    /** Indicador de campo sin caracteres especiales, que se materializa sin decodificar. */
+    private static final int SIN_CAMBIOS = -1;
+
+    /** Segmento actualmente tokenizado. */
+    private CharSequence texto;
+
+    /** Delimitadores vigentes, declarados por el último encabezado tokenizado. */
+    private DelimitadoresHl7 delimitadores = DelimitadoresHl7.ESTANDAR;
+
+    /** Indica si el segmento actual es un encabezado, cuyo segundo campo (MSH-2) no se decodifica. */
+    private boolean encabezado;
+
+    /**
+     * Posiciones de inicio de cada campo; el fin del campo {@code i} es {@code limites[i + 1] - 1},
+     * salvo el último, que termina en {@link #fin}.
+     */
+    private int[] limites = new int[CAPACIDAD_INICIAL];
+
+    /** Buffer reutilizable donde se decodifican los campos con caracteres especiales. */
+    private char[] decodificado = new char[CAPACIDAD_INICIAL];
+
+    /** Fin (exclusivo) del segmento, descontando el escape final. */
+    private int fin;
+
+    /** Número de campos delimitados, incluidos los vacíos al final. */
+    private int totalLimites;
+
+    /** Número de campos, descartando los vacíos al final. */
+    private int numeroCampos;
+
+    /**
+     * Tokeniza un segmento HL7 completo.
+     * <p>
+     * Si el segmento es un encabezado MSH, FHS o BHS, sus delimitadores pasan a ser los vigentes.
+     * </p>
+     *
+     * @param segmento el texto del segmento.
+     * @return el número de campos del segmento.
+     */
+    public int tokenizar(CharSequence segmento) {
+        this.texto = segmento;
+        this.encabezado = esEncabezado(segmento);
+        if (encabezado) {
+            delimitadores = DelimitadoresHl7.desdeEncabezado(segmento, delimitadores);
+        }
+        this.fin = calcularFin(segmento);
+
+        char separador = delimitadores.getCampo();
+        int total = 0;
+        limites[total++] = 0;
+        for (int i = 0; i < fin; i++) {
+            if (segmento.charAt(i) == separador) {
+                if (total == limites.length) {
+                    int[] ampliado = new int[total << 1];
+                    System.arraycopy(limites, 0, ampliado, 0, total);
+                    limites = ampliado;
+                }
+                limites[total++] = i + 1;
+            }
+        }
+
+        this.totalLimites = total;
+
+        // String.split retorna el texto original si no encuentra el delimitador
+        if (total > 1) {
+            while (total > 0 && inicioCampo(total - 1) == finCampo(total - 1)) {
+                total--;
+            }
+        }
+        this.numeroCampos = total;
+        return total;
+    }
+
+    /**
+     * Retorna el número de campos del último segmento tokenizado.
+     *
+     * @return el número de campos.
+     */
+    @Override
+    public int numeroCampos() {
+        return numeroCampos;
+    }
+
+    /**
+     * Retorna los delimitadores vigentes.
+     *
+     * @return los delimitadores del último encabezado tokenizado, o los estándar si no hubo ninguno.
+     */
+    public DelimitadoresHl7 getDelimitadores() {
+        return delimitadores;
+    }
+
+    @Override
+    public CharSequence texto() {
+        return texto;
+    }
+
+    @Override
+    public String tipo() {
+        return numeroCampos > 0 ? campo(0) : "";
+    }
+
+    @Override
+    public int claveTipo() {
+        if (numeroCampos == 0 || finCampo(0) - inicioCampo(0) != 3) {
+            return RegistroManejadoresHl7.SIN_CLAVE;
+        }
+        return RegistroManejadoresHl7.clave(texto.charAt(0), texto.charAt(1), texto.charAt(2));
+    }
+
+    @Override
+    public boolean esTipo(String tipo) {
+        return campoIgual(0, tipo);
+    }
+
+    /**
+     * Compara el campo indicado con un valor.
+     * <p>
+     * Solo se decodifica el campo si contiene caracteres especiales; en caso contrario se compara
+     * directamente sobre el segmento, sin crear subcadenas.
+     * </p>
+     *
+     * @param indice el índice del campo.
+     * @param valor  el valor con el que se compara.
+     * @return {@code true} si el campo existe y, una vez decodificado, es idéntico al valor.
+     */
+    @Override
+    public boolean campoIgual(int indice, String valor) {
+        if (indice < 0 || indice >= numeroCampos) {
+            return false;
+        }
+        return igual(inicioCampo(indice), finCampo(indice), indice, valor);
+    }
+
+    /**
+     * Materializa el campo indicado como cadena decodificada.
+     *
+     * @param indice el índice del campo.
+     * @return el contenido del campo.
+     * @throws IndexOutOfBoundsException si el índice no existe.
+     */
+    @Override
+    public String campo(int indice) {
+        if (indice < 0 || indice >= numeroCampos) {
+            throw new IndexOutOfBoundsException(indice);
+        }
+        return materializar(inicioCampo(indice), finCampo(indice), indice);
+    }
+
+    @Override
+    public int numeroComponentes(int indice) {
+        if (indice < 0 || indice >= numeroCampos) {
+            return 0;
+        }
+        if (encabezado && indice == 1) {
+            return 1;
+        }
+        int componentes = 1;
+        for (int i = inicioCampo(indice); i < finCampo(indice); i++) {
+            byte clase = delimitadores.clase(texto.charAt(i));
+            if (clase == DelimitadoresHl7.REPETICION) {
+                break;
+            }
+            if (clase == DelimitadoresHl7.COMPONENTE) {
+                componentes++;
+            }
+        }
+        return componentes;
+    }
+
+    @Override
+    public String componente(int indice, int componente) {
+        if (indice < 0 || indice >= numeroCampos) {
+            throw new IndexOutOfBoundsException(indice);
+        }
+        long rango = rangoComponente(indice, componente);
+        return rango < 0 ? "" : materializar((int) (rango >>> 32), (int) rango, indice);
+    }
+
+    @Override
+    public boolean componenteIgual(int indice, int componente, String valor) {
+        if (indice < 0 || indice >= numeroCampos) {
+            return false;
+        }
+        long rango = rangoComponente(indice, componente);
+        return rango >= 0 && igual((int) (rango >>> 32), (int) rango, indice, valor);
+    }
+
+    /**
+     * Retorna un iterador que tokeniza cada segmento con esta instancia y la entrega como vista.
+     * <p>
+     * La vista es siempre el mismo objeto, reposicionado sobre el siguiente segmento en cada llamada
+     * a {@code next()}.
+     * </p>
+     *
+     * @param segmentos los segmentos a recorrer.
+     * @return un iterador de vistas sobre los segmentos.
+     */
+    public Iterator<VistaSegmentoHl7> vistas(Iterator<? extends CharSequence> segmentos) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return segmentos.hasNext();
+            }
+
+            @Override
+            public VistaSegmentoHl7 next() {
+                tokenizar(segmentos.next());
+                return TokenizadorHl7.this;
+            }
+        };
+    }
+
+    /**
+     * Reconstruye el segmento limpio, equivalente a {@code String.join("|", campos)}.
+     * <p>
+     * Solo se utiliza para los mensajes de log, por lo que debe invocarse únicamente
+     * cuando el nivel de log correspondiente esté habilitado.
+     * </p>
+     *
+     * @return el segmento limpio.
+     */
+    public String unir() {
+        StringBuilder sb = new StringBuilder(fin);
+        for (int i = 0; i < numeroCampos; i++) {
+            if (i > 0) {
+                sb.append(PATRON_BARRA);
+            }
+            sb.append(campo(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Ubica un componente dentro de la primera repetición de un campo.
+     *
+     * @return el inicio del componente en los 32 bits altos y su fin en los bajos, o {@code -1} si no existe.
+     */
+    private long rangoComponente(int indice, int componente) {
+        int inicio = inicioCampo(indice);
+        int finCampo = finCampo(indice);
+        if (encabezado && indice == 1) {
+            return componente == 1 ? (long) inicio << 32 | finCampo : -1;
+        }
+        int actual = 1;
+        for (int i = inicio; i < finCampo; i++) {
+            byte clase = delimitadores.clase(texto.charAt(i));
+            if (clase == DelimitadoresHl7.COMPONENTE || clase == DelimitadoresHl7.REPETICION) {
+                if (actual == componente) {
+                    return (long) inicio << 32 | i;
+                }
+                if (clase == DelimitadoresHl7.REPETICION) {
+                    return -1;
+                }
+                actual++;
+                inicio = i + 1;
+            }
+        }
+        return actual == componente && componente > 0 ? (long) inicio << 32 | finCampo : -1;
+    }
+
+    private String materializar(int inicio, int finRango, int indice) {
+        int longitud = decodificar(inicio, finRango, indice);
+        return longitud == SIN_CAMBIOS
+                ? texto.subSequence(inicio, finRango).toString()
+                : new String(decodificado, 0, longitud);
+    }
+
+    private boolean igual(int inicio, int finRango, int indice, String valor) {
+        int longitud = decodificar(inicio, finRango, indice);
+        if (longitud == SIN_CAMBIOS) {
+            longitud = finRango - inicio;
+            if (longitud != valor.length()) {
+                return false;
+            }
+            for (int i = 0; i < longitud; i++) {
+                if (texto.charAt(inicio + i) != valor.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (longitud != valor.length()) {
+            return false;
+        }
+        for (int i = 0; i < longitud; i++) {
+            if (decodificado[i] != valor.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodifica un rango de un campo en {@link #decodificado} en una sola pasada.
+     * <p>
+     * Mientras el rango solo contiene caracteres literales no se copia nada; al encontrar el primer
+     * carácter especial se copia el prefijo y se continúa decodificando sobre el buffer.
+     * </p>
+     *
+     * @param inicio   el inicio del rango.
+     * @param finCampo el fin exclusivo del rango.
+     * @param indice   el índice del campo al que pertenece el rango.
+     * @return la longitud decodificada, o {@link #SIN_CAMBIOS} si el rango no tiene caracteres especiales.
+     */
+    private int decodificar(int inicio, int finCampo, int indice) {
+        if (encabezado && indice == 1) {
+            return SIN_CAMBIOS;
+        }
+
+        int i = inicio;
+        while (i < finCampo && delimitadores.clase(texto.charAt(i)) == DelimitadoresHl7.LITERAL) {
+            i++;
+        }
+        if (i == finCampo) {
+            return SIN_CAMBIOS;
+        }
+
+        // La decodificación nunca es más larga que el texto original
+        if (decodificado.length < finCampo - inicio) {
+            decodificado = new char[Math.max(finCampo - inicio, decodificado.length << 1)];
+        }
+        int longitud = 0;
+        for (int j = inicio; j < i; j++) {
+            decodificado[longitud++] = texto.charAt(j);
+        }
+
+        char escape = delimitadores.getEscape();
+        for (; i < finCampo; i++) {
+            char c = texto.charAt(i);
+            switch (delimitadores.clase(c)) {
+                case DelimitadoresHl7.COMPONENTE:
+                case DelimitadoresHl7.REPETICION:
+                case DelimitadoresHl7.SUBCOMPONENTE:
+                    decodificado[longitud++] = ' ';
+                    break;
+                case DelimitadoresHl7.ESCAPE:
+                    int cierre = buscar(escape, i + 1, finCampo);
+                    if (cierre < 0) {
+                        decodificado[longitud++] = c;
+                    } else {
+                        longitud = decodificarEscape(i + 1, cierre, longitud);
+                        i = cierre;
+                    }
+                    break;
+                default:
+                    decodificado[longitud++] = c;
+                    break;
+            }
+        }
+        return longitud;
+    }
+
+    /**
+     * Decodifica el contenido de una secuencia de escape, sin los caracteres de escape que la delimitan.
+     *
+     * @param inicio   el inicio del contenido de la secuencia.
+     * @param cierre   la posición del escape de cierre.
+     * @param longitud la longitud decodificada hasta el momento.
+     * @return la nueva longitud decodificada.
+     */
+    private int decodificarEscape(int inicio, int cierre, int longitud) {
+        int tamano = cierre - inicio;
+        if (tamano == 0) {
+            return longitud;
+        }
+        char codigo = texto.charAt(inicio);
+        if (tamano == 1) {
+            char delimitador = delimitadores.delimitadorEscapado(codigo);
+            if (delimitador != 0) {
+                decodificado[longitud++] = delimitador;
+            }
+            return longitud;
+        }
+        if (codigo == 'X' && (tamano & 1) == 1) {
+            for (int i = inicio + 1; i < cierre; i++) {
+                if (Character.digit(texto.charAt(i), 16) < 0) {
+                    return longitud;
+                }
+            }
+            for (int i = inicio + 1; i < cierre; i += 2) {
+                decodificado[longitud++] = (char) (Character.digit(texto.charAt(i), 16) << 4
+                        | Character.digit(texto.charAt(i + 1), 16));
+            }
+            return longitud;
+        }
+        if (tamano == 3 && codigo == '.' && texto.charAt(inicio + 1) == 'b' && texto.charAt(inicio + 2) == 'r') {
+            decodificado[longitud++] = ' ';
+        }
+        return longitud;
+    }
+
+    private int buscar(char caracter, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            if (texto.charAt(i) == caracter) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Calcula el fin efectivo del segmento eliminando el carácter de escape final,
+     * con la misma semántica que {@link Utilities#limpiarLinea(String)}.
+     * <p>
+     * Si el carácter de escape del mensaje también es {@code \}, solo se elimina cuando no cierra una
+     * secuencia de escape, es decir, cuando el último campo contiene un número impar de escapes.
+     * </p>
+     *
+     * @param segmento el texto del segmento.
+     * @return el fin exclusivo del segmento.
+     */
+    private int calcularFin(CharSequence segmento) {
+        int longitud = segmento.length();
+        int ultimo = longitud - 1;
+        while (ultimo >= 0 && segmento.charAt(ultimo) <= ' ') {
+            ultimo--;
+        }
+        if (ultimo < 0 || segmento.charAt(ultimo) != ESCAPE_FINAL) {
+            return longitud;
+        }
+        if (delimitadores.getEscape() == ESCAPE_FINAL) {
+            char separador = delimitadores.getCampo();
+            int escapes = 0;
+            for (int i = ultimo; i >= 0 && segmento.charAt(i) != separador; i--) {
+                if (segmento.charAt(i) == ESCAPE_FINAL) {
+                    escapes++;
+                }
+            }
+            if ((escapes & 1) == 0) {
+                return longitud;
+            }
+        }
+        return longitud - 1;
+    }
+
+    private int inicioCampo(int indice) {
+        return limites[indice];
+    }
+
+    private int finCampo(int indice) {
+        return indice + 1 < totalLimites ? limites[indice + 1] - 1 : fin;
+    }
+
+    private static boolean esEncabezado(CharSequence segmento) {
+        return segmento.length() > 3 && (empiezaCon(segmento, MSH) || empiezaCon(segmento, FHS) || empiezaCon(segmento, BHS));
+    }
+
+    private static boolean empiezaCon(CharSequence segmento, String nombre) {
+        return segmento.charAt(0) == nombre.charAt(0) && segmento.charAt(1) == nombre.charAt(1)
+                && segmento.charAt(2) == nombre.charAt(2);
+    }
+}
@@ -31,6 +31,24 @@ public class Utilities {
         return texto.endsWith(patronQuitar) ? texto.substring(0, texto.length() - patronQuitar.length()).stripTrailing() : texto;
     }
 
+    /**
+     * Indica si una secuencia de caracteres está vacía o contiene solo espacios en blanco.
+     * <p>
+     * Equivalente a {@link String#isBlank()} para cualquier {@link CharSequence}, sin crear una cadena.
+     * </p>
+     *
+     * @param texto la secuencia a evaluar.
+     * @return {@code true} si la secuencia está vacía o solo contiene espacios en blanco.
+     */
+    public static boolean esBlanco(CharSequence texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (!Character.isWhitespace(texto.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Limpia una línea de texto eliminando caracteres no deseados y espacios.
      * <p>
@@ -40,6 +58,10 @@ public class Utilities {
      *     <li>Reemplaza todos los caracteres "^" por espacios.</li>
      * </ul>
      * </p>
+     * <p>
+     * No interpreta los delimitadores declarados en MSH ni las secuencias de escape; para eso se
+     * utiliza {@link TokenizadorHl7}.
+     * </p>
      *
      * @param linea la línea de texto a limpiar.
      * @return la línea de texto limpia.
@@ -53,8 +75,7 @@ public class Utilities {
                 ? linea.substring(0, linea.length() - 1) 
                 : linea;
 
-        // Expresión regular para eliminar ^L y ^ caracteres
-        return linea.replaceAll("\\^", " "); 
+        return linea.replace('^', ' ');
     }
 
     /**
@@ -0,0 +1,105 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+/**
+ * Vista de solo lectura sobre un segmento HL7 ya separado en campos.
+ * <p>
+ * Los campos y componentes se representan como desplazamientos sobre el texto original del segmento;
+ * solo se crea una {@link String} cuando se solicita con {@link #campo(int)} o {@link #componente(int, int)}.
+ * Las comparaciones con {@link #campoIgual(int, String)} y {@link #componenteIgual(int, int, String)}
+ * no crean objetos.
+ * </p>
+ * <p>
+ * Los índices de campo siguen la numeración de la línea: el campo {@code 0} es el tipo de segmento y el
+ * campo {@code n} es {@code XXX-n} (en MSH, el campo {@code 1} es MSH-2). Los componentes se numeran
+ * desde {@code 1}, como en {@code PID-5.1}.
+ * </p>
+ * <p>
+ * Una vista puede reutilizarse para el siguiente segmento, por lo que solo es válida hasta que se avance
+ * el iterador que la entregó.
+ * </p>
+ */
+public interface VistaSegmentoHl7 {
+
+    /**
+     * Retorna el texto original del segmento, sin copiarlo.
+     *
+     * @return el texto del segmento.
+     */
+    CharSequence texto();
+
+    /**
+     * Retorna el tipo de segmento, por ejemplo {@code PID}.
+     *
+     * @return el contenido del campo {@code 0}.
+     */
+    String tipo();
+
+    /**
+     * Retorna el tipo de segmento empaquetado en un entero, para despachar sin crear subcadenas.
+     *
+     * @return la clave de {@link RegistroManejadoresHl7#clave(char, char, char)}, o
+     * {@link RegistroManejadoresHl7#SIN_CLAVE} si el tipo no tiene tres caracteres ASCII.
+     */
+    int claveTipo();
+
+    /**
+     * Indica si el segmento es del tipo indicado, sin crear subcadenas.
+     *
+     * @param tipo el tipo de segmento esperado.
+     * @return {@code true} si el campo {@code 0} es idéntico al tipo.
+     */
+    boolean esTipo(String tipo);
+
+    /**
+     * Retorna el número de campos del segmento, descartando los vacíos al final.
+     *
+     * @return el número de campos.
+     */
+    int numeroCampos();
+
+    /**
+     * Materializa un campo decodificado, con los separadores de componente reemplazados por espacio.
+     *
+     * @param indice el índice del campo.
+     * @return el contenido del campo.
+     * @throws IndexOutOfBoundsException si el índice no existe.
+     */
+    String campo(int indice);
+
+    /**
+     * Compara un campo decodificado con un valor.
+     *
+     * @param indice el índice del campo.
+     * @param valor  el valor con el que se compara.
+     * @return {@code true} si el campo existe y es idéntico al valor.
+     */
+    boolean campoIgual(int indice, String valor);
+
+    /**
+     * Retorna el número de componentes de la primera repetición de un campo.
+     *
+     * @param indice el índice del campo.
+     * @return el número de componentes, o {@code 0} si el campo no existe.
+     */
+    int numeroComponentes(int indice);
+
+    /**
+     * Materializa un componente decodificado de la primera repetición de un campo.
+     *
+     * @param indice     el índice del campo.
+     * @param componente el número de componente, desde {@code 1}.
+     * @return el contenido del componente, o una cadena vacía si el componente no existe.
+     * @throws IndexOutOfBoundsException si el campo no existe.
+     */
+    String componente(int indice, int componente);
+
+    /**
+     * Compara un componente decodificado con un valor.
+     *
+     * @param indice     el índice del campo.
+     * @param componente el número de componente, desde {@code 1}.
+     * @param valor      el valor con el que se compara.
+     * @return {@code true} si el componente existe y es idéntico al valor.
+     */
+    boolean componenteIgual(int indice, int componente, String valor);
+}
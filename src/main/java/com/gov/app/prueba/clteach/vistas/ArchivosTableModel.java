@@ -0,0 +1,108 @@
+package com.gov.app.prueba.clteach.vistas;
+
+import com.gov.app.prueba.clteach.utils.enums.EstadoArchivoEnum;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de la tabla de archivos de la ventana de subida.
+ * <p>
+ * Muestra por cada archivo seleccionado su nombre, tamaño, estado y el mensaje de la respuesta.
+ * Solo debe modificarse desde el hilo de eventos de Swing.
+ * </p>
+ */
+public class ArchivosTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNAS = {"Archivo", "Tamaño (KB)", "Estado", "Mensaje"};
+
+    private final List<File> archivos = new ArrayList<>();
+    private final List<Long> tamanos = new ArrayList<>();
+    private final List<EstadoArchivoEnum> estados = new ArrayList<>();
+    private final List<String> mensajes = new ArrayList<>();
+
+    /**
+     * Reemplaza los archivos de la tabla, todos en estado pendiente.
+     *
+     * @param seleccion los archivos seleccionados.
+     */
+    public void setArchivos(List<File> seleccion) {
+        archivos.clear();
+        tamanos.clear();
+        estados.clear();
+        mensajes.clear();
+        for (File archivo : seleccion) {
+            archivos.add(archivo);
+            tamanos.add(archivo.length() / 1024);
+            estados.add(EstadoArchivoEnum.PENDIENTE);
+            mensajes.add("");
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Retorna los archivos de la tabla en el orden en que se muestran.
+     *
+     * @return una copia de la lista de archivos.
+     */
+    public List<File> getArchivos() {
+        return new ArrayList<>(archivos);
+    }
+
+    /**
+     * Actualiza el estado y el mensaje de un archivo.
+     *
+     * @param fila    la fila del archivo.
+     * @param estado  el nuevo estado.
+     * @param mensaje el mensaje a mostrar, o {@code null} para conservar el actual.
+     */
+    public void actualizar(int fila, EstadoArchivoEnum estado, String mensaje) {
+        estados.set(fila, estado);
+        if (mensaje != null) {
+            mensajes.set(fila, mensaje);
+        }
+        fireTableRowsUpdated(fila, fila);
+    }
+
+    /**
+     * Marca como cancelados los archivos que siguen pendientes.
+     */
+    public void cancelarPendientes() {
+        for (int i = 0; i < estados.size(); i++) {
+            if (estados.get(i) == EstadoArchivoEnum.PENDIENTE) {
+                estados.set(i, EstadoArchivoEnum.CANCELADO);
+            }
+        }
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return archivos.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return COLUMNAS[columna];
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        switch (columna) {
+            case 0:
+                return archivos.get(fila).getName();
+            case 1:
+                return tamanos.get(fila);
+            case 2:
+                return estados.get(fila).getDescripcion();
+            default:
+                return mensajes.get(fila);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.gov.app.prueba.clteach.vistas;
+
+import com.gov.app.prueba.clteach.dto.RespuestaGeneralDTO;
+import com.gov.app.prueba.clteach.services.ILeerArchivoService;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.ERROR_INESPERADO_PORCESAR;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.HILO_VENTANA;
+import com.gov.app.prueba.clteach.utils.enums.EstadoArchivoEnum;
+import com.gov.app.prueba.clteach.utils.helper.Utilities;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingWorker;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tarea en segundo plano que procesa y envía los archivos seleccionados en la ventana de subida.
+ * <p>
+ * Los archivos se reparten en un pool de hilos de tamaño fijo, por lo que el hilo de eventos de Swing
+ * nunca espera la lectura ni la respuesta HTTP. Cada cambio de estado se publica con {@link #publish}
+ * y Swing agrupa las publicaciones en una sola invocación de {@link #process}, de modo que la interfaz
+ * sigue respondiendo aunque haya cientos de archivos en cola.
+ * </p>
+ * <p>
+ * Al cancelar la tarea con {@link #cancelar()}, los archivos que aún no empezaron a procesarse se descartan;
+ * los que ya están en curso terminan su envío y publican su resultado real. {@link #done()} se invoca
+ * cuando todos terminaron. La tarea no se cancela con {@code cancel(true)}, que interrumpiría los envíos
+ * en curso e invocaría {@code done()} sin esperarlos.
+ * </p>
+ */
+@Slf4j
+public abstract class EnvioArchivosWorker extends SwingWorker<Void, EnvioArchivosWorker.Avance> {
+
+    private final ILeerArchivoService iLeerArchivoService;
+    private final List<File> archivos;
+    private final int concurrencia;
+    private final AtomicInteger completados = new AtomicInteger();
+    private final AtomicLong bytesCompletados = new AtomicLong();
+    private final AtomicInteger fallidos = new AtomicInteger();
+    private final AtomicBoolean cancelado = new AtomicBoolean();
+    private final long inicio = System.nanoTime();
+
+    /**
+     * Crea la tarea de envío.
+     *
+     * @param iLeerArchivoService el servicio que procesa cada archivo.
+     * @param archivos            los archivos a enviar, en el orden de la tabla.
+     * @param concurrencia        el número de archivos procesados de forma simultánea.
+     */
+    protected EnvioArchivosWorker(ILeerArchivoService iLeerArchivoService, List<File> archivos, int concurrencia) {
+        this.iLeerArchivoService = iLeerArchivoService;
+        this.archivos = archivos;
+        this.concurrencia = Math.max(concurrencia, 1);
+    }
+
+    @Override
+    protected Void doInBackground() throws Exception {
+        AtomicInteger contador = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrencia, Math.max(archivos.size(), 1)), tarea -> {
+            Thread hilo = new Thread(tarea, HILO_VENTANA + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            List<Future<?>> futuros = new ArrayList<>(archivos.size());
+            for (int i = 0; i < archivos.size(); i++) {
+                int fila = i;
+                futuros.add(executor.submit(() -> procesar(fila)));
+            }
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdown();
+            esperarEnCurso(executor);
+        }
+        return null;
+    }
+
+    /**
+     * Solicita la cancelación del envío: los archivos pendientes se descartan y los que están en curso
+     * terminan su envío.
+     */
+    public void cancelar() {
+        cancelado.set(true);
+    }
+
+    /**
+     * Indica si se solicitó la cancelación del envío.
+     *
+     * @return {@code true} si el envío fue cancelado.
+     */
+    public boolean isCancelado() {
+        return cancelado.get();
+    }
+
+    /**
+     * Espera a que terminen los archivos en curso, aunque el hilo esté interrumpido, y restablece después
+     * la interrupción.
+     *
+     * @param executor el pool ya cerrado.
+     */
+    private static void esperarEnCurso(ExecutorService executor) {
+        boolean interrumpido = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Procesa un archivo y publica sus cambios de estado.
+     *
+     * @param fila Fila del archivo en la tabla.
+     */
+    private void procesar(int fila) {
+        if (cancelado.get()) {
+            return;
+        }
+        File archivo = archivos.get(fila);
+        publish(new Avance(fila, EstadoArchivoEnum.PROCESANDO, null));
+
+        EstadoArchivoEnum estado;
+        String mensaje;
+        try {
+            RespuestaGeneralDTO respuesta = iLeerArchivoService.leerArchivoHl7(archivo);
+            log.info(respuesta.getMessage());
+            estado = Utilities.validacionRespuesta(respuesta.getStatus()) ? EstadoArchivoEnum.ERROR : EstadoArchivoEnum.ENVIADO;
+            mensaje = respuesta.getMessage();
+        } catch (RuntimeException e) {
+            log.error(ERROR_INESPERADO_PORCESAR, e);
+            estado = EstadoArchivoEnum.ERROR;
+            mensaje = e.getMessage();
+        }
+
+        if (estado == EstadoArchivoEnum.ERROR) {
+            fallidos.incrementAndGet();
+        }
+        bytesCompletados.addAndGet(archivo.length());
+        completados.incrementAndGet();
+        publish(new Avance(fila, estado, mensaje));
+    }
+
+    /**
+     * Retorna el número de archivos cuyo procesamiento terminó.
+     *
+     * @return el número de archivos completados.
+     */
+    public int getCompletados() {
+        return completados.get();
+    }
+
+    /**
+     * Retorna el número de archivos cuyo procesamiento terminó con error.
+     *
+     * @return el número de archivos fallidos.
+     */
+    public int getFallidos() {
+        return fallidos.get();
+    }
+
+    /**
+     * Retorna el número de archivos procesados por segundo desde la creación de la tarea.
+     *
+     * @return la tasa de archivos por segundo.
+     */
+    public double getArchivosPorSegundo() {
+        return completados.get() / segundosTranscurridos();
+    }
+
+    /**
+     * Retorna los kilobytes procesados por segundo desde la creación de la tarea.
+     *
+     * @return la tasa de KB por segundo.
+     */
+    public double getKilobytesPorSegundo() {
+        return bytesCompletados.get() / 1024.0 / segundosTranscurridos();
+    }
+
+    private double segundosTranscurridos() {
+        return Math.max(System.nanoTime() - inicio, 1L) / 1_000_000_000.0;
+    }
+
+    /**
+     * Obtiene el error inesperado con el que terminó la tarea. Debe invocarse desde {@link #done()}.
+     *
+     * @return el error de la tarea, o {@code null} si terminó correctamente o fue cancelada.
+     */
+    protected Throwable obtenerError() {
+        if (isCancelled()) {
+            return null;
+        }
+        try {
+            get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+    /**
+     * Cambio de estado de un archivo publicado hacia el hilo de eventos de Swing.
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Avance {
+
+        private final int fila;
+        private final EstadoArchivoEnum estado;
+        private final String mensaje;
+    }
+}
@@ -1,9 +1,10 @@
 package com.gov.app.prueba.clteach.vistas;
 
-import com.gov.app.prueba.clteach.dto.RespuestaGeneralDTO;
 import com.gov.app.prueba.clteach.services.ILeerArchivoService;
-import com.gov.app.prueba.clteach.utils.helper.Utilities;
+import com.gov.app.prueba.clteach.utils.constants.Constants;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
@@ -13,10 +14,15 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Ventana gráfica para la subida y envío de archivos HL7.
  * <p>
- * Esta clase permite a los usuarios seleccionar un archivo desde su sistema,
- * mostrar el nombre del archivo seleccionado y enviarlo para su procesamiento.
+ * Esta clase permite a los usuarios seleccionar uno o varios archivos desde su sistema,
+ * ver el estado de cada uno en una tabla y enviarlos para su procesamiento.
  * Utiliza {@link ILeerArchivoService} para procesar los archivos seleccionados.
  * </p>
+ * <p>
+ * El envío se ejecuta en un {@link EnvioArchivosWorker}, fuera del hilo de eventos de Swing,
+ * de modo que la ventana sigue respondiendo durante la lectura y las solicitudes HTTP y el
+ * envío puede cancelarse.
+ * </p>
  */
 @Slf4j
 public class SubidaArchivosWindow extends javax.swing.JFrame {
@@ -26,9 +32,14 @@ public class SubidaArchivosWindow extends javax.swing.JFrame {
     private final ILeerArchivoService iLeerArchivoService;
 
     /**
-     * Archivo seleccionado por el usuario.
+     * Modelo de la tabla con los archivos seleccionados por el usuario y su estado.
+     */
+    private final ArchivosTableModel archivosTableModel = new ArchivosTableModel();
+
+    /**
+     * Envío en curso, o {@code null} si no hay ninguno.
      */
-    private File archivo;
+    private EnvioArchivosWorker envio;
 
     /**
      * Constructor de la ventana de subida de archivos.
@@ -57,15 +68,20 @@ public class SubidaArchivosWindow extends javax.swing.JFrame {
         seleccionarArchivoButton = new javax.swing.JButton();
         enviarButton = new javax.swing.JButton();
         nombreArchivoLabel = new javax.swing.JLabel();
+        archivosScrollPane = new javax.swing.JScrollPane();
+        archivosTable = new javax.swing.JTable();
+        progresoBar = new javax.swing.JProgressBar();
+        avanceLabel = new javax.swing.JLabel();
+        cancelarButton = new javax.swing.JButton();
 
         setDefaultCloseOperation(javax.swing.WindowConstants.EXIT_ON_CLOSE);
         setTitle("Subida de archivos");
         java.awt.GridBagLayout layout = new java.awt.GridBagLayout();
         layout.columnWidths = new int[] {0, 20, 0, 20, 0};
-        layout.rowHeights = new int[] {0, 20, 0, 20, 0};
+        layout.rowHeights = new int[] {0, 10, 0, 10, 0, 10, 0, 10, 0};
         getContentPane().setLayout(layout);
 
-        seleccionarArchivoButton.setText("Seleccionar Archivo");
+        seleccionarArchivoButton.setText("Seleccionar Archivos");
         seleccionarArchivoButton.addActionListener(new java.awt.event.ActionListener() {
             public void actionPerformed(java.awt.event.ActionEvent evt) {
                 seleccionarArchivoButtonActionPerformed(evt);
@@ -73,8 +89,7 @@ public class SubidaArchivosWindow extends javax.swing.JFrame {
         });
         gridBagConstraints = new java.awt.GridBagConstraints();
         gridBagConstraints.gridx = 0;
-        gridBagConstraints.gridy = 4;
-        gridBagConstraints.gridwidth = 5;
+        gridBagConstraints.gridy = 8;
         getContentPane().add(seleccionarArchivoButton, gridBagConstraints);
 
         enviarButton.setText("Enviar");
@@ -84,86 +99,145 @@ public class SubidaArchivosWindow extends javax.swing.JFrame {
             }
         });
         gridBagConstraints = new java.awt.GridBagConstraints();
-        gridBagConstraints.gridx = 0;
-        gridBagConstraints.gridy = 2;
-        gridBagConstraints.gridwidth = 5;
+        gridBagConstraints.gridx = 2;
+        gridBagConstraints.gridy = 8;
         getContentPane().add(enviarButton, gridBagConstraints);
 
-        nombreArchivoLabel.setText("Archivo seleccionado: Ninguno");
+        nombreArchivoLabel.setText("Archivos seleccionados: Ninguno");
         gridBagConstraints = new java.awt.GridBagConstraints();
         gridBagConstraints.gridx = 0;
         gridBagConstraints.gridy = 0;
         gridBagConstraints.gridwidth = 5;
         getContentPane().add(nombreArchivoLabel, gridBagConstraints);
 
+        archivosTable.setModel(archivosTableModel);
+        archivosScrollPane.setViewportView(archivosTable);
+
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 2;
+        gridBagConstraints.gridwidth = 5;
+        gridBagConstraints.fill = java.awt.GridBagConstraints.BOTH;
+        gridBagConstraints.weightx = 1.0;
+        gridBagConstraints.weighty = 1.0;
+        getContentPane().add(archivosScrollPane, gridBagConstraints);
+
+        progresoBar.setStringPainted(true);
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 4;
+        gridBagConstraints.gridwidth = 5;
+        gridBagConstraints.fill = java.awt.GridBagConstraints.HORIZONTAL;
+        getContentPane().add(progresoBar, gridBagConstraints);
+
+        avanceLabel.setText(" ");
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 6;
+        gridBagConstraints.gridwidth = 5;
+        getContentPane().add(avanceLabel, gridBagConstraints);
+
+        cancelarButton.setText("Cancelar");
+        cancelarButton.setEnabled(false);
+        cancelarButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                cancelarButtonActionPerformed(evt);
+            }
+        });
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 4;
+        gridBagConstraints.gridy = 8;
+        getContentPane().add(cancelarButton, gridBagConstraints);
+
         pack();
     }// </editor-fold>//GEN-END:initComponents
     /**
      * Acción asociada al botón "Enviar".
      * <p>
-     * Este método valida que un archivo haya sido seleccionado y confirma con el usuario
-     * si desea enviarlo. En caso de éxito, utiliza {@link ILeerArchivoService} para procesar el archivo.
+     * Este método valida que haya archivos seleccionados y confirma con el usuario
+     * si desea enviarlos. En caso afirmativo, inicia un {@link EnvioArchivosWorker} que procesa
+     * los archivos con {@link ILeerArchivoService} en segundo plano y actualiza la tabla y el progreso.
      * </p>
      *
      * @param evt el evento de acción asociado al botón.
      */
     private void enviarButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_enviarButtonActionPerformed
-        if (archivo == null) {
+        List<File> archivos = archivosTableModel.getArchivos();
+        if (archivos.isEmpty()) {
             JOptionPane.showMessageDialog(this,
-                "Por favor, selecciona un archivo antes de enviar.",
+                "Por favor, selecciona al menos un archivo antes de enviar.",
                 "Error",
                 JOptionPane.ERROR_MESSAGE);
             return;
         }
 
         int confirm = JOptionPane.showConfirmDialog(this,
-            "¿Deseas enviar el archivo seleccionado?",
+            "¿Deseas enviar los " + archivos.size() + " archivos seleccionados?",
             "Confirmar Envío",
             JOptionPane.YES_NO_OPTION,
             JOptionPane.QUESTION_MESSAGE);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                RespuestaGeneralDTO respuesta = iLeerArchivoService.leerArchivoHl7(archivo);
-                log.info(respuesta.getMessage());
-                JOptionPane.showMessageDialog(this,
-                    respuesta.getMessage(),
-                    (Utilities.validacionRespuesta(respuesta.getStatus()) ? "Error" : "Éxito"),
-                    (Utilities.validacionRespuesta(respuesta.getStatus()) ? JOptionPane.ERROR_MESSAGE : JOptionPane.INFORMATION_MESSAGE));
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this,
-                    "Ocurrió un error al enviar el archivo: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            archivosTableModel.setArchivos(archivos);
+            progresoBar.setMaximum(archivos.size());
+            progresoBar.setValue(0);
+            habilitarEnvio(false);
+
+            envio = new EnvioArchivosWorker(iLeerArchivoService, archivos, Constants.CONCURRENCIA_VENTANA) {
+                @Override
+                protected void process(List<Avance> avances) {
+                    for (Avance avance : avances) {
+                        archivosTableModel.actualizar(avance.getFila(), avance.getEstado(), avance.getMensaje());
+                    }
+                    actualizarAvance(this, archivos.size());
+                }
+
+                @Override
+                protected void done() {
+                    finalizarEnvio(this, archivos.size());
+                }
+            };
+            envio.execute();
         }
     }//GEN-LAST:event_enviarButtonActionPerformed
    /**
-     * Acción asociada al botón "Seleccionar Archivo".
+     * Acción asociada al botón "Seleccionar Archivos".
      * <p>
-     * Este método abre un diálogo para que el usuario seleccione un archivo desde su sistema.
-     * Valida que el archivo seleccionado sea un archivo de texto (.txt) y actualiza la etiqueta
-     * con el nombre del archivo seleccionado.
+     * Este método abre un diálogo para que el usuario seleccione uno o varios archivos desde su sistema.
+     * Descarta los archivos que no son de texto (.txt), informando sus nombres, y muestra los
+     * archivos válidos en la tabla.
      * </p>
      *
      * @param evt el evento de acción asociado al botón.
      */
     private void seleccionarArchivoButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_seleccionarArchivoButtonActionPerformed
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Seleccionar Archivo");
+        fileChooser.setDialogTitle("Seleccionar Archivos");
+        fileChooser.setMultiSelectionEnabled(true);
         int result = fileChooser.showOpenDialog(this);
 
         if (result == JFileChooser.APPROVE_OPTION) {
-            archivo = fileChooser.getSelectedFile();
-            if (!archivo.getName().endsWith(".txt")) {
+            List<File> validos = new ArrayList<>();
+            List<String> invalidos = new ArrayList<>();
+            for (File seleccionado : fileChooser.getSelectedFiles()) {
+                if (seleccionado.getName().endsWith(".txt")) {
+                    validos.add(seleccionado);
+                } else {
+                    invalidos.add(seleccionado.getName());
+                }
+            }
+            if (!invalidos.isEmpty()) {
                 JOptionPane.showMessageDialog(this,
-                    "El archivo seleccionado no es válido. Solo se aceptan archivos .txt.",
+                    "Los siguientes archivos no son válidos. Solo se aceptan archivos .txt: " + String.join(", ", invalidos),
                     "Error de Archivo",
                     JOptionPane.ERROR_MESSAGE);
-                archivo = null; // Reiniciar selección si no es válido
-                return;
             }
-            nombreArchivoLabel.setText("Archivo seleccionado: " + archivo.getName());
+            archivosTableModel.setArchivos(validos);
+            progresoBar.setValue(0);
+            avanceLabel.setText(" ");
+            nombreArchivoLabel.setText(validos.isEmpty()
+                ? "Archivos seleccionados: Ninguno"
+                : "Archivos seleccionados: " + validos.size());
         } else {
             JOptionPane.showMessageDialog(this,
                 "No se seleccionó ningún archivo.",
@@ -171,10 +245,87 @@ public class SubidaArchivosWindow extends javax.swing.JFrame {
                 JOptionPane.WARNING_MESSAGE);
         }
     }//GEN-LAST:event_seleccionarArchivoButtonActionPerformed
+
+    /**
+     * Acción asociada al botón "Cancelar".
+     * <p>
+     * Cancela el envío en curso: los archivos pendientes se descartan y los que ya se están
+     * enviando terminan su envío.
+     * </p>
+     *
+     * @param evt el evento de acción asociado al botón.
+     */
+    private void cancelarButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_cancelarButtonActionPerformed
+        if (envio != null) {
+            envio.cancelar();
+        }
+    }//GEN-LAST:event_cancelarButtonActionPerformed
+
+    /**
+     * Actualiza la barra de progreso y el texto con la velocidad del envío.
+     *
+     * @param worker el envío en curso.
+     * @param total  el número total de archivos del envío.
+     */
+    private void actualizarAvance(EnvioArchivosWorker worker, int total) {
+        progresoBar.setValue(worker.getCompletados());
+        avanceLabel.setText(String.format(Constants.AVANCE_VENTANA, worker.getCompletados(), total,
+            worker.getArchivosPorSegundo(), worker.getKilobytesPorSegundo()));
+    }
+
+    /**
+     * Restablece la ventana al terminar o cancelar un envío y muestra el resumen.
+     *
+     * @param worker el envío finalizado.
+     * @param total  el número total de archivos del envío.
+     */
+    private void finalizarEnvio(EnvioArchivosWorker worker, int total) {
+        envio = null;
+        habilitarEnvio(true);
+        actualizarAvance(worker, total);
+
+        Throwable error = worker.obtenerError();
+        if (error != null) {
+            log.error(error.getMessage(), error);
+            JOptionPane.showMessageDialog(this,
+                "Ocurrió un error al enviar los archivos: " + error.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        if (worker.isCancelado()) {
+            archivosTableModel.cancelarPendientes();
+        }
+        int enviados = worker.getCompletados() - worker.getFallidos();
+        String resumen = (worker.isCancelado() ? "Envío cancelado: " : "Envío finalizado: ")
+            + enviados + " de " + total + " archivos enviados, " + worker.getFallidos() + " con errores.";
+        log.info(resumen);
+        JOptionPane.showMessageDialog(this,
+            resumen,
+            (worker.getFallidos() > 0 ? "Error" : "Éxito"),
+            (worker.getFallidos() > 0 ? JOptionPane.ERROR_MESSAGE : JOptionPane.INFORMATION_MESSAGE));
+    }
+
+    /**
+     * Habilita los botones de selección y envío, o el de cancelación mientras hay un envío en curso.
+     *
+     * @param habilitado {@code true} si no hay un envío en curso.
+     */
+    private void habilitarEnvio(boolean habilitado) {
+        seleccionarArchivoButton.setEnabled(habilitado);
+        enviarButton.setEnabled(habilitado);
+        cancelarButton.setEnabled(!habilitado);
+    }
      
     // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JScrollPane archivosScrollPane;
+    private javax.swing.JTable archivosTable;
+    private javax.swing.JLabel avanceLabel;
+    private javax.swing.JButton cancelarButton;
     private javax.swing.JButton enviarButton;
     private javax.swing.JLabel nombreArchivoLabel;
+    private javax.swing.JProgressBar progresoBar;
     private javax.swing.JButton seleccionarArchivoButton;
     // End of variables declaration//GEN-END:variables
 }
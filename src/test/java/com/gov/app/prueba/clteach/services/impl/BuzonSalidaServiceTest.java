@@ -0,0 +1,290 @@
+package com.gov.app.prueba.clteach.services.impl;
+
+import com.gov.app.prueba.clteach.dto.ApiClientDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionBuzonDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionHttpDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionResilienciaDTO;
+import com.gov.app.prueba.clteach.dto.EntradaBuzonDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pruebas de {@link BuzonSalidaService} sobre un directorio temporal, con reenvíos contra un servidor HTTP
+ * local cuyo código de respuesta cambia durante la prueba. Las pruebas del diario registran entradas sin
+ * liberarlas, de modo que el reenvío en segundo plano no las toca hasta reabrir el buzón.
+ */
+class BuzonSalidaServiceTest {
+
+    private static final long ESPERA_S = 5;
+    private static final byte[] CUERPO = "{\"orden\":\"ORD1\"}".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directorio;
+
+    private final Semaphore recibidas = new Semaphore(0);
+    private final Set<String> cuerposRecibidos = ConcurrentHashMap.newKeySet();
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private String url;
+    private volatile int codigo = 503;
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/guardar", this::responder);
+        hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.start();
+        url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/guardar";
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    @Test
+    void cerrarDuranteUnReenvioConservaElRegistroPendiente() throws Exception {
+        BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientConEsperaLarga());
+        EntradaBuzonDTO entrada = buzon.registrar(CUERPO);
+        buzon.liberar(entrada.getId());
+
+        // El reenvío recibe un 503 y queda esperando el siguiente reintento cuando se cierra el buzón
+        assertTrue(recibidas.tryAcquire(ESPERA_S, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        buzon.close();
+
+        try (BuzonSalidaService reabierto = new BuzonSalidaService(configuracion(), apiClientConEsperaLarga())) {
+            assertEquals(1, reabierto.pendientes());
+        }
+    }
+
+    @Test
+    void descartaSoloLosRegistrosRechazadosDeFormaDefinitiva() throws Exception {
+        codigo = 400;
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientSinReintentos())) {
+            EntradaBuzonDTO entrada = buzon.registrar(CUERPO);
+            buzon.liberar(entrada.getId());
+
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(ESPERA_S);
+            while (buzon.pendientes() > 0 && System.nanoTime() - limite < 0) {
+                Thread.sleep(20);
+            }
+            assertEquals(0, buzon.pendientes());
+        }
+    }
+
+    @Test
+    void unRegistroIncompletoAlFinalDelSegmentoSeDescartaAlReabrir() throws Exception {
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientSinReintentos())) {
+            for (int i = 1; i <= 3; i++) {
+                buzon.registrar(cuerpo(i));
+            }
+        }
+        Path segmento = unicoSegmento();
+        long tamanoRegistro = Files.size(segmento) / 3;
+        truncar(segmento, Files.size(segmento) - 5);
+
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientSinReintentos())) {
+            // Al reabrir, los registros válidos se copian a un segmento nuevo y el segmento dañado se elimina
+            assertEquals(2, buzon.pendientes());
+            assertEquals(2 * tamanoRegistro, Files.size(unicoSegmento()));
+            buzon.registrar(cuerpo(4));
+        }
+
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientSinReintentos())) {
+            assertEquals(3, buzon.pendientes());
+        }
+    }
+
+    @Test
+    void unRegistroConCrcInvalidoMarcaElFinalValidoDelSegmento() throws Exception {
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientSinReintentos())) {
+            for (int i = 1; i <= 3; i++) {
+                buzon.registrar(cuerpo(i));
+            }
+        }
+        Path segmento = unicoSegmento();
+        long tamanoRegistro = Files.size(segmento) / 3;
+        byte[] contenido = Files.readAllBytes(segmento);
+        contenido[(int) (tamanoRegistro + tamanoRegistro / 2)] ^= 0x01;
+        Files.write(segmento, contenido);
+
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientSinReintentos())) {
+            assertEquals(1, buzon.pendientes());
+            assertEquals(tamanoRegistro, Files.size(unicoSegmento()));
+        }
+    }
+
+    @Test
+    void losRegistrosConfirmadosNoSeRecuperan() throws Exception {
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientSinReintentos())) {
+            buzon.registrar(cuerpo(1));
+            buzon.confirmar(buzon.registrar(cuerpo(2)).getId());
+            buzon.registrar(cuerpo(3));
+        }
+
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientSinReintentos())) {
+            assertEquals(2, buzon.pendientes());
+        }
+    }
+
+    @Test
+    void losSegmentosCerradosSinPendientesSeEliminan() throws Exception {
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracionSegmentosMinimos(100),
+                apiClientSinReintentos())) {
+            List<Long> ids = List.of(buzon.registrar(cuerpo(1)).getId(), buzon.registrar(cuerpo(2)).getId(),
+                    buzon.registrar(cuerpo(3)).getId());
+            assertEquals(3, segmentos().size());
+
+            // El primer segmento se elimina; el tercero se conserva porque el segundo sigue pendiente
+            buzon.confirmar(ids.get(0));
+            buzon.confirmar(ids.get(2));
+            assertEquals(4, segmentos().size());
+
+            buzon.confirmar(ids.get(1));
+            assertEquals(1, segmentos().size());
+        }
+
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientSinReintentos())) {
+            assertEquals(0, buzon.pendientes());
+        }
+    }
+
+    @Test
+    void laCompactacionCopiaLosPendientesAlSegmentoActivo() throws Exception {
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracionSegmentosMinimos(2),
+                apiClientSinReintentos())) {
+            for (int i = 1; i <= 3; i++) {
+                buzon.registrar(cuerpo(i));
+            }
+
+            // Dos segmentos cerrados con pendientes: el siguiente reenvío los compacta
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(ESPERA_S);
+            while (segmentos().size() > 1 && System.nanoTime() - limite < 0) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, segmentos().size());
+        }
+
+        codigo = 200;
+        try (BuzonSalidaService buzon = new BuzonSalidaService(configuracion(), apiClientSinReintentos())) {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(ESPERA_S);
+            while (buzon.pendientes() > 0 && System.nanoTime() - limite < 0) {
+                Thread.sleep(20);
+            }
+            assertEquals(0, buzon.pendientes());
+        }
+        assertEquals(Set.of(texto(1), texto(2), texto(3)), cuerposRecibidos);
+    }
+
+    private ConfiguracionBuzonDTO configuracion() {
+        return ConfiguracionBuzonDTO.builder()
+                .directorio(directorio)
+                .url(url)
+                .intervaloDrenadoMs(50)
+                .edadMinimaReenvioMs(0)
+                .build();
+    }
+
+    /**
+     * Configuración en la que cada registro rota el segmento activo.
+     */
+    private ConfiguracionBuzonDTO configuracionSegmentosMinimos(int segmentosCompactacion) {
+        return ConfiguracionBuzonDTO.builder()
+                .directorio(directorio)
+                .url(url)
+                .intervaloDrenadoMs(50)
+                .edadMinimaReenvioMs(0)
+                .tamanoSegmento(1)
+                .segmentosCompactacion(segmentosCompactacion)
+                .build();
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.filter(ruta -> ruta.getFileName().toString().endsWith(".log")).toList();
+        }
+    }
+
+    private Path unicoSegmento() throws IOException {
+        List<Path> segmentos = segmentos();
+        assertEquals(1, segmentos.size());
+        return segmentos.get(0);
+    }
+
+    private static void truncar(Path segmento, long tamano) throws IOException {
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            canal.truncate(tamano);
+        }
+    }
+
+    private static String texto(int orden) {
+        return "{\"orden\":\"ORD" + orden + "\"}";
+    }
+
+    private static byte[] cuerpo(int orden) {
+        return texto(orden).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ApiClientDTO apiClientConEsperaLarga() {
+        return new ApiClientDTO(ConfiguracionHttpDTO.builder()
+                .resiliencia(ConfiguracionResilienciaDTO.builder()
+                        .maxReintentos(100)
+                        .esperaInicialMs(60_000)
+                        .esperaMaximaMs(60_000)
+                        .umbralFallosCircuito(Integer.MAX_VALUE)
+                        .build())
+                .build());
+    }
+
+    private static ApiClientDTO apiClientSinReintentos() {
+        return new ApiClientDTO(ConfiguracionHttpDTO.builder()
+                .resiliencia(ConfiguracionResilienciaDTO.builder()
+                        .maxReintentos(0)
+                        .umbralFallosCircuito(Integer.MAX_VALUE)
+                        .build())
+                .build());
+    }
+
+    private void responder(HttpExchange intercambio) throws IOException {
+        byte[] cuerpo = intercambio.getRequestBody().readAllBytes();
+        recibidas.release();
+        int respuesta = codigo;
+        if (respuesta != 200) {
+            intercambio.sendResponseHeaders(respuesta, -1);
+            intercambio.close();
+            return;
+        }
+        cuerposRecibidos.add(new String(cuerpo, StandardCharsets.UTF_8));
+        byte[] json = "{}".getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, json.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(json);
+        }
+    }
+}
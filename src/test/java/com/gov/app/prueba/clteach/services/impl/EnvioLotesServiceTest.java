@@ -0,0 +1,184 @@
+package com.gov.app.prueba.clteach.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gov.app.prueba.clteach.dto.ApiClientDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionHttpDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionLotesDTO;
+import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
+import com.gov.app.prueba.clteach.dto.RespuestaGeneralDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de {@link EnvioLotesService} contra un servidor HTTP local que registra cada lote recibido y
+ * responde un elemento por paciente con su número de orden.
+ */
+class EnvioLotesServiceTest {
+
+    private static final long ESPERA_LOTE_S = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<JsonNode> lotes = new LinkedBlockingQueue<>();
+    private final ApiClientDTO apiClient = new ApiClientDTO(ConfiguracionHttpDTO.builder().build());
+
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private volatile int respuestasOmitidas;
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/lote", this::responderLote);
+        hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.start();
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    @Test
+    void enviaElLoteAlAlcanzarElMaximoDeElementos() throws Exception {
+        try (EnvioLotesService servicio = servicio(3, Integer.MAX_VALUE, 60_000)) {
+            List<CompletableFuture<RespuestaGeneralDTO>> futuros = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                futuros.add(servicio.enviar(paciente("ORD" + i)));
+            }
+
+            JsonNode lote = lotes.poll(ESPERA_LOTE_S, TimeUnit.SECONDS);
+            assertNotNull(lote);
+            assertEquals(3, lote.size());
+            for (int i = 0; i < futuros.size(); i++) {
+                assertEquals("ORD" + (i + 1), futuros.get(i).get(ESPERA_LOTE_S, TimeUnit.SECONDS).getMessage());
+            }
+        }
+    }
+
+    @Test
+    void enviaElLoteAnteriorSiElPacienteExcedeElTamanoMaximo() throws Exception {
+        int tamano = apiClient.getEscritorPaciente().writeValueAsBytes(paciente("ORD1")).length;
+        try (EnvioLotesService servicio = servicio(100, tamano + tamano / 2, 60_000)) {
+            CompletableFuture<RespuestaGeneralDTO> primero = servicio.enviar(paciente("ORD1"));
+            CompletableFuture<RespuestaGeneralDTO> segundo = servicio.enviar(paciente("ORD2"));
+
+            JsonNode lote = lotes.poll(ESPERA_LOTE_S, TimeUnit.SECONDS);
+            assertNotNull(lote);
+            assertEquals(1, lote.size());
+            assertEquals("ORD1", primero.get(ESPERA_LOTE_S, TimeUnit.SECONDS).getMessage());
+            assertNull(lotes.poll(100, TimeUnit.MILLISECONDS));
+
+            servicio.vaciar();
+            assertEquals(1, lotes.poll(ESPERA_LOTE_S, TimeUnit.SECONDS).size());
+            assertEquals("ORD2", segundo.get(ESPERA_LOTE_S, TimeUnit.SECONDS).getMessage());
+        }
+    }
+
+    @Test
+    void enviaElLoteAlVencerLaEsperaMaxima() throws Exception {
+        long esperaMs = 200;
+        try (EnvioLotesService servicio = servicio(100, Integer.MAX_VALUE, esperaMs)) {
+            long inicio = System.nanoTime();
+            servicio.enviar(paciente("ORD1"));
+            servicio.enviar(paciente("ORD2"));
+
+            JsonNode lote = lotes.poll(ESPERA_LOTE_S, TimeUnit.SECONDS);
+            long transcurridoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            assertNotNull(lote);
+            assertEquals(2, lote.size());
+            assertTrue(transcurridoMs >= esperaMs, "El lote se envió a los " + transcurridoMs + " ms");
+        }
+    }
+
+    @Test
+    void cerrarEnviaLosPendientesYRechazaLosNuevos() throws Exception {
+        EnvioLotesService servicio = servicio(100, Integer.MAX_VALUE, 60_000);
+        CompletableFuture<RespuestaGeneralDTO> pendiente = servicio.enviar(paciente("ORD1"));
+
+        servicio.close();
+
+        assertEquals(1, lotes.poll(ESPERA_LOTE_S, TimeUnit.SECONDS).size());
+        assertEquals("ORD1", pendiente.get(ESPERA_LOTE_S, TimeUnit.SECONDS).getMessage());
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> servicio.enviar(paciente("ORD2")).get());
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    @Test
+    void fallaLosPacientesSinRespuestaEnElLote() throws Exception {
+        respuestasOmitidas = 1;
+        try (EnvioLotesService servicio = servicio(2, Integer.MAX_VALUE, 60_000)) {
+            CompletableFuture<RespuestaGeneralDTO> primero = servicio.enviar(paciente("ORD1"));
+            CompletableFuture<RespuestaGeneralDTO> segundo = servicio.enviar(paciente("ORD2"));
+
+            assertEquals("ORD1", primero.get(ESPERA_LOTE_S, TimeUnit.SECONDS).getMessage());
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> segundo.get(ESPERA_LOTE_S, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+        }
+    }
+
+    private EnvioLotesService servicio(int maxElementos, int maxBytes, long esperaMaximaMs) {
+        return new EnvioLotesService(apiClient, ConfiguracionLotesDTO.builder()
+                .urlLote("http://127.0.0.1:" + servidor.getAddress().getPort() + "/lote")
+                .maxElementos(maxElementos)
+                .maxBytes(maxBytes)
+                .esperaMaximaMs(esperaMaximaMs)
+                .build());
+    }
+
+    private static PacienteRequestDTO paciente(String numeroOrden) {
+        PacienteRequestDTO paciente = new PacienteRequestDTO();
+        paciente.setNombres("DOE JOHN");
+        paciente.setNumeroOrden(numeroOrden);
+        return paciente;
+    }
+
+    /**
+     * Registra el lote recibido y responde un arreglo con el número de orden de cada paciente, omitiendo
+     * los últimos {@link #respuestasOmitidas} elementos.
+     */
+    private void responderLote(HttpExchange intercambio) throws IOException {
+        JsonNode lote = objectMapper.readTree(intercambio.getRequestBody());
+        lotes.add(lote);
+        List<RespuestaGeneralDTO> respuestas = new ArrayList<>();
+        for (int i = 0; i < lote.size() - respuestasOmitidas; i++) {
+            respuestas.add(RespuestaGeneralDTO.builder()
+                    .status("OK")
+                    .codigo(200)
+                    .message(lote.get(i).path("numeroOrden").asText())
+                    .build());
+        }
+        byte[] cuerpo = objectMapper.writeValueAsString(respuestas).getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+}
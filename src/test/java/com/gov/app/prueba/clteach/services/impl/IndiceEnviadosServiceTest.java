@@ -0,0 +1,112 @@
+package com.gov.app.prueba.clteach.services.impl;
+
+import com.gov.app.prueba.clteach.dto.ConfiguracionIndiceDTO;
+import static com.gov.app.prueba.clteach.utils.constants.Constants.INDICE_ARCHIVO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pruebas de {@link IndiceEnviadosService} sobre un directorio temporal. La caché se deshabilita con una
+ * vigencia cero para que cada consulta llegue a la tabla mapeada.
+ */
+class IndiceEnviadosServiceTest {
+
+    private static final int ORDENES = 5_000;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void creceAlSuperarLaOcupacionYConservaLasOrdenesAlReabrir() throws IOException {
+        try (IndiceEnviadosService indice = new IndiceEnviadosService(configuracion())) {
+            for (int i = 0; i < ORDENES; i++) {
+                indice.registrar("ORD" + i, huella(i));
+            }
+            assertEquals(ORDENES, indice.tamano());
+            assertTodasRegistradas(indice);
+        }
+        // 16 ranuras iniciales de 16 bytes; tras crecer, la tabla mantiene la ocupación por debajo del 75 %
+        assertTrue(Files.size(directorio.resolve(INDICE_ARCHIVO)) > ORDENES * 16L * 4 / 3);
+
+        try (IndiceEnviadosService reabierto = new IndiceEnviadosService(configuracion())) {
+            assertEquals(ORDENES, reabierto.tamano());
+            assertTodasRegistradas(reabierto);
+        }
+    }
+
+    @Test
+    void registrarDeNuevoUnaOrdenReemplazaSuHuella() throws IOException {
+        try (IndiceEnviadosService indice = new IndiceEnviadosService(configuracion())) {
+            indice.registrar("ORD1", 10L);
+            indice.registrar("ORD1", 20L);
+
+            assertEquals(1, indice.tamano());
+            assertTrue(indice.contiene("ORD1", 20L));
+            assertFalse(indice.contiene("ORD1", 10L));
+            assertFalse(indice.contiene("ORD2", 20L));
+        }
+    }
+
+    @Test
+    void unArchivoDanadoSeReiniciaVacio() throws IOException {
+        try (IndiceEnviadosService indice = new IndiceEnviadosService(configuracion())) {
+            indice.registrar("ORD1", 10L);
+        }
+        Files.write(directorio.resolve(INDICE_ARCHIVO), new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+
+        try (IndiceEnviadosService reabierto = new IndiceEnviadosService(configuracion())) {
+            assertEquals(0, reabierto.tamano());
+            assertFalse(reabierto.contiene("ORD1", 10L));
+            reabierto.registrar("ORD1", 10L);
+            assertTrue(reabierto.contiene("ORD1", 10L));
+        }
+    }
+
+    @Test
+    void unArchivoTruncadoSeReiniciaVacio() throws IOException {
+        try (IndiceEnviadosService indice = new IndiceEnviadosService(configuracion())) {
+            indice.registrar("ORD1", 10L);
+        }
+        Path archivo = directorio.resolve(INDICE_ARCHIVO);
+        byte[] contenido = Files.readAllBytes(archivo);
+        Files.write(archivo, Arrays.copyOf(contenido, contenido.length - 1));
+
+        try (IndiceEnviadosService reabierto = new IndiceEnviadosService(configuracion())) {
+            assertEquals(0, reabierto.tamano());
+        }
+    }
+
+    @Test
+    void elDirectorioNoPuedeAbrirseDosVeces() throws IOException {
+        try (IndiceEnviadosService indice = new IndiceEnviadosService(configuracion())) {
+            assertThrows(IOException.class, () -> new IndiceEnviadosService(configuracion()));
+        }
+    }
+
+    private ConfiguracionIndiceDTO configuracion() {
+        return ConfiguracionIndiceDTO.builder()
+                .directorio(directorio)
+                .capacidadInicial(16)
+                .vigenciaCacheMs(0)
+                .build();
+    }
+
+    private static void assertTodasRegistradas(IndiceEnviadosService indice) {
+        for (int i = 0; i < ORDENES; i++) {
+            assertTrue(indice.contiene("ORD" + i, huella(i)), "ORD" + i);
+            assertFalse(indice.contiene("ORD" + i, huella(i) + 1), "ORD" + i);
+        }
+    }
+
+    private static long huella(int orden) {
+        return orden * 0x9E3779B97F4A7C15L + 1;
+    }
+}
@@ -0,0 +1,161 @@
+package com.gov.app.prueba.clteach.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gov.app.prueba.clteach.dto.ConfiguracionIndiceDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionLotesDTO;
+import com.gov.app.prueba.clteach.dto.OpcionesDirectorioDTO;
+import com.gov.app.prueba.clteach.dto.RespuestaGeneralDTO;
+import com.gov.app.prueba.clteach.dto.ResultadoDirectorioDTO;
+import com.gov.app.prueba.clteach.utils.enums.HttpStatusEnum;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pruebas del envío agrupado de los directorios procesados como lote en {@link LeerArchivoService}, contra
+ * un servidor HTTP local que registra cada lote recibido y acepta todos sus pacientes.
+ */
+class LeerArchivoServiceTest {
+
+    private static final int ARCHIVOS = 3;
+    private static final int MENSAJES_POR_ARCHIVO = 2;
+
+    @TempDir
+    Path directorio;
+
+    @TempDir
+    Path directorioIndice;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<JsonNode> lotes = new LinkedBlockingQueue<>();
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private String url;
+
+    @BeforeEach
+    void preparar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/lote", this::responderLote);
+        hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.start();
+        url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/lote";
+
+        for (int archivo = 0; archivo < ARCHIVOS; archivo++) {
+            StringBuilder contenido = new StringBuilder();
+            for (int mensaje = 0; mensaje < MENSAJES_POR_ARCHIVO; mensaje++) {
+                String orden = "ORD" + (archivo * MENSAJES_POR_ARCHIVO + mensaje);
+                contenido.append("MSH|^~\\&|LAB\r")
+                        .append("PID|1||1||DOE^JOHN\r")
+                        .append("OBR|1|").append(orden).append("\r")
+                        .append("OBX|1|NM|GLU L|1|5.5\r");
+            }
+            Files.writeString(directorio.resolve("lote" + archivo + ".txt"), contenido, StandardCharsets.US_ASCII);
+        }
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    @Test
+    void losMensajesDeTodosLosArchivosSeEnvianEnUnMismoLote() throws Exception {
+        ResultadoDirectorioDTO resultado;
+        try (LeerArchivoService servicio = new LeerArchivoService(null)) {
+            resultado = servicio.leerDirectorio(directorio, opciones());
+        }
+
+        assertEquals(ARCHIVOS, resultado.getExitosos());
+        assertEquals(1, lotes.size());
+        assertEquals(ordenesEsperadas(), ordenesRecibidas());
+    }
+
+    @Test
+    void lasOrdenesYaAceptadasNoSeVuelvenAEnviar() throws Exception {
+        try (IndiceEnviadosService indice = new IndiceEnviadosService(ConfiguracionIndiceDTO.builder()
+                .directorio(directorioIndice)
+                .build());
+             LeerArchivoService servicio = new LeerArchivoService(null, indice)) {
+            assertEquals(ARCHIVOS, servicio.leerDirectorio(directorio, opciones()).getExitosos());
+            assertEquals(ordenesEsperadas(), ordenesRecibidas());
+
+            lotes.clear();
+            assertEquals(ARCHIVOS, servicio.leerDirectorio(directorio, opciones()).getExitosos());
+            assertEquals(0, lotes.size());
+        }
+    }
+
+    /**
+     * Opciones con un lote que solo se envía al reunir los mensajes de todos los archivos.
+     */
+    private OpcionesDirectorioDTO opciones() {
+        return OpcionesDirectorioDTO.builder()
+                .concurrencia(ARCHIVOS)
+                .lote(true)
+                .envioLotes(ConfiguracionLotesDTO.builder()
+                        .urlLote(url)
+                        .maxElementos(ARCHIVOS * MENSAJES_POR_ARCHIVO)
+                        .esperaMaximaMs(60_000)
+                        .build())
+                .build();
+    }
+
+    private static Set<String> ordenesEsperadas() {
+        Set<String> ordenes = new HashSet<>();
+        for (int i = 0; i < ARCHIVOS * MENSAJES_POR_ARCHIVO; i++) {
+            ordenes.add("ORD" + i);
+        }
+        return ordenes;
+    }
+
+    private Set<String> ordenesRecibidas() {
+        Set<String> ordenes = new HashSet<>();
+        for (JsonNode lote : lotes) {
+            lote.forEach(paciente -> ordenes.add(paciente.path("numeroOrden").asText()));
+        }
+        return ordenes;
+    }
+
+    /**
+     * Registra el lote recibido y responde un arreglo que acepta cada paciente.
+     */
+    private void responderLote(HttpExchange intercambio) throws IOException {
+        JsonNode lote = objectMapper.readTree(intercambio.getRequestBody());
+        lotes.add(lote);
+        List<RespuestaGeneralDTO> respuestas = new ArrayList<>();
+        for (JsonNode paciente : lote) {
+            respuestas.add(RespuestaGeneralDTO.builder()
+                    .status(HttpStatusEnum.CREATED.getReasonPhrase().toUpperCase())
+                    .codigo(HttpStatusEnum.CREATED.getCode())
+                    .message(paciente.path("numeroOrden").asText())
+                    .build());
+        }
+        byte[] cuerpo = objectMapper.writeValueAsString(respuestas).getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.gov.app.prueba.clteach.services.impl;
+
+import com.gov.app.prueba.clteach.dto.PacienteRequestDTO;
+import com.gov.app.prueba.clteach.utils.enums.PrioridadEnum;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de la extracción de la prioridad y de la validez de los mensajes en {@link ProcesarContenidoService}.
+ * Los segmentos ignorados y el ORC no deciden la validez: un archivo sin PID, OBR u OBX completos se rechaza.
+ */
+class ProcesarContenidoServiceTest {
+
+    private final ProcesarContenidoService servicio = new ProcesarContenidoService();
+
+    @Test
+    void orcAlFinalNoInvalidaElMensaje() {
+        PacienteRequestDTO request = servicio.procesarContenido(new String[]{
+            "MSH|^~\\&|LAB",
+            "PID|1||1||DOE^JOHN",
+            "OBR|1|ORD1",
+            "OBX|1|NM|GLU L|1|5",
+            "ORC|NW|ORD1|||||^^^^^S"
+        });
+
+        assertEquals("ORD1", request.getNumeroOrden());
+        assertEquals(PrioridadEnum.URGENTE, request.getPrioridad());
+    }
+
+    @Test
+    void soloOrcNoEsUnMensajeValido() {
+        assertThrows(IllegalStateException.class, () -> servicio.procesarContenido(new String[]{
+            "MSH|^~\\&|LAB",
+            "ORC|NW|ORD1|||||^^^^^S"
+        }));
+    }
+
+    @Test
+    void soloSegmentosIgnoradosNoEsUnMensajeValido() {
+        assertThrows(IllegalStateException.class, () -> servicio.procesarContenido(new String[]{
+            "MSH|^~\\&|LAB",
+            "EVN|A01",
+            "PV1|1|O",
+            "NTE|1||comentario"
+        }));
+    }
+
+    @Test
+    void segmentosIgnoradosYIncompletosNoSonUnMensajeValido() {
+        assertThrows(IllegalStateException.class, () -> servicio.procesarContenido(new String[]{
+            "MSH|^~\\&|LAB",
+            "PV1|1|O",
+            "PID|1||1",
+            "OBR|1",
+            "OBX|1|NM",
+            "NTE|1||comentario"
+        }));
+    }
+
+    @Test
+    void segmentosIgnoradosTrasElUltimoObxNoInvalidanElMensaje() {
+        PacienteRequestDTO request = servicio.procesarContenido(new String[]{
+            "MSH|^~\\&|LAB",
+            "PID|1||1||DOE^JOHN",
+            "PV1|1|O",
+            "OBR|1|ORD1",
+            "OBX|1|NM|GLU L|1|5",
+            "NTE|1||comentario",
+            "SPM|1"
+        });
+
+        assertEquals("ORD1", request.getNumeroOrden());
+    }
+
+    @Test
+    void conservaLaPrioridadMasUrgente() {
+        PacienteRequestDTO request = servicio.procesarContenido(new String[]{
+            "MSH|^~\\&|LAB",
+            "PID|1||1||DOE^JOHN",
+            "ORC|NW|ORD1|||||^^^^^A",
+            "OBR|1|ORD1||GLU|R",
+            "OBX|1|NM|GLU L|1|5"
+        });
+
+        assertEquals(PrioridadEnum.PRIORITARIA, request.getPrioridad());
+    }
+
+    @Test
+    void leePrioridadDeObr27() {
+        PacienteRequestDTO request = servicio.procesarContenido(new String[]{
+            "MSH|^~\\&|LAB",
+            "PID|1||1||DOE^JOHN",
+            "OBR|1|ORD1|||||||||||||||||||||||||^^^^^STAT",
+            "OBX|1|NM|GLU L|1|5"
+        });
+
+        assertEquals(PrioridadEnum.URGENTE, request.getPrioridad());
+    }
+
+    @Test
+    void sinPrioridadEsRutina() {
+        PacienteRequestDTO request = servicio.procesarContenido(new String[]{
+            "MSH|^~\\&|LAB",
+            "PID|1||1||DOE^JOHN",
+            "OBR|1|ORD1",
+            "OBX|1|NM|GLU L|1|5"
+        });
+
+        assertEquals(PrioridadEnum.RUTINA, request.getPrioridad());
+    }
+}
@@ -0,0 +1,217 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.ConfiguracionNodosDTO;
+import com.gov.app.prueba.clteach.dto.EstadoNodoDTO;
+import com.gov.app.prueba.clteach.utils.enums.EstadoCircuitoEnum;
+import com.gov.app.prueba.clteach.utils.exceptions.CircuitoAbiertoException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de {@link BalanceadorNodos}: expulsión de nodos por fallas consecutivas, paso del reintento a otro
+ * nodo, solicitud de prueba al terminar la expulsión y reincorporación por verificación de salud.
+ */
+class BalanceadorNodosTest {
+
+    private static final String NODO_A = "http://api-a:8001";
+    private static final String NODO_B = "http://api-b:8001";
+    private static final int UMBRAL_FALLOS = 3;
+
+    @Test
+    void rechazaUnaConfiguracionSinNodos() {
+        ConfiguracionNodosDTO configuracion = ConfiguracionNodosDTO.builder().urls(List.of()).build();
+        assertThrows(IllegalArgumentException.class, () -> new BalanceadorNodos(configuracion));
+    }
+
+    @Test
+    void reparteLasSolicitudesEntreLosNodosDisponibles() {
+        BalanceadorNodos balanceador = balanceador(60_000L);
+        Set<String> usados = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            NodoApi nodo = balanceador.seleccionar(null);
+            usados.add(nodo.getUrl());
+            nodo.finalizar(false);
+        }
+        assertEquals(Set.of(NODO_A, NODO_B), usados);
+    }
+
+    @Test
+    void elReintentoPasaAOtroNodo() {
+        BalanceadorNodos balanceador = balanceador(60_000L);
+        for (int i = 0; i < 20; i++) {
+            NodoApi primero = balanceador.seleccionar(null);
+            primero.finalizar(false);
+            NodoApi reintento = balanceador.seleccionar(primero);
+            reintento.finalizar(false);
+            assertNotSame(primero, reintento);
+        }
+    }
+
+    @Test
+    void sinAlternativaElReintentoVuelveAlNodoAnterior() {
+        BalanceadorNodos balanceador = balanceador(60_000L);
+        NodoApi caido = nodo(balanceador, NODO_B);
+        expulsar(caido);
+
+        NodoApi anterior = balanceador.seleccionar(null);
+        anterior.finalizar(false);
+        assertSame(anterior, balanceador.seleccionar(anterior));
+        assertFalse(balanceador.hayAlternativa(anterior));
+    }
+
+    @Test
+    void unNodoConFallasConsecutivasQuedaExpulsado() {
+        BalanceadorNodos balanceador = balanceador(60_000L);
+        NodoApi caido = nodo(balanceador, NODO_B);
+        expulsar(caido);
+
+        assertEquals(EstadoCircuitoEnum.ABIERTO, estado(balanceador, NODO_B).getEstado());
+        assertEquals(UMBRAL_FALLOS, estado(balanceador, NODO_B).getFallidas());
+        for (int i = 0; i < 20; i++) {
+            NodoApi nodo = balanceador.seleccionar(null);
+            nodo.finalizar(false);
+            assertEquals(NODO_A, nodo.getUrl());
+        }
+    }
+
+    @Test
+    void unExitoIntermedioReiniciaLasFallasConsecutivas() {
+        BalanceadorNodos balanceador = balanceador(60_000L);
+        NodoApi nodo = nodo(balanceador, NODO_B);
+        for (int i = 0; i < UMBRAL_FALLOS - 1; i++) {
+            nodo.iniciar();
+            nodo.finalizar(true);
+        }
+        nodo.iniciar();
+        nodo.finalizar(false);
+        nodo.iniciar();
+        nodo.finalizar(true);
+
+        assertEquals(EstadoCircuitoEnum.CERRADO, estado(balanceador, NODO_B).getEstado());
+    }
+
+    @Test
+    void conTodosLosNodosExpulsadosLaApiNoEstaDisponible() {
+        BalanceadorNodos balanceador = balanceador(60_000L);
+        expulsar(nodo(balanceador, NODO_A));
+        expulsar(nodo(balanceador, NODO_B));
+
+        assertFalse(balanceador.hayDisponible());
+        assertThrows(CircuitoAbiertoException.class, () -> balanceador.seleccionar(null));
+    }
+
+    @Test
+    void terminadaLaExpulsionElNodoRecibeUnaUnicaSolicitudDePrueba() {
+        BalanceadorNodos balanceador = balanceador(0L);
+        NodoApi caido = nodo(balanceador, NODO_B);
+        expulsar(caido);
+
+        NodoApi prueba = balanceador.seleccionar(null);
+        assertSame(caido, prueba);
+        assertEquals(EstadoCircuitoEnum.SEMIABIERTO, estado(balanceador, NODO_B).getEstado());
+
+        // Mientras la prueba está en curso, el resto de las solicitudes van al nodo disponible
+        NodoApi otra = balanceador.seleccionar(null);
+        otra.finalizar(false);
+        assertEquals(NODO_A, otra.getUrl());
+
+        prueba.finalizar(false);
+        assertEquals(EstadoCircuitoEnum.CERRADO, estado(balanceador, NODO_B).getEstado());
+        assertTrue(balanceador.hayAlternativa(nodo(balanceador, NODO_A)));
+    }
+
+    @Test
+    void unaPruebaFallidaVuelveAExpulsarElNodo() {
+        BalanceadorNodos balanceador = balanceador(0L);
+        NodoApi caido = nodo(balanceador, NODO_B);
+        expulsar(caido);
+
+        NodoApi prueba = balanceador.seleccionar(null);
+        assertSame(caido, prueba);
+        prueba.finalizar(true);
+
+        assertEquals(EstadoCircuitoEnum.ABIERTO, estado(balanceador, NODO_B).getEstado());
+    }
+
+    @Test
+    void unaVerificacionDeSaludExitosaReincorporaElNodo() {
+        BalanceadorNodos balanceador = balanceador(60_000L);
+        NodoApi caido = nodo(balanceador, NODO_B);
+        expulsar(caido);
+
+        caido.registrarSalud(true);
+        assertEquals(EstadoCircuitoEnum.CERRADO, estado(balanceador, NODO_B).getEstado());
+        assertTrue(balanceador.hayAlternativa(nodo(balanceador, NODO_A)));
+    }
+
+    @Test
+    void unaVerificacionDeSaludNoBorraLasFallasDeLasSolicitudes() {
+        BalanceadorNodos balanceador = balanceador(60_000L);
+        NodoApi nodo = nodo(balanceador, NODO_B);
+        for (int i = 0; i < UMBRAL_FALLOS - 1; i++) {
+            nodo.iniciar();
+            nodo.finalizar(true);
+        }
+        nodo.registrarSalud(true);
+        nodo.iniciar();
+        nodo.finalizar(true);
+
+        assertEquals(EstadoCircuitoEnum.ABIERTO, estado(balanceador, NODO_B).getEstado());
+    }
+
+    @Test
+    void lasVerificacionesDeSaludFallidasExpulsanElNodo() {
+        BalanceadorNodos balanceador = balanceador(60_000L);
+        NodoApi nodo = nodo(balanceador, NODO_A);
+        for (int i = 0; i < UMBRAL_FALLOS; i++) {
+            nodo.registrarSalud(false);
+        }
+
+        assertEquals(EstadoCircuitoEnum.ABIERTO, estado(balanceador, NODO_A).getEstado());
+        assertEquals(0L, estado(balanceador, NODO_A).getFallidas());
+    }
+
+    private static BalanceadorNodos balanceador(long expulsionMs) {
+        return new BalanceadorNodos(ConfiguracionNodosDTO.builder()
+                .urls(List.of(NODO_A, NODO_B + "/"))
+                .umbralFallos(UMBRAL_FALLOS)
+                .expulsionMs(expulsionMs)
+                .build());
+    }
+
+    /**
+     * Obtiene un nodo del balanceador por su URL, seleccionándolo hasta que aparezca.
+     */
+    private static NodoApi nodo(BalanceadorNodos balanceador, String url) {
+        for (int i = 0; i < 1_000; i++) {
+            NodoApi nodo = balanceador.seleccionar(null);
+            nodo.finalizar(false);
+            if (nodo.getUrl().equals(url)) {
+                return nodo;
+            }
+        }
+        throw new AssertionError("El balanceador no asignó solicitudes a " + url);
+    }
+
+    private static void expulsar(NodoApi nodo) {
+        for (int i = 0; i < UMBRAL_FALLOS; i++) {
+            nodo.iniciar();
+            nodo.finalizar(true);
+        }
+    }
+
+    private static EstadoNodoDTO estado(BalanceadorNodos balanceador, String url) {
+        return balanceador.estados().stream()
+                .filter(estado -> estado.getUrl().equals(url))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,91 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.utils.enums.PrioridadEnum;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de {@link CanalizacionEtapas}: todos los elementos salen de la canalización y {@code esperar()}
+ * termina aunque una etapa sea interrumpida o el destino falle.
+ */
+class CanalizacionEtapasTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+    private static final int ELEMENTOS = 20;
+
+    private final Set<Integer> entregados = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> fallidos = ConcurrentHashMap.newKeySet();
+
+    @Test
+    void entregaTodosLosElementos() {
+        ejecutar(new CanalizacionEtapas<Integer>(entregados::add, (e, error) -> fallidos.add(e))
+                .agregarEtapa("uno", 2, 4, e -> true)
+                .agregarEtapa("dos", 2, 4, e -> e % 2 == 0)
+                .agregarEtapaOrdenada("tres", 2, 4, e -> e % 3, e -> PrioridadEnum.RUTINA, e -> true));
+
+        assertEquals(ELEMENTOS, entregados.size());
+        assertEquals(0, fallidos.size());
+    }
+
+    @Test
+    void terminaAunqueUnHiloDeUnaEtapaSeaInterrumpido() {
+        ejecutar(new CanalizacionEtapas<Integer>(entregados::add, (e, error) -> fallidos.add(e))
+                .agregarEtapa("uno", 2, 4, e -> {
+                    if (e == 3) {
+                        throw new InterruptedException();
+                    }
+                    return true;
+                })
+                .agregarEtapa("dos", 1, 4, e -> true));
+
+        assertEquals(ELEMENTOS, entregados.size());
+        assertEquals(Set.of(3), fallidos);
+    }
+
+    @Test
+    void terminaAunqueLaUltimaEtapaOrdenadaSeaInterrumpida() {
+        ejecutar(new CanalizacionEtapas<Integer>(entregados::add, (e, error) -> fallidos.add(e))
+                .agregarEtapa("uno", 2, 4, e -> true)
+                .agregarEtapaOrdenada("dos", 2, 4, e -> e % 2, e -> PrioridadEnum.RUTINA, e -> {
+                    if (e % 5 == 0) {
+                        throw new InterruptedException();
+                    }
+                    return true;
+                }));
+
+        assertEquals(ELEMENTOS, entregados.size());
+        assertEquals(Set.of(0, 5, 10, 15), fallidos);
+    }
+
+    @Test
+    void terminaAunqueElDestinoFalle() {
+        ejecutar(new CanalizacionEtapas<Integer>(e -> {
+            if (e == 7) {
+                throw new IllegalStateException("destino");
+            }
+            entregados.add(e);
+        }, (e, error) -> fallidos.add(e))
+                .agregarEtapa("uno", 1, 4, e -> true)
+                .agregarEtapa("dos", 1, 4, e -> true));
+
+        assertEquals(ELEMENTOS - 1, entregados.size());
+        assertEquals(0, fallidos.size());
+    }
+
+    private static void ejecutar(CanalizacionEtapas<Integer> canalizacion) {
+        assertTimeoutPreemptively(ESPERA, () -> {
+            try (canalizacion) {
+                canalizacion.iniciar();
+                for (int i = 0; i < ELEMENTOS; i++) {
+                    canalizacion.enviar(i);
+                }
+                canalizacion.cerrarEntrada();
+                canalizacion.esperar();
+            }
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de {@link CubetaTokens}. Las tasas son bajas, de modo que lo que la cubeta recupera mientras dura
+ * la prueba es despreciable frente a los intervalos comprobados.
+ */
+class CubetaTokensTest {
+
+    private static final long INTERVALO_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void laRafagaSeConsumeDeInmediatoYLaSiguienteReservaEspera() {
+        CubetaTokens cubeta = new CubetaTokens(10, 5);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, cubeta.reservar(1, 0));
+        }
+        assertEquals(-1L, cubeta.reservar(1, 0));
+
+        long espera = cubeta.reservar(1, TimeUnit.SECONDS.toNanos(1));
+        assertTrue(espera > INTERVALO_NANOS / 2 && espera <= INTERVALO_NANOS, "Espera de " + espera + " ns");
+    }
+
+    @Test
+    void lasReservasConEsperaSonTurnosConsecutivos() {
+        CubetaTokens cubeta = new CubetaTokens(10, 1);
+        assertEquals(0L, cubeta.reservar(1, 0));
+        long primera = cubeta.reservar(1, TimeUnit.SECONDS.toNanos(1));
+        long segunda = cubeta.reservar(1, TimeUnit.SECONDS.toNanos(1));
+
+        long diferencia = segunda - primera;
+        assertTrue(Math.abs(diferencia - INTERVALO_NANOS) < INTERVALO_NANOS / 10, "Diferencia de " + diferencia + " ns");
+    }
+
+    @Test
+    void devolverUnaReservaLiberaSuTurno() {
+        CubetaTokens cubeta = new CubetaTokens(10, 2);
+        assertEquals(0L, cubeta.reservar(1, 0));
+        assertEquals(0L, cubeta.reservar(1, 0));
+        assertEquals(-1L, cubeta.reservar(1, 0));
+
+        cubeta.devolver(1);
+        assertEquals(0L, cubeta.reservar(1, 0));
+        assertEquals(-1L, cubeta.reservar(1, 0));
+    }
+
+    @Test
+    void unaReservaMayorQueLaRafagaSoloEsperaQueLaCubetaEsteLlena() {
+        CubetaTokens cubeta = new CubetaTokens(10, 2);
+        assertEquals(0L, cubeta.reservar(5, 0));
+        assertEquals(-1L, cubeta.reservar(1, 0));
+
+        long espera = cubeta.reservar(1, TimeUnit.SECONDS.toNanos(10));
+        assertTrue(espera > 3 * INTERVALO_NANOS && espera <= 4 * INTERVALO_NANOS, "Espera de " + espera + " ns");
+    }
+
+    @Test
+    void unConsumoPosteriorDejaLaCubetaEnNegativo() {
+        CubetaTokens cubeta = new CubetaTokens(10, 5);
+        cubeta.consumir(10);
+
+        // Diez unidades consumidas y una reservada, menos la ráfaga de cinco: seis intervalos
+        long espera = cubeta.reservar(1, TimeUnit.SECONDS.toNanos(10));
+        assertTrue(espera > 5 * INTERVALO_NANOS && espera <= 6 * INTERVALO_NANOS, "Espera de " + espera + " ns");
+    }
+
+    @Test
+    void losHilosConcurrentesNoExcedenLaRafaga() throws Exception {
+        CubetaTokens cubeta = new CubetaTokens(1, 100);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> resultados = new ArrayList<>();
+            for (int h = 0; h < 8; h++) {
+                resultados.add(hilos.submit(() -> {
+                    salida.await();
+                    int reservadas = 0;
+                    for (int i = 0; i < 50; i++) {
+                        if (cubeta.reservar(1, 0) == 0L) {
+                            reservadas++;
+                        }
+                    }
+                    return reservadas;
+                }));
+            }
+            salida.countDown();
+            int total = 0;
+            for (Future<Integer> resultado : resultados) {
+                total += resultado.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(100, total);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+}
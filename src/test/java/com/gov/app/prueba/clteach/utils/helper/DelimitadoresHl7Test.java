@@ -0,0 +1,74 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de la lectura de MSH-1 y MSH-2 y de la clasificación de caracteres en {@link DelimitadoresHl7}.
+ */
+class DelimitadoresHl7Test {
+
+    @Test
+    void reconoceLosDelimitadoresEstandar() {
+        assertSame(DelimitadoresHl7.ESTANDAR, DelimitadoresHl7.desdeEncabezado("MSH|^~\\&|LAB", nuevos()));
+    }
+
+    @Test
+    void leeLosDelimitadoresPropios() {
+        DelimitadoresHl7 delimitadores = DelimitadoresHl7.desdeEncabezado("MSH#$*@%#LAB", DelimitadoresHl7.ESTANDAR);
+
+        assertEquals('#', delimitadores.getCampo());
+        assertEquals('$', delimitadores.getComponente());
+        assertEquals('*', delimitadores.getRepeticion());
+        assertEquals('@', delimitadores.getEscape());
+        assertEquals('%', delimitadores.getSubcomponente());
+        assertEquals(DelimitadoresHl7.CAMPO, delimitadores.clase('#'));
+        assertEquals(DelimitadoresHl7.COMPONENTE, delimitadores.clase('$'));
+        assertEquals(DelimitadoresHl7.REPETICION, delimitadores.clase('*'));
+        assertEquals(DelimitadoresHl7.ESCAPE, delimitadores.clase('@'));
+        assertEquals(DelimitadoresHl7.SUBCOMPONENTE, delimitadores.clase('%'));
+        assertEquals(DelimitadoresHl7.LITERAL, delimitadores.clase('|'));
+        assertEquals(DelimitadoresHl7.LITERAL, delimitadores.clase('\\'));
+        assertEquals(DelimitadoresHl7.LITERAL, delimitadores.clase('é'));
+    }
+
+    @Test
+    void resuelveLosEscapesDeDelimitador() {
+        DelimitadoresHl7 delimitadores = DelimitadoresHl7.desdeEncabezado("MSH#$*@%#LAB", DelimitadoresHl7.ESTANDAR);
+
+        assertEquals('#', delimitadores.delimitadorEscapado('F'));
+        assertEquals('$', delimitadores.delimitadorEscapado('S'));
+        assertEquals('*', delimitadores.delimitadorEscapado('R'));
+        assertEquals('%', delimitadores.delimitadorEscapado('T'));
+        assertEquals('@', delimitadores.delimitadorEscapado('E'));
+        assertEquals(0, delimitadores.delimitadorEscapado('X'));
+    }
+
+    @Test
+    void losCaracteresOmitidosDeMsh2QuedanSinDeclarar() {
+        DelimitadoresHl7 delimitadores = DelimitadoresHl7.desdeEncabezado("MSH|^~|LAB", DelimitadoresHl7.ESTANDAR);
+
+        assertEquals('^', delimitadores.getComponente());
+        assertEquals('~', delimitadores.getRepeticion());
+        assertEquals(0, delimitadores.getEscape());
+        assertEquals(0, delimitadores.getSubcomponente());
+        assertEquals(0, delimitadores.delimitadorEscapado('T'));
+        assertEquals(DelimitadoresHl7.LITERAL, delimitadores.clase('\\'));
+        assertEquals(DelimitadoresHl7.LITERAL, delimitadores.clase('&'));
+    }
+
+    @Test
+    void conservaLosVigentesSiElEncabezadoNoEsValido() {
+        DelimitadoresHl7 actuales = nuevos();
+
+        assertSame(actuales, DelimitadoresHl7.desdeEncabezado("MSH", actuales));
+        assertSame(actuales, DelimitadoresHl7.desdeEncabezado("MSH|A~\\&|LAB", actuales));
+        assertSame(actuales, DelimitadoresHl7.desdeEncabezado("MSH ^~\\&|LAB", actuales));
+        assertSame(actuales, DelimitadoresHl7.desdeEncabezado("MSH#$*@%#LAB", actuales));
+    }
+
+    private static DelimitadoresHl7 nuevos() {
+        return DelimitadoresHl7.desdeEncabezado("MSH#$*@%#LAB", DelimitadoresHl7.ESTANDAR);
+    }
+}
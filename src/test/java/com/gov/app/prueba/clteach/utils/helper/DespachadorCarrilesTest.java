@@ -0,0 +1,181 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.utils.enums.PrioridadEnum;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de {@link DespachadorCarriles}: orden por clave, prioridad con envejecimiento, capacidad por
+ * prioridad y cierre. Las pruebas de orden detienen primero el carril con una tarea que espera un cerrojo,
+ * de modo que el orden de ejecución depende solo del despachador.
+ */
+class DespachadorCarrilesTest {
+
+    private static final long ESPERA_S = 5;
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final List<String> ejecutadas = new ArrayList<>();
+    private DespachadorCarriles despachador;
+
+    @AfterEach
+    void cerrar() {
+        liberar.countDown();
+        if (despachador != null) {
+            despachador.close();
+        }
+    }
+
+    @Test
+    void lasTareasDeUnaClaveSeEjecutanEnOrdenDeLlegadaAunqueCambieLaPrioridad() throws Exception {
+        despachador = new DespachadorCarriles("prueba-", 4, 16, 0L);
+        detenerCarrilDe("ORD1");
+        PrioridadEnum[] prioridades = {PrioridadEnum.RUTINA, PrioridadEnum.URGENTE, PrioridadEnum.PRIORITARIA,
+            PrioridadEnum.URGENTE, PrioridadEnum.RUTINA};
+        List<CompletableFuture<String>> futuros = new ArrayList<>();
+        for (int i = 0; i < prioridades.length; i++) {
+            futuros.add(despachar("ORD1", prioridades[i], "ORD1-" + i));
+        }
+
+        liberar.countDown();
+        esperar(futuros);
+        assertEquals(List.of("ORD1-0", "ORD1-1", "ORD1-2", "ORD1-3", "ORD1-4"), ejecutadas);
+    }
+
+    @Test
+    void lasTareasDeUnaClaveNuncaSeEjecutanALaVez() throws Exception {
+        despachador = new DespachadorCarriles("prueba-", 4, 8);
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        ExecutorService productores = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CompletableFuture<Void>>> despachos = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                despachos.add(productores.submit(() -> despachador.despachar("ORD1", PrioridadEnum.RUTINA, () -> {
+                    maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                    Thread.sleep(1);
+                    enCurso.decrementAndGet();
+                    return null;
+                })));
+            }
+            for (Future<CompletableFuture<Void>> despacho : despachos) {
+                despacho.get(ESPERA_S, TimeUnit.SECONDS).get(ESPERA_S, TimeUnit.SECONDS);
+            }
+        } finally {
+            productores.shutdownNow();
+        }
+        assertEquals(1, maximo.get());
+    }
+
+    @Test
+    void atiendePrimeroLaPrioridadMasUrgente() throws Exception {
+        despachador = new DespachadorCarriles("prueba-", 1, 16, 0L);
+        detenerCarrilDe("bloqueo");
+        List<CompletableFuture<String>> futuros = new ArrayList<>();
+        futuros.add(despachar("R1", PrioridadEnum.RUTINA, "R1"));
+        futuros.add(despachar("P1", PrioridadEnum.PRIORITARIA, "P1"));
+        futuros.add(despachar("R2", PrioridadEnum.RUTINA, "R2"));
+        futuros.add(despachar("U1", PrioridadEnum.URGENTE, "U1"));
+
+        liberar.countDown();
+        esperar(futuros);
+        assertEquals(List.of("U1", "P1", "R1", "R2"), ejecutadas);
+    }
+
+    @Test
+    void unaTareaDeRutinaQueEsperoVariosIntervalosPasaAntesQueUnaUrgenteNueva() throws Exception {
+        despachador = new DespachadorCarriles("prueba-", 1, 16, 50L);
+        detenerCarrilDe("bloqueo");
+        List<CompletableFuture<String>> futuros = new ArrayList<>();
+        futuros.add(despachar("R1", PrioridadEnum.RUTINA, "R1"));
+        // La tarea de rutina espera cuatro intervalos, más que los dos niveles que la separan de la urgente
+        Thread.sleep(200);
+        futuros.add(despachar("U1", PrioridadEnum.URGENTE, "U1"));
+
+        liberar.countDown();
+        esperar(futuros);
+        assertEquals(List.of("R1", "U1"), ejecutadas);
+    }
+
+    @Test
+    void laCapacidadSeAcotaPorPrioridad() throws Exception {
+        despachador = new DespachadorCarriles("prueba-", 1, 1, 0L);
+        detenerCarrilDe("bloqueo");
+        ExecutorService productor = Executors.newSingleThreadExecutor();
+        try {
+            // El cupo de rutina está ocupado por la tarea detenida: un segundo despacho de rutina espera
+            Future<CompletableFuture<String>> rutina = productor.submit(
+                    () -> despachar("R1", PrioridadEnum.RUTINA, "R1"));
+            assertThrows(TimeoutException.class, () -> rutina.get(100, TimeUnit.MILLISECONDS));
+
+            // El cupo urgente sigue libre
+            CompletableFuture<String> urgente = despachar("U1", PrioridadEnum.URGENTE, "U1");
+            assertEquals(2, despachador.getPendientes());
+
+            liberar.countDown();
+            esperar(List.of(urgente, rutina.get(ESPERA_S, TimeUnit.SECONDS)));
+        } finally {
+            productor.shutdownNow();
+        }
+        assertEquals(List.of("U1", "R1"), ejecutadas);
+    }
+
+    @Test
+    void cerrarCancelaLasTareasQueNoComenzaron() throws Exception {
+        despachador = new DespachadorCarriles("prueba-", 1, 16, 0L);
+        CompletableFuture<String> detenida = detenerCarrilDe("bloqueo");
+        CompletableFuture<String> pendiente = despachar("R1", PrioridadEnum.RUTINA, "R1");
+
+        despachador.close();
+        liberar.countDown();
+
+        assertEquals("bloqueo", detenida.get(ESPERA_S, TimeUnit.SECONDS));
+        assertThrows(CancellationException.class, () -> pendiente.get(ESPERA_S, TimeUnit.SECONDS));
+        assertFalse(ejecutadas.contains("R1"));
+        assertTrue(pendiente.isCancelled());
+    }
+
+    /**
+     * Despacha una tarea de rutina que espera el cerrojo, y espera a que el carril de la clave la tome.
+     */
+    private CompletableFuture<String> detenerCarrilDe(String clave) throws InterruptedException {
+        CountDownLatch tomada = new CountDownLatch(1);
+        CompletableFuture<String> futuro = despachador.despachar(clave, PrioridadEnum.RUTINA, () -> {
+            tomada.countDown();
+            liberar.await();
+            return clave;
+        });
+        assertTrue(tomada.await(ESPERA_S, TimeUnit.SECONDS));
+        return futuro;
+    }
+
+    private CompletableFuture<String> despachar(String clave, PrioridadEnum prioridad, String nombre)
+            throws InterruptedException {
+        return despachador.despachar(clave, prioridad, () -> {
+            synchronized (ejecutadas) {
+                ejecutadas.add(nombre);
+            }
+            return nombre;
+        });
+    }
+
+    private static void esperar(List<CompletableFuture<String>> futuros) throws Exception {
+        for (CompletableFuture<String> futuro : futuros) {
+            futuro.get(ESPERA_S, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.ExamenDTO;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de {@link HuellaPaciente}: la huella de los exámenes no depende de su orden ni de los espacios
+ * alrededor de cada campo, y cambia con cualquier código o resultado.
+ */
+class HuellaPacienteTest {
+
+    @Test
+    void laHuellaNoDependeDelOrdenDeLosExamenes() {
+        List<ExamenDTO> examenes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            examenes.add(examen("COD" + i, String.valueOf(i * 7)));
+        }
+        long huella = HuellaPaciente.huellaExamenes(examenes);
+
+        for (int semilla = 0; semilla < 20; semilla++) {
+            List<ExamenDTO> mezclados = new ArrayList<>(examenes);
+            Collections.shuffle(mezclados, new Random(semilla));
+            assertEquals(huella, HuellaPaciente.huellaExamenes(mezclados));
+        }
+    }
+
+    @Test
+    void laHuellaIgnoraLosEspaciosAlrededorDeCadaCampo() {
+        assertEquals(
+                HuellaPaciente.huellaExamenes(List.of(examen("GLU", "99"), examen("HB", "12.5"))),
+                HuellaPaciente.huellaExamenes(List.of(examen(" GLU ", "99\t"), examen("HB", " 12.5"))));
+    }
+
+    @Test
+    void laHuellaCambiaConCualquierCodigoOResultado() {
+        long huella = HuellaPaciente.huellaExamenes(List.of(examen("GLU", "99"), examen("HB", "12.5")));
+
+        assertNotEquals(huella, HuellaPaciente.huellaExamenes(List.of(examen("GLU", "98"), examen("HB", "12.5"))));
+        assertNotEquals(huella, HuellaPaciente.huellaExamenes(List.of(examen("GLC", "99"), examen("HB", "12.5"))));
+        assertNotEquals(huella, HuellaPaciente.huellaExamenes(List.of(examen("GLU", "99"))));
+        assertNotEquals(huella, HuellaPaciente.huellaExamenes(
+                List.of(examen("GLU", "99"), examen("HB", "12.5"), examen("HB", "12.5"))));
+    }
+
+    @Test
+    void laHuellaDistingueElLimiteEntreCodigoYResultado() {
+        assertNotEquals(
+                HuellaPaciente.huellaExamenes(List.of(examen("GLU9", "9"))),
+                HuellaPaciente.huellaExamenes(List.of(examen("GLU", "99"))));
+    }
+
+    @Test
+    void unaListaVaciaYUnaNulaTienenLaMismaHuella() {
+        assertEquals(HuellaPaciente.huellaExamenes(null), HuellaPaciente.huellaExamenes(List.of()));
+        assertNotEquals(HuellaPaciente.huellaExamenes(List.of()), HuellaPaciente.huellaExamenes(List.of(examen("", ""))));
+    }
+
+    private static ExamenDTO examen(String codigo, String resultado) {
+        return ExamenDTO.builder().codigoExamen(codigo).resultadoExamen(resultado).build();
+    }
+}
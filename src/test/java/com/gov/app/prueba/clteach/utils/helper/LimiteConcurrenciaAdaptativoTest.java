@@ -0,0 +1,238 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import com.gov.app.prueba.clteach.dto.ApiClientDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionConcurrenciaDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionHttpDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionLimiteTasaDTO;
+import com.gov.app.prueba.clteach.dto.ConfiguracionResilienciaDTO;
+import com.gov.app.prueba.clteach.utils.exceptions.ErrorHttpException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de {@link LimiteConcurrenciaAdaptativo}. El ajuste del límite se prueba con un reloj manual, de
+ * modo que cada latencia es exacta; la devolución de los turnos desde {@link ApiClientDTO} se prueba contra
+ * un servidor HTTP local que responde de inmediato.
+ */
+class LimiteConcurrenciaAdaptativoTest {
+
+    private static final int LIMITE_INICIAL = 8;
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    private final AtomicLong reloj = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private volatile int codigo;
+
+    @AfterEach
+    void detenerServidor() {
+        if (servidor != null) {
+            servidor.stop(0);
+            hilosServidor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reduceAnteFallosYSeRecuperaCuandoLaApiResponde() throws Exception {
+        LimiteConcurrenciaAdaptativo limite = limite();
+        for (int i = 0; i < 3; i++) {
+            // Cada solicitud comienza después de la reducción anterior
+            avanzar(1);
+            limite.adquirir();
+            long inicio = reloj.get();
+            avanzar(1);
+            limite.liberarFallo(inicio);
+        }
+        assertEquals(4, limite.getLimite());
+
+        for (int ronda = 0; ronda < 10; ronda++) {
+            responderEnParalelo(limite, limite.getLimite(), 10);
+        }
+        assertTrue(limite.getLimite() > 4, "Límite tras recuperarse: " + limite.getLimite());
+    }
+
+    @Test
+    void seReduceUnaSolaVezPorVentana() throws Exception {
+        LimiteConcurrenciaAdaptativo limite = limite();
+        limite.adquirir();
+        limite.adquirir();
+        long inicio = reloj.get();
+        avanzar(1);
+
+        // Ambas solicitudes comenzaron antes de la reducción: la segunda señal ya refleja el límite anterior
+        limite.liberarFallo(inicio);
+        limite.liberarFallo(inicio);
+        assertEquals(6, limite.getLimite());
+    }
+
+    @Test
+    void reduceCuandoLaLatenciaSeInfla() throws Exception {
+        LimiteConcurrenciaAdaptativo limite = limite();
+        for (int i = 0; i < 12; i++) {
+            responderEn(limite, 100);
+        }
+        assertEquals(LIMITE_INICIAL, limite.getLimite());
+
+        // La media reciente supera el doble de la base al quinto envío lento
+        for (int i = 0; i < 4; i++) {
+            responderEn(limite, 400);
+        }
+        assertEquals(LIMITE_INICIAL, limite.getLimite());
+        responderEn(limite, 400);
+        assertEquals(6, limite.getLimite());
+    }
+
+    @Test
+    void laBaseSigueAUnaApiMasLentaDeFormaPermanente() throws Exception {
+        LimiteConcurrenciaAdaptativo limite = limite(ConfiguracionConcurrenciaDTO.builder()
+                .limiteInicial(LIMITE_INICIAL)
+                .ventanaMuestras(50)
+                .build());
+        for (int i = 0; i < 20; i++) {
+            responderEn(limite, 2);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            responderEn(limite, 10);
+        }
+        int estabilizado = limite.getLimite();
+        for (int i = 0; i < 20; i++) {
+            responderEn(limite, 10);
+        }
+
+        assertTrue(estabilizado > 1, "Límite tras la lentitud permanente: " + estabilizado);
+        assertTrue(limite.getLimite() >= estabilizado, "El límite siguió reduciéndose: " + limite.getLimite());
+    }
+
+    @Test
+    void losTurnosAsincronosSeAsignanAlLiberarseYLosCanceladosSeDevuelven() {
+        LimiteConcurrenciaAdaptativo limite = limite(ConfiguracionConcurrenciaDTO.builder()
+                .limiteInicial(1)
+                .limiteMaximo(1)
+                .build());
+        assertTrue(limite.adquirirAsync().isDone());
+        CompletableFuture<Void> segundo = limite.adquirirAsync();
+        CompletableFuture<Void> cancelado = limite.adquirirAsync();
+        assertFalse(segundo.isDone());
+
+        cancelado.cancel(false);
+        limite.liberar();
+        assertTrue(segundo.isDone());
+
+        // El turno asignado al futuro cancelado vuelve al límite
+        limite.liberar();
+        assertTrue(limite.adquirirAsync().isDone());
+    }
+
+    @Test
+    void lasRespuestas5xxReducenElLimiteYDevuelvenElTurno() throws IOException {
+        codigo = 503;
+        ApiClientDTO apiClient = apiClient(1);
+        String url = iniciarServidor();
+        long reducciones = MetricasHl7.getInstance().getReduccionesConcurrencia();
+
+        assertTimeoutPreemptively(ESPERA, () -> {
+            for (int i = 0; i < 3; i++) {
+                assertThrows(ErrorHttpException.class, () -> apiClient.sendPostRequest(url, "{}"));
+            }
+        });
+        assertTrue(MetricasHl7.getInstance().getReduccionesConcurrencia() - reducciones >= 3);
+    }
+
+    @Test
+    void losErroresNoTransitoriosDevuelvenElTurnoSinModificarElLimite() throws IOException {
+        codigo = 400;
+        ApiClientDTO apiClient = apiClient(1);
+        String url = iniciarServidor();
+        long reducciones = MetricasHl7.getInstance().getReduccionesConcurrencia();
+
+        // Con un único turno, un turno no devuelto detendría el segundo envío
+        assertTimeoutPreemptively(ESPERA, () -> {
+            for (int i = 0; i < 5; i++) {
+                assertThrows(ErrorHttpException.class, () -> apiClient.sendPostRequest(url, "{}"));
+            }
+        });
+        assertEquals(reducciones, MetricasHl7.getInstance().getReduccionesConcurrencia());
+    }
+
+    private LimiteConcurrenciaAdaptativo limite() {
+        return limite(ConfiguracionConcurrenciaDTO.builder().limiteInicial(LIMITE_INICIAL).build());
+    }
+
+    private LimiteConcurrenciaAdaptativo limite(ConfiguracionConcurrenciaDTO configuracion) {
+        return new LimiteConcurrenciaAdaptativo(configuracion, reloj::get);
+    }
+
+    private void avanzar(long milisegundos) {
+        reloj.addAndGet(TimeUnit.MILLISECONDS.toNanos(milisegundos));
+    }
+
+    private void responderEn(LimiteConcurrenciaAdaptativo limite, long latenciaMs) throws InterruptedException {
+        limite.adquirir();
+        long inicio = reloj.get();
+        avanzar(latenciaMs);
+        limite.liberarExito(inicio);
+    }
+
+    /**
+     * Toma varios turnos a la vez y los libera con la misma latencia, como un envío que usa todo el límite.
+     */
+    private void responderEnParalelo(LimiteConcurrenciaAdaptativo limite, int solicitudes, long latenciaMs)
+            throws InterruptedException {
+        for (int i = 0; i < solicitudes; i++) {
+            limite.adquirir();
+        }
+        long inicio = reloj.get();
+        avanzar(latenciaMs);
+        for (int i = 0; i < solicitudes; i++) {
+            limite.liberarExito(inicio);
+        }
+    }
+
+    private static ApiClientDTO apiClient(int limite) {
+        return new ApiClientDTO(ConfiguracionHttpDTO.builder()
+                .resiliencia(ConfiguracionResilienciaDTO.builder()
+                        .maxReintentos(0)
+                        .umbralFallosCircuito(Integer.MAX_VALUE)
+                        .build())
+                .limiteTasa(ConfiguracionLimiteTasaDTO.builder()
+                        .solicitudesPorSegundo(100_000)
+                        .rafagaSolicitudes(100_000)
+                        .build())
+                .concurrencia(ConfiguracionConcurrenciaDTO.builder()
+                        .limiteInicial(limite)
+                        .limiteMaximo(limite)
+                        .build())
+                .build());
+    }
+
+    private String iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/guardar", this::responder);
+        hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.start();
+        return "http://127.0.0.1:" + servidor.getAddress().getPort() + "/guardar";
+    }
+
+    private void responder(HttpExchange intercambio) throws IOException {
+        intercambio.getRequestBody().readAllBytes();
+        intercambio.sendResponseHeaders(codigo, -1);
+        intercambio.close();
+    }
+}
@@ -0,0 +1,71 @@
+package com.gov.app.prueba.clteach.utils.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+
+/**
+ * Pruebas de {@link TokenizadorHl7} sobre el corpus de secuencias de escape y delimitadores declarados en
+ * {@code hl7/corpus-escapes.tsv}.
+ */
+class TokenizadorHl7Test {
+
+    private final TokenizadorHl7 tokenizador = new TokenizadorHl7();
+
+    @ParameterizedTest(name = "{1} [{2}]")
+    @CsvFileSource(resources = "/hl7/corpus-escapes.tsv", delimiter = '\t', ignoreLeadingAndTrailingWhitespace = false)
+    void decodificaElCampoSegunLosDelimitadoresDelEncabezado(String encabezado, String segmento, int indice,
+            String esperado) {
+        tokenizador.tokenizar(encabezado);
+        tokenizador.tokenizar(segmento);
+
+        assertEquals(esperado, tokenizador.campo(indice));
+        assertTrue(tokenizador.campoIgual(indice, esperado));
+    }
+
+    @Test
+    void losComponentesSeCuentanHastaLaPrimeraRepeticion() {
+        tokenizador.tokenizar("MSH|^~\\&|LAB");
+        tokenizador.tokenizar("OBR|1|ORD1||A^B\\S\\C~D^E^F");
+
+        assertEquals(2, tokenizador.numeroComponentes(4));
+        assertEquals("A", tokenizador.componente(4, 1));
+        assertEquals("B^C", tokenizador.componente(4, 2));
+        assertEquals("", tokenizador.componente(4, 3));
+        assertTrue(tokenizador.componenteIgual(4, 2, "B^C"));
+    }
+
+    @Test
+    void usaLosComponentesDeDelimitadoresPropios() {
+        tokenizador.tokenizar("MSH#$*@%#LAB");
+        tokenizador.tokenizar("OBR#1#ORD1##GLU$Glucosa@T@suero*X");
+
+        assertEquals(2, tokenizador.numeroComponentes(4));
+        assertEquals("Glucosa%suero", tokenizador.componente(4, 2));
+        assertFalse(tokenizador.componenteIgual(4, 1, "GLU$Glucosa"));
+    }
+
+    @Test
+    void losDelimitadoresSeMantienenHastaElSiguienteEncabezado() {
+        tokenizador.tokenizar("MSH#$*@%#LAB");
+        tokenizador.tokenizar("PID#1##123");
+        assertEquals('#', tokenizador.getDelimitadores().getCampo());
+
+        tokenizador.tokenizar("MSH|^~\\&|LAB");
+        tokenizador.tokenizar("PID|1||123");
+        assertSame(DelimitadoresHl7.ESTANDAR, tokenizador.getDelimitadores());
+        assertEquals("123", tokenizador.campo(3));
+    }
+
+    @Test
+    void descartaLosCamposVaciosAlFinal() {
+        tokenizador.tokenizar("MSH|^~\\&|LAB");
+
+        assertEquals(4, tokenizador.tokenizar("PID|1||123|||"));
+        assertEquals("PID|1||123", tokenizador.unir());
+    }
+}